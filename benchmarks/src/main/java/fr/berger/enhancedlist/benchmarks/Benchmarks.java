@@ -0,0 +1,33 @@
+package fr.berger.enhancedlist.benchmarks;
+
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.CommandLineOptions;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Entry point of {@code benchmarks.jar}. It accepts the options of the JMH command line ({@code -h} to list them), and
+ * adds the GC profiler ({@code -prof gc}) when no profiler is given, so each score comes with its allocation rate
+ * ({@code gc.alloc.rate.norm}, in bytes per operation) and its number of collections.
+ * @author Valentin Berger
+ */
+public final class Benchmarks {
+	
+	private Benchmarks() {
+	}
+	
+	public static void main(String[] args) throws Exception {
+		CommandLineOptions cmd = new CommandLineOptions(args);
+		if (cmd.shouldHelp() || cmd.shouldList() || cmd.shouldListProfilers() || cmd.shouldListResultFormats() || cmd.shouldListWithParams()) {
+			org.openjdk.jmh.Main.main(args);
+			return;
+		}
+		
+		OptionsBuilder options = new OptionsBuilder();
+		options.parent(cmd);
+		if (cmd.getProfilers().isEmpty())
+			options.addProfiler(GCProfiler.class);
+		
+		new Runner(options.build()).run();
+	}
+}
@@ -0,0 +1,93 @@
+package fr.berger.enhancedlist.benchmarks;
+
+import fr.berger.enhancedlist.algorithm.ColorInterface;
+import fr.berger.enhancedlist.algorithm.DSATUR;
+import fr.berger.enhancedlist.algorithm.Greedy;
+import fr.berger.enhancedlist.algorithm.WelshPowell;
+import fr.berger.enhancedlist.graph.Color;
+import fr.berger.enhancedlist.graph.FrozenGraph;
+import fr.berger.enhancedlist.graph.Graph;
+import fr.berger.enhancedlist.graph.Vertex;
+import org.jetbrains.annotations.NotNull;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.LinkedHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks of every {@link ColorInterface} on the graphs of the coloring project ({@code res/queen*.txt} and
+ * {@code res/crown10.txt}). It replaces the {@code System.currentTimeMillis()} measures of
+ * {@code ColoringProject.testAlgorithm}.
+ * <p>
+ * Only {@link ColorInterface#mapVertices(Graph)} and its {@link FrozenGraph} overload are measured, so the graph is
+ * not modified between the invocations; {@link Graph#color(ColorInterface)} only copies the result in the vertices.
+ * </p>
+ * @author Valentin Berger
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Thread)
+public class ColoringBenchmark {
+	
+	@Param({"WelshPowellAscending", "WelshPowellDescending", "WelshPowellRandom", "DSATUR", "GreedyAscending", "GreedyDescending", "GreedyRandom"})
+	String algorithm;
+	
+	@Param({"queen5_5.txt", "queen7_7.txt", "queen9_9.txt", "queen11_11.txt", "queen13_13.txt", "queen15_15.txt", "crown10.txt"})
+	String file;
+	
+	private ColorInterface ci;
+	private Graph<Object, Object> graph;
+	private FrozenGraph<Object, Object> frozen;
+	
+	@Setup
+	public void setup() {
+		ci = algorithm(algorithm);
+		graph = GraphFiles.read(file);
+		frozen = graph.freeze();
+	}
+	
+	@Benchmark
+	public LinkedHashMap<Vertex<Object>, Color> mapVertices() {
+		return ci.mapVertices(graph);
+	}
+	
+	@Benchmark
+	public long[] mapFrozenVertices() {
+		return ci.mapVertices(frozen);
+	}
+	
+	@NotNull
+	static ColorInterface algorithm(@NotNull String name) {
+		switch (name) {
+			case "WelshPowellAscending":
+				return new WelshPowell.WelshPowellAscending();
+			case "WelshPowellDescending":
+				return new WelshPowell.WelshPowellDescending();
+			case "WelshPowellRandom":
+				return new WelshPowell.WelshPowellRandom();
+			case "DSATUR":
+				return new DSATUR();
+			case "GreedyAscending":
+				return new Greedy.GreedyAscending();
+			case "GreedyDescending":
+				return new Greedy.GreedyDescending();
+			case "GreedyRandom":
+				return new Greedy.GreedyRandom();
+			default:
+				throw new IllegalArgumentException("Unknown coloring algorithm: " + name);
+		}
+	}
+}
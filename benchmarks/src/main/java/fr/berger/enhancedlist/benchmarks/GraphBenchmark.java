@@ -0,0 +1,149 @@
+package fr.berger.enhancedlist.benchmarks;
+
+import fr.berger.enhancedlist.Couple;
+import fr.berger.enhancedlist.algorithm.Dijkstra;
+import fr.berger.enhancedlist.graph.Edge;
+import fr.berger.enhancedlist.graph.FrozenGraph;
+import fr.berger.enhancedlist.graph.Graph;
+import fr.berger.enhancedlist.graph.Vertex;
+import fr.berger.enhancedlist.lexicon.Lexicon;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.LinkedHashMap;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks of the neighbor queries, the searches and the traversals of {@link Graph}, on random graphs of {@code n}
+ * vertices with an average degree of {@code degree}. The {@code frozen*} benchmarks run the same traversals on the
+ * {@link FrozenGraph} of the graph.
+ * @author Valentin Berger
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(2)
+@State(Scope.Thread)
+public class GraphBenchmark {
+	
+	@Param({"100", "1000"})
+	int n;
+	
+	@Param({"4", "16"})
+	int degree;
+	
+	@Param({"false", "true"})
+	boolean oriented;
+	
+	private Graph<Object, Object> graph;
+	private FrozenGraph<Object, Object> frozen;
+	private Vertex<Object>[] vertices;
+	private Edge<Object>[] edges;
+	private int cursor;
+	
+	@Setup
+	@SuppressWarnings("unchecked")
+	public void setup() {
+		graph = GraphFiles.random(n, degree, oriented, 42);
+		frozen = graph.freeze();
+		
+		// The vertices and edges to query, in a random order
+		Random random = new Random(7);
+		vertices = (Vertex<Object>[]) new Vertex[256];
+		edges = (Edge<Object>[]) new Edge[256];
+		for (int i = 0; i < vertices.length; i++) {
+			vertices[i] = graph.getVertices().get(random.nextInt(graph.getN()));
+			edges[i] = graph.getEdges().get(random.nextInt(graph.getM()));
+		}
+	}
+	
+	private int next() {
+		return cursor++ & (vertices.length - 1);
+	}
+	
+	@Benchmark
+	public Lexicon<Vertex<Object>> getSuccessors() {
+		return graph.getSuccessors(vertices[next()]);
+	}
+	
+	@Benchmark
+	public Lexicon<Vertex<Object>> getPredecessors() {
+		return graph.getPredecessors(vertices[next()]);
+	}
+	
+	@Benchmark
+	public Lexicon<Vertex<Object>> getNeighbors() {
+		return graph.getNeighbors(vertices[next()]);
+	}
+	
+	@Benchmark
+	public int getDegree() {
+		return graph.getDegree(vertices[next()]);
+	}
+	
+	@Benchmark
+	public boolean areAdjacent() {
+		int i = next();
+		return graph.areAdjacent(vertices[i], vertices[(i + 1) & (vertices.length - 1)]);
+	}
+	
+	@Benchmark
+	public Edge<Object> searchEdge() {
+		Edge<Object> edge = edges[next()];
+		return graph.searchEdge(edge.getX(), edge.getY());
+	}
+	
+	@Benchmark
+	public Vertex<Object> searchVertexFromId() {
+		return graph.searchVertexFromId(vertices[next()].getId());
+	}
+	
+	@Benchmark
+	public LinkedHashMap<Vertex<Object>, Integer> breadthFirstSearch() {
+		return graph.breadthFirstSearch(vertices[next()]);
+	}
+	
+	@Benchmark
+	public LinkedHashMap<Vertex<Object>, Integer> depthFirstSearch() {
+		return graph.depthFirstSearch(vertices[next()]);
+	}
+	
+	@Benchmark
+	public LinkedHashMap<Vertex<Object>, Long> mapDistanceFrom() {
+		return graph.mapDistanceFrom(vertices[next()]);
+	}
+	
+	@Benchmark
+	public int[] frozenBreadthFirstSearch() {
+		return frozen.breadthFirstSearch(frozen.indexOf(vertices[next()]));
+	}
+	
+	@Benchmark
+	public int[] frozenDepthFirstSearch() {
+		return frozen.depthFirstSearch(frozen.indexOf(vertices[next()]));
+	}
+	
+	@Benchmark
+	public Couple<long[], int[]> frozenDijkstra() {
+		return Dijkstra.map(frozen, frozen.indexOf(vertices[next()]));
+	}
+	
+	/**
+	 * Measure {@link Graph#freeze()} itself.
+	 */
+	@Benchmark
+	public FrozenGraph<Object, Object> freeze() {
+		return graph.freeze();
+	}
+}
@@ -0,0 +1,118 @@
+package fr.berger.enhancedlist.benchmarks;
+
+import fr.berger.enhancedlist.graph.Edge;
+import fr.berger.enhancedlist.graph.Graph;
+import fr.berger.enhancedlist.graph.Vertex;
+import fr.berger.enhancedlist.graph.builder.VertexBuilder;
+import org.jetbrains.annotations.NotNull;
+
+import java.io.BufferedReader;
+import java.io.FileNotFoundException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+import java.util.Random;
+
+/**
+ * Build the graphs of the benchmarks: the ones of the {@code res} directory, in the format read by {@code GraphIO} in
+ * the tests, and random ones.
+ * @author Valentin Berger
+ */
+final class GraphFiles {
+	
+	private GraphFiles() {
+	}
+	
+	/**
+	 * Read a graph of the {@code res} directory, which is in the classpath of the benchmarks.
+	 * @param name The name of the file, such as {@code "queen5_5.txt"}.
+	 * @return The graph.
+	 */
+	@NotNull
+	static Graph<Object, Object> read(@NotNull String name) {
+		InputStream input = GraphFiles.class.getResourceAsStream("/" + name);
+		if (input == null)
+			throw new UncheckedIOException(new FileNotFoundException(name));
+		
+		Graph<Object, Object> graph = new Graph<>();
+		HashMap<String, Vertex<Object>> vertices = new HashMap<>();
+		
+		try (BufferedReader reader = new BufferedReader(new InputStreamReader(input, StandardCharsets.UTF_8))) {
+			boolean parseVertices = false, parseEdges = false;
+			String line;
+			while ((line = reader.readLine()) != null) {
+				if (line.equals("--- Liste des sommets")) {
+					parseVertices = true;
+					parseEdges = false;
+				}
+				else if (line.equals("--- Liste des aretes")) {
+					parseVertices = false;
+					parseEdges = true;
+				}
+				else if (line.startsWith("Oriente(non/oui):"))
+					graph.setOriented(line.contains("oui"));
+				else {
+					String[] info = line.split(" ");
+					if (info.length != 2)
+						continue;
+					
+					if (parseVertices)
+						vertex(graph, vertices, info[0]).setData(info[1]);
+					else if (parseEdges)
+						graph.getEdges().add(new Edge<>(vertex(graph, vertices, info[0]), vertex(graph, vertices, info[1])));
+				}
+			}
+		} catch (IOException ex) {
+			throw new UncheckedIOException(ex);
+		}
+		
+		return graph;
+	}
+	
+	/**
+	 * Build a random graph.
+	 * @param n The number of vertices.
+	 * @param degree The average degree of the vertices.
+	 * @param oriented If {@code true}, the graph is oriented.
+	 * @param seed The seed of the random generator, so the graph is the same in each fork.
+	 * @return The graph.
+	 */
+	@NotNull
+	static Graph<Object, Object> random(int n, int degree, boolean oriented, long seed) {
+		Random random = new Random(seed);
+		Graph<Object, Object> graph = new Graph<>(oriented);
+		
+		Vertex<Object>[] vertices = newVertexArray(n);
+		for (int i = 0; i < n; i++) {
+			vertices[i] = new VertexBuilder<>().setLabel(i).createVertex();
+			graph.getVertices().add(vertices[i]);
+		}
+		
+		// A path through all the vertices, so the traversals reach all of them
+		for (int i = 1; i < n; i++)
+			graph.getEdges().add(new Edge<>(vertices[i - 1], vertices[i]));
+		
+		for (long i = n - 1, m = (long) n * degree / 2; i < m; i++)
+			graph.getEdges().add(new Edge<>(vertices[random.nextInt(n)], vertices[random.nextInt(n)]));
+		
+		return graph;
+	}
+	
+	@NotNull
+	private static Vertex<Object> vertex(@NotNull Graph<Object, Object> graph, @NotNull HashMap<String, Vertex<Object>> vertices, @NotNull String label) {
+		return vertices.computeIfAbsent(label, l -> {
+			Vertex<Object> vertex = new VertexBuilder<>().setLabel(l).createVertex();
+			graph.getVertices().add(vertex);
+			return vertex;
+		});
+	}
+	
+	@SuppressWarnings("unchecked")
+	@NotNull
+	private static Vertex<Object>[] newVertexArray(int n) {
+		return (Vertex<Object>[]) new Vertex[n];
+	}
+}
@@ -0,0 +1,162 @@
+package fr.berger.enhancedlist.benchmarks;
+
+import fr.berger.enhancedlist.lexicon.Lexicon;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks of the basic operations of {@link Lexicon}, on a lexicon of {@code size} distinct integers which refuses
+ * the duplicates, with and without the hash index (which is only used when the duplicates are refused).
+ * @author Valentin Berger
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(2)
+@State(Scope.Thread)
+public class LexiconBenchmark {
+	
+	@Param({"100", "10000", "1000000"})
+	int size;
+	
+	@Param({"false", "true"})
+	boolean hashIndexed;
+	
+	private Lexicon<Integer> lexicon;
+	private ArrayList<Integer> shuffled;
+	/** Indexes and values to look for, in a random order so the branch predictor cannot learn them */
+	private int[] keys;
+	private int cursor;
+	
+	@Setup
+	public void setup() {
+		shuffled = new ArrayList<>(size);
+		for (int i = 0; i < size; i++)
+			shuffled.add(i);
+		Collections.shuffle(shuffled, new Random(42));
+		
+		lexicon = new Lexicon<>(Integer.class, size);
+		lexicon.addAll(shuffled);
+		// The duplicates are refused after the elements are added: addAll() would call contains() for each element,
+		// while setAcceptDuplicates() looks for them in a single pass
+		lexicon.setAcceptDuplicates(false);
+		lexicon.setHashIndexed(hashIndexed);
+		
+		Random random = new Random(7);
+		keys = new int[1024];
+		for (int i = 0; i < keys.length; i++)
+			keys[i] = random.nextInt(size);
+	}
+	
+	private int nextKey() {
+		return keys[cursor++ & (keys.length - 1)];
+	}
+	
+	/**
+	 * Add an element which is not in the lexicon, so the rule against the duplicates has to look for it, and remove it
+	 * from the end, so the size does not change between the invocations. Adding {@code size} elements to an empty
+	 * lexicon would be quadratic without the hash index.
+	 */
+	@Benchmark
+	public Integer add() {
+		lexicon.add(size);
+		return lexicon.remove(size);
+	}
+	
+	@Benchmark
+	public Integer get() {
+		return lexicon.get(nextKey());
+	}
+	
+	/**
+	 * Read all the elements with {@code get()}, without any listener. {@link #sumArrayList()} is the same loop on an
+	 * {@link ArrayList}, as a baseline.
+	 */
+	@Benchmark
+	@OutputTimeUnit(TimeUnit.MICROSECONDS)
+	public long sum() {
+		long sum = 0;
+		for (int i = 0, n = lexicon.size(); i < n; i++)
+			sum += lexicon.get(i);
+		
+		return sum;
+	}
+	
+	@Benchmark
+	@OutputTimeUnit(TimeUnit.MICROSECONDS)
+	public long sumArrayList() {
+		long sum = 0;
+		for (int i = 0, n = shuffled.size(); i < n; i++)
+			sum += shuffled.get(i);
+		
+		return sum;
+	}
+	
+	@Benchmark
+	public boolean contains() {
+		return lexicon.contains(nextKey());
+	}
+	
+	/**
+	 * Remove an element at a random index and add it back at the end, so the size does not change between the
+	 * invocations.
+	 */
+	@Benchmark
+	public boolean removeIndex() {
+		return lexicon.add(lexicon.remove(nextKey()));
+	}
+	
+	/**
+	 * Remove an element by value (searching it first) and add it back at the end.
+	 */
+	@Benchmark
+	public boolean removeObject() {
+		Integer value = nextKey();
+		return lexicon.remove(value) && lexicon.add(value);
+	}
+	
+	/**
+	 * Copy the shuffled elements and sort them. {@link #copy()} is the part of the score which is not the sort.
+	 */
+	@Benchmark
+	@OutputTimeUnit(TimeUnit.MICROSECONDS)
+	public Lexicon<Integer> sort() {
+		Lexicon<Integer> result = copy();
+		result.sort(Comparator.naturalOrder());
+		return result;
+	}
+	
+	@Benchmark
+	@OutputTimeUnit(TimeUnit.MICROSECONDS)
+	public Lexicon<Integer> sortByInt() {
+		Lexicon<Integer> result = copy();
+		result.sortByInt(Integer::intValue);
+		return result;
+	}
+	
+	@Benchmark
+	@OutputTimeUnit(TimeUnit.MICROSECONDS)
+	public Lexicon<Integer> copy() {
+		Lexicon<Integer> result = new Lexicon<>(Integer.class, size);
+		result.addAll(shuffled);
+		result.setAcceptDuplicates(false);
+		result.setHashIndexed(hashIndexed);
+		return result;
+	}
+}
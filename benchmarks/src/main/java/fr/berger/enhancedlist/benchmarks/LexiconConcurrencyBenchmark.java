@@ -0,0 +1,110 @@
+package fr.berger.enhancedlist.benchmarks;
+
+import fr.berger.enhancedlist.lexicon.ConcurrencyMode;
+import fr.berger.enhancedlist.lexicon.Lexicon;
+import fr.berger.enhancedlist.lexicon.LexiconBuilder;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Group;
+import org.openjdk.jmh.annotations.GroupThreads;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks of the {@link ConcurrencyMode} of {@link Lexicon}, with readers ({@code get()}) and writers
+ * ({@code set()}) sharing a lexicon of {@code size} integers. The "readHeavy" group runs 3 readers for 1 writer and the
+ * "balanced" group 2 readers for 2 writers. Between two writes, a writer burns {@code writePause} tokens of CPU
+ * ({@link Blackhole#consumeCPU(long)}), which lowers the proportion of writes without changing the number of threads.
+ * The writes replace an element by itself, so the size does not change.
+ * @author Valentin Berger
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(2)
+@State(Scope.Group)
+public class LexiconConcurrencyBenchmark {
+	
+	@Param({"MONITOR", "READ_WRITE", "OPTIMISTIC"})
+	ConcurrencyMode mode;
+	
+	@Param({"0", "1000"})
+	long writePause;
+	
+	@Param({"1000"})
+	int size;
+	
+	private Lexicon<Integer> lexicon;
+	
+	@Setup
+	public void setup() {
+		lexicon = new LexiconBuilder<>(Integer.class)
+				.setConcurrencyMode(mode)
+				.createLexicon();
+		for (int i = 0; i < size; i++)
+			lexicon.add(i);
+	}
+	
+	/**
+	 * The position of each thread in the lexicon, so the threads do not all hit the same element.
+	 */
+	@State(Scope.Thread)
+	public static class Cursor {
+		
+		private int index = (int) (Thread.currentThread().getId() * 31);
+		
+		private int next(int size) {
+			index = (index + 1) % size;
+			return index;
+		}
+	}
+	
+	private Integer read(Cursor cursor) {
+		return lexicon.get(cursor.next(size));
+	}
+	
+	private Integer write(Cursor cursor) {
+		Blackhole.consumeCPU(writePause);
+		int index = cursor.next(size);
+		return lexicon.set(index, index);
+	}
+	
+	@Benchmark
+	@Group("readHeavy")
+	@GroupThreads(3)
+	public Integer readHeavy_get(Cursor cursor) {
+		return read(cursor);
+	}
+	
+	@Benchmark
+	@Group("readHeavy")
+	@GroupThreads(1)
+	public Integer readHeavy_set(Cursor cursor) {
+		return write(cursor);
+	}
+	
+	@Benchmark
+	@Group("balanced")
+	@GroupThreads(2)
+	public Integer balanced_get(Cursor cursor) {
+		return read(cursor);
+	}
+	
+	@Benchmark
+	@Group("balanced")
+	@GroupThreads(2)
+	public Integer balanced_set(Cursor cursor) {
+		return write(cursor);
+	}
+}
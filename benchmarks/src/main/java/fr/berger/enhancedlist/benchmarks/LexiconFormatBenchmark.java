@@ -0,0 +1,77 @@
+package fr.berger.enhancedlist.benchmarks;
+
+import fr.berger.enhancedlist.lexicon.Lexicon;
+import fr.berger.enhancedlist.lexicon.io.LexiconCodec;
+import fr.berger.enhancedlist.lexicon.io.LexiconFormat;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks of the serialization of a {@link Lexicon} of {@code size} integers: a write and a read with the Java
+ * serialization and with {@link LexiconFormat}, and the first element given by the streaming reader, which does not
+ * decode the others.
+ * @author Valentin Berger
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(2)
+@State(Scope.Thread)
+public class LexiconFormatBenchmark {
+	
+	@Param({"100000"})
+	int size;
+	
+	private Lexicon<Integer> lexicon;
+	private LexiconFormat<Integer> format;
+	private byte[] compact;
+	
+	@Setup
+	public void setup() {
+		lexicon = new Lexicon<>(Integer.class, size);
+		for (int i = 0; i < size; i++)
+			lexicon.add(i);
+		
+		format = LexiconFormat.of(LexiconCodec.integers());
+		compact = format.toBytes(lexicon);
+	}
+	
+	@Benchmark
+	public Object javaSerialization() throws IOException, ClassNotFoundException {
+		ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+		try (ObjectOutputStream output = new ObjectOutputStream(bytes)) {
+			output.writeObject(lexicon);
+		}
+		try (ObjectInputStream input = new ObjectInputStream(new ByteArrayInputStream(bytes.toByteArray()))) {
+			return input.readObject();
+		}
+	}
+	
+	@Benchmark
+	public Lexicon<Integer> lexiconFormat() throws IOException {
+		return format.fromBytes(format.toBytes(lexicon));
+	}
+	
+	@Benchmark
+	@OutputTimeUnit(TimeUnit.NANOSECONDS)
+	public Integer firstElement() throws IOException {
+		return format.reader(new ByteArrayInputStream(compact)).next();
+	}
+}
@@ -0,0 +1,91 @@
+package fr.berger.enhancedlist.benchmarks;
+
+import fr.berger.enhancedlist.lexicon.Lexicon;
+import fr.berger.enhancedlist.lexicon.LexiconBuilder;
+import fr.berger.enhancedlist.lexicon.StorageMode;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks of the {@link StorageMode} of {@link Lexicon}: {@code count} insertions in an empty lexicon at the end
+ * ("append"), at the beginning ("front") or at random ("random"), or after the previous insertion starting from the
+ * middle of a lexicon of {@code count} elements ("cursor"), which is the case the gap buffer is made for.
+ * @author Valentin Berger
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(2)
+@State(Scope.Thread)
+public class LexiconStorageBenchmark {
+	
+	@Param({"FLAT", "GAP_BUFFER"})
+	StorageMode mode;
+	
+	@Param({"append", "cursor", "front", "random"})
+	String pattern;
+	
+	@Param({"50000"})
+	int count;
+	
+	private Lexicon<Integer> lexicon;
+	private Random random;
+	
+	/**
+	 * Each invocation fills its own lexicon, so the lexicon is rebuilt before each of them.
+	 */
+	@Setup(Level.Invocation)
+	public void setup() {
+		lexicon = new LexiconBuilder<>(Integer.class)
+				.setStorageMode(mode)
+				.createLexicon();
+		if (pattern.equals("cursor"))
+			for (int i = 0; i < count; i++)
+				lexicon.add(i);
+		
+		random = new Random(count);
+	}
+	
+	@Benchmark
+	public Lexicon<Integer> insert() {
+		int cursor = lexicon.size() / 2;
+		
+		for (int i = 0; i < count; i++) {
+			switch (pattern) {
+				case "append":
+					lexicon.add(i);
+					break;
+				case "cursor":
+					lexicon.insert(cursor++, i);
+					break;
+				case "front":
+					if (lexicon.isEmpty())
+						lexicon.add(i);
+					else
+						lexicon.insert(0, i);
+					break;
+				default:
+					if (lexicon.isEmpty())
+						lexicon.add(i);
+					else
+						lexicon.insert(random.nextInt(lexicon.size()), i);
+			}
+		}
+		
+		return lexicon;
+	}
+}
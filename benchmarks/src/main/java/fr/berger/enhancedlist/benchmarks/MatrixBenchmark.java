@@ -0,0 +1,77 @@
+package fr.berger.enhancedlist.benchmarks;
+
+import fr.berger.enhancedlist.matrix.Matrix;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks of {@link Matrix#get(int, int)} and {@link Matrix#set(int, int, Object)} on a square matrix.
+ * @author Valentin Berger
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(2)
+@State(Scope.Thread)
+public class MatrixBenchmark {
+	
+	@Param({"10", "100", "1000"})
+	int size;
+	
+	private Matrix<Integer> matrix;
+	private int[] xs;
+	private int[] ys;
+	private int cursor;
+	
+	@Setup
+	public void setup() {
+		matrix = new Matrix<>(size, size, 0);
+		
+		Random random = new Random(42);
+		xs = new int[1024];
+		ys = new int[1024];
+		for (int i = 0; i < xs.length; i++) {
+			xs[i] = random.nextInt(size);
+			ys[i] = random.nextInt(size);
+		}
+	}
+	
+	@Benchmark
+	public Integer get() {
+		int i = cursor++ & (xs.length - 1);
+		return matrix.get(xs[i], ys[i]);
+	}
+	
+	@Benchmark
+	public boolean set() {
+		int i = cursor++ & (xs.length - 1);
+		return matrix.set(xs[i], ys[i], i);
+	}
+	
+	/**
+	 * Read all the cells, row by row.
+	 */
+	@Benchmark
+	@OutputTimeUnit(TimeUnit.MICROSECONDS)
+	public long scan() {
+		long sum = 0;
+		for (int y = 0; y < size; y++)
+			for (int x = 0; x < size; x++)
+				sum += matrix.get(x, y);
+		
+		return sum;
+	}
+}
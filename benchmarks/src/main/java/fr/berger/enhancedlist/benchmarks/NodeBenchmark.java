@@ -0,0 +1,90 @@
+package fr.berger.enhancedlist.benchmarks;
+
+import fr.berger.enhancedlist.tree.Node;
+import fr.berger.enhancedlist.tree.Tree;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.ArrayList;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks of the traversals of {@link Node}, on a complete tree of the given depth where every node has
+ * {@code arity} children.
+ * @author Valentin Berger
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(2)
+@State(Scope.Thread)
+public class NodeBenchmark {
+	
+	@Param({"2", "4", "8"})
+	int arity;
+	
+	@Param({"6"})
+	int depth;
+	
+	private Tree<Integer> tree;
+	
+	@Setup
+	public void setup() {
+		tree = new Tree<>(0);
+		fill(tree, 1);
+	}
+	
+	private int fill(Node<Integer> node, int depthOfNode) {
+		int count = 1;
+		if (depthOfNode < depth) {
+			for (int i = 0; i < arity; i++) {
+				Node<Integer> child = new Node<>(count);
+				node.addChild(child);
+				count += fill(child, depthOfNode + 1);
+			}
+		}
+		
+		return count;
+	}
+	
+	@Benchmark
+	public int computeHeight() {
+		return tree.computeHeight();
+	}
+	
+	@Benchmark
+	public int computeNumberOfNodes() {
+		return tree.computeNumberOfNodes();
+	}
+	
+	@Benchmark
+	public ArrayList<Node<?>> getAllNodesAtDepth() {
+		return tree.getAllNodesAtDepth(depth);
+	}
+	
+	/**
+	 * Sum the data of all the nodes through their iterators.
+	 */
+	@Benchmark
+	public long iterate() {
+		return sum(tree);
+	}
+	
+	private static long sum(Node<Integer> node) {
+		long sum = node.getData() != null ? node.getData() : 0;
+		for (Node<Integer> child : node)
+			sum += sum(child);
+		
+		return sum;
+	}
+}
@@ -0,0 +1,52 @@
+package fr.berger.enhancedlist.benchmarks;
+
+import fr.berger.enhancedlist.lexicon.Lexicon;
+import fr.berger.enhancedlist.lexicon.primitive.LongLexicon;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks of {@code size} additions in an empty {@link LongLexicon}, compared to a {@link Lexicon} of boxed longs.
+ * The primitive lexicon only allocates its array when it grows: its {@code gc.alloc.rate.norm} does not include a
+ * {@link Long} per element.
+ * @author Valentin Berger
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(2)
+@State(Scope.Thread)
+public class PrimitiveLexiconBenchmark {
+	
+	@Param({"1000000", "10000000"})
+	int size;
+	
+	@Benchmark
+	public LongLexicon addPrimitive() {
+		LongLexicon lexicon = new LongLexicon();
+		for (long i = 0; i < size; i++)
+			lexicon.add(i);
+		
+		return lexicon;
+	}
+	
+	@Benchmark
+	public Lexicon<Long> addBoxed() {
+		Lexicon<Long> lexicon = new Lexicon<>(Long.class);
+		for (long i = 0; i < size; i++)
+			lexicon.add(i);
+		
+		return lexicon;
+	}
+}
@@ -2,6 +2,7 @@ package fr.berger.enhancedlist.algorithm;
 
 import fr.berger.enhancedlist.graph.Color;
 import fr.berger.enhancedlist.graph.Edge;
+import fr.berger.enhancedlist.graph.FrozenGraph;
 import fr.berger.enhancedlist.graph.Graph;
 import fr.berger.enhancedlist.graph.Vertex;
 import org.jetbrains.annotations.NotNull;
@@ -34,4 +35,12 @@ public interface ColorInterface {
 	default <V, E> LinkedHashMap<Edge<E>, Color> mapEdges(@NotNull Graph<V, E> graph) {
 		throw new NotImplementedException();
 	}
+	
+	/**
+	 * Map all vertices of the frozen graph {@code graph}.
+	 * @param graph The graph to map
+	 * @return Return the number of the color of each vertex, indexed by the int ids of the vertices of {@code graph}.
+	 * @see FrozenGraph
+	 */
+	long[] mapVertices(@NotNull FrozenGraph<?, ?> graph);
 }
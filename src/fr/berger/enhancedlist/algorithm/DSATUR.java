@@ -1,15 +1,17 @@
 package fr.berger.enhancedlist.algorithm;
 
 import fr.berger.enhancedlist.graph.Color;
+import fr.berger.enhancedlist.graph.FrozenGraph;
 import fr.berger.enhancedlist.graph.Graph;
 import fr.berger.enhancedlist.graph.Vertex;
 import fr.berger.enhancedlist.lexicon.Lexicon;
 import fr.berger.enhancedlist.lexicon.LexiconBuilder;
+import fr.berger.enhancedlist.lexicon.SortedLexicon;
 import org.jetbrains.annotations.NotNull;
 import sun.awt.image.ImageWatched;
 import sun.reflect.generics.reflectiveObjects.NotImplementedException;
 
-import java.util.Comparator;
+import java.util.BitSet;
 import java.util.LinkedHashMap;
 import java.util.Objects;
 
@@ -65,10 +67,9 @@ public class DSATUR implements ColorInterface {
 			// Now, x is the best DSAT vertex, or one of the best with the greatest degree in the graph
 			// Color x with the smallest color according to its neighbors
 			
-			Lexicon<Color> neighborsColor = new LexiconBuilder<>(Color.class)
-					.setAcceptDuplicates(false)
-					.setAcceptNullValues(false)
-					.createLexicon();
+			// Kept sorted, so that searching a color is a binary search
+			SortedLexicon<Color> neighborsColor = new SortedLexicon<>(Color.class);
+			neighborsColor.setAcceptDuplicates(false);
 			
 			Lexicon<Vertex<V>> neighbors = new LexiconBuilder<Vertex<V>>()
 					.setAcceptDuplicates(false)
@@ -82,14 +83,6 @@ public class DSATUR implements ColorInterface {
 					neighborsColor.add(colors.get(neighbor));
 			}
 			
-			// Sort neighborsColor
-			neighborsColor.sort(new Comparator<Color>() {
-				@Override
-				public int compare(Color o1, Color o2) {
-					return o1.compareTo(o2);
-				}
-			});
-			
 			// Search for the smallest available color
 			long smallestColor = 0;
 			for (long i = 1; i <= k && smallestColor == 0; i++)
@@ -110,6 +103,64 @@ public class DSATUR implements ColorInterface {
 		return colors;
 	}
 	
+	/**
+	 * Map all vertices of the frozen graph {@code graph}, choosing the vertices in the same order as
+	 * {@link #mapVertices(Graph)}. The colors of the neighbors of each vertex are kept in a bit set, so the saturated
+	 * degrees are updated when a vertex is colored instead of being computed again.
+	 *
+	 * @param graph The graph to map
+	 * @return Return the number of the color of each vertex, indexed by the int ids of the vertices of {@code graph}.
+	 */
+	@Override
+	public long[] mapVertices(@NotNull FrozenGraph<?, ?> graph) {
+		int n = graph.getN();
+		long[] colors = new long[n];
+		int[] L = graph.sortVerticesByDegree(true);
+		// The colors of the colored neighbors of each vertex, and their number (the saturated degree)
+		BitSet[] neighborsColor = new BitSet[n];
+		int[] saturation = new int[n];
+		
+		for (int size = L.length; size > 0; size--) {
+			// Choose the first vertex in L where the saturation degree is max. If equality, the one with degree is max
+			int best = 0;
+			for (int i = 1; i < size; i++) {
+				int x = L[best];
+				int vi = L[i];
+				
+				if (saturation[x] < saturation[vi] || (saturation[x] == saturation[vi] && graph.getDegree(x) < graph.getDegree(vi)))
+					best = i;
+			}
+			
+			int x = L[best];
+			System.arraycopy(L, best + 1, L, best, size - best - 1);
+			
+			// Color x with the smallest color according to its neighbors
+			int color = neighborsColor[x] != null ? neighborsColor[x].nextClearBit(1) : 1;
+			colors[x] = color;
+			
+			// Update the saturated degree of the neighbors which are not colored yet
+			for (int slot = graph.getOffset(x), end = graph.getOffset(x + 1); slot < end; slot++)
+				saturate(graph.getTarget(slot), color, colors, neighborsColor, saturation);
+			for (int slot = graph.getInOffset(x), end = graph.getInOffset(x + 1); slot < end; slot++)
+				saturate(graph.getInSource(slot), color, colors, neighborsColor, saturation);
+		}
+		
+		return colors;
+	}
+	
+	private static void saturate(int y, int color, @NotNull long[] colors, @NotNull BitSet[] neighborsColor, @NotNull int[] saturation) {
+		if (colors[y] != 0)
+			return;
+		
+		if (neighborsColor[y] == null)
+			neighborsColor[y] = new BitSet();
+		
+		if (!neighborsColor[y].get(color)) {
+			neighborsColor[y].set(color);
+			saturation[y]++;
+		}
+	}
+	
 	@Override
 	public boolean equals(Object obj) {
 		return toString().equals(Objects.toString(obj));
@@ -2,12 +2,14 @@ package fr.berger.enhancedlist.algorithm;
 
 import fr.berger.enhancedlist.Couple;
 import fr.berger.enhancedlist.exceptions.InfiniteLoopException;
+import fr.berger.enhancedlist.graph.FrozenGraph;
 import fr.berger.enhancedlist.graph.Graph;
 import fr.berger.enhancedlist.graph.Vertex;
 import fr.berger.enhancedlist.lexicon.Lexicon;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
 
+import java.util.Arrays;
 import java.util.LinkedHashMap;
 import java.util.Objects;
 
@@ -37,7 +39,7 @@ public class Dijkstra {
 		if (graph == null || source == null)
 			throw new NullPointerException();
 		
-		if (!graph.getVertices().contains(source))
+		if (!graph.containsVertex(source))
 			throw new IllegalArgumentException();
 		
 		long limit = (long) (graph.getM() + Math.pow(graph.getN(), 2) + 100);
@@ -106,6 +108,66 @@ public class Dijkstra {
 		return map(graph, source, true);
 	}
 	
+	/**
+	 * Map all the frozen graph using the Dijkstra's algorithm by starting from {@code source}. As in
+	 * {@link #map(Graph, Vertex, boolean)}, all the edges weigh 1: the vertices are then taken out of the priority queue
+	 * in the order they enter it, and the queue is a plain array of int ids.
+	 * @param graph The frozen graph.
+	 * @param source The int id of the source in the graph.
+	 * @param regardingOrientation If false, or if the graph is not oriented, the algorithm may go backward.
+	 * @return Return a couple where the x part is the distance of each vertex from {@code source} (or
+	 * {@code Long.MAX_VALUE} if it is not reachable), and the y part is the previous vertex of each vertex on the path
+	 * from {@code source} (or -1 for {@code source} and the vertices that are not reachable).
+	 * @see FrozenGraph
+	 */
+	@SuppressWarnings("ConstantConditions")
+	@NotNull
+	public static Couple<long[], int[]> map(@NotNull FrozenGraph<?, ?> graph, int source, boolean regardingOrientation) {
+		if (graph == null)
+			throw new NullPointerException();
+		
+		if (source < 0 || source >= graph.getN())
+			throw new IllegalArgumentException();
+		
+		boolean canGoBackward = !regardingOrientation || !graph.isOriented();
+		long[] dist = new long[graph.getN()];
+		int[] prev = new int[graph.getN()];
+		int[] Q = new int[graph.getN()];
+		int head = 0, tail = 0;
+		
+		Arrays.fill(dist, Long.MAX_VALUE);
+		Arrays.fill(prev, -1);
+		dist[source] = 0;
+		Q[tail++] = source;
+		
+		while (head < tail) {
+			int u = Q[head++];
+			
+			for (int slot = graph.getOffset(u), end = graph.getOffset(u + 1); slot < end; slot++)
+				tail = relax(graph.getTarget(slot), u, dist, prev, Q, tail);
+			
+			if (canGoBackward)
+				for (int slot = graph.getInOffset(u), end = graph.getInOffset(u + 1); slot < end; slot++)
+					tail = relax(graph.getInSource(slot), u, dist, prev, Q, tail);
+		}
+		
+		return new Couple<>(dist, prev);
+	}
+	@NotNull
+	public static Couple<long[], int[]> map(@NotNull FrozenGraph<?, ?> graph, int source) {
+		return map(graph, source, true);
+	}
+	
+	private static int relax(int v, int u, @NotNull long[] dist, @NotNull int[] prev, @NotNull int[] Q, int tail) {
+		if (dist[v] == Long.MAX_VALUE) {
+			dist[v] = dist[u] + 1;
+			prev[v] = u;
+			Q[tail++] = v;
+		}
+		
+		return tail;
+	}
+	
 	/**
 	 * Give a path from {@code source} to {@code destination} in {@code graph}.
 	 * @param graph The graph.
@@ -123,7 +185,7 @@ public class Dijkstra {
 		if (graph == null || source == null || destination == null)
 			throw new NullPointerException();
 		
-		if (!graph.getVertices().contains(source) || !graph.getVertices().contains(destination))
+		if (!graph.containsVertex(source) || !graph.containsVertex(destination))
 			throw new IllegalArgumentException();
 		
 		long limit = (long) (graph.getM() + Math.pow(graph.getN(), 2) + 100);
@@ -168,4 +230,35 @@ public class Dijkstra {
 	public static <V, E> Lexicon<Vertex<V>> getPath(@NotNull Graph<V, E> graph, @NotNull Vertex<V> source, @NotNull Vertex<V> destination) {
 		return getPath(graph, source, destination, true);
 	}
+	
+	/**
+	 * Give a path from {@code source} to {@code destination} in the frozen graph.
+	 * @param graph The frozen graph.
+	 * @param source The int id of the source.
+	 * @param destination The int id of the destination.
+	 * @param regardingOrientation If false, or if the graph is not oriented, the path may go backward.
+	 * @return Return the int ids of the vertices from {@code source} to {@code destination}, or {@code null} if
+	 * {@code destination} is not reachable.
+	 */
+	@Nullable
+	public static int[] getPath(@NotNull FrozenGraph<?, ?> graph, int source, int destination, boolean regardingOrientation) {
+		if (destination < 0 || destination >= graph.getN())
+			throw new IllegalArgumentException();
+		
+		Couple<long[], int[]> map = map(graph, source, regardingOrientation);
+		long distance = map.getX()[destination];
+		if (distance == Long.MAX_VALUE)
+			return null;
+		
+		// Walk "prev" from the destination to the source
+		int[] path = new int[(int) distance + 1];
+		for (int i = path.length - 1, x = destination; i >= 0; i--, x = map.getY()[x])
+			path[i] = x;
+		
+		return path;
+	}
+	@Nullable
+	public static int[] getPath(@NotNull FrozenGraph<?, ?> graph, int source, int destination) {
+		return getPath(graph, source, destination, true);
+	}
 }
@@ -2,10 +2,12 @@ package fr.berger.enhancedlist.algorithm;
 
 import fr.berger.enhancedlist.graph.Color;
 import fr.berger.enhancedlist.graph.Edge;
+import fr.berger.enhancedlist.graph.FrozenGraph;
 import fr.berger.enhancedlist.graph.Graph;
 import fr.berger.enhancedlist.graph.Vertex;
 import fr.berger.enhancedlist.lexicon.Lexicon;
 import fr.berger.enhancedlist.lexicon.LexiconBuilder;
+import fr.berger.enhancedlist.lexicon.SortedLexicon;
 import org.jetbrains.annotations.NotNull;
 
 import java.util.*;
@@ -27,6 +29,11 @@ public abstract class Greedy {
 			return Greedy.mapVertices(graph, L);
 		}
 		
+		@Override
+		public long[] mapVertices(@NotNull FrozenGraph<?, ?> graph) {
+			return Greedy.mapVertices(graph, graph.sortVerticesByDegree(false));
+		}
+		
 		@Override
 		public boolean equals(Object obj) {
 			return toString().equals(Objects.toString(obj));
@@ -53,6 +60,11 @@ public abstract class Greedy {
 			return Greedy.mapVertices(graph, L);
 		}
 		
+		@Override
+		public long[] mapVertices(@NotNull FrozenGraph<?, ?> graph) {
+			return Greedy.mapVertices(graph, graph.sortVerticesByDegree(true));
+		}
+		
 		@Override
 		public boolean equals(Object obj) {
 			return toString().equals(Objects.toString(obj));
@@ -79,6 +91,11 @@ public abstract class Greedy {
 			return Greedy.mapVertices(graph, L);
 		}
 		
+		@Override
+		public long[] mapVertices(@NotNull FrozenGraph<?, ?> graph) {
+			return Greedy.mapVertices(graph, graph.shuffleVertices());
+		}
+		
 		@Override
 		public boolean equals(Object obj) {
 			return toString().equals(Objects.toString(obj));
@@ -95,11 +112,9 @@ public abstract class Greedy {
 		
 		int k = 1;
 		
-		// All color contained in this list are available
-		Lexicon<Color> availableColor = new LexiconBuilder<>(Color.class)
-				.setAcceptDuplicates(false)
-				.setAcceptNullValues(false)
-				.createLexicon();
+		// All color contained in this list are available, sorted from the lowest to the greatest
+		SortedLexicon<Color> availableColor = new SortedLexicon<>(Color.class);
+		availableColor.setAcceptDuplicates(false);
 		
 		for (Vertex<V> vertex : graph.getVertices()) {
 			L.add(vertex);
@@ -131,18 +146,6 @@ public abstract class Greedy {
 			for (Vertex<V> neighbor : neighbors)
 				availableColor.remove(colors.getOrDefault(neighbor, new Color(-1)));
 			
-			// Find the lowest color in 'availableColor'
-			availableColor.sort((o1, o2) -> {
-				if (o1 == null && o2 != null)
-					return -1;
-				else if (o1 != null && o2 == null)
-					return 1;
-				else if (o1 == null && o2 == null)
-					return 0;
-				else
-					return o1.compareTo(o2);
-			});
-			
 			// Get the first color (the lowest)
 			if (availableColor.size() >= 1)
 				colors.put(v, availableColor.first());
@@ -155,4 +158,30 @@ public abstract class Greedy {
 		
 		return colors;
 	}
+	
+	private static long[] mapVertices(@NotNull FrozenGraph<?, ?> graph, @NotNull int[] L) {
+		// 0 means that the vertex is not colored yet
+		long[] colors = new long[graph.getN()];
+		// The colors of the neighbors of the i-th vertex of L are marked with i + 1. A vertex has at most n - 1 distinct
+		// neighbors, so a color between 1 and n is always available
+		int[] unavailable = new int[graph.getN() + 1];
+		
+		for (int i = 0; i < L.length; i++) {
+			int v = L[i];
+			
+			for (int slot = graph.getOffset(v), end = graph.getOffset(v + 1); slot < end; slot++)
+				unavailable[(int) colors[graph.getTarget(slot)]] = i + 1;
+			for (int slot = graph.getInOffset(v), end = graph.getInOffset(v + 1); slot < end; slot++)
+				unavailable[(int) colors[graph.getInSource(slot)]] = i + 1;
+			
+			// Take the lowest available color
+			int color = 1;
+			while (unavailable[color] == i + 1)
+				color++;
+			
+			colors[v] = color;
+		}
+		
+		return colors;
+	}
 }
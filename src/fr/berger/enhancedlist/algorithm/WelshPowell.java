@@ -1,6 +1,7 @@
 package fr.berger.enhancedlist.algorithm;
 
 import fr.berger.enhancedlist.graph.Color;
+import fr.berger.enhancedlist.graph.FrozenGraph;
 import fr.berger.enhancedlist.graph.Graph;
 import fr.berger.enhancedlist.graph.Vertex;
 import fr.berger.enhancedlist.lexicon.Lexicon;
@@ -31,6 +32,15 @@ public abstract class WelshPowell {
 			return WelshPowell.map(graph, L);
 		}
 		
+		@SuppressWarnings("ConstantConditions")
+		@Override
+		public long[] mapVertices(@NotNull FrozenGraph<?, ?> graph) {
+			if (graph == null)
+				throw new NullPointerException();
+			
+			return WelshPowell.map(graph, graph.sortVerticesByDegree(false));
+		}
+		
 		@Override
 		public boolean equals(Object obj) {
 			return toString().equals(Objects.toString(obj));
@@ -60,6 +70,15 @@ public abstract class WelshPowell {
 			return WelshPowell.map(graph, L);
 		}
 		
+		@SuppressWarnings("ConstantConditions")
+		@Override
+		public long[] mapVertices(@NotNull FrozenGraph<?, ?> graph) {
+			if (graph == null)
+				throw new NullPointerException();
+			
+			return WelshPowell.map(graph, graph.sortVerticesByDegree(true));
+		}
+		
 		@Override
 		public boolean equals(Object obj) {
 			return toString().equals(Objects.toString(obj));
@@ -89,6 +108,15 @@ public abstract class WelshPowell {
 			return WelshPowell.map(graph, L);
 		}
 		
+		@SuppressWarnings("ConstantConditions")
+		@Override
+		public long[] mapVertices(@NotNull FrozenGraph<?, ?> graph) {
+			if (graph == null)
+				throw new NullPointerException();
+			
+			return WelshPowell.map(graph, graph.shuffleVertices());
+		}
+		
 		@Override
 		public boolean equals(Object obj) {
 			return toString().equals(Objects.toString(obj));
@@ -136,4 +164,43 @@ public abstract class WelshPowell {
 		
 		return colors;
 	}
+	
+	private static long[] map(@NotNull FrozenGraph<?, ?> graph, @NotNull int[] L) {
+		// 0 means that the vertex is not colored yet
+		long[] colors = new long[graph.getN()];
+		int size = L.length;
+		long k = 1;
+		
+		while (size > 0) {
+			colors[L[0]] = k;
+			
+			// Color with "k" the vertices of L which have no neighbor of color "k", and keep the others in L
+			int kept = 0;
+			for (int i = 1; i < size; i++) {
+				int y = L[i];
+				
+				if (hasNeighborOfColor(graph, y, colors, k))
+					L[kept++] = y;
+				else
+					colors[y] = k;
+			}
+			
+			size = kept;
+			k++;
+		}
+		
+		return colors;
+	}
+	
+	private static boolean hasNeighborOfColor(@NotNull FrozenGraph<?, ?> graph, int y, @NotNull long[] colors, long k) {
+		for (int slot = graph.getOffset(y), end = graph.getOffset(y + 1); slot < end; slot++)
+			if (colors[graph.getTarget(slot)] == k)
+				return true;
+		
+		for (int slot = graph.getInOffset(y), end = graph.getInOffset(y + 1); slot < end; slot++)
+			if (colors[graph.getInSource(slot)] == k)
+				return true;
+		
+		return false;
+	}
 }
@@ -45,6 +45,12 @@ public class Edge<T> extends Couple<Vertex<?>, Vertex<?>> implements Serializabl
 	@Nullable
 	private Color color;
 	
+	/**
+	 * {@code true} once the edge has been indexed by a {@link GraphIndex}, which must then be told when its id or its
+	 * endpoints change.
+	 */
+	transient boolean indexed;
+	
 	/* CONSTRUCTORS */
 	
 	public Edge(@NotNull UUID id, @Nullable T data, @NotNull Vertex<?> x, @NotNull Vertex<?> y, @Nullable Color color) {
@@ -93,6 +99,20 @@ public class Edge<T> extends Couple<Vertex<?>, Vertex<?>> implements Serializabl
 	
 	/* GETTERS & SETTERS */
 	
+	@Override
+	public void setX(@Nullable Vertex<?> x) {
+		super.setX(x);
+		if (indexed)
+			GraphIndex.identityChanged();
+	}
+	
+	@Override
+	public void setY(@Nullable Vertex<?> y) {
+		super.setY(y);
+		if (indexed)
+			GraphIndex.identityChanged();
+	}
+	
 	@SuppressWarnings("ConstantConditions")
 	@NotNull
 	public UUID getId() {
@@ -108,6 +128,8 @@ public class Edge<T> extends Couple<Vertex<?>, Vertex<?>> implements Serializabl
 			throw new NullPointerException();
 		
 		this.id = id;
+		if (indexed)
+			GraphIndex.identityChanged();
 		snap(this.id);
 	}
 	
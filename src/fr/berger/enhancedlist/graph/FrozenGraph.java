@@ -0,0 +1,492 @@
+package fr.berger.enhancedlist.graph;
+
+import fr.berger.enhancedlist.algorithm.Dijkstra;
+import fr.berger.enhancedlist.lexicon.Lexicon;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.io.Serializable;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Random;
+import java.util.UUID;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Immutable snapshot of a {@link Graph} in the compressed sparse row (CSR) layout, built by {@link Graph#freeze()}.
+ * <p>
+ * The vertices are numbered from 0 to {@code getN() - 1}, in the order of the vertices of the graph. The edges leaving
+ * the vertex {@code v} are the slots {@code getOffset(v)} to {@code getOffset(v + 1) - 1}, in the order of the edges of
+ * the graph, and {@code getTarget(slot)} is the destination of the edge in {@code slot}. The edges reaching {@code v}
+ * are stored the same way, with {@link #getInOffset(int)} and {@link #getInSource(int)}. An edge then takes two ints
+ * instead of the Edge, its UUID and the observers of its couple, and the neighbors of a vertex are contiguous in
+ * memory.
+ * </p>
+ * <p>
+ * The data and the colors of the edges, and the colors of the vertices, are only copied on demand, in arrays parallel
+ * to {@code targets} and to the vertices. The snapshot is not updated when the graph changes: freeze it again.
+ * </p>
+ * @param <V> The type of the data of the vertices.
+ * @param <E> The type of the data of the edges.
+ * @see Graph#freeze(boolean, boolean)
+ * @author Valentin Berger
+ */
+public final class FrozenGraph<V, E> implements Serializable {
+	
+	private static final long serialVersionUID = 6335474144187125255L;
+	
+	/**
+	 * The color of the vertices and the edges which have no color ({@code null}).
+	 */
+	public static final long NO_COLOR = Long.MIN_VALUE;
+	
+	private final boolean oriented;
+	
+	/**
+	 * The vertex of each int id
+	 */
+	@NotNull
+	private final Vertex<V>[] vertices;
+	
+	/**
+	 * The int id of each vertex id
+	 */
+	@NotNull
+	private final HashMap<UUID, Integer> ids;
+	
+	/**
+	 * The edges leaving the vertex v are the slots offsets[v] to offsets[v + 1] - 1 of targets
+	 */
+	@NotNull
+	private final int[] offsets;
+	@NotNull
+	private final int[] targets;
+	
+	/**
+	 * The edges reaching the vertex v are the slots inOffsets[v] to inOffsets[v + 1] - 1 of sources
+	 */
+	@NotNull
+	private final int[] inOffsets;
+	@NotNull
+	private final int[] sources;
+	
+	/**
+	 * The data and the color of the edge in each slot of targets, and the color of each vertex, or {@code null} if they
+	 * have not been copied
+	 */
+	@Nullable
+	private final Object[] edgeData;
+	@Nullable
+	private final long[] edgeColors;
+	@Nullable
+	private final long[] vertexColors;
+	
+	/* CONSTRUCTOR */
+	
+	/**
+	 * Freeze {@code graph}. A vertex whose id is already the id of a previous vertex is ignored, and so are the edges
+	 * whose source or destination is not a vertex of the graph.
+	 * @param graph The graph.
+	 * @param withData If {@code true}, the data of the edges is copied.
+	 * @param withColors If {@code true}, the colors of the vertices and the edges are copied.
+	 */
+	FrozenGraph(@NotNull Graph<V, E> graph, boolean withData, boolean withColors) {
+		oriented = graph.isOriented();
+		
+		Lexicon<Vertex<V>> graphVertices = graph.getVertices();
+		// A generic array cannot be created: the array only holds the vertices of the graph, so it is really a Vertex<V>[]
+		@SuppressWarnings("unchecked")
+		Vertex<V>[] vertices = (Vertex<V>[]) new Vertex[graphVertices.size()];
+		ids = new HashMap<>(Math.max(16, (int) (vertices.length / 0.75f) + 1));
+		int n = 0;
+		for (Vertex<V> vertex : graphVertices)
+			if (vertex != null && ids.putIfAbsent(vertex.getId(), n) == null)
+				vertices[n++] = vertex;
+		
+		this.vertices = n == vertices.length ? vertices : Arrays.copyOf(vertices, n);
+		
+		// Resolve the endpoints of the edges, and count the edges leaving and reaching each vertex
+		Lexicon<Edge<E>> graphEdges = graph.getEdges();
+		int[] xs = new int[graphEdges.size()];
+		int[] ys = new int[graphEdges.size()];
+		offsets = new int[n + 1];
+		inOffsets = new int[n + 1];
+		int m = 0;
+		for (int i = 0, maxi = graphEdges.size(); i < maxi; i++) {
+			Edge<E> edge = graphEdges.get(i);
+			xs[i] = edge != null ? indexOf(edge.getX()) : -1;
+			ys[i] = edge != null ? indexOf(edge.getY()) : -1;
+			
+			if (xs[i] >= 0 && ys[i] >= 0) {
+				offsets[xs[i] + 1]++;
+				inOffsets[ys[i] + 1]++;
+				m++;
+			}
+		}
+		
+		for (int v = 0; v < n; v++) {
+			offsets[v + 1] += offsets[v];
+			inOffsets[v + 1] += inOffsets[v];
+		}
+		
+		// Fill the slots in the order of the edges, so the edges of a vertex stay in the order of the graph
+		targets = new int[m];
+		sources = new int[m];
+		edgeData = withData ? new Object[m] : null;
+		edgeColors = withColors ? new long[m] : null;
+		int[] next = Arrays.copyOf(offsets, n);
+		int[] inNext = Arrays.copyOf(inOffsets, n);
+		for (int i = 0; i < xs.length; i++) {
+			if (xs[i] < 0 || ys[i] < 0)
+				continue;
+			
+			int slot = next[xs[i]]++;
+			targets[slot] = ys[i];
+			sources[inNext[ys[i]]++] = xs[i];
+			
+			if (edgeData != null)
+				edgeData[slot] = graphEdges.get(i).getData();
+			if (edgeColors != null)
+				edgeColors[slot] = colorNumber(graphEdges.get(i).getColor());
+		}
+		
+		if (withColors) {
+			vertexColors = new long[n];
+			for (int v = 0; v < n; v++)
+				vertexColors[v] = colorNumber(this.vertices[v].getColor());
+		}
+		else
+			vertexColors = null;
+	}
+	
+	private static long colorNumber(@Nullable Color color) {
+		return color != null ? color.getColorNumber() : NO_COLOR;
+	}
+	
+	/* VERTICES */
+	
+	/**
+	 * @return The number of vertices.
+	 */
+	public int getN() {
+		return vertices.length;
+	}
+	
+	/**
+	 * @param v The int id of a vertex.
+	 * @return The vertex of the graph with the int id {@code v}.
+	 * @throws ArrayIndexOutOfBoundsException If {@code v} is not between 0 and {@code getN() - 1}.
+	 */
+	@NotNull
+	public Vertex<V> getVertex(int v) {
+		return vertices[v];
+	}
+	
+	/**
+	 * @param vertex A vertex.
+	 * @return The int id of {@code vertex}, or -1 if it is not a vertex of the frozen graph.
+	 */
+	public int indexOf(@Nullable Vertex<?> vertex) {
+		if (vertex == null)
+			return -1;
+		
+		Integer v = ids.get(vertex.getId());
+		return v != null && (vertices[v] == vertex || vertices[v].equals(vertex)) ? v : -1;
+	}
+	
+	/**
+	 * @param id The id of a vertex.
+	 * @return The int id of the vertex whose id is {@code id}, or -1 if there is none.
+	 */
+	public int indexOf(@NotNull UUID id) {
+		return ids.getOrDefault(id, -1);
+	}
+	
+	/**
+	 * @param v The int id of a vertex.
+	 * @return The number of the color of {@code v} when the graph was frozen, or {@link #NO_COLOR} if it had none.
+	 * @throws IllegalStateException If the colors have not been copied.
+	 */
+	public long getVertexColor(int v) {
+		if (vertexColors == null)
+			throw new IllegalStateException("The colors have not been frozen");
+		
+		return vertexColors[v];
+	}
+	
+	/* EDGES */
+	
+	/**
+	 * @return The number of edges.
+	 */
+	public int getM() {
+		return targets.length;
+	}
+	
+	public boolean isOriented() {
+		return oriented;
+	}
+	
+	/**
+	 * @param v The int id of a vertex, or {@code getN()}.
+	 * @return The first slot of the edges leaving {@code v}. The last one is {@code getOffset(v + 1) - 1}.
+	 */
+	public int getOffset(int v) {
+		return offsets[v];
+	}
+	
+	/**
+	 * @param slot A slot between 0 and {@code getM() - 1}.
+	 * @return The int id of the destination of the edge in {@code slot}.
+	 */
+	public int getTarget(int slot) {
+		return targets[slot];
+	}
+	
+	/**
+	 * @param v The int id of a vertex, or {@code getN()}.
+	 * @return The first slot of the edges reaching {@code v}. The last one is {@code getInOffset(v + 1) - 1}.
+	 */
+	public int getInOffset(int v) {
+		return inOffsets[v];
+	}
+	
+	/**
+	 * @param slot A slot between 0 and {@code getM() - 1}.
+	 * @return The int id of the source of the edge in the slot {@code slot} of the edges reaching the vertices.
+	 */
+	public int getInSource(int slot) {
+		return sources[slot];
+	}
+	
+	/**
+	 * @param slot A slot between 0 and {@code getM() - 1}.
+	 * @return The data of the edge in {@code slot} (see {@link #getTarget(int)}).
+	 * @throws IllegalStateException If the data has not been copied.
+	 */
+	@SuppressWarnings("unchecked")
+	@Nullable
+	public E getEdgeData(int slot) {
+		if (edgeData == null)
+			throw new IllegalStateException("The data of the edges has not been frozen");
+		
+		return (E) edgeData[slot];
+	}
+	
+	/**
+	 * @param slot A slot between 0 and {@code getM() - 1}.
+	 * @return The number of the color of the edge in {@code slot} (see {@link #getTarget(int)}), or {@link #NO_COLOR}
+	 * if it had none.
+	 * @throws IllegalStateException If the colors have not been copied.
+	 */
+	public long getEdgeColor(int slot) {
+		if (edgeColors == null)
+			throw new IllegalStateException("The colors have not been frozen");
+		
+		return edgeColors[slot];
+	}
+	
+	public boolean hasEdgeData() {
+		return edgeData != null;
+	}
+	
+	public boolean hasColors() {
+		return vertexColors != null;
+	}
+	
+	/* NEIGHBORS */
+	
+	/**
+	 * @param v The int id of a vertex.
+	 * @return The int ids of the successors of {@code v}, in the order of the edges (see
+	 * {@link Graph#getSuccessors(Vertex)}).
+	 */
+	@NotNull
+	public int[] getSuccessors(int v) {
+		return Arrays.copyOfRange(targets, offsets[v], offsets[v + 1]);
+	}
+	
+	/**
+	 * @param v The int id of a vertex.
+	 * @return The int ids of the predecessors of {@code v}, in the order of the edges (see
+	 * {@link Graph#getPredecessors(Vertex)}).
+	 */
+	@NotNull
+	public int[] getPredecessors(int v) {
+		return Arrays.copyOfRange(sources, inOffsets[v], inOffsets[v + 1]);
+	}
+	
+	/**
+	 * @param v The int id of a vertex.
+	 * @return The successors then the predecessors of {@code v}, like {@link Graph#getNeighbors(Vertex)}.
+	 */
+	@NotNull
+	public int[] getNeighbors(int v) {
+		int out = getOutDegree(v);
+		int[] neighbors = Arrays.copyOf(getSuccessors(v), out + getInDegree(v));
+		System.arraycopy(sources, inOffsets[v], neighbors, out, neighbors.length - out);
+		return neighbors;
+	}
+	
+	public int getOutDegree(int v) {
+		return offsets[v + 1] - offsets[v];
+	}
+	
+	public int getInDegree(int v) {
+		return inOffsets[v + 1] - inOffsets[v];
+	}
+	
+	/**
+	 * @param v The int id of a vertex.
+	 * @return d(v) = d-(v) + d+(v), like {@link Graph#getDegree(Vertex)}.
+	 */
+	public int getDegree(int v) {
+		return getInDegree(v) + getOutDegree(v);
+	}
+	
+	/**
+	 * @param descending If {@code true}, the vertices with the greatest degree come first.
+	 * @return The int ids of all the vertices, sorted by degree. The sort is stable.
+	 */
+	@NotNull
+	public int[] sortVerticesByDegree(boolean descending) {
+		int n = getN();
+		
+		// The degree is in the high bits and the int id in the low bits, like Lexicon.sortByInt()
+		long[] packed = new long[n];
+		for (int v = 0; v < n; v++)
+			packed[v] = ((long) (descending ? -getDegree(v) : getDegree(v)) << 32) | v;
+		
+		Arrays.sort(packed);
+		
+		int[] sorted = new int[n];
+		for (int i = 0; i < n; i++)
+			sorted[i] = (int) packed[i];
+		
+		return sorted;
+	}
+	
+	/**
+	 * @return The int ids of all the vertices, in a random order.
+	 */
+	@NotNull
+	public int[] shuffleVertices() {
+		int[] shuffled = new int[getN()];
+		Random random = ThreadLocalRandom.current();
+		
+		// Fisher-Yates shuffle
+		for (int i = 0; i < shuffled.length; i++) {
+			int j = random.nextInt(i + 1);
+			shuffled[i] = shuffled[j];
+			shuffled[j] = i;
+		}
+		
+		return shuffled;
+	}
+	
+	/* TRAVERSALS */
+	
+	/**
+	 * Breadth-first search from {@code beginning}, following the edges from their source to their destination, like
+	 * {@link Graph#breadthFirstSearch(Vertex)}.
+	 * @param beginning The int id of the first vertex.
+	 * @return The rank of each vertex in the search, starting from 1, or 0 for the vertices that are not reached.
+	 */
+	@NotNull
+	public int[] breadthFirstSearch(int beginning) {
+		int[] route = new int[getN()];
+		int[] queue = new int[getN()];
+		int head = 0, tail = 0;
+		
+		// The rank also marks the queued vertices, so a vertex is not queued twice
+		queue[tail++] = beginning;
+		route[beginning] = -1;
+		
+		while (head < tail) {
+			int x = queue[head++];
+			
+			for (int slot = offsets[x], end = offsets[x + 1]; slot < end; slot++) {
+				int y = targets[slot];
+				if (route[y] == 0) {
+					route[y] = -1;
+					queue[tail++] = y;
+				}
+			}
+			
+			route[x] = head;
+		}
+		
+		return route;
+	}
+	
+	/**
+	 * Depth-first search from {@code beginning}, following the edges from their source to their destination. The
+	 * successors of a vertex are explored in the order of the edges.
+	 * @param beginning The int id of the first vertex.
+	 * @return The rank of each vertex in the order the vertices are finished, starting from 1 (the last one is
+	 * {@code beginning}), or 0 for the vertices that are not reached.
+	 */
+	@NotNull
+	public int[] depthFirstSearch(int beginning) {
+		int n = getN();
+		int[] route = new int[n];
+		boolean[] mark = new boolean[n];
+		int[] stack = new int[n];
+		// The next slot to explore of each vertex in the stack
+		int[] cursor = new int[n];
+		int top = 0, p = 1;
+		
+		mark[beginning] = true;
+		stack[top++] = beginning;
+		cursor[beginning] = offsets[beginning];
+		
+		while (top > 0) {
+			int x = stack[top - 1];
+			
+			int end = offsets[x + 1];
+			while (cursor[x] < end && mark[targets[cursor[x]]])
+				cursor[x]++;
+			
+			if (cursor[x] < end) {
+				int y = targets[cursor[x]++];
+				mark[y] = true;
+				stack[top++] = y;
+				cursor[y] = offsets[y];
+			}
+			else {
+				top--;
+				route[x] = p++;
+			}
+		}
+		
+		return route;
+	}
+	
+	/**
+	 * Compute the length of the shortest path from {@code source} to all the vertices.
+	 * @param source The int id of the source.
+	 * @param regardingOrientation If {@code false}, or if the graph is not oriented, the edges can also be followed
+	 *                             from their destination to their source.
+	 * @return The distance of each vertex from {@code source}, or {@link Long#MAX_VALUE} if it is not reachable.
+	 * @see Dijkstra#map(FrozenGraph, int, boolean)
+	 */
+	@NotNull
+	public long[] mapDistanceFrom(int source, boolean regardingOrientation) {
+		return Dijkstra.map(this, source, regardingOrientation).getX();
+	}
+	@NotNull
+	public long[] mapDistanceFrom(int source) {
+		return mapDistanceFrom(source, true);
+	}
+	
+	/* OVERRIDES */
+	
+	@Override
+	public String toString() {
+		return "FrozenGraph{" +
+				"oriented=" + oriented +
+				", n=" + getN() +
+				", m=" + getM() +
+				'}';
+	}
+}
@@ -8,6 +8,7 @@ import fr.berger.enhancedlist.algorithm.Dijkstra;
 import fr.berger.enhancedlist.algorithm.WelshPowell;
 import fr.berger.enhancedlist.lexicon.Lexicon;
 import fr.berger.enhancedlist.lexicon.LexiconBuilder;
+import fr.berger.enhancedlist.lexicon.LexiconDeque;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
 import sun.reflect.generics.reflectiveObjects.NotImplementedException;
@@ -39,6 +40,13 @@ public class Graph<V, E> extends EnhancedObservable implements Serializable, Clo
 	@NotNull
 	private Lexicon<Edge<E>> edges;
 	
+	/**
+	 * The adjacency of each vertex, built from {@code vertices} and {@code edges} on demand
+	 * @see GraphIndex
+	 */
+	@Nullable
+	private transient GraphIndex<V, E> index;
+	
 	/* CONSTRUCTORS */
 	
 	public Graph(boolean oriented, @NotNull Collection<Vertex<V>> vertices, @NotNull Collection<Edge<E>> edges) {
@@ -86,14 +94,11 @@ public class Graph<V, E> extends EnhancedObservable implements Serializable, Clo
 		if (vertex == null)
 			throw new NullPointerException();
 		
-		if (!getVertices().contains(vertex))
-			throw new IllegalArgumentException();
-		
 		Lexicon<Vertex<V>> vertices = new LexiconBuilder<Vertex<V>>()
 				.setAcceptNullValues(false)
 				.createLexicon();
 		
-		for (Edge<E> edge : getEdges())
+		for (Edge<E> edge : getIndex().require(vertex).out)
 			if (Objects.equals(vertex, edge.getX()))
 				vertices.add((Vertex<V>) edge.getY());
 		
@@ -121,14 +126,11 @@ public class Graph<V, E> extends EnhancedObservable implements Serializable, Clo
 		if (vertex == null)
 			throw new NullPointerException();
 		
-		if (!getVertices().contains(vertex))
-			throw new IllegalArgumentException();
-		
 		Lexicon<Vertex<V>> vertices = new LexiconBuilder<Vertex<V>>()
 				.setAcceptNullValues(false)
 				.createLexicon();
 		
-		for (Edge<E> edge : getEdges()) {
+		for (Edge<E> edge : getIndex().require(vertex).in) {
 			if (Objects.equals(vertex, edge.getY())) {
 				//noinspection unchecked
 				vertices.add((Vertex<V>) edge.getX());
@@ -152,7 +154,7 @@ public class Graph<V, E> extends EnhancedObservable implements Serializable, Clo
 		if (vertex == null)
 			throw new NullPointerException();
 		
-		if (!getVertices().contains(vertex))
+		if (!containsVertex(vertex))
 			throw new IllegalArgumentException();
 		
 		return new LexiconBuilder<Vertex<V>>()
@@ -228,7 +230,12 @@ public class Graph<V, E> extends EnhancedObservable implements Serializable, Clo
 		if (vertex == null)
 			throw new NullPointerException();
 		
-		return getPredecessors(vertex).size();
+		int degree = 0;
+		for (Edge<E> edge : getIndex().require(vertex).in)
+			if (Objects.equals(vertex, edge.getY()) && edge.getX() != null)
+				degree++;
+		
+		return degree;
 	}
 	@SuppressWarnings("ConstantConditions")
 	public int getInDegree(@NotNull Ref<Vertex<V>> vertex) {
@@ -248,7 +255,12 @@ public class Graph<V, E> extends EnhancedObservable implements Serializable, Clo
 		if (vertex == null)
 			throw new NullPointerException();
 		
-		return getSuccessors(vertex).size();
+		int degree = 0;
+		for (Edge<E> edge : getIndex().require(vertex).out)
+			if (Objects.equals(vertex, edge.getX()) && edge.getY() != null)
+				degree++;
+		
+		return degree;
 	}
 	@SuppressWarnings("ConstantConditions")
 	public int getOutDegree(@NotNull Ref<Vertex<V>> vertex) {
@@ -280,52 +292,89 @@ public class Graph<V, E> extends EnhancedObservable implements Serializable, Clo
 		return getDegree(vertex.getElement());
 	}
 	
+	/**
+	 * Tell if {@code vertex} is in the graph, in constant time (unlike {@code getVertices().contains(vertex)}).
+	 * @param vertex The vertex
+	 * @return Return {@code true} if {@code vertex} is one of the vertices of the graph, {@code false} otherwise.
+	 */
+	@SuppressWarnings("ConstantConditions")
+	public boolean containsVertex(@NotNull Vertex<?> vertex) {
+		if (vertex == null)
+			throw new NullPointerException();
+		
+		return getIndex().contains(vertex);
+	}
+	
+	/**
+	 * Search the vertex whose id is {@code id}. The string is parsed once, then the vertex is found in constant time.
+	 * @param id The id of the vertex, as returned by {@link UUID#toString()}.
+	 * @return Return the vertex, or {@code null} if there is no vertex with this id in the graph.
+	 */
 	@SuppressWarnings("ConstantConditions")
 	@Nullable
 	public Vertex<V> searchVertexFromId(@NotNull String id) {
 		if (id == null)
 			throw new NullPointerException();
 		
-		Vertex<V> vertex = null;
-		for (int i = 0, maxi = getVertices().size(); i < maxi && vertex == null; i++) {
-			Vertex<V> vi = getVertices().get(i);
-			if (Objects.equals(vi.getId().toString(), id))
-				vertex = vi;
-		}
-		
-		return vertex;
+		UUID uuid = parseId(id);
+		return uuid != null ? searchVertexFromId(uuid) : null;
 	}
+	/**
+	 * Search the vertex whose id is {@code id}, in constant time.
+	 * @param id The id of the vertex.
+	 * @return Return the vertex, or {@code null} if there is no vertex with this id in the graph.
+	 */
 	@SuppressWarnings("ConstantConditions")
 	@Nullable
 	public Vertex<V> searchVertexFromId(@NotNull UUID id) {
 		if (id == null)
 			throw new NullPointerException();
 		
-		return searchVertexFromId(id.toString());
+		return getIndex().vertex(id);
 	}
 	
+	/**
+	 * Search the edge whose id is {@code id}. The string is parsed once, then the edge is found in constant time.
+	 * @param id The id of the edge, as returned by {@link UUID#toString()}.
+	 * @return Return the edge, or {@code null} if there is no edge with this id in the graph.
+	 */
 	@SuppressWarnings("ConstantConditions")
 	@Nullable
 	public Edge<E> searchEdgeFromId(@NotNull String id) {
 		if (id == null)
 			throw new NullPointerException();
 		
-		Edge<E> edge = null;
-		for (int i = 0, maxi = getEdges().size(); i < maxi && edge == null; i++) {
-			Edge<E> ei = getEdges().get(i);
-			if (Objects.equals(ei.getId().toString(), id))
-				edge = ei;
-		}
-		
-		return edge;
+		UUID uuid = parseId(id);
+		return uuid != null ? searchEdgeFromId(uuid) : null;
 	}
+	/**
+	 * Search the edge whose id is {@code id}, in constant time.
+	 * @param id The id of the edge.
+	 * @return Return the edge, or {@code null} if there is no edge with this id in the graph.
+	 */
 	@SuppressWarnings("ConstantConditions")
 	@Nullable
 	public Edge<E> searchEdgeFromId(@NotNull UUID id) {
 		if (id == null)
 			throw new NullPointerException();
 		
-		return searchEdgeFromId(id.toString());
+		return getIndex().edge(id);
+	}
+	
+	/**
+	 * Parse {@code id} as the string of a UUID.
+	 * @param id The string.
+	 * @return The UUID, or {@code null} if {@code id} is not the string of a UUID.
+	 */
+	@Nullable
+	private static UUID parseId(@NotNull String id) {
+		try {
+			UUID uuid = UUID.fromString(id);
+			// UUID.fromString() also accepts upper case and shortened forms, which are not the string of an id
+			return uuid.toString().equals(id) ? uuid : null;
+		} catch (IllegalArgumentException ex) {
+			return null;
+		}
 	}
 	
 	/**
@@ -345,12 +394,13 @@ public class Graph<V, E> extends EnhancedObservable implements Serializable, Clo
 				.setAcceptNullValues(false)
 				.setAcceptDuplicates(false)
 				.createLexicon();
-		for (int i = 0, maxi = getEdges().size(); i < maxi; i++) {
-			Edge<E> e = getEdges().get(i);
+		
+		// Only the edges between the ids of "source" and "destination" are checked
+		List<Edge<E>> candidates = getIndex().between(source, destination);
+		for (int i = 0, maxi = candidates.size(); i < maxi; i++) {
+			Edge<E> e = candidates.get(i);
 			
-			if (Objects.equals(e.getX(), source) && Objects.equals(e.getY(), destination) || (
-					!isOriented() && Objects.equals(e.getY(), source) && Objects.equals(e.getX(), destination)
-			))
+			if (GraphIndex.matches(e, source, destination, !isOriented()))
 				edges.add(e);
 		}
 		
@@ -371,17 +421,7 @@ public class Graph<V, E> extends EnhancedObservable implements Serializable, Clo
 		if (source == null || destination == null)
 			throw new NullPointerException();
 		
-		Edge<E> edge = null;
-		for (int i = 0, maxi = getEdges().size(); i < maxi && edge == null; i++) {
-			Edge<E> e = getEdges().get(i);
-			
-			if (Objects.equals(e.getX(), source) && Objects.equals(e.getY(), destination) || (
-					!isOriented() && Objects.equals(e.getY(), source) && Objects.equals(e.getX(), destination)
-					))
-				edge = e;
-		}
-		
-		return edge;
+		return getIndex().search(source, destination, !isOriented());
 	}
 	
 	/**
@@ -395,21 +435,11 @@ public class Graph<V, E> extends EnhancedObservable implements Serializable, Clo
 		if (v1 == null || v2 == null)
 			throw new NullPointerException();
 		
-		if (!getVertices().contains(v1) || !getVertices().contains(v2))
+		if (!containsVertex(v1) || !containsVertex(v2))
 			throw new IllegalArgumentException();
 		
-		boolean adjacent = false;
-		for (int i = 0, maxi = getEdges().size(); i < maxi && !adjacent; i++) {
-			if (getEdges().get(i) != null && getEdges().get(i).getX() != null) {
-				if ((Objects.equals(getEdges().get(i).getX(), v1) &&
-						Objects.equals(getEdges().get(i).getY(), v2)) ||
-						(Objects.equals(getEdges().get(i).getY(), v1) &&
-								Objects.equals(getEdges().get(i).getX(), v2)))
-					adjacent = true;
-			}
-		}
-		
-		return adjacent;
+		// The orientation does not matter
+		return getIndex().search(v1, v2, true) != null;
 	}
 	@SuppressWarnings("ConstantConditions")
 	public boolean areAdjacent(@NotNull Ref<Vertex<V>> v1, @NotNull Ref<Vertex<V>> v2) {
@@ -497,23 +527,20 @@ public class Graph<V, E> extends EnhancedObservable implements Serializable, Clo
 			Vertex<?> a = ei.getX();
 			Vertex<?> b = ei.getY();
 			
-			// Search ej such that ej = (b, c) (c ∈ X (vertices) and c ≠ b)
+			// Search ej such that ej = (b, c) (c ∈ X (vertices) and c ≠ b) among the edges leaving b
 			boolean found_ej = false;
-			for (int j = 0, maxj = getEdges().size(); j < maxj; j++) {
-				if (i != j) {
-					Edge<E> ej = getEdges().get(j); // (b, c)
-					Vertex<?> c = ej.getY();
+			List<Edge<E>> out = b != null ? getIndex().out(b) : Collections.emptyList();
+			for (int j = 0, maxj = out.size(); j < maxj; j++) {
+				Edge<E> ej = out.get(j); // (b, c)
+				Vertex<?> c = ej.getY();
+				
+				if (ej != ei && Objects.equals(ej.getX(), b) && !Objects.equals(c, b)) {
+					found_ej = true;
 					
-					if (Objects.equals(ej.getX(), b) && !Objects.equals(ej.getY(), b) || (
-							!isOriented() && Objects.equals(ej.getY(), b) && !Objects.equals(ej.getX(), b)
-							)) {
-						found_ej = true;
-						
-						// Search an edge "ek" such that "ek" = (a, c)
-						Edge<E> ek = searchEdge(a, c);
-						if (ek == null)
-							return false;
-					}
+					// Search an edge "ek" such that "ek" = (a, c)
+					Edge<E> ek = searchEdge(a, c);
+					if (ek == null)
+						return false;
 				}
 			}
 			
@@ -764,7 +791,12 @@ public class Graph<V, E> extends EnhancedObservable implements Serializable, Clo
 	 */
 	public Graph<V, E> getSymmetry() {
 		Graph<V, E> gSym = new Graph<>(isOriented());
-		gSym.setVertices(getVertices());
+		// The vertices are copied: sharing the lexicon would register the observers of the symmetry on this graph
+		gSym.setVertices(new LexiconBuilder<Vertex<V>>()
+				.setAcceptNullValues(false)
+				.setAcceptDuplicates(false)
+				.addAll(getVertices())
+				.createLexicon());
 		
 		Lexicon<Edge<E>> edges = new LexiconBuilder<Edge<E>>()
 				.setAcceptDuplicates(false)
@@ -792,7 +824,7 @@ public class Graph<V, E> extends EnhancedObservable implements Serializable, Clo
 				.createLexicon();
 		
 		// "degrees" map all vertices to a connectivity degree in a graph without this vertex.
-		LinkedHashMap<String, Long> degrees = new LinkedHashMap<>();
+		LinkedHashMap<UUID, Long> degrees = new LinkedHashMap<>();
 		
 		for (int i = 0, maxi = getVertices().size(); i < maxi; i++) {
 			Vertex<V> vi = getVertices().get(i);
@@ -820,18 +852,18 @@ public class Graph<V, E> extends EnhancedObservable implements Serializable, Clo
 			g.setEdges(edges);
 			
 			// Get the connectivity degree
-			degrees.put(vi.getId().toString(), g.getConnectivityDegree());
+			degrees.put(vi.getId(), g.getConnectivityDegree());
 		}
 		
 		// Now that all degrees have been computed, search the maximum
 		long maxDegree = 0;
-		for (Map.Entry<String, Long> entry : degrees.entrySet())
+		for (Map.Entry<UUID, Long> entry : degrees.entrySet())
 			if (maxDegree < entry.getValue())
 				maxDegree = entry.getValue();
 		
 		// Now, construct "articulationPoints" from "maxDegree" and "degrees"
 		if (maxDegree > 1)
-			for (Map.Entry<String, Long> entry : degrees.entrySet())
+			for (Map.Entry<UUID, Long> entry : degrees.entrySet())
 				if (entry.getValue() == maxDegree)
 					articulationPoints.add(searchVertexFromId(entry.getKey()));
 		
@@ -851,7 +883,7 @@ public class Graph<V, E> extends EnhancedObservable implements Serializable, Clo
 				.createLexicon();
 		
 		// "degrees" map all edges to a connectivity degree in a graph without this edge.
-		LinkedHashMap<String, Long> degrees = new LinkedHashMap<>();
+		LinkedHashMap<UUID, Long> degrees = new LinkedHashMap<>();
 		
 		for (int i = 0, maxi = getEdges().size(); i < maxi; i++) {
 			Edge<E> ei = getEdges().get(i);
@@ -876,18 +908,18 @@ public class Graph<V, E> extends EnhancedObservable implements Serializable, Clo
 			g.setEdges(edges);
 			
 			// Get the connectivity degree
-			degrees.put(ei.getId().toString(), g.getConnectivityDegree());
+			degrees.put(ei.getId(), g.getConnectivityDegree());
 		}
 		
 		// Now that all degrees have been computed, search the maximum
 		long maxDegree = 0;
-		for (Map.Entry<String, Long> entry : degrees.entrySet())
+		for (Map.Entry<UUID, Long> entry : degrees.entrySet())
 			if (maxDegree < entry.getValue())
 				maxDegree = entry.getValue();
 		
 		// Now, construct "bridges" from "maxDegree" and "degrees"
 		if (maxDegree > 1)
-			for (Map.Entry<String, Long> entry : degrees.entrySet())
+			for (Map.Entry<UUID, Long> entry : degrees.entrySet())
 				if (entry.getValue() == maxDegree)
 					bridges.add(searchEdgeFromId(entry.getKey()));
 		
@@ -948,7 +980,7 @@ public class Graph<V, E> extends EnhancedObservable implements Serializable, Clo
 		if (source == null || destination == null)
 			throw new NullPointerException();
 		
-		if (!getVertices().contains(source) || !getVertices().contains(destination))
+		if (!containsVertex(source) || !containsVertex(destination))
 			throw new IllegalArgumentException();
 		
 		Lexicon<Vertex<V>> vertices = Dijkstra.getPath(this, source, destination, regardingOrientation);
@@ -969,27 +1001,27 @@ public class Graph<V, E> extends EnhancedObservable implements Serializable, Clo
 		if (source == null)
 			throw new NullPointerException();
 		
-		if (!getVertices().contains(source))
+		if (!containsVertex(source))
 			throw new IllegalArgumentException();
 		
-		LinkedHashMap<String, Boolean> mark = new LinkedHashMap<>();
-		LinkedHashMap<String, Long> distance = new LinkedHashMap<>();
-		Lexicon<String> F = new LexiconBuilder<String>()
+		HashSet<UUID> mark = new HashSet<>();
+		LinkedHashMap<UUID, Long> distance = new LinkedHashMap<>();
+		Lexicon<UUID> F = new LexiconBuilder<UUID>()
 				.setAcceptNullValues(false)
 				.setAcceptDuplicates(false)
+				.setHashIndexed(true)
 				.createLexicon();
 		
-		for (Vertex<V> x : getVertices()) {
-			mark.put(x.getId().toString(), false);
-			distance.put(x.getId().toString(), Long.MAX_VALUE);
-		}
+		for (Vertex<V> x : getVertices())
+			distance.put(x.getId(), Long.MAX_VALUE);
 		
-		mark.put(source.getId().toString(), true);
-		F.add(source.getId().toString());
-		distance.put(source.getId().toString(), 0L);
+		mark.add(source.getId());
+		F.add(source.getId());
+		distance.put(source.getId(), 0L);
 		
 		while (!F.isEmpty()) {
-			Vertex<V> x = searchVertexFromId(F.last());
+			UUID xId = F.last();
+			Vertex<V> x = searchVertexFromId(xId);
 			
 			if (x != null) {
 				Lexicon<Vertex<V>> neighbor = getSuccessors(x);
@@ -1001,19 +1033,18 @@ public class Graph<V, E> extends EnhancedObservable implements Serializable, Clo
 				neighbor.setAcceptDuplicates(false);
 				
 				for (Vertex<V> y : neighbor) {
-					if (!mark.get(y.getId().toString())) {
-						mark.put(y.getId().toString(), true);
-						distance.put(y.getId().toString(), distance.get(x.getId().toString()) + 1);
-						F.add(y.getId().toString());
+					if (mark.add(y.getId())) {
+						distance.put(y.getId(), distance.get(xId) + 1);
+						F.add(y.getId());
 					}
 				}
-				
-				F.remove(x.getId().toString()); // remove the last element (x)
 			}
+			
+			F.remove(xId); // remove the last element (x)
 		}
 		
 		LinkedHashMap<Vertex<V>, Long> vDistance = new LinkedHashMap<>();
-		for (Map.Entry<String, Long> entry : distance.entrySet())
+		for (Map.Entry<UUID, Long> entry : distance.entrySet())
 			vDistance.put(searchVertexFromId(entry.getKey()), entry.getValue());
 		
 		return vDistance;
@@ -1028,7 +1059,7 @@ public class Graph<V, E> extends EnhancedObservable implements Serializable, Clo
 		if (source == null || destination == null)
 			throw new NullPointerException();
 		
-		if (!getVertices().contains(source) || !getVertices().contains(destination))
+		if (!containsVertex(source) || !containsVertex(destination))
 			throw new IllegalArgumentException();
 		
 		LinkedHashMap<Vertex<V>, Long> distance = mapDistanceFrom(source, regardingOrientation);
@@ -1041,38 +1072,30 @@ public class Graph<V, E> extends EnhancedObservable implements Serializable, Clo
 	
 	@NotNull
 	public synchronized LinkedHashMap<Vertex<V>, Integer> breadthFirstSearch(@NotNull Vertex<V> beginning, @Nullable Function<Couple<Vertex<V>, Integer>, Void> action) {
-		LinkedHashMap<String, Integer> route = new LinkedHashMap<>();
-		LinkedHashMap<String, Boolean> mark = new LinkedHashMap<>();
-		Lexicon<String> F = new LexiconBuilder<String>()
-			.setAcceptNullValues(false)
-			.setAcceptDuplicates(false)
-			.createLexicon();
+		LinkedHashMap<UUID, Integer> route = new LinkedHashMap<>();
+		// The marks prevent a vertex from being queued twice
+		HashSet<UUID> mark = new HashSet<>();
+		LexiconDeque<UUID> F = new LexiconDeque<>();
 		int p = 1;
 		
-		for (Vertex<V> v : getVertices()) {
-			mark.put(v.getId().toString(), false);
-			route.put(v.getId().toString(), 0);
-		}
+		for (Vertex<V> v : getVertices())
+			route.put(v.getId(), 0);
 		
-		mark.put(beginning.getId().toString(), true);
-		F.add(beginning.getId().toString());
+		mark.add(beginning.getId());
+		F.add(beginning.getId());
 		
 		while (!F.isEmpty()) {
-			Vertex<V> x = searchVertexFromId(F.first());
+			Vertex<V> x = searchVertexFromId(F.pollFirst());
 			
 			if (x != null) {
 				Lexicon<Vertex<V>> successors = getSuccessors(x);
 				if (!successors.isEmpty()) {
-					for (Vertex<V> y : successors) {
-						if (!mark.get(y.getId().toString())) {
-							mark.put(y.getId().toString(), true);
-							F.add(y.getId().toString());
-						}
-					}
+					for (Vertex<V> y : successors)
+						if (mark.add(y.getId()))
+							F.add(y.getId());
 				}
 				
-				route.put(x.getId().toString(), p);
-				F.remove(x.getId().toString()); // remove x (which is the last element in F)
+				route.put(x.getId(), p);
 				
 				if (action != null)
 					action.apply(new Couple<>(x, p));
@@ -1082,7 +1105,7 @@ public class Graph<V, E> extends EnhancedObservable implements Serializable, Clo
 		}
 		
 		LinkedHashMap<Vertex<V>, Integer> vRoute = new LinkedHashMap<>();
-		for (Map.Entry<String, Integer> entry : route.entrySet())
+		for (Map.Entry<UUID, Integer> entry : route.entrySet())
 			vRoute.put(searchVertexFromId(entry.getKey()), entry.getValue());
 		
 		return vRoute;
@@ -1094,12 +1117,9 @@ public class Graph<V, E> extends EnhancedObservable implements Serializable, Clo
 	
 	@NotNull
 	public synchronized LinkedHashMap<Vertex<V>, Integer> depthFirstSearch(@NotNull Vertex<V> beginning, @Nullable Function<Couple<Vertex<V>, Integer>, Void> action) {
-		LinkedHashMap<String, Integer> route = new LinkedHashMap<>();
-		LinkedHashMap<String, Boolean> mark = new LinkedHashMap<>();
-		Lexicon<String> P = new LexiconBuilder<String>()
-				.setAcceptNullValues(false)
-				.setAcceptDuplicates(false)
-				.createLexicon();
+		LinkedHashMap<UUID, Integer> route = new LinkedHashMap<>();
+		HashSet<UUID> mark = new HashSet<>();
+		LexiconDeque<UUID> P = new LexiconDeque<>();
 		int p = 1;
 		Comparator<Vertex<V>> comparator = new Comparator<Vertex<V>>() {
 			@Override
@@ -1108,16 +1128,14 @@ public class Graph<V, E> extends EnhancedObservable implements Serializable, Clo
 			}
 		};
 		
-		for (Vertex<V> v : getVertices()) {
-			mark.put(v.getId().toString(), false);
-			route.put(v.getId().toString(), 0);
-		}
+		for (Vertex<V> v : getVertices())
+			route.put(v.getId(), 0);
 		
-		mark.put(beginning.getId().toString(), true);
-		P.add(beginning.getId().toString());
+		mark.add(beginning.getId());
+		P.add(beginning.getId());
 		
 		while (!P.isEmpty()) {
-			Vertex<V> head = searchVertexFromId(P.last());
+			Vertex<V> head = searchVertexFromId(P.peekLast());
 			
 			if (head != null) {
 				Lexicon<Vertex<V>> successors = getSuccessors(head);
@@ -1127,11 +1145,10 @@ public class Graph<V, E> extends EnhancedObservable implements Serializable, Clo
 				
 				do {
 					for (Vertex<V> y : successors) {
-						if (!mark.get(y.getId().toString())) {
-							mark.put(y.getId().toString(), true);
-							P.add(y.getId().toString());
+						if (mark.add(y.getId())) {
+							P.add(y.getId());
 							
-							// Change new head (similar to "searchVertexFromId(P.last());")
+							// Change new head (similar to "searchVertexFromId(P.peekLast());")
 							head = y;
 						}
 					}
@@ -1144,7 +1161,7 @@ public class Graph<V, E> extends EnhancedObservable implements Serializable, Clo
 					
 					// Delete all vertices already marked in "successors"
 					for (int i = 0; i < successors.size(); i++) {
-						if (mark.get(successors.get(i).getId().toString())) {
+						if (mark.contains(successors.get(i).getId())) {
 							successors.remove(i);
 							i--;
 						}
@@ -1153,8 +1170,7 @@ public class Graph<V, E> extends EnhancedObservable implements Serializable, Clo
 					// If the list is not empty, do it again...
 				} while (!successors.isEmpty());
 				
-				route.put(P.last(), p);
-				P.remove(P.last());
+				route.put(P.pollLast(), p);
 				
 				if (action != null)
 					action.apply(new Couple<>(head, p));
@@ -1164,7 +1180,7 @@ public class Graph<V, E> extends EnhancedObservable implements Serializable, Clo
 		}
 		
 		LinkedHashMap<Vertex<V>, Integer> vRoute = new LinkedHashMap<>();
-		for (Map.Entry<String, Integer> entry : route.entrySet())
+		for (Map.Entry<UUID, Integer> entry : route.entrySet())
 			vRoute.put(searchVertexFromId(entry.getKey()), entry.getValue());
 		
 		return vRoute;
@@ -1180,9 +1196,7 @@ public class Graph<V, E> extends EnhancedObservable implements Serializable, Clo
 	 */
 	public boolean detectCycle() {
 		LinkedHashMap<Vertex<V>, Integer> inDegree = new LinkedHashMap<>();
-		Lexicon<Vertex<V>> F = new LexiconBuilder<Vertex<V>>()
-				.setAcceptNullValues(false)
-				.createLexicon();
+		LexiconDeque<Vertex<V>> F = new LexiconDeque<>();
 		int p = 0;
 		
 		for (Vertex<V> v : getVertices()) {
@@ -1197,7 +1211,7 @@ public class Graph<V, E> extends EnhancedObservable implements Serializable, Clo
 		}
 		
 		while (!F.isEmpty()) {
-			Vertex<V> x = F.first();
+			Vertex<V> x = F.pollFirst();
 			
 			if (x != null) {
 				Lexicon<Vertex<V>> successors = getSuccessors(x);
@@ -1211,8 +1225,6 @@ public class Graph<V, E> extends EnhancedObservable implements Serializable, Clo
 						p++;
 					}
 				}
-				
-				F.remove(x);
 			}
 		}
 		
@@ -1232,9 +1244,7 @@ public class Graph<V, E> extends EnhancedObservable implements Serializable, Clo
 		
 		LinkedHashMap<Vertex<V>, Integer> topo = new LinkedHashMap<>();
 		LinkedHashMap<Vertex<V>, Integer> inDegree = new LinkedHashMap<>();
-		Lexicon<Vertex<V>> F = new LexiconBuilder<Vertex<V>>()
-				.setAcceptNullValues(false)
-				.createLexicon();
+		LexiconDeque<Vertex<V>> F = new LexiconDeque<>();
 		int p = 1;
 		
 		for (Vertex<V> v : getVertices()) {
@@ -1250,7 +1260,7 @@ public class Graph<V, E> extends EnhancedObservable implements Serializable, Clo
 		}
 		
 		while (!F.isEmpty()) {
-			Vertex<V> x = F.first();
+			Vertex<V> x = F.pollFirst();
 			
 			if (x != null) {
 				Lexicon<Vertex<V>> successors = getSuccessors(x);
@@ -1265,8 +1275,6 @@ public class Graph<V, E> extends EnhancedObservable implements Serializable, Clo
 						p++;
 					}
 				}
-				
-				F.remove(x);
 			}
 		}
 		
@@ -1435,6 +1443,23 @@ public class Graph<V, E> extends EnhancedObservable implements Serializable, Clo
 		return colors.size();
 	}
 	
+	/**
+	 * Build an immutable snapshot of the graph in the compressed sparse row layout, where the vertices are numbered
+	 * from 0 and the edges are arrays of ints. It is not updated when the graph changes.
+	 * @param withData If {@code true}, the data of the edges is copied in the snapshot.
+	 * @param withColors If {@code true}, the colors of the vertices and the edges are copied in the snapshot.
+	 * @return Return the snapshot.
+	 * @see FrozenGraph
+	 */
+	@NotNull
+	public FrozenGraph<V, E> freeze(boolean withData, boolean withColors) {
+		return new FrozenGraph<>(this, withData, withColors);
+	}
+	@NotNull
+	public FrozenGraph<V, E> freeze() {
+		return freeze(false, false);
+	}
+	
 	/* GETTERS & SETTERS */
 	
 	/**
@@ -1467,7 +1492,12 @@ public class Graph<V, E> extends EnhancedObservable implements Serializable, Clo
 		if (vertices == null)
 			throw new NullPointerException();
 		
+		// The index only observes the lexicon of the graph
+		if (this.vertices != null)
+			this.vertices.deleteObserver(getIndex());
+		
 		this.vertices = vertices;
+		getIndex().invalidate();
 		configureVertices();
 	}
 	
@@ -1479,6 +1509,7 @@ public class Graph<V, E> extends EnhancedObservable implements Serializable, Clo
 		getVertices().setAcceptNullValues(false);
 		getVertices().setAcceptDuplicates(false);
 		getVertices().addObserver((observable, o) -> snap(o));
+		getVertices().addObserver(getIndex());
 		snap(getVertices());
 	}
 	
@@ -1505,7 +1536,12 @@ public class Graph<V, E> extends EnhancedObservable implements Serializable, Clo
 		if (edges == null)
 			throw new NullPointerException();
 		
+		// The index only observes the lexicon of the graph
+		if (this.edges != null)
+			this.edges.deleteObserver(getIndex());
+		
 		this.edges = edges;
+		getIndex().invalidate();
 		configureEdges();
 	}
 	
@@ -1517,6 +1553,7 @@ public class Graph<V, E> extends EnhancedObservable implements Serializable, Clo
 		getEdges().setAcceptNullValues(false);
 		getEdges().setAcceptDuplicates(false);
 		getEdges().addObserver((observable, o) -> snap(o));
+		getEdges().addObserver(getIndex());
 		snap(getEdges());
 	}
 	
@@ -1529,6 +1566,14 @@ public class Graph<V, E> extends EnhancedObservable implements Serializable, Clo
 		return getEdges().size();
 	}
 	
+	@NotNull
+	GraphIndex<V, E> getIndex() {
+		if (index == null)
+			index = new GraphIndex<>(this);
+		
+		return index;
+	}
+	
 	/* SERIALIZATION OVERRIDES */
 	
 	private void writeObject(@NotNull ObjectOutputStream stream) throws IOException {
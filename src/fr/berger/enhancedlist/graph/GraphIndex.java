@@ -0,0 +1,417 @@
+package fr.berger.enhancedlist.graph;
+
+import fr.berger.enhancedlist.lexicon.Lexicon;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Observable;
+import java.util.Objects;
+import java.util.Observer;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Index of the vertices and the edges of a {@link Graph}: for each vertex id, the vertex of the graph with this id, the
+ * edges leaving it and the edges reaching it, the edge of each edge id, and the edges between each pair of vertex ids.
+ * The neighbor queries are then in O(degree), and the searches by id or by endpoints in O(1), instead of scanning all
+ * the vertices or the edges.
+ * <p>
+ * The index is built on the first query, then kept up to date through the observers of the lexicons of the graph: an
+ * element added at the end or removed updates it in place; any other modification (set, insertion in the middle,
+ * batch...) drops it until the next query, like the hash index of {@link Lexicon}.
+ * </p>
+ * <p>
+ * The index does not observe the vertices and the edges: the temporary graphs of {@link Graph} (in
+ * {@link Graph#getArticulationPoints()} for instance) share them with the graph, and their indexes would stay
+ * registered on them. Instead, an indexed vertex or edge increments a global counter when its id or its endpoints
+ * change, and every index built before is dropped on its next query. These changes are rare, so dropping the indexes
+ * of the other graphs too costs less than observing every element.
+ * </p>
+ * <p>
+ * Lexicon handlers are not used because the copy constructor of Lexicon shares them with the copy.
+ * </p>
+ * @param <V> The type of the data of the vertices.
+ * @param <E> The type of the data of the edges.
+ * @author Valentin Berger
+ */
+final class GraphIndex<V, E> implements Observer {
+	
+	@NotNull
+	private final Graph<V, E> graph;
+	
+	/**
+	 * The adjacency of each vertex id, or {@code null} if the index must be rebuilt.
+	 */
+	@Nullable
+	private HashMap<UUID, Adjacency<V, E>> adjacencies;
+	
+	/**
+	 * The edge of each edge id. Built and dropped with {@code adjacencies}.
+	 */
+	@Nullable
+	private HashMap<UUID, Edge<E>> edges;
+	
+	/**
+	 * The edges between each pair of vertex ids, in both directions. Built and dropped with {@code adjacencies}.
+	 */
+	@Nullable
+	private HashMap<Pair, ArrayList<Edge<E>>> pairs;
+	
+	/**
+	 * Number of changes of the id of an indexed vertex or edge, or of the endpoints of an indexed edge.
+	 */
+	private static final AtomicLong identities = new AtomicLong();
+	
+	/**
+	 * The value of {@code identities} when the index was built.
+	 */
+	private long identity;
+	
+	/**
+	 * Sizes of the lexicons of the graph when the index was last updated
+	 */
+	private int vertexCount;
+	private int edgeCount;
+	
+	/* CONSTRUCTOR */
+	
+	GraphIndex(@NotNull Graph<V, E> graph) {
+		this.graph = graph;
+	}
+	
+	/* QUERIES */
+	
+	/**
+	 * @param vertex The vertex.
+	 * @return The adjacency of {@code vertex}, or {@code null} if {@code vertex} is not in the graph.
+	 */
+	@Nullable
+	Adjacency<V, E> get(@NotNull Vertex<?> vertex) {
+		Adjacency<V, E> adjacency = adjacencies().get(vertex.getId());
+		return adjacency != null && adjacency.vertex != null && adjacency.vertex.equals(vertex) ? adjacency : null;
+	}
+	
+	/**
+	 * @param vertex The vertex.
+	 * @return The adjacency of {@code vertex}.
+	 * @throws IllegalArgumentException If {@code vertex} is not in the graph.
+	 */
+	@NotNull
+	Adjacency<V, E> require(@NotNull Vertex<?> vertex) {
+		Adjacency<V, E> adjacency = get(vertex);
+		if (adjacency == null)
+			throw new IllegalArgumentException();
+		
+		return adjacency;
+	}
+	
+	boolean contains(@NotNull Vertex<?> vertex) {
+		return get(vertex) != null;
+	}
+	
+	/**
+	 * @param id The id of a vertex.
+	 * @return The vertex of the graph with this id, or {@code null} if there is none.
+	 */
+	@Nullable
+	Vertex<V> vertex(@NotNull UUID id) {
+		Adjacency<V, E> adjacency = adjacencies().get(id);
+		return adjacency != null ? adjacency.vertex : null;
+	}
+	
+	/**
+	 * @param id The id of an edge.
+	 * @return The edge of the graph with this id, or {@code null} if there is none.
+	 */
+	@Nullable
+	Edge<E> edge(@NotNull UUID id) {
+		adjacencies();
+		//noinspection ConstantConditions
+		return edges.get(id);
+	}
+	
+	/**
+	 * @param vertex A vertex, which may not be in the graph.
+	 * @return The edges whose source has the id of {@code vertex}, in the order of the edges of the graph. The source
+	 * of each edge must still be compared to {@code vertex}. The list must not be modified.
+	 */
+	@NotNull
+	List<Edge<E>> out(@NotNull Vertex<?> vertex) {
+		Adjacency<V, E> adjacency = adjacencies().get(vertex.getId());
+		return adjacency != null ? adjacency.out : Collections.emptyList();
+	}
+	
+	/**
+	 * @param v1 The first vertex.
+	 * @param v2 The second vertex.
+	 * @return The edges between the ids of {@code v1} and {@code v2}, in both directions and in the order of the edges
+	 * of the graph. The endpoints of each edge must still be compared to {@code v1} and {@code v2}. The list must not
+	 * be modified.
+	 */
+	@NotNull
+	List<Edge<E>> between(@NotNull Vertex<?> v1, @NotNull Vertex<?> v2) {
+		adjacencies();
+		//noinspection ConstantConditions
+		ArrayList<Edge<E>> list = pairs.get(new Pair(v1.getId(), v2.getId()));
+		return list != null ? list : Collections.emptyList();
+	}
+	
+	/**
+	 * Search the first edge e such that e = (source, destination), or e = (destination, source) if {@code backward}
+	 * is {@code true}.
+	 * @param source The source of the edge.
+	 * @param destination The destination of the edge.
+	 * @param backward If {@code true}, the edges from {@code destination} to {@code source} also match.
+	 * @return The first matching edge in the order of the edges of the graph, or {@code null} if there is none.
+	 */
+	@Nullable
+	Edge<E> search(@NotNull Vertex<?> source, @NotNull Vertex<?> destination, boolean backward) {
+		List<Edge<E>> list = between(source, destination);
+		for (int i = 0, maxi = list.size(); i < maxi; i++) {
+			Edge<E> edge = list.get(i);
+			if (matches(edge, source, destination, backward))
+				return edge;
+		}
+		
+		return null;
+	}
+	
+	/**
+	 * @return Return {@code true} if e = (source, destination), or e = (destination, source) and {@code backward} is
+	 * {@code true}.
+	 */
+	static boolean matches(@NotNull Edge<?> edge, @NotNull Vertex<?> source, @NotNull Vertex<?> destination, boolean backward) {
+		return Objects.equals(edge.getX(), source) && Objects.equals(edge.getY(), destination) ||
+				backward && Objects.equals(edge.getY(), source) && Objects.equals(edge.getX(), destination);
+	}
+	
+	/**
+	 * Drop the index. It will be rebuilt on the next query.
+	 */
+	void invalidate() {
+		adjacencies = null;
+		edges = null;
+		pairs = null;
+	}
+	
+	/**
+	 * Called when the id of an indexed vertex or edge, or an endpoint of an indexed edge, changes. All the indexes
+	 * built before will be rebuilt on their next query.
+	 */
+	static void identityChanged() {
+		identities.incrementAndGet();
+	}
+	
+	@NotNull
+	private HashMap<UUID, Adjacency<V, E>> adjacencies() {
+		HashMap<UUID, Adjacency<V, E>> map = adjacencies;
+		if (map != null && identity != identities.get())
+			map = null;
+		
+		if (map == null) {
+			identity = identities.get();
+			Lexicon<Vertex<V>> vertices = graph.getVertices();
+			Lexicon<Edge<E>> edges = graph.getEdges();
+			map = new HashMap<>(capacity(vertices.size()));
+			this.edges = new HashMap<>(capacity(edges.size()));
+			pairs = new HashMap<>(capacity(edges.size()));
+			
+			for (Vertex<V> vertex : vertices)
+				addVertex(map, vertex);
+			for (Edge<E> edge : edges)
+				addEdge(map, edge);
+			
+			vertexCount = vertices.size();
+			edgeCount = edges.size();
+			adjacencies = map;
+		}
+		
+		return map;
+	}
+	
+	private static int capacity(int size) {
+		return Math.max(16, (int) (size / 0.75f) + 1);
+	}
+	
+	/* UPDATES */
+	
+	@Override
+	public void update(Observable o, Object arg) {
+		HashMap<UUID, Adjacency<V, E>> map = adjacencies;
+		if (map == null)
+			return;
+		
+		if (o == graph.getVertices())
+			verticesChanged(map, arg);
+		else if (o == graph.getEdges())
+			edgesChanged(map, arg);
+	}
+	
+	@SuppressWarnings("unchecked")
+	private void verticesChanged(@NotNull HashMap<UUID, Adjacency<V, E>> map, Object arg) {
+		Lexicon<Vertex<V>> vertices = graph.getVertices();
+		int size = vertices.size();
+		
+		if (arg instanceof Vertex && size == vertexCount + 1 && vertices.get(size - 1) == arg)
+			addVertex(map, (Vertex<V>) arg);
+		else if (!(arg instanceof Vertex) || size != vertexCount - 1 || !removeVertex(map, (Vertex<V>) arg)) {
+			invalidate();
+			return;
+		}
+		
+		vertexCount = size;
+	}
+	
+	@SuppressWarnings("unchecked")
+	private void edgesChanged(@NotNull HashMap<UUID, Adjacency<V, E>> map, Object arg) {
+		Lexicon<Edge<E>> edges = graph.getEdges();
+		int size = edges.size();
+		
+		if (arg instanceof Edge && size == edgeCount + 1 && edges.get(size - 1) == arg)
+			addEdge(map, (Edge<E>) arg);
+		else if (!(arg instanceof Edge) || size != edgeCount - 1 || !removeEdge(map, (Edge<E>) arg)) {
+			invalidate();
+			return;
+		}
+		
+		edgeCount = size;
+	}
+	
+	private void addVertex(@NotNull HashMap<UUID, Adjacency<V, E>> map, @NotNull Vertex<V> vertex) {
+		Adjacency<V, E> adjacency = map.computeIfAbsent(vertex.getId(), id -> new Adjacency<>());
+		// Like a linear search, the index returns the first vertex with a given id
+		if (adjacency.vertex == null)
+			adjacency.vertex = vertex;
+		
+		vertex.indexed = true;
+	}
+	
+	private boolean removeVertex(@NotNull HashMap<UUID, Adjacency<V, E>> map, @NotNull Vertex<V> vertex) {
+		Adjacency<V, E> adjacency = map.get(vertex.getId());
+		if (adjacency == null || adjacency.vertex != vertex)
+			return false;
+		
+		adjacency.vertex = null;
+		if (adjacency.isEmpty())
+			map.remove(vertex.getId());
+		
+		return true;
+	}
+	
+	private void addEdge(@NotNull HashMap<UUID, Adjacency<V, E>> map, @NotNull Edge<E> edge) {
+		if (edge.getX() != null)
+			map.computeIfAbsent(edge.getX().getId(), id -> new Adjacency<>()).out.add(edge);
+		if (edge.getY() != null)
+			map.computeIfAbsent(edge.getY().getId(), id -> new Adjacency<>()).in.add(edge);
+		
+		if (edge.getX() != null && edge.getY() != null)
+			//noinspection ConstantConditions
+			pairs.computeIfAbsent(new Pair(edge.getX().getId(), edge.getY().getId()), pair -> new ArrayList<>(1)).add(edge);
+		
+		//noinspection ConstantConditions
+		edges.putIfAbsent(edge.getId(), edge);
+		edge.indexed = true;
+	}
+	
+	private boolean removeEdge(@NotNull HashMap<UUID, Adjacency<V, E>> map, @NotNull Edge<E> edge) {
+		boolean removed = true;
+		
+		if (edge.getX() != null)
+			removed = remove(map, edge.getX().getId(), edge, true);
+		if (edge.getY() != null)
+			removed &= remove(map, edge.getY().getId(), edge, false);
+		
+		if (edge.getX() != null && edge.getY() != null) {
+			Pair pair = new Pair(edge.getX().getId(), edge.getY().getId());
+			//noinspection ConstantConditions
+			ArrayList<Edge<E>> list = pairs.get(pair);
+			removed &= list != null && removeLast(list, edge);
+			if (list != null && list.isEmpty())
+				pairs.remove(pair);
+		}
+		
+		//noinspection ConstantConditions
+		removed &= edges.remove(edge.getId(), edge);
+		return removed;
+	}
+	
+	private boolean remove(@NotNull HashMap<UUID, Adjacency<V, E>> map, @NotNull UUID id, @NotNull Edge<E> edge, boolean out) {
+		Adjacency<V, E> adjacency = map.get(id);
+		if (adjacency == null)
+			return false;
+		
+		if (!removeLast(out ? adjacency.out : adjacency.in, edge))
+			return false;
+		
+		if (adjacency.isEmpty())
+			map.remove(id);
+		
+		return true;
+	}
+	
+	private static <E> boolean removeLast(@NotNull ArrayList<Edge<E>> edges, @NotNull Edge<E> edge) {
+		// The edges are compared by identity: two edges with the same id are equal
+		for (int i = edges.size() - 1; i >= 0; i--) {
+			if (edges.get(i) == edge) {
+				edges.remove(i);
+				return true;
+			}
+		}
+		
+		return false;
+	}
+	
+	/* ADJACENCY */
+	
+	/**
+	 * The vertex of the graph with a given id, and the edges whose source ({@code x}) or destination ({@code y}) has
+	 * this id, in the order of the edges of the graph.
+	 */
+	static final class Adjacency<V, E> {
+		
+		@Nullable
+		Vertex<V> vertex;
+		@NotNull
+		final ArrayList<Edge<E>> out = new ArrayList<>(4);
+		@NotNull
+		final ArrayList<Edge<E>> in = new ArrayList<>(4);
+		
+		private boolean isEmpty() {
+			return vertex == null && out.isEmpty() && in.isEmpty();
+		}
+	}
+	
+	/**
+	 * An unordered pair of vertex ids, so the edges in both directions between two vertices are in the same list.
+	 */
+	static final class Pair {
+		
+		@NotNull
+		private final UUID first;
+		@NotNull
+		private final UUID second;
+		
+		Pair(@NotNull UUID id1, @NotNull UUID id2) {
+			boolean ordered = id1.compareTo(id2) <= 0;
+			first = ordered ? id1 : id2;
+			second = ordered ? id2 : id1;
+		}
+		
+		@Override
+		public boolean equals(Object o) {
+			if (this == o) return true;
+			if (!(o instanceof Pair)) return false;
+			Pair pair = (Pair) o;
+			return first.equals(pair.first) && second.equals(pair.second);
+		}
+		
+		@Override
+		public int hashCode() {
+			return 31 * first.hashCode() + second.hashCode();
+		}
+	}
+}
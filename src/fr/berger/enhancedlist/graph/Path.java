@@ -51,13 +51,7 @@ public class Path<E> extends Lexicon<Edge<E>> implements Serializable, Cloneable
 			Vertex<V> next = vertices.get(i + 1);
 			
 			// Search the edge
-			Edge<E> edge = null;
-			for (int j = 0, maxj = graph.getEdges().size(); j < maxj && edge == null; j++) {
-				Edge<E> currentEdge = graph.getEdges().get(j);
-				if (Objects.equals(currentEdge.getX(), v) && Objects.equals(currentEdge.getY(), next) ||
-						(canGoBackward && Objects.equals(currentEdge.getY(), v) && Objects.equals(currentEdge.getX(), next)))
-					edge = currentEdge;
-			}
+			Edge<E> edge = v != null && next != null ? graph.getIndex().search(v, next, canGoBackward) : null;
 			
 			// If the edge has not been found, throw an exception because of the argument "vertices"
 			if (edge == null)
@@ -55,6 +55,12 @@ public class Vertex<T> extends EnhancedObservable implements Serializable, Clone
 	@Nullable
 	private Color color;
 	
+	/**
+	 * {@code true} once the vertex has been indexed by a {@link GraphIndex}, which must then be told when its id
+	 * changes.
+	 */
+	transient boolean indexed;
+	
 	/* CONSTRUCTORS */
 	
 	public Vertex(@NotNull UUID id, @Nullable T data, @NotNull String label, @Nullable Color color) {
@@ -159,6 +165,8 @@ public class Vertex<T> extends EnhancedObservable implements Serializable, Clone
 			throw new NullPointerException();
 		
 		this.id = id;
+		if (indexed)
+			GraphIndex.identityChanged();
 		snap(this.id);
 	}
 	
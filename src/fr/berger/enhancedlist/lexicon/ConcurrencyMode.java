@@ -0,0 +1,36 @@
+package fr.berger.enhancedlist.lexicon;
+
+/**
+ * How a Lexicon protects itself against concurrent accesses.
+ * @see Lexicon#setConcurrencyMode(ConcurrencyMode)
+ * @author Valentin Berger
+ */
+public enum ConcurrencyMode {
+	
+	/**
+	 * No protection at all: the lexicon must be confined to a thread, or synchronized externally. This is the fastest
+	 * mode, and the default one.
+	 */
+	NONE,
+	
+	/**
+	 * Every access is made while holding the monitor of the lexicon ({@code synchronized (lexicon)}), so readers are
+	 * serialized against each other. This is the historical "synchronized access" of Lexicon.
+	 */
+	MONITOR,
+	
+	/**
+	 * The readers share a read lock and the writers take a write lock (see
+	 * {@link java.util.concurrent.locks.ReentrantReadWriteLock}). Suited for lexicons which are read much more often
+	 * than they are modified.
+	 */
+	READ_WRITE,
+	
+	/**
+	 * Like {@link #READ_WRITE}, but {@code get()}, {@code size()} and {@code contains()} first try an optimistic read
+	 * which does not write to shared memory, and only take the read lock if a writer interfered (see
+	 * {@link java.util.concurrent.locks.StampedLock}). The locks are not reentrant across a read and a write: a reader
+	 * (a get handler for instance) must not modify the lexicon.
+	 */
+	OPTIMISTIC
+}
@@ -0,0 +1,243 @@
+package fr.berger.enhancedlist.lexicon;
+
+import org.jetbrains.annotations.NotNull;
+
+import java.lang.reflect.Method;
+import java.util.ArrayDeque;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+
+/**
+ * EventDispatcher runs the handlers of a Lexicon on an {@link Executor} instead of the thread which modified the
+ * lexicon, so a slow handler does not stall the writers (nor hold the monitor of a synchronized lexicon).
+ * <p>
+ * The events are queued and run one after the other, in the order in which they were emitted: a dispatcher never runs
+ * two handlers concurrently, even if its executor has several threads. A dispatcher can be shared by several lexicons,
+ * in which case their events are ordered together.
+ * </p>
+ * <p>
+ * The queue is bounded. When it is full, the {@link Backpressure} policy decides what happens to the new events. Note
+ * that with {@link Backpressure#BLOCK}, a handler must not wait for a monitor held by the writer.
+ * </p>
+ * @see Lexicon#setEventDispatcher(EventDispatcher)
+ * @author Valentin Berger
+ */
+public class EventDispatcher {
+	
+	public static final int DEFAULT_CAPACITY = 1024;
+	
+	/**
+	 * What to do with an event when the queue of the dispatcher is full.
+	 */
+	public enum Backpressure {
+		/**
+		 * Wait until there is room in the queue.
+		 */
+		BLOCK,
+		/**
+		 * Drop the event (see {@link #getDiscardedCount()}).
+		 */
+		DISCARD,
+		/**
+		 * Throw a {@link RejectedExecutionException} to the writer.
+		 */
+		THROW
+	}
+	
+	@NotNull
+	private final Executor executor;
+	private final int capacity;
+	@NotNull
+	private final Backpressure backpressure;
+	
+	private final Object lock = new Object();
+	@NotNull
+	private final ArrayDeque<Runnable> queue;
+	/**
+	 * {@code true} while a drain task is scheduled or running.
+	 */
+	private boolean draining;
+	/**
+	 * The thread which runs the drain task, if any.
+	 */
+	private Thread drainer;
+	private long discardedCount;
+	
+	/* CONSTRUCTORS */
+	
+	/**
+	 * Create a dispatcher on the default executor (virtual threads if the JVM supports them, a pool of daemon threads
+	 * otherwise), with a queue of {@link #DEFAULT_CAPACITY} events which blocks the writers when it is full.
+	 */
+	public EventDispatcher() {
+		this(defaultExecutor());
+	}
+	public EventDispatcher(@NotNull Executor executor) {
+		this(executor, DEFAULT_CAPACITY, Backpressure.BLOCK);
+	}
+	public EventDispatcher(@NotNull Executor executor, int capacity, @NotNull Backpressure backpressure) {
+		if (executor == null || backpressure == null)
+			throw new NullPointerException();
+		
+		if (capacity < 1)
+			throw new IllegalArgumentException("capacity must be greater or equal to 1.");
+		
+		this.executor = executor;
+		this.capacity = capacity;
+		this.backpressure = backpressure;
+		this.queue = new ArrayDeque<>(Math.min(capacity, 64));
+	}
+	
+	/* METHODS */
+	
+	/**
+	 * Queue {@code event}, and schedule the queue on the executor if it is not already.
+	 * @param event The handlers to run.
+	 * @throws RejectedExecutionException If the queue is full and the policy is {@link Backpressure#THROW}.
+	 */
+	void dispatch(@NotNull Runnable event) {
+		synchronized (lock) {
+			// A handler which modifies a lexicon must not wait for itself: it can always exceed the capacity
+			while (queue.size() >= capacity && Thread.currentThread() != drainer) {
+				switch (backpressure) {
+					case DISCARD:
+						discardedCount++;
+						return;
+					case THROW:
+						throw new RejectedExecutionException("The event queue is full.");
+					default:
+						try {
+							lock.wait();
+						} catch (InterruptedException ex) {
+							Thread.currentThread().interrupt();
+							discardedCount++;
+							return;
+						}
+				}
+			}
+			
+			queue.add(event);
+			
+			if (draining)
+				return;
+			
+			draining = true;
+		}
+		
+		try {
+			executor.execute(this::drain);
+		} catch (RejectedExecutionException ex) {
+			// The executor has been shut down: the events are not lost, they are run by the writer
+			drain();
+		}
+	}
+	
+	private void drain() {
+		synchronized (lock) {
+			drainer = Thread.currentThread();
+		}
+		
+		while (true) {
+			Runnable event;
+			synchronized (lock) {
+				event = queue.poll();
+				
+				if (event == null) {
+					drainer = null;
+					draining = false;
+					lock.notifyAll();
+					return;
+				}
+				
+				lock.notifyAll();
+			}
+			
+			try {
+				event.run();
+			} catch (Throwable throwable) {
+				throwable.printStackTrace();
+			}
+		}
+	}
+	
+	/**
+	 * Wait until all the events dispatched so far have been handled. If it is called by a handler of this dispatcher,
+	 * it returns immediately.
+	 */
+	public void flush() {
+		synchronized (lock) {
+			while (draining && Thread.currentThread() != drainer) {
+				try {
+					lock.wait();
+				} catch (InterruptedException ex) {
+					Thread.currentThread().interrupt();
+					return;
+				}
+			}
+		}
+	}
+	
+	/**
+	 * @return The number of events waiting to be handled.
+	 */
+	public int getPendingCount() {
+		synchronized (lock) {
+			return queue.size();
+		}
+	}
+	
+	/**
+	 * @return The number of events dropped because the queue was full (or because the writer was interrupted while
+	 * waiting for room).
+	 */
+	public long getDiscardedCount() {
+		synchronized (lock) {
+			return discardedCount;
+		}
+	}
+	
+	/* GETTERS */
+	
+	@NotNull
+	public Executor getExecutor() {
+		return executor;
+	}
+	
+	public int getCapacity() {
+		return capacity;
+	}
+	
+	@NotNull
+	public Backpressure getBackpressure() {
+		return backpressure;
+	}
+	
+	/* DEFAULT EXECUTOR */
+	
+	@NotNull
+	public static Executor defaultExecutor() {
+		return DefaultExecutorHolder.EXECUTOR;
+	}
+	
+	private static class DefaultExecutorHolder {
+		
+		private static final Executor EXECUTOR = create();
+		
+		@NotNull
+		private static Executor create() {
+			// The virtual threads only exist since Java 21, and this library is compiled for older versions
+			try {
+				Method factory = Executors.class.getMethod("newVirtualThreadPerTaskExecutor");
+				return (ExecutorService) factory.invoke(null);
+			} catch (ReflectiveOperationException | RuntimeException ex) {
+				return Executors.newCachedThreadPool(runnable -> {
+					Thread thread = new Thread(runnable, "Lexicon-EventDispatcher");
+					thread.setDaemon(true);
+					return thread;
+				});
+			}
+		}
+	}
+}
@@ -0,0 +1,221 @@
+package fr.berger.enhancedlist.lexicon;
+
+import org.jetbrains.annotations.NotNull;
+
+import java.io.Serializable;
+import java.util.Objects;
+
+/**
+ * GrowthPolicy decides how much the backing array of a Lexicon must grow when it is full. A geometric policy (such as
+ * {@link Doubling} or {@link Factor}) makes a sequence of {@code add} amortized O(1), whereas a {@link Step} policy
+ * trades speed against a tighter memory footprint.
+ * @see Lexicon#setGrowthPolicy(GrowthPolicy)
+ * @see LexiconBuilder#setGrowthPolicy(GrowthPolicy)
+ * @author Valentin Berger
+ */
+@FunctionalInterface
+public interface GrowthPolicy extends Serializable {
+	
+	/**
+	 * The maximum size of array to allocate. Some VMs reserve some header words in an array, so requesting a larger
+	 * array may result in an OutOfMemoryError.
+	 */
+	int MAX_ARRAY_SIZE = Integer.MAX_VALUE - 8;
+	
+	/**
+	 * Compute the new capacity of the backing array.
+	 * @param capacity The current capacity of the array.
+	 * @param minCapacity The minimum capacity required by the operation which triggered the growth.
+	 * @return The new capacity. It can be smaller than {@code minCapacity}, in which case {@code minCapacity} is used.
+	 */
+	int grow(int capacity, int minCapacity);
+	
+	/* FACTORIES */
+	
+	/**
+	 * The default policy: the capacity is doubled each time the array is full.
+	 * @return A policy doubling the capacity.
+	 */
+	@NotNull
+	static GrowthPolicy doubling() {
+		return new Doubling();
+	}
+	
+	/**
+	 * Multiply the capacity by {@code factor} each time the array is full.
+	 * @param factor The factor to apply. It must be strictly greater than 1.
+	 * @return A policy multiplying the capacity by {@code factor}.
+	 */
+	@NotNull
+	static GrowthPolicy factor(double factor) {
+		return new Factor(factor);
+	}
+	
+	/**
+	 * Add {@code step} cells to the capacity each time the array is full. Note that this policy makes a sequence of
+	 * {@code add} O(n²) if {@code step} is small compared to the number of elements.
+	 * @param step The number of cells to add. It must be strictly positive.
+	 * @return A policy adding {@code step} cells to the capacity.
+	 */
+	@NotNull
+	static GrowthPolicy step(int step) {
+		return new Step(step);
+	}
+	
+	/**
+	 * Grow the capacity to exactly what is needed. This is the behaviour of Lexicon before growth policies were
+	 * introduced: every {@code add} copies the whole array.
+	 * @return A policy which never over-allocates.
+	 */
+	@NotNull
+	static GrowthPolicy exact() {
+		return new Step(1);
+	}
+	
+	/**
+	 * Apply {@code policy} and clamp the result between {@code minCapacity} and {@link #MAX_ARRAY_SIZE}.
+	 * @param policy The policy to apply.
+	 * @param capacity The current capacity of the array.
+	 * @param minCapacity The minimum capacity required.
+	 * @return The new capacity.
+	 * @throws OutOfMemoryError If {@code minCapacity} overflowed.
+	 */
+	static int computeCapacity(@NotNull GrowthPolicy policy, int capacity, int minCapacity) {
+		if (minCapacity < 0)
+			throw new OutOfMemoryError("Required array size too large");
+		
+		int newCapacity = policy.grow(capacity, minCapacity);
+		
+		// A negative value means that the policy overflowed
+		if (newCapacity < 0 || newCapacity > MAX_ARRAY_SIZE)
+			newCapacity = minCapacity > MAX_ARRAY_SIZE ? Integer.MAX_VALUE : MAX_ARRAY_SIZE;
+		
+		return Math.max(newCapacity, minCapacity);
+	}
+	
+	/* IMPLEMENTATIONS */
+	
+	class Doubling implements GrowthPolicy {
+		
+		private static final long serialVersionUID = 2837516629160370563L;
+		
+		/**
+		 * The capacity given to an empty array at its first growth.
+		 */
+		public static final int DEFAULT_CAPACITY = 10;
+		
+		@Override
+		public int grow(int capacity, int minCapacity) {
+			if (capacity == 0)
+				return DEFAULT_CAPACITY;
+			
+			return capacity << 1;
+		}
+		
+		@Override
+		public boolean equals(Object obj) {
+			return obj instanceof Doubling;
+		}
+		
+		@Override
+		public int hashCode() {
+			return Doubling.class.hashCode();
+		}
+		
+		@Override
+		public String toString() {
+			return "Doubling{}";
+		}
+	}
+	
+	class Factor implements GrowthPolicy {
+		
+		private static final long serialVersionUID = -5309418546150893744L;
+		
+		private final double factor;
+		
+		public Factor(double factor) {
+			if (!(factor > 1.0) || Double.isInfinite(factor))
+				throw new IllegalArgumentException("factor must be greater than 1.");
+			
+			this.factor = factor;
+		}
+		
+		@Override
+		public int grow(int capacity, int minCapacity) {
+			if (capacity == 0)
+				return Doubling.DEFAULT_CAPACITY;
+			
+			double newCapacity = Math.ceil(capacity * factor);
+			
+			return newCapacity >= MAX_ARRAY_SIZE ? MAX_ARRAY_SIZE : (int) newCapacity;
+		}
+		
+		public double getFactor() {
+			return factor;
+		}
+		
+		@Override
+		public boolean equals(Object o) {
+			if (this == o) return true;
+			if (!(o instanceof Factor)) return false;
+			Factor that = (Factor) o;
+			return Double.compare(that.factor, factor) == 0;
+		}
+		
+		@Override
+		public int hashCode() {
+			return Objects.hash(factor);
+		}
+		
+		@Override
+		public String toString() {
+			return "Factor{" +
+					"factor=" + factor +
+					'}';
+		}
+	}
+	
+	class Step implements GrowthPolicy {
+		
+		private static final long serialVersionUID = 4425021869733185372L;
+		
+		private final int step;
+		
+		public Step(int step) {
+			if (step < 1)
+				throw new IllegalArgumentException("step must be greater or equal to 1.");
+			
+			this.step = step;
+		}
+		
+		@Override
+		public int grow(int capacity, int minCapacity) {
+			return capacity + step;
+		}
+		
+		public int getStep() {
+			return step;
+		}
+		
+		@Override
+		public boolean equals(Object o) {
+			if (this == o) return true;
+			if (!(o instanceof Step)) return false;
+			Step that = (Step) o;
+			return step == that.step;
+		}
+		
+		@Override
+		public int hashCode() {
+			return Objects.hash(step);
+		}
+		
+		@Override
+		public String toString() {
+			return "Step{" +
+					"step=" + step +
+					'}';
+		}
+	}
+}
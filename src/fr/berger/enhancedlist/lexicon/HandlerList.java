@@ -0,0 +1,75 @@
+package fr.berger.enhancedlist.lexicon;
+
+import org.jetbrains.annotations.NotNull;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Objects;
+
+/**
+ * List of handlers used by the lexicons. It can be modified as any ArrayList, and it keeps an immutable array of its
+ * non-null handlers, rebuilt only after a modification, so that triggering the handlers neither allocates nor prunes
+ * the list.
+ * @param <H> The type of the handlers.
+ * @author Valentin Berger
+ */
+public class HandlerList<H> extends ArrayList<H> {
+	
+	private static final long serialVersionUID = -2208476327350416918L;
+	
+	private static final Object[] EMPTY = new Object[0];
+	
+	private transient Object[] snapshot;
+	private transient int snapshotModCount;
+	
+	public HandlerList() {
+		super(0);
+	}
+	public HandlerList(@NotNull Collection<? extends H> handlers) {
+		super(handlers);
+	}
+	
+	/**
+	 * Use {@code handlers} as a handler list: it is returned as is if it already is one, and copied otherwise.
+	 * @param handlers The handlers.
+	 * @param <H> The type of the handlers.
+	 * @return A handler list containing {@code handlers}.
+	 */
+	@NotNull
+	@SuppressWarnings("unchecked")
+	public static <H> HandlerList<H> of(@NotNull ArrayList<H> handlers) {
+		if (handlers instanceof HandlerList)
+			return (HandlerList<H>) handlers;
+		
+		return new HandlerList<>(handlers);
+	}
+	
+	/**
+	 * Get the non-null handlers of the list. The array must not be modified.
+	 * @return The handlers, in the order of the list.
+	 */
+	@NotNull
+	public Object[] snapshot() {
+		Object[] current = snapshot;
+		
+		if (current == null || snapshotModCount != modCount) {
+			// The null handlers are pruned here, not each time the handlers are triggered
+			removeIf(Objects::isNull);
+			current = isEmpty() ? EMPTY : toArray();
+			snapshot = current;
+			snapshotModCount = modCount;
+		}
+		
+		return current;
+	}
+	
+	@Override
+	public H set(int index, H element) {
+		H old = super.set(index, element);
+		
+		// ArrayList.set() does not count as a structural modification, but the snapshot must be rebuilt
+		modCount++;
+		
+		return old;
+	}
+}
@@ -6,19 +6,29 @@ import fr.berger.enhancedlist.Couple;
 import fr.berger.enhancedlist.ListUtil;
 import fr.berger.enhancedlist.exceptions.EmptyListException;
 import fr.berger.enhancedlist.lexicon.eventhandlers.AddHandler;
+import fr.berger.enhancedlist.lexicon.eventhandlers.BulkAddHandler;
+import fr.berger.enhancedlist.lexicon.eventhandlers.BulkRemoveHandler;
+import fr.berger.enhancedlist.lexicon.eventhandlers.ChangeHandler;
 import fr.berger.enhancedlist.lexicon.eventhandlers.GetHandler;
 import fr.berger.enhancedlist.lexicon.eventhandlers.RemoveHandler;
 import fr.berger.enhancedlist.lexicon.eventhandlers.SetHandler;
+import fr.berger.enhancedlist.lexicon.io.LexiconCodec;
+import fr.berger.enhancedlist.lexicon.io.LexiconJournal;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
 
+import java.io.EOFException;
 import java.io.IOException;
 import java.io.ObjectInputStream;
 import java.io.ObjectOutputStream;
+import java.io.OptionalDataException;
 import java.io.Serializable;
 import java.lang.reflect.Array;
+import java.nio.file.Path;
 import java.util.*;
 import java.util.function.*;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
 
 // http://server2client.com/images/collectionhierarchy.jpg
 // https://docs.oracle.com/javase/tutorial/collections/custom-implementations/index.html
@@ -31,6 +41,9 @@ import java.util.function.*;
  * pattern or the handlers to manage the events, both are not required.
  * Lexicon has rules which can be set as you want. By default, Lexicon accepts duplicated and null value, and each time
  * you use the list, it is in an non-synchronized context. However, you can change those settings.
+ * To store a list in a file, and keep it after the program exits, see
+ * {@link fr.berger.enhancedlist.lexicon.io.MappedLexicon}, or record its modifications with a
+ * {@link LexiconJournal}.
  * @param <T> The type of the object to save in the Lexicon instance
  * @author Valentin Berger
  */
@@ -39,26 +52,86 @@ public class Lexicon<T> extends EnhancedObservable implements Collection<T>, Ite
 	
 	private static final long serialVersionUID = -8760304915380000309L;
 	
+	/**
+	 * Below this number of elements, {@link #parallelSort(Comparator)} sorts with a single thread.
+	 */
+	public static final int PARALLEL_SORT_THRESHOLD = 1 << 13;
+	
+	private static final Object[] EMPTY_ARRAY = new Object[0];
+	
 	@Nullable
 	private Object[] array;
 	
 	@NotNull
-	private ArrayList<AddHandler<T>> addHandlers;
+	private HandlerList<AddHandler<T>> addHandlers;
 	@NotNull
-	private ArrayList<GetHandler<T>> getHandlers;
+	private HandlerList<GetHandler<T>> getHandlers;
 	@NotNull
-	private ArrayList<SetHandler<T>> setHandlers;
+	private HandlerList<SetHandler<T>> setHandlers;
 	@NotNull
-	private ArrayList<RemoveHandler<T>> removeHandlers;
+	private HandlerList<RemoveHandler<T>> removeHandlers;
+	@NotNull
+	private HandlerList<ChangeHandler<T>> changeHandlers;
 	@Nullable
 	private Class<T> clazz;
 	private boolean acceptDuplicates;
 	private boolean acceptNullValues;
-	private boolean synchronizedAccess;
+	@NotNull
+	private ConcurrencyMode concurrencyMode;
+	/**
+	 * The lock of the {@link ConcurrencyMode#READ_WRITE} and {@link ConcurrencyMode#OPTIMISTIC} modes, {@code null} in
+	 * the other modes.
+	 */
+	@Nullable
+	private transient LexiconLock lock;
+	@NotNull
+	private GrowthPolicy growthPolicy;
+	private boolean hashIndexed;
+	private boolean batchRemoveEvents;
+	@NotNull
+	private StorageMode storageMode;
+	
+	/**
+	 * In {@link StorageMode#GAP_BUFFER} mode, the free cells of the array start at {@code gapStart} and the elements
+	 * from {@code gapStart} to the end are stored {@code gapLength} cells further. When {@code gapLength} is 0, the
+	 * gap is closed and the array is laid out as in {@link StorageMode#FLAT} mode.
+	 */
+	private transient int gapStart;
+	private transient int gapLength;
+	
+	/**
+	 * Map each element to its position in the array. It is built lazily, only when {@link #isHashIndexed()} is
+	 * {@code true} and the lexicon refuses duplicates, and dropped whenever it cannot be kept in sync cheaply.
+	 */
+	@Nullable
+	private transient HashMap<Object, Integer> hashIndex;
 	
 	private int actualSize;
 	
-	// TODO: Implement a way to make this list persistent (aka: survive after the program exit)
+	/**
+	 * Number of observers, kept up to date by {@link #addObserver(Observer)} and {@link #deleteObserver(Observer)}, so
+	 * that an unobserved lexicon does not pay the cost of {@code notifyObservers()}.
+	 */
+	private transient volatile int observerCount;
+	
+	/**
+	 * Number of nested calls to {@link #beginBatch()} which have not been closed yet.
+	 */
+	private transient int batchDepth;
+	/**
+	 * The modifications of the current batch, or {@code null} if there is no batch.
+	 */
+	@Nullable
+	private transient LexiconChange.Builder<T> batch;
+	
+	@Nullable
+	private transient volatile EventDispatcher eventDispatcher;
+	
+	/**
+	 * The last snapshot taken. While it shares {@link #array}, the array must be copied before being modified.
+	 */
+	@Nullable
+	private transient LexiconSnapshot<T> snapshot;
 	
 	/* CONSTRUCTORS */
 	
@@ -96,47 +169,70 @@ public class Lexicon<T> extends EnhancedObservable implements Collection<T>, Ite
 			setGetHandlers(list.getGetHandlers());
 			setSetHandlers(list.getSetHandlers());
 			setRemoveHandlers(list.getRemoveHandlers());
+			setChangeHandlers(list.getChangeHandlers());
+			setEventDispatcher(list.getEventDispatcher());
 			setAcceptDuplicates(list.isAcceptDuplicates());
 			setAcceptNullValues(list.isAcceptNullValues());
-			setSynchronizedAccess(list.isSynchronizedAccess());
+			setConcurrencyMode(list.getConcurrencyMode());
+			setStorageMode(list.getStorageMode());
+			setGrowthPolicy(list.getGrowthPolicy());
+			setHashIndexed(list.isHashIndexed());
+			setBatchRemoveEvents(list.isBatchRemoveEvents());
 			if (list.getClazz() != null)
 				setClazz(list.getClazz());
 		}
+		if (elements != null)
+			ensureCapacity(elements.size());
 		addAll(elements);
 	}
 	@SafeVarargs
 	@SuppressWarnings({"WeakerAccess", "unused"})
 	public <U extends T> Lexicon(@Nullable U... elements) {
 		initialize();
+		if (elements != null)
+			ensureCapacity(elements.length);
 		addAll(elements);
 	}
 	
 	@SuppressWarnings("WeakerAccess")
 	protected void initialize() {
 		this.actualSize = 0;
-		setAddHandlers(new ArrayList<>());
-		setGetHandlers(new ArrayList<>());
-		setSetHandlers(new ArrayList<>());
-		setRemoveHandlers(new ArrayList<>());
+		setAddHandlers(new HandlerList<>());
+		setGetHandlers(new HandlerList<>());
+		setSetHandlers(new HandlerList<>());
+		setRemoveHandlers(new HandlerList<>());
+		setChangeHandlers(new HandlerList<>());
 		setAcceptDuplicates(true);
 		setAcceptNullValues(true);
 		setSynchronizedAccess(false);
+		setStorageMode(StorageMode.FLAT);
+		setGrowthPolicy(GrowthPolicy.doubling());
+		setHashIndexed(false);
+		setBatchRemoveEvents(false);
 	}
 	
 	/* METHODS */
 	
 	@SuppressWarnings("unchecked")
 	private void writeObject(@NotNull ObjectOutputStream stream) throws IOException {
-		stream.writeObject(array);
+		closeGap();
+		// Only the elements are written, not the free cells at the end of the array
+		stream.writeObject(array != null && array.length > actualSize ? Arrays.copyOf(array, actualSize) : array);
 		stream.writeObject(addHandlers);
 		stream.writeObject(getHandlers);
 		stream.writeObject(setHandlers);
 		stream.writeObject(removeHandlers);
 		stream.writeBoolean(acceptDuplicates);
 		stream.writeBoolean(acceptNullValues);
-		stream.writeBoolean(synchronizedAccess);
+		stream.writeBoolean(isSynchronizedAccess());
 		stream.writeObject(clazz);
 		stream.writeInt(actualSize);
+		stream.writeObject(growthPolicy);
+		stream.writeBoolean(hashIndexed);
+		stream.writeBoolean(batchRemoveEvents);
+		stream.writeObject(changeHandlers);
+		stream.writeObject(concurrencyMode);
+		stream.writeObject(storageMode);
 	}
 	
 	@SuppressWarnings("unchecked")
@@ -151,6 +247,47 @@ public class Lexicon<T> extends EnhancedObservable implements Collection<T>, Ite
 		setSynchronizedAccess(stream.readBoolean());
 		setClazz((Class<T>) stream.readObject());
 		actualSize = stream.readInt();
+		
+		// Streams written before the growth policies existed stop here
+		try {
+			setGrowthPolicy((GrowthPolicy) stream.readObject());
+			setHashIndexed(stream.readBoolean());
+			setBatchRemoveEvents(stream.readBoolean());
+			setChangeHandlers((ArrayList<ChangeHandler<T>>) stream.readObject());
+			setConcurrencyMode((ConcurrencyMode) stream.readObject());
+			setStorageMode((StorageMode) stream.readObject());
+		} catch (OptionalDataException | EOFException ex) {
+			if (growthPolicy == null)
+				setGrowthPolicy(GrowthPolicy.doubling());
+			if (changeHandlers == null)
+				setChangeHandlers(new HandlerList<>());
+		}
+	}
+	
+	/**
+	 * Rebuild a lexicon from the journal written in {@code directory} by a {@link LexiconJournal}, with the codec which
+	 * serializes each element.
+	 * @param directory The directory of the journal.
+	 * @param <T> The type of the elements.
+	 * @return The recovered lexicon, with the default settings.
+	 * @throws IOException If the journal cannot be read.
+	 * @see LexiconJournal#recover(Path, LexiconCodec)
+	 */
+	@NotNull
+	public static <T> Lexicon<T> recover(@NotNull Path directory) throws IOException {
+		return LexiconJournal.recover(directory);
+	}
+	/**
+	 * Rebuild a lexicon from the journal written in {@code directory} by a {@link LexiconJournal}.
+	 * @param directory The directory of the journal.
+	 * @param codec The codec used by the journal.
+	 * @param <T> The type of the elements.
+	 * @return The recovered lexicon, with the default settings.
+	 * @throws IOException If the journal cannot be read.
+	 */
+	@NotNull
+	public static <T> Lexicon<T> recover(@NotNull Path directory, @NotNull LexiconCodec<T> codec) throws IOException {
+		return LexiconJournal.recover(directory, codec);
 	}
 	
 	@SuppressWarnings("WeakerAccess")
@@ -195,25 +332,52 @@ public class Lexicon<T> extends EnhancedObservable implements Collection<T>, Ite
 		if (list == null)
 			throw new NullPointerException();
 		
-		for (int i = 0; i < list.size(); i++) {
-			if (list.get(i) == null) {
-				list.remove(i);
-				i--;
-			}
-		}
+		list.removeIf(Objects::isNull);
 	}
 	public void deleteNullElement() {
 		deleteNullElement(this);
 	}
 	
+	/**
+	 * Link each element of {@code list} to its next duplicate in a single hashing pass.
+	 * @param list The list to inspect.
+	 * @param hasPrevious Filled with the indexes of the elements which are a duplicate of a previous element.
+	 * @return An array where the cell {@code i} contains the index of the next element equal to the element at
+	 * {@code i}, or -1 if there is none.
+	 */
+	@NotNull
+	private static int[] linkDuplications(@NotNull Lexicon<?> list, @NotNull BitSet hasPrevious) {
+		if (list == null)
+			throw new NullPointerException();
+		
+		int size = list.size();
+		int[] next = new int[size];
+		HashMap<Object, Integer> last = new HashMap<>(Math.max(16, (int) (size / 0.75f) + 1));
+		
+		Arrays.fill(next, -1);
+		for (int i = 0; i < size; i++) {
+			Integer previous = last.put(list.get(i), i);
+			
+			if (previous != null) {
+				next[previous] = i;
+				hasPrevious.set(i);
+			}
+		}
+		
+		return next;
+	}
+	
 	@SuppressWarnings("WeakerAccess")
 	public static boolean isThereDuplicates(@NotNull Lexicon<?> list) {
+		if (list == null)
+			throw new NullPointerException();
+		
+		HashSet<Object> seen = new HashSet<>(Math.max(16, (int) (list.size() / 0.75f) + 1));
 		boolean duplicateFound = false;
 		
-		for (int i = 0; i < list.size()-1 && !duplicateFound; i++)
-			for (int j = i+1; j < list.size() && !duplicateFound; j++)
-				if (Objects.equals(list.get(i), list.get(j)))
-					duplicateFound = true;
+		for (int i = 0; i < list.size() && !duplicateFound; i++)
+			if (!seen.add(list.get(i)))
+				duplicateFound = true;
 		
 		return duplicateFound;
 	}
@@ -221,15 +385,22 @@ public class Lexicon<T> extends EnhancedObservable implements Collection<T>, Ite
 		return isThereDuplicates(this);
 	}
 	
+	/**
+	 * Find all the pairs of indexes {@code (i, j)}, with {@code i < j}, where the elements are equal. The pairs are
+	 * sorted by {@code i}, then by {@code j}. Note that a group of k equal elements produces k(k-1)/2 pairs: use
+	 * {@link #streamDuplications(Lexicon)} to get the groups instead.
+	 * @param list The list to inspect.
+	 * @return The list of pairs.
+	 */
 	@NotNull
 	@SuppressWarnings("WeakerAccess")
 	public static ArrayList<Couple<Integer, Integer>> findDuplications(@NotNull Lexicon<?> list) {
+		int[] next = linkDuplications(list, new BitSet(list.size()));
 		ArrayList<Couple<Integer, Integer>> counter = new ArrayList<>(0);
 		
-		for (int i = 0; i < list.size()-1; i++)
-			for (int j = i+1; j < list.size(); j++)
-				if (Objects.equals(list.get(i), list.get(j)))
-					counter.add(new Couple<>(i, j));
+		for (int i = 0; i < next.length; i++)
+			for (int j = next[i]; j != -1; j = next[j])
+				counter.add(new Couple<>(i, j));
 		
 		return counter;
 	}
@@ -238,33 +409,179 @@ public class Lexicon<T> extends EnhancedObservable implements Collection<T>, Ite
 		return findDuplications(this);
 	}
 	
+	/**
+	 * Group the indexes of the equal elements. Each group of the stream contains at least two indexes, in ascending
+	 * order, and the groups are sorted by their first index. The hashing pass is done when this method is called, the
+	 * groups are built lazily while the stream is consumed.
+	 * @param list The list to inspect.
+	 * @return The stream of groups of duplicated elements.
+	 */
+	@NotNull
+	@SuppressWarnings("WeakerAccess")
+	public static Stream<ArrayList<Integer>> streamDuplications(@NotNull Lexicon<?> list) {
+		BitSet hasPrevious = new BitSet(list.size());
+		int[] next = linkDuplications(list, hasPrevious);
+		
+		return IntStream.range(0, next.length)
+				.filter(i -> next[i] != -1 && !hasPrevious.get(i))
+				.mapToObj(i -> {
+					ArrayList<Integer> group = new ArrayList<>();
+					for (int j = i; j != -1; j = next[j])
+						group.add(j);
+					
+					return group;
+				});
+	}
+	@NotNull
+	public Stream<ArrayList<Integer>> streamDuplications() {
+		return streamDuplications(this);
+	}
+	
+	/**
+	 * Delete all the duplicated elements, keeping only the first occurrence of each one. The list is compacted in a
+	 * single pass, then the remove handlers are called in ascending order, as if the elements were removed one by one.
+	 * @param list The list to clean.
+	 */
 	@SuppressWarnings("WeakerAccess")
 	public static void deleteDuplications(@NotNull Lexicon<?> list) {
-		for (int i = 0; i < list.size() - 1; i++) {
-			for (int j = i+1; j < list.size(); j++) {
-				if (Objects.equals(list.get(i), list.get(j))) {
-					list.remove(j);
-					j--;
-				}
+		if (list == null)
+			throw new NullPointerException();
+		
+		// The duplicates are found in the same critical section as their removal, so that no other thread can move the
+		// elements in between
+		if (list.isSynchronizedAccess()) {
+			synchronized (list) {
+				deleteDuplications_content(list);
 			}
 		}
+		else if (list.lock != null)
+			list.lock.write(() -> deleteDuplications_content(list));
+		else
+			deleteDuplications_content(list);
+	}
+	private static void deleteDuplications_content(@NotNull Lexicon<?> list) {
+		BitSet hasPrevious = new BitSet(list.size());
+		linkDuplications(list, hasPrevious);
+		list.removeFlagged(hasPrevious);
 	}
 	public void deleteDuplications() {
 		deleteDuplications(this);
 	}
 	
+	/**
+	 * Remove all the elements whose index is set in {@code toRemove}, by moving the kept elements toward the beginning
+	 * of the array in a single pass. Then, the observers are notified and the remove handlers are called in ascending
+	 * order, with the index the element would have had if the elements were removed one by one. If
+	 * {@link #isBatchRemoveEvents()} is {@code true}, the observers are notified once with the list of the removed
+	 * elements, and the {@link BulkRemoveHandler} are called once.
+	 * @param toRemove The indexes of the elements to remove.
+	 * @return The number of removed elements.
+	 */
+	@SuppressWarnings("unchecked")
+	private int removeFlagged(@NotNull BitSet toRemove) {
+		int size = size();
+		int first = toRemove.nextSetBit(0);
+		
+		if (array == null || first < 0 || first >= size)
+			return 0;
+		
+		unshareArray();
+		closeGap();
+		
+		Object[] removed = new Object[toRemove.get(0, size).cardinality()];
+		int write = first;
+		int r = 0;
+		
+		for (int read = first; read < size; read++) {
+			if (toRemove.get(read))
+				removed[r++] = array[read];
+			else
+				array[write++] = array[read];
+		}
+		
+		Arrays.fill(array, write, size, null);
+		actualSize = write;
+		hashIndex = null;
+		
+		if (isBatchRemoveEvents()) {
+			List<T> elements = Collections.unmodifiableList(Arrays.asList((T[]) removed));
+			
+			snap(elements);
+			triggerBulkRemoveHandlers(toRemove.get(0, size).stream().toArray(), elements);
+		}
+		else {
+			r = 0;
+			for (int i = first; i >= 0 && i < size; i = toRemove.nextSetBit(i + 1), r++) {
+				snap(removed[r]);
+				triggerRemoveHandlers(i - r, (T) removed[r]);
+			}
+		}
+		
+		return removed.length;
+	}
+	
 	/* CAPACITY METHODS */
 	
+	/**
+	 * Make sure that the backing array can contain at least {@code minCapacity} elements. If it cannot, the array grows
+	 * according to the growth policy, so a sequence of calls with increasing values is amortized O(1).
+	 * @param minCapacity The minimum capacity required.
+	 * @return The capacity after the operation.
+	 * @see #getGrowthPolicy()
+	 */
 	@SuppressWarnings({"UnusedReturnValue", "WeakerAccess"})
-	protected int checkCapacity(int newCapacity) {
-		if (newCapacity > capacity())
-			return growCapacity(newCapacity);
+	protected int checkCapacity(int minCapacity) {
+		int capacity = capacity();
+		
+		if (minCapacity > capacity)
+			return growCapacity(GrowthPolicy.computeCapacity(getGrowthPolicy(), capacity, minCapacity));
+		
+		return capacity;
+	}
+	
+	/**
+	 * Increase the capacity of the lexicon, if necessary, to ensure that it can hold at least {@code minCapacity}
+	 * elements without growing again. Call it before adding a known number of elements to avoid the intermediate
+	 * copies of the backing array.
+	 * @param minCapacity The desired minimum capacity.
+	 * @return The capacity after the operation.
+	 */
+	@SuppressWarnings("UnusedReturnValue")
+	public int ensureCapacity(int minCapacity) {
+		if (minCapacity < 0)
+			throw new IllegalArgumentException("minCapacity must be positive.");
+		
+		if (isSynchronizedAccess()) {
+			synchronized (this) {
+				return ensureCapacity_content(minCapacity);
+			}
+		}
+		else if (lock != null)
+			return lock.write(() -> ensureCapacity_content(minCapacity));
+		else
+			return ensureCapacity_content(minCapacity);
+	}
+	private int ensureCapacity_content(int minCapacity) {
+		if (minCapacity > capacity())
+			return growCapacity(minCapacity);
 		
 		return capacity();
 	}
 	
-	public synchronized int trimToSize() {
+	public int trimToSize() {
+		if (isSynchronizedAccess()) {
+			synchronized (this) {
+				return trimToSize_content();
+			}
+		}
+		else if (lock != null)
+			return lock.write(this::trimToSize_content);
+		else
+			return trimToSize_content();
+	}
+	private int trimToSize_content() {
 		if (size() < capacity()) {
+			closeGap();
 			array = Arrays.copyOf(array, size());
 		}
 		
@@ -272,7 +589,7 @@ public class Lexicon<T> extends EnhancedObservable implements Collection<T>, Ite
 	}
 	
 	@SuppressWarnings({"WeakerAccess", "unchecked"})
-	protected synchronized int growCapacity(int newCapacity) {
+	protected int growCapacity(int newCapacity) {
 		if (!checkArrayNullity()) {
 			try {
 				array = (T[]) new Object[0];
@@ -282,6 +599,7 @@ public class Lexicon<T> extends EnhancedObservable implements Collection<T>, Ite
 		}
 		
 		if (newCapacity > capacity()) {
+			closeGap();
 			array = Arrays.copyOf(array, newCapacity);
 		}
 		
@@ -289,7 +607,7 @@ public class Lexicon<T> extends EnhancedObservable implements Collection<T>, Ite
 	}
 	@SuppressWarnings("unused")
 	protected int growCapacity() {
-		return growCapacity(size() + 1);
+		return checkCapacity(size() + 1);
 	}
 	
 	public int capacity() {
@@ -307,7 +625,12 @@ public class Lexicon<T> extends EnhancedObservable implements Collection<T>, Ite
 	 * @return Return <c>true</c> if the array is not null or has been instantiated, <c>false</c> otherwise.
 	 */
 	@SuppressWarnings({"BooleanMethodIsAlwaysInverted", "unchecked"})
-	private synchronized boolean checkArrayNullity() {
+	private boolean checkArrayNullity() {
+		// Fast path, without acquiring the monitor: this method is called by every get()
+		return array != null || instantiateArray();
+	}
+	@SuppressWarnings("unchecked")
+	private synchronized boolean instantiateArray() {
 		if (array == null) {
 			if (getClazz() != null) {
 				try {
@@ -325,7 +648,7 @@ public class Lexicon<T> extends EnhancedObservable implements Collection<T>, Ite
 	}
 	
 	@SuppressWarnings({"unchecked", "SuspiciousSystemArraycopy"})
-	private synchronized void changeArrayType(@Nullable T element) {
+	private void changeArrayType(@Nullable T element) {
 		// Get all superclasses of the current class, then of 'element', and search a mutual one
 		if (element != null) {
 			Class<?> superclass;
@@ -374,10 +697,135 @@ public class Lexicon<T> extends EnhancedObservable implements Collection<T>, Ite
 			setClazz((Class<T>) Object.class);
 		
 		// Now, change the format of the array
-		Object[] copy = new Object[size()];
-		System.arraycopy(array, 0, copy, 0, size());
+		Object[] copy = new Object[capacity()];
+		System.arraycopy(array, 0, copy, 0, capacity());
 		array = (T[]) Array.newInstance(getClazz(), capacity());
-		System.arraycopy(copy, 0, array, 0, size());
+		System.arraycopy(copy, 0, array, 0, capacity());
+	}
+	
+	/* GAP BUFFER METHODS */
+	
+	/**
+	 * Convert the index of an element into its index in the backing array.
+	 * @param index The index of the element in the lexicon.
+	 * @return The index of the cell holding the element.
+	 */
+	private int physical(int index) {
+		return index < gapStart ? index : index + gapLength;
+	}
+	
+	/**
+	 * Move the gap so that it starts at {@code position}. Only the elements between the current start of the gap and
+	 * {@code position} are moved.
+	 * @param position The index of the element which will follow the gap.
+	 */
+	private void moveGap(int position) {
+		if (gapLength > 0) {
+			if (position < gapStart) {
+				System.arraycopy(array, position, array, position + gapLength, gapStart - position);
+				Arrays.fill(array, position, Math.min(position + gapLength, gapStart), null);
+			}
+			else if (position > gapStart) {
+				System.arraycopy(array, gapStart + gapLength, array, gapStart, position - gapStart);
+				Arrays.fill(array, Math.max(position, gapStart + gapLength), position + gapLength, null);
+			}
+		}
+		
+		gapStart = position;
+	}
+	
+	/**
+	 * Open the gap at {@code position}, with at least {@code count} free cells. The gap is made of all the free cells of
+	 * the array, so the array only grows when it is full.
+	 * @param position The index where the elements will be inserted or removed.
+	 * @param count The number of cells needed.
+	 */
+	private void openGap(int position, int count) {
+		if (gapLength < count) {
+			closeGap();
+			checkCapacity(size() + count);
+		}
+		
+		if (gapLength == 0) {
+			gapStart = size();
+			gapLength = capacity() - size();
+		}
+		
+		moveGap(position);
+	}
+	
+	/**
+	 * Move the gap after the last element, so that the elements are contiguous from the beginning of the array (as in
+	 * {@link StorageMode#FLAT} mode). Must be called before reading or modifying the array without
+	 * {@link #physical(int)}.
+	 */
+	private void closeGap() {
+		if (gapLength == 0)
+			return;
+		
+		// A reader can close the gap, so it must not race with another one in MONITOR mode
+		synchronized (this) {
+			if (gapLength > 0) {
+				moveGap(actualSize);
+				gapLength = 0;
+			}
+		}
+	}
+	
+	/* HASH INDEX METHODS */
+	
+	/**
+	 * Get the hash index, and build it if necessary. The index can only be used when it is enabled and the lexicon
+	 * refuses duplicates, because it maps each element to a single position.
+	 * @return The hash index, or {@code null} if the lexicon must fall back to a linear scan.
+	 */
+	@Nullable
+	private HashMap<Object, Integer> hashIndex() {
+		if (!isHashIndexed() || isAcceptDuplicates())
+			return null;
+		
+		if (hashIndex == null) {
+			HashMap<Object, Integer> index = new HashMap<>(Math.max(16, (int) (size() / 0.75f) + 1));
+			
+			for (int i = 0; i < size(); i++)
+				if (index.putIfAbsent(array[physical(i)], i) != null)
+					return null; // A duplicate has been placed while the rule was relaxed (see shift())
+			
+			hashIndex = index;
+		}
+		
+		return hashIndex;
+	}
+	
+	/**
+	 * Update the position of the elements from {@code fromIndex} to the end of the list in the hash index, if it has
+	 * been built.
+	 * @param fromIndex The first index to update.
+	 */
+	private void reindex(int fromIndex) {
+		if (hashIndex != null && array != null)
+			for (int i = Math.max(0, fromIndex); i < size(); i++)
+				hashIndex.put(array[physical(i)], i);
+	}
+	
+	/**
+	 * Estimate the memory used by the hash index, in bytes. The estimation assumes a 64-bit JVM with compressed
+	 * references: the table of buckets, one {@code HashMap.Node} and one boxed position per element.
+	 * @return The estimated footprint of the hash index, or 0 if it is not built.
+	 * @see #setHashIndexed(boolean)
+	 */
+	public long getHashIndexMemoryFootprint() {
+		HashMap<Object, Integer> index = hashIndex;
+		
+		if (index == null)
+			return 0L;
+		
+		int buckets = 16;
+		while (buckets * 0.75f < index.size())
+			buckets <<= 1;
+		
+		// HashMap header (48) + table header (16) + buckets (4 each) + nodes (32 each) + Integer (16 each)
+		return 48L + 16L + 4L * buckets + 48L * index.size();
 	}
 	
 	/* BASIC LIST METHODS */
@@ -401,16 +849,36 @@ public class Lexicon<T> extends EnhancedObservable implements Collection<T>, Ite
 				return defaultValue;
 			}
 		}
+		else if (lock != null)
+			return lock.read(() -> get_content(index, defaultValue));
 		else
 			return get_content(index, defaultValue);
 	}
 	@Nullable
+	@SuppressWarnings("unchecked")
 	public T get(int index) {
 		if (isSynchronizedAccess()) {
 			synchronized (this) {
 				return get_content(index);
 			}
 		}
+		else if (lock != null) {
+			// Optimistic read (OPTIMISTIC mode only): the stamp is 0 in READ_WRITE mode
+			long stamp = lock.tryOptimisticRead();
+			if (stamp != 0L) {
+				Object[] a = array;
+				if (a != null && 0 <= index && index < actualSize && index < a.length) {
+					T element = (T) a[index];
+					
+					if (lock.validate(stamp)) {
+						triggerGetHandlers(index, element);
+						return element;
+					}
+				}
+			}
+			
+			return lock.read(() -> get_content(index));
+		}
 		else
 			return get_content(index);
 	}
@@ -425,7 +893,7 @@ public class Lexicon<T> extends EnhancedObservable implements Collection<T>, Ite
 		
 		T element;
 		try {
-			element = (T) array[index];
+			element = (T) array[physical(index)];
 		} catch (Throwable throwable) {
 			throwable.printStackTrace();
 			return defaultValue;
@@ -442,7 +910,7 @@ public class Lexicon<T> extends EnhancedObservable implements Collection<T>, Ite
 		
 		ListUtil.checkIndexException(index, this);
 		
-		T element = (T) array[index];
+		T element = (T) array[physical(index)];
 		
 		triggerGetHandlers(index, element);
 		return element;
@@ -551,6 +1019,8 @@ public class Lexicon<T> extends EnhancedObservable implements Collection<T>, Ite
 				return set_content(index, element);
 			}
 		}
+		else if (lock != null)
+			return lock.write(() -> set_content(index, element));
 		else
 			return set_content(index, element);
 	}
@@ -570,12 +1040,19 @@ public class Lexicon<T> extends EnhancedObservable implements Collection<T>, Ite
 		
 		T oldValue = get(index);
 		
+		unshareArray();
 		try {
-			array[index] = element;
+			array[physical(index)] = element;
 		} catch (ArrayStoreException ignored) {
 			changeArrayType(element);
 		}
 		
+		if (hashIndex != null) {
+			if (Objects.equals(hashIndex.get(oldValue), index))
+				hashIndex.remove(oldValue);
+			hashIndex.put(element, index);
+		}
+		
 		snap(element);
 		triggerSetHandlers(index, element);
 		
@@ -602,6 +1079,8 @@ public class Lexicon<T> extends EnhancedObservable implements Collection<T>, Ite
 				return add_content(element);
 			}
 		}
+		else if (lock != null)
+			return lock.write(() -> add_content(element));
 		else
 			return add_content(element);
 	}
@@ -616,6 +1095,8 @@ public class Lexicon<T> extends EnhancedObservable implements Collection<T>, Ite
 		if (getClazz() == null && element != null)
 			setClazz((Class<T>) element.getClass());
 		
+		// Appending moves the gap to the end, where it is only the free capacity
+		closeGap();
 		checkCapacity(size() + 1);
 		
 		if (array == null)
@@ -634,6 +1115,9 @@ public class Lexicon<T> extends EnhancedObservable implements Collection<T>, Ite
 			changeArrayType(element);
 		}
 		
+		if (hashIndex != null)
+			hashIndex.put(element, size() - 1);
+		
 		snap(element);
 		triggerAddHandlers(size() - 1, element);
 		
@@ -667,6 +1151,8 @@ public class Lexicon<T> extends EnhancedObservable implements Collection<T>, Ite
 		if (c.size() == 0)
 			return true;
 		
+		checkCapacity(size() + c.size());
+		
 		boolean problem = false;
 		
 		for (Object object : c) {
@@ -688,6 +1174,8 @@ public class Lexicon<T> extends EnhancedObservable implements Collection<T>, Ite
 		if (list == null)
 			return false;
 		
+		checkCapacity(size() + list.length);
+		
 		boolean problem = false;
 		
 		for (T t : list) {
@@ -736,9 +1224,10 @@ public class Lexicon<T> extends EnhancedObservable implements Collection<T>, Ite
 	 */
 	@Override
 	public boolean remove(Object o) {
-		int toRemove = -1;
+		HashMap<Object, Integer> index = hashIndex();
+		int toRemove = index != null ? index.getOrDefault(o, -1) : -1;
 		
-		for (int i = 0; i < size() && toRemove == -1; i++)
+		for (int i = 0; index == null && i < size() && toRemove == -1; i++)
 			if (Objects.equals(get(i), o))
 				toRemove = i;
 		
@@ -756,6 +1245,8 @@ public class Lexicon<T> extends EnhancedObservable implements Collection<T>, Ite
 				return remove_content(index);
 			}
 		}
+		else if (lock != null)
+			return lock.write(() -> remove_content(index));
 		else
 			return remove_content(index);
 	}
@@ -764,10 +1255,25 @@ public class Lexicon<T> extends EnhancedObservable implements Collection<T>, Ite
 		
 		T oldValue = get(index);
 		
-		if (index < size() - 1)
-			System.arraycopy(array, index + 1, array, index, size() - 1 - index);
+		unshareArray();
+		if (getStorageMode() == StorageMode.GAP_BUFFER) {
+			// The removed cell joins the gap
+			openGap(index, 0);
+			array[gapStart + gapLength] = null;
+			gapLength++;
+			actualSize--;
+		}
+		else {
+			if (index < size() - 1)
+				System.arraycopy(array, index + 1, array, index, size() - 1 - index);
+			
+			array[--actualSize] = null;
+		}
 		
-		array[--actualSize] = null;
+		if (hashIndex != null) {
+			hashIndex.remove(oldValue);
+			reindex(index);
+		}
 		
 		snap(oldValue);
 		triggerRemoveHandlers(index, oldValue);
@@ -782,31 +1288,57 @@ public class Lexicon<T> extends EnhancedObservable implements Collection<T>, Ite
 				swap_content(index1, index2);
 			}
 		}
+		else if (lock != null)
+			lock.write(() -> swap_content(index1, index2));
 		else
 			swap_content(index1, index2);
 	}
+	@SuppressWarnings("ConstantConditions")
 	private void swap_content(int index1, int index2) {
-		ListUtil.swap(this, index1, index2);
+		if (hashIndex() == null) {
+			ListUtil.swap(this, index1, index2);
+			return;
+		}
+		
+		/* ListUtil.swap() relaxes the duplicates-rule during the swap, which would drop the hash index. As both elements
+		stay in the list, the index is updated in place instead. */
+		ListUtil.checkIndexException(index1, this);
+		ListUtil.checkIndexException(index2, this);
+		
+		T element1 = get(index1);
+		T element2 = get(index2);
+		
+		unshareArray();
+		array[physical(index1)] = element2;
+		array[physical(index2)] = element1;
+		hashIndex.put(element2, index1);
+		hashIndex.put(element1, index2);
+		
+		snap(element2);
+		triggerSetHandlers(index1, element2);
+		snap(element1);
+		triggerSetHandlers(index2, element1);
 	}
 	
-	public synchronized void shift(int startIndex, int shift, @Nullable T elementToPlaceInGap) {
+	/**
+	 * Move the elements from {@code startIndex} to the end of the list {@code shift} cells to the right, and fill the
+	 * gap with {@code elementToPlaceInGap}. The gap follows the rules of the lexicon: if {@code elementToPlaceInGap} is
+	 * refused, the gap is smaller (or empty).
+	 * @param startIndex The index of the first element to move.
+	 * @param shift The size of the gap.
+	 * @param elementToPlaceInGap The element to put in each cell of the gap.
+	 * @see #insertAll(int, Object[])
+	 */
+	public void shift(int startIndex, int shift, @Nullable T elementToPlaceInGap) {
 		ListUtil.checkIndexException(startIndex, this);
 		
 		if (shift < 1)
 			throw new IllegalArgumentException("shift must be greater or equal to 1.");
 		
-		// Check capacity()
-		if (checkCapacity(size() + shift) < size() + shift)
-			throw new InstantiationError("Cannot grow the array.");
-		
-		if (array == null)
-			throw new InstantiationError();
+		Object[] gap = new Object[shift];
+		Arrays.fill(gap, elementToPlaceInGap);
 		
-		System.arraycopy(array, startIndex, array, startIndex + shift, size() - (startIndex));
-		this.actualSize += shift;
-		
-		for (int i = startIndex; i < startIndex + shift; i++)
-			set(i, elementToPlaceInGap);
+		insertAll(startIndex, gap, shift);
 	}
 	
 	/**
@@ -825,13 +1357,12 @@ public class Lexicon<T> extends EnhancedObservable implements Collection<T>, Ite
 	 * @param elements The elements to insert.
 	 */
 	public void insertAll(int i, @NotNull Lexicon<T> elements) {
-		if (isSynchronizedAccess()) {
-			synchronized (this) {
-				insertAll_content(i, elements);
-			}
-		}
-		else
-			insertAll_content(i, elements);
+		if (elements == null)
+			throw new NullPointerException();
+		
+		// If the lexicon is inserted in itself, the source must not move with the tail
+		Object[] source = elements == this || elements.array == null || elements.gapLength > 0 ? elements.toObjectArray() : elements.array;
+		insertAll(i, source, elements.size());
 	}
 	/**
 	 * <p>
@@ -848,8 +1379,17 @@ public class Lexicon<T> extends EnhancedObservable implements Collection<T>, Ite
 	 * @param i The index where the insertion will be.
 	 * @param elements The elements to insert.
 	 */
+	@SuppressWarnings("unchecked")
 	public void insertAll(int i, @NotNull Collection<T> elements) {
-		insertAll(i, new Lexicon<>(elements));
+		if (elements == null)
+			throw new NullPointerException();
+		
+		if (elements instanceof Lexicon)
+			insertAll(i, (Lexicon<T>) elements);
+		else {
+			Object[] source = elements.toArray();
+			insertAll(i, source, source.length);
+		}
 	}
 	/**
 	 * <p>
@@ -868,36 +1408,100 @@ public class Lexicon<T> extends EnhancedObservable implements Collection<T>, Ite
 	 */
 	@SuppressWarnings("unchecked")
 	public void insertAll(int i, @Nullable T... elements) {
-		insertAll(i, new Lexicon<>(elements));
+		insertAll(i, elements, elements != null ? elements.length : 0);
 	}
 	
-	private void insertAll_content(int i, @Nullable Lexicon<T> elements) {
+	private void insertAll(int i, @Nullable Object[] source, int length) {
+		if (isSynchronizedAccess()) {
+			synchronized (this) {
+				insertAll_content(i, source, length);
+			}
+		}
+		else if (lock != null)
+			lock.write(() -> insertAll_content(i, source, length));
+		else
+			insertAll_content(i, source, length);
+	}
+	/**
+	 * Insert the {@code length} first elements of {@code source} at index {@code i}. The array grows at most once, the
+	 * tail is moved with one copy and the elements are copied in the gap with another one. The elements refused by the
+	 * rules of the lexicon (null values, duplicates) are filtered out beforehand.
+	 * @param i The index where the insertion will be.
+	 * @param source The elements to insert.
+	 * @param length The number of elements to take from {@code source}.
+	 */
+	@SuppressWarnings("unchecked")
+	private void insertAll_content(int i, @Nullable Object[] source, int length) {
 		ListUtil.checkIndexException(i, this);
 		
-		if (elements == null)
-			throw new NullPointerException();
-		
-		if (elements.isEmpty())
+		if (source == null || length <= 0)
 			return;
 		
-		boolean aNull = isAcceptNullValues();
-		boolean aDuplicates = isAcceptDuplicates();
-		
-		/* The following code is in synchronized because it will change the parameters of the current instance of
-		Lexicon, such as acceptNullValues and acceptDuplicates. */
-		synchronized (this) {
-			setAcceptNullValues(true);
-			setAcceptDuplicates(true);
+		// Apply the rules of the lexicon
+		Object[] accepted = source;
+		int count = length;
+		if (!isAcceptNullValues() || !isAcceptDuplicates()) {
+			HashSet<Object> seen = isAcceptDuplicates() ? null : new HashSet<>(Math.max(16, (int) (length / 0.75f) + 1));
+			Collection<Object> present = null;
+			// A single element (the usual insert) is checked with contains() rather than by copying the lexicon in a set
+			boolean single = length == 1;
+			if (seen != null && !single)
+				present = hashIndex() != null ? hashIndex().keySet() : new HashSet<>(Arrays.asList(toObjectArray()));
 			
-			shift(i, elements.size(), null);
-			
-			// Fill the gap with "elements" values
-			for (int k = i; k < i + elements.size(); k++)
-				set(k, elements.get(k - i));
+			accepted = new Object[length];
+			count = 0;
+			for (int k = 0; k < length; k++) {
+				Object element = source[k];
+				
+				if (element == null && !isAcceptNullValues())
+					continue;
+				
+				if (seen != null && ((single ? contains(element) : present.contains(element)) || !seen.add(element)))
+					continue;
+				
+				accepted[count++] = element;
+			}
 			
-			setAcceptNullValues(aNull);
-			setAcceptDuplicates(aDuplicates);
+			if (count == 0)
+				return;
+		}
+		
+		// Make sure that the array can store the new elements
+		for (int k = 0; k < count && getClazz() == null; k++)
+			if (accepted[k] != null)
+				setClazz((Class<T>) accepted[k].getClass());
+		
+		checkCapacity(size() + count);
+		
+		if (array == null)
+			throw new InstantiationError();
+		
+		Class<?> componentType = array.getClass().getComponentType();
+		for (int k = 0; k < count && componentType != Object.class; k++) {
+			if (accepted[k] != null && !componentType.isInstance(accepted[k])) {
+				changeArrayType((T) accepted[k]);
+				componentType = array.getClass().getComponentType();
+			}
+		}
+		
+		unshareArray();
+		if (getStorageMode() == StorageMode.GAP_BUFFER) {
+			// The new elements fill the beginning of the gap, so they are stored at their logical index
+			openGap(i, count);
+			System.arraycopy(accepted, 0, array, gapStart, count);
+			gapStart += count;
+			gapLength -= count;
+		}
+		else {
+			System.arraycopy(array, i, array, i + count, size() - i);
+			System.arraycopy(accepted, 0, array, i, count);
 		}
+		actualSize += count;
+		reindex(i);
+		
+		for (int k = i; k < i + count; k++)
+			snap(array[k]);
+		triggerAddHandlers(i, i + count);
 	}
 	
 	/**
@@ -932,6 +1536,16 @@ public class Lexicon<T> extends EnhancedObservable implements Collection<T>, Ite
 	 */
 	@Override
 	public int size() {
+		if (concurrencyMode == ConcurrencyMode.OPTIMISTIC) {
+			long stamp = lock.tryOptimisticRead();
+			int size = actualSize;
+			
+			if (lock.validate(stamp))
+				return Math.max(size, 0);
+			
+			return lock.read(() -> Math.max(actualSize, 0));
+		}
+		
 		if (actualSize < 0)
 			actualSize = 0;
 		
@@ -955,11 +1569,175 @@ public class Lexicon<T> extends EnhancedObservable implements Collection<T>, Ite
 		ListUtil.disarray(this);
 	}
 	
-	@SuppressWarnings("unchecked")
-	public synchronized void sort(@NotNull Comparator<? super T> comparator) {
-		if (array != null && size() > 0)
-			Arrays.sort((T[]) array, 0, size(), comparator);
-	}
+	/**
+	 * Sort the lexicon with {@code comparator}. The sort is stable. If the lexicon has observers or change handlers, they
+	 * receive a single {@link LexiconChange} holding the permutation.
+	 * @param comparator The comparator to use.
+	 */
+	public void sort(@NotNull Comparator<? super T> comparator) {
+		if (isSynchronizedAccess()) {
+			synchronized (this) {
+				sort_content(comparator, false);
+			}
+		}
+		else if (lock != null)
+			lock.write(() -> sort_content(comparator, false));
+		else
+			sort_content(comparator, false);
+	}
+	
+	/**
+	 * Sort the lexicon with {@code comparator}, using several threads (see {@link Arrays#parallelSort(Object[], int,
+	 * int, Comparator)}) if it contains at least {@link #PARALLEL_SORT_THRESHOLD} elements. Below this threshold, the
+	 * parallel sort is slower than the sequential one. The sort is stable, and is notified like {@link #sort(Comparator)}.
+	 * @param comparator The comparator to use. It is called from several threads.
+	 */
+	public void parallelSort(@NotNull Comparator<? super T> comparator) {
+		if (isSynchronizedAccess()) {
+			synchronized (this) {
+				sort_content(comparator, true);
+			}
+		}
+		else if (lock != null)
+			lock.write(() -> sort_content(comparator, true));
+		else
+			sort_content(comparator, true);
+	}
+	@SuppressWarnings("unchecked")
+	private void sort_content(@NotNull Comparator<? super T> comparator, boolean parallel) {
+		if (comparator == null)
+			throw new NullPointerException();
+		
+		if (array != null && size() > 0) {
+			unshareArray();
+			closeGap();
+			parallel = parallel && size() >= PARALLEL_SORT_THRESHOLD;
+			
+			if (batch != null)
+				batch.permuted(sortWithPermutation(comparator, parallel), size());
+			else if (hasChangeListeners())
+				notifyPermutation(sortWithPermutation(comparator, parallel));
+			else if (parallel)
+				Arrays.parallelSort((T[]) array, 0, size(), comparator);
+			else
+				Arrays.sort((T[]) array, 0, size(), comparator);
+			
+			hashIndex = null;
+		}
+	}
+	
+	/**
+	 * Sort the lexicon by the {@code int} key of each element, in ascending order. The keys are computed once per
+	 * element and sorted as primitives, so no comparator is called and no key is boxed. The sort is stable, uses
+	 * several threads for the large lexicons, and is notified like {@link #sort(Comparator)}.
+	 * @param key The function computing the key of an element.
+	 */
+	public void sortByInt(@NotNull ToIntFunction<? super T> key) {
+		if (key == null)
+			throw new NullPointerException();
+		
+		if (isSynchronizedAccess()) {
+			synchronized (this) {
+				sortByInt_content(key);
+			}
+		}
+		else if (lock != null)
+			lock.write(() -> sortByInt_content(key));
+		else
+			sortByInt_content(key);
+	}
+	@SuppressWarnings("unchecked")
+	private void sortByInt_content(@NotNull ToIntFunction<? super T> key) {
+		int size = size();
+		if (array == null || size == 0)
+			return;
+		
+		unshareArray();
+		closeGap();
+		
+		// The key is in the high bits and the index in the low bits: sorting the longs sorts by key, then by index
+		long[] packed = new long[size];
+		for (int i = 0; i < size; i++)
+			packed[i] = ((long) key.applyAsInt((T) array[i]) << 32) | i;
+		
+		if (size >= PARALLEL_SORT_THRESHOLD)
+			Arrays.parallelSort(packed);
+		else
+			Arrays.sort(packed);
+		
+		int[] permutation = new int[size];
+		for (int i = 0; i < size; i++)
+			permutation[i] = (int) packed[i];
+		
+		applyPermutation(permutation);
+		hashIndex = null;
+		
+		if (batch != null)
+			batch.permuted(permutation, size);
+		else if (hasChangeListeners())
+			notifyPermutation(permutation);
+	}
+	
+	/**
+	 * Sort the elements by sorting their indexes, so the permutation can be notified. As both sorts are stable, the
+	 * result is the same as {@code Arrays.sort()}.
+	 * @param comparator The comparator to use.
+	 * @param parallel {@code true} to sort with several threads.
+	 * @return The permutation: the element at index {@code i} was at index {@code permutation[i]} before the sort.
+	 */
+	@NotNull
+	@SuppressWarnings("unchecked")
+	private int[] sortWithPermutation(@NotNull Comparator<? super T> comparator, boolean parallel) {
+		int size = size();
+		Integer[] order = new Integer[size];
+		for (int i = 0; i < size; i++)
+			order[i] = i;
+		
+		Comparator<Integer> byElement = (i, j) -> comparator.compare((T) array[i], (T) array[j]);
+		if (parallel)
+			Arrays.parallelSort(order, byElement);
+		else
+			Arrays.sort(order, byElement);
+		
+		int[] permutation = new int[size];
+		for (int i = 0; i < size; i++)
+			permutation[i] = order[i];
+		
+		applyPermutation(permutation);
+		return permutation;
+	}
+	
+	/**
+	 * Move the element at index {@code permutation[i]} to index {@code i}, for each {@code i}.
+	 * @param permutation The permutation to apply.
+	 */
+	private void applyPermutation(@NotNull int[] permutation) {
+		Object[] sorted = new Object[permutation.length];
+		for (int i = 0; i < permutation.length; i++)
+			sorted[i] = array[permutation[i]];
+		
+		System.arraycopy(sorted, 0, array, 0, permutation.length);
+	}
+	
+	/**
+	 * @return {@code true} if a modification outside a batch must be summarized in a {@link LexiconChange}.
+	 */
+	private boolean hasChangeListeners() {
+		return observerCount > 0 || !changeHandlers.isEmpty();
+	}
+	
+	/**
+	 * Notify a permutation which has already been applied, as if it had been done in a batch.
+	 * @param permutation The element at index {@code i} was at index {@code permutation[i]}.
+	 */
+	private void notifyPermutation(@NotNull int[] permutation) {
+		beginBatch();
+		try {
+			batch.permuted(permutation, size());
+		} finally {
+			endBatch();
+		}
+	}
 	
 	/* OVERRIDES */
 	
@@ -984,9 +1762,50 @@ public class Lexicon<T> extends EnhancedObservable implements Collection<T>, Ite
 			public T next() {
 				return get(index++);
 			}
+			
+			@Override
+			@SuppressWarnings("unchecked")
+			public void forEachRemaining(Consumer<? super T> action) {
+				if (action == null)
+					throw new NullPointerException();
+				
+				if (!getHandlers.isEmpty() || isSynchronizedAccess() || lock != null) {
+					while (hasNext())
+						action.accept(next());
+					return;
+				}
+				
+				// Fast path: read the array directly, as get() would without any handler
+				while (index < actualSize)
+					action.accept((T) array[physical(index++)]);
+			}
 		};
 	}
 	
+	/**
+	 * Create a {@link Spliterator} over the elements of the lexicon, which splits the backing array in balanced halves
+	 * ({@code SIZED}, {@code SUBSIZED} and {@code ORDERED}), so {@link #parallelStream()} scales with the number of
+	 * cores. The spliterator reads the array directly, and binds to the elements present when it is created.
+	 * <p>
+	 * If the lexicon is shared between threads ({@link #getConcurrencyMode()} is not {@code NONE}), the spliterator
+	 * traverses a {@link #snapshot()} and is also {@code IMMUTABLE}. If there are get handlers, the elements are read
+	 * through {@link #get(int)} so that the handlers are still called.
+	 * </p>
+	 * @return The spliterator.
+	 */
+	@NotNull
+	@Override
+	public Spliterator<T> spliterator() {
+		if (!getHandlers.isEmpty())
+			return Spliterators.spliterator(this, Spliterator.ORDERED);
+		
+		if (isSynchronizedAccess() || lock != null)
+			return snapshot().spliterator();
+		
+		closeGap();
+		return Spliterators.spliterator(array != null ? array : EMPTY_ARRAY, 0, size(), Spliterator.ORDERED);
+	}
+	
 	/**
 	 * Performs the given action for each element of the {@code Iterable}
 	 * until all elements have been processed or the action throws an
@@ -1005,9 +1824,22 @@ public class Lexicon<T> extends EnhancedObservable implements Collection<T>, Ite
 	 * @since 1.8
 	 */
 	@Override
+	@SuppressWarnings("unchecked")
 	public void forEach(Consumer<? super T> action) {
-		for (T e : this)
-			action.accept(e);
+		if (action == null)
+			throw new NullPointerException();
+		
+		if (!getHandlers.isEmpty()) {
+			for (T e : this)
+				action.accept(e);
+		}
+		else if (isSynchronizedAccess() || lock != null)
+			snapshot().forEach(action);
+		else {
+			// Like the iterator, the loop sees the modifications made by the action, but without the bounds checks of get()
+			for (int i = 0; i < actualSize; i++)
+				action.accept((T) array[physical(i)]);
+		}
 	}
 	
 	/**
@@ -1032,16 +1864,27 @@ public class Lexicon<T> extends EnhancedObservable implements Collection<T>, Ite
 	 */
 	@Override
 	public boolean removeIf(Predicate<? super T> filter) {
-		boolean atLeastOneRemoved = false;
+		if (filter == null)
+			throw new NullPointerException();
 		
-		for (T e : this) {
-			if (filter.test(e)) {
-				remove(e);
-				atLeastOneRemoved = true;
+		if (isSynchronizedAccess()) {
+			synchronized (this) {
+				return removeIf_content(filter);
 			}
 		}
+		else if (lock != null)
+			return lock.write(() -> removeIf_content(filter));
+		else
+			return removeIf_content(filter);
+	}
+	private boolean removeIf_content(@NotNull Predicate<? super T> filter) {
+		BitSet toRemove = new BitSet(size());
 		
-		return atLeastOneRemoved;
+		for (int i = 0; i < size(); i++)
+			if (filter.test(get(i)))
+				toRemove.set(i);
+		
+		return removeFlagged(toRemove) > 0;
 	}
 	
 	/**
@@ -1056,6 +1899,31 @@ public class Lexicon<T> extends EnhancedObservable implements Collection<T>, Ite
 	 */
 	@Override
 	public boolean contains(@Nullable Object o) {
+		if (lock != null) {
+			// The optimistic scan does not call the get handlers, so it is only used when there is none
+			long stamp = lock.tryOptimisticRead();
+			if (stamp != 0L && !isHashIndexed() && getHandlers.isEmpty()) {
+				Object[] a = array;
+				boolean found = false;
+				
+				for (int i = 0, n = a != null ? Math.min(actualSize, a.length) : 0; i < n && !found; i++)
+					if (Objects.equals(o, a[i]))
+						found = true;
+				
+				if (lock.validate(stamp))
+					return found;
+			}
+			
+			return lock.read(() -> contains_content(o));
+		}
+		else
+			return contains_content(o);
+	}
+	private boolean contains_content(@Nullable Object o) {
+		HashMap<Object, Integer> index = hashIndex();
+		if (index != null)
+			return index.containsKey(o);
+		
 		boolean result = false;
 		
 		for (int i = 0; i < size() && !result; i++)
@@ -1078,6 +1946,8 @@ public class Lexicon<T> extends EnhancedObservable implements Collection<T>, Ite
 				return search_content(element);
 			}
 		}
+		else if (lock != null)
+			return lock.read(() -> search_content(element));
 		else
 			return search_content(element);
 	}
@@ -1095,6 +1965,8 @@ public class Lexicon<T> extends EnhancedObservable implements Collection<T>, Ite
 				return search_content(elements);
 			}
 		}
+		else if (lock != null)
+			return lock.read(() -> search_content(elements));
 		else
 			return search_content(elements);
 	}
@@ -1114,6 +1986,15 @@ public class Lexicon<T> extends EnhancedObservable implements Collection<T>, Ite
 	private ArrayList<Integer> search_content(@Nullable T element) {
 		ArrayList<Integer> indexes = new ArrayList<>();
 		
+		HashMap<Object, Integer> index = hashIndex();
+		if (index != null) {
+			Integer position = index.get(element);
+			if (position != null)
+				indexes.add(position);
+			
+			return indexes;
+		}
+		
 		for (int i = 0; i < size(); i++)
 			if (Objects.equals(get(i), element))
 				indexes.add(i);
@@ -1162,6 +2043,7 @@ public class Lexicon<T> extends EnhancedObservable implements Collection<T>, Ite
 		if (getClazz() == null)
 			throw new ClassFormatError();
 		
+		closeGap();
 		T[] arr = (T[]) Array.newInstance(getClazz(), size());
 		System.arraycopy(array,0, arr, 0, size());
 		
@@ -1200,6 +2082,7 @@ public class Lexicon<T> extends EnhancedObservable implements Collection<T>, Ite
 	@SuppressWarnings({"NullableProblems", "unchecked", "SuspiciousSystemArraycopy"})
 	@Override
 	public <U> U[] toArray(U[] a) {
+		closeGap();
 		if (a.length < size())
 			return (U[]) Arrays.copyOf(array, size(), a.getClass());
 		
@@ -1210,6 +2093,19 @@ public class Lexicon<T> extends EnhancedObservable implements Collection<T>, Ite
 		return a;
 	}
 	
+	/**
+	 * Copy the elements in an array of Object, which never fails, even if the class of the elements is unknown.
+	 * @return A new array containing the elements of the lexicon.
+	 */
+	@NotNull
+	private Object[] toObjectArray() {
+		if (array == null)
+			return new Object[0];
+		
+		closeGap();
+		return Arrays.copyOf(array, size(), Object[].class);
+	}
+	
 	@NotNull
 	public List<T> toList() {
 		List<T> list = new ArrayList<>(size());
@@ -1291,16 +2187,10 @@ public class Lexicon<T> extends EnhancedObservable implements Collection<T>, Ite
 			throw new NullPointerException();
 		
 		if (c.size() == 0)
-			return true;
-		
-		boolean problem = false;
-		
-		for (Object o : c) {
-			if (!remove(o))
-				problem = true;
-		}
+			return false;
 		
-		return !problem;
+		Collection<?> lookup = toLookup(c);
+		return removeIf(lookup::contains);
 	}
 	@SuppressWarnings({"unchecked", "UnusedReturnValue"})
 	public boolean removeAll(@Nullable T... elements) {
@@ -1336,17 +2226,9 @@ public class Lexicon<T> extends EnhancedObservable implements Collection<T>, Ite
 		if (c == null)
 			throw new NullPointerException();
 		
-		if (c.size() == 0)
-			return true;
-		
-		for (int i = 0; i < size(); i++) {
-			if (!c.contains(get(i))) {
-				remove(get(i));
-				i--;
-			}
-		}
-		
-		return true;
+		// Retaining nothing clears the lexicon: an empty collection goes through removeIf() like the others
+		Collection<?> lookup = toLookup(c);
+		return removeIf(e -> !lookup.contains(e));
 	}
 	@SuppressWarnings({"unchecked", "UnusedReturnValue"})
 	public boolean retainAll(@Nullable T... elements) {
@@ -1356,6 +2238,19 @@ public class Lexicon<T> extends EnhancedObservable implements Collection<T>, Ite
 		return retainAll(Arrays.asList(elements));
 	}
 	
+	/**
+	 * Make sure that {@code contains} is fast on the given collection, by copying it in a HashSet if needed.
+	 * @param c The collection used by removeAll or retainAll.
+	 * @return A collection with the same elements as {@code c}.
+	 */
+	@NotNull
+	private static Collection<?> toLookup(@NotNull Collection<?> c) {
+		if (c instanceof Set || c.size() <= 8)
+			return c;
+		
+		return new HashSet<>(c);
+	}
+	
 	/**
 	 * {@inheritDoc}
 	 * <p>
@@ -1373,10 +2268,53 @@ public class Lexicon<T> extends EnhancedObservable implements Collection<T>, Ite
 	 */
 	@Override
 	public void clear() {
+		if (isSynchronizedAccess()) {
+			synchronized (this) {
+				clear_content();
+			}
+		}
+		else if (lock != null)
+			lock.write(this::clear_content);
+		else
+			clear_content();
+	}
+	@SuppressWarnings("unchecked")
+	private void clear_content() {
+		closeGap();
+		
+		// Like a sort, a clear is notified to the change handlers as a batch of its own
+		if (batch == null && !changeHandlers.isEmpty()) {
+			beginBatch();
+			try {
+				clear_content();
+			} finally {
+				endBatch();
+			}
+			return;
+		}
+		
+		if (batch != null) {
+			// The batch only needs the removed elements, there is no need to notify each one
+			if (array != null && size() > 0) {
+				batch.removed(0, Arrays.asList((T[]) Arrays.copyOf(array, size(), Object[].class)), 0);
+				unshareArray();
+				Arrays.fill(array, 0, size(), null);
+				actualSize = 0;
+				
+				if (hashIndex != null)
+					hashIndex.clear();
+			}
+			
+			return;
+		}
+		
 		for (int i = 0; i < size(); i++)
 			set(i, null);
 		
 		actualSize = 0;
+		
+		if (hashIndex != null)
+			hashIndex.clear();
 	}
 	
 	/**
@@ -1407,23 +2345,235 @@ public class Lexicon<T> extends EnhancedObservable implements Collection<T>, Ite
 		return builder.toString();
 	}
 	
+	/* CONCURRENCY */
+	
+	/**
+	 * Compute {@code action} under the protection required by the concurrency mode for a read. Meant for the subclasses
+	 * composing several public methods into one operation which must see a consistent lexicon.
+	 * @param action The operation to run.
+	 * @param <R> The type of the result.
+	 * @return The result of {@code action}.
+	 * @see #getConcurrencyMode()
+	 */
+	protected <R> R read(@NotNull Supplier<R> action) {
+		if (isSynchronizedAccess()) {
+			synchronized (this) {
+				return action.get();
+			}
+		}
+		else if (lock != null)
+			return lock.read(action);
+		else
+			return action.get();
+	}
+	
+	/**
+	 * Compute {@code action} under the protection required by the concurrency mode for a write. Meant for the subclasses
+	 * composing several public methods into one atomic modification.
+	 * @param action The operation to run.
+	 * @param <R> The type of the result.
+	 * @return The result of {@code action}.
+	 * @see #getConcurrencyMode()
+	 */
+	protected <R> R write(@NotNull Supplier<R> action) {
+		if (isSynchronizedAccess()) {
+			synchronized (this) {
+				return action.get();
+			}
+		}
+		else if (lock != null)
+			return lock.write(action);
+		else
+			return action.get();
+	}
+	
+	/* SNAPSHOT */
+	
+	/**
+	 * Get an immutable view of the lexicon as it is now. No element is copied: the lexicon and the snapshot share the
+	 * backing array until the next modification of the lexicon, which copies the array first (copy-on-write). Taking
+	 * several snapshots without modifying the lexicon in between returns the same object.
+	 * <p>
+	 * The snapshot can be iterated by several threads without locking, and is not affected by the concurrent
+	 * modifications, unlike {@link #iterator()} which reads the lexicon live.
+	 * </p>
+	 * @return The snapshot.
+	 * @see LexiconSnapshot
+	 */
+	@NotNull
+	public LexiconSnapshot<T> snapshot() {
+		if (isSynchronizedAccess()) {
+			synchronized (this) {
+				return snapshot_content();
+			}
+		}
+		else if (lock != null)
+			return lock.read(this::snapshot_content);
+		else
+			return snapshot_content();
+	}
+	@NotNull
+	private synchronized LexiconSnapshot<T> snapshot_content() {
+		closeGap();
+		Object[] current = array != null ? array : EMPTY_ARRAY;
+		LexiconSnapshot<T> last = snapshot;
+		
+		if (last != null && last.array == current && last.size == size())
+			return last;
+		
+		last = new LexiconSnapshot<>(current, size());
+		snapshot = last;
+		return last;
+	}
+	
+	/**
+	 * Copy the backing array if a snapshot shares it. Must be called before modifying the array in place (appending
+	 * after the last element is safe, as the snapshots do not see it).
+	 */
+	private void unshareArray() {
+		LexiconSnapshot<T> last = snapshot;
+		
+		if (last != null && last.array == array) {
+			array = Arrays.copyOf(array, array.length);
+			snapshot = null;
+		}
+	}
+	
+	/* BATCH */
+	
+	/**
+	 * Start a batch of modifications. Until the matching {@link #endBatch()}, the modifications of the lexicon do not
+	 * notify the observers nor the add, set and remove handlers: they are accumulated, and {@link #endBatch()} sends a
+	 * single {@link LexiconChange} to the observers and to the change handlers. Batches can be nested; only the
+	 * outermost one emits the change.
+	 * @see #mutate(Consumer)
+	 */
+	public synchronized void beginBatch() {
+		if (batchDepth++ == 0)
+			batch = new LexiconChange.Builder<>(size());
+	}
+	
+	/**
+	 * End the batch started by the last call to {@link #beginBatch()}. If it was the outermost batch and the lexicon
+	 * changed, the observers and the change handlers are notified with a {@link LexiconChange}.
+	 * @throws IllegalStateException If there is no batch in progress.
+	 */
+	public synchronized void endBatch() {
+		if (batchDepth == 0)
+			throw new IllegalStateException("No batch in progress.");
+		
+		if (--batchDepth > 0)
+			return;
+		
+		LexiconChange.Builder<T> builder = batch;
+		batch = null;
+		
+		if (builder != null && !builder.isEmpty()) {
+			closeGap();
+			LexiconChange<T> change = builder.build(array, size());
+			snap(change);
+			triggerChangeHandlers(change);
+		}
+	}
+	
+	/**
+	 * Apply {@code mutation} to the lexicon in a batch.
+	 * @param mutation The modifications to apply.
+	 * @see #beginBatch()
+	 */
+	public void mutate(@NotNull Consumer<Lexicon<T>> mutation) {
+		if (mutation == null)
+			throw new NullPointerException();
+		
+		if (isSynchronizedAccess()) {
+			synchronized (this) {
+				mutate_content(mutation);
+			}
+		}
+		else if (lock != null)
+			lock.write(() -> mutate_content(mutation));
+		else
+			mutate_content(mutation);
+	}
+	private void mutate_content(@NotNull Consumer<Lexicon<T>> mutation) {
+		beginBatch();
+		try {
+			mutation.accept(this);
+		} finally {
+			endBatch();
+		}
+	}
+	
+	public boolean isBatching() {
+		return batchDepth > 0;
+	}
+	
+	/* OBSERVERS */
+	
+	@Override
+	public synchronized void addObserver(Observer o) {
+		super.addObserver(o);
+		observerCount = countObservers();
+	}
+	
+	@Override
+	public synchronized void deleteObserver(Observer o) {
+		super.deleteObserver(o);
+		observerCount = countObservers();
+	}
+	
+	@Override
+	public synchronized void deleteObservers() {
+		super.deleteObservers();
+		observerCount = 0;
+	}
+	
+	/**
+	 * Notify the observers, only if there is at least one and no batch is in progress.
+	 * @param o The object to send to the observers.
+	 */
+	@Override
+	protected void snap(Object o) {
+		if (observerCount > 0 && batchDepth == 0)
+			super.snap(o);
+	}
+	
+	@Override
+	protected void snap(Object... objects) {
+		if (observerCount > 0 && batchDepth == 0)
+			super.snap(objects);
+	}
+	
+	@Override
+	protected void snap() {
+		if (observerCount > 0 && batchDepth == 0)
+			super.snap();
+	}
+	
 	/* GETTERS & SETTERS */
 	
 	@NotNull
 	@SuppressWarnings("WeakerAccess")
 	public ArrayList<AddHandler<T>> getAddHandlers() {
 		if (addHandlers == null)
-			addHandlers = new ArrayList<>();
+			addHandlers = new HandlerList<>();
 		
 		return addHandlers;
 	}
 	
-	@SuppressWarnings("WeakerAccess")
+	/**
+	 * Set the list of add handlers. If {@code addHandlers} does not come from {@link #getAddHandlers()}, it is copied.
+	 * @param addHandlers The new list of handlers.
+	 */
+	@SuppressWarnings({"WeakerAccess", "unchecked"})
 	public void setAddHandlers(@NotNull ArrayList<AddHandler<T>> addHandlers) {
 		if (addHandlers == null)
 			throw new NullPointerException();
 		
-		this.addHandlers = addHandlers;
+		if (addHandlers instanceof HandlerList)
+			this.addHandlers = (HandlerList<AddHandler<T>>) addHandlers;
+		else
+			this.addHandlers = new HandlerList<>(addHandlers);
 	}
 	
 	@SuppressWarnings({"unused", "UnusedReturnValue"})
@@ -1434,33 +2584,75 @@ public class Lexicon<T> extends EnhancedObservable implements Collection<T>, Ite
 		return getAddHandlers().add(addHandler);
 	}
 	
-	@SuppressWarnings("WeakerAccess")
+	@SuppressWarnings({"WeakerAccess", "unchecked"})
 	protected void triggerAddHandlers(int index, T element) {
-		for (int i = 0; i < getAddHandlers().size(); i++) {
-			if (getAddHandlers().get(i) == null) {
-				getAddHandlers().remove(i);
-				i--;
-			}
-			else
-				getAddHandlers().get(i).onElementAdded(index, element);
+		if (batch != null) {
+			batch.added(index, 1, size());
+			return;
+		}
+		
+		// Fast path: most lexicons have no handler at all
+		if (addHandlers.isEmpty())
+			return;
+		
+		Object[] handlers = addHandlers.snapshot();
+		dispatch(() -> {
+			for (Object handler : handlers)
+				((AddHandler<T>) handler).onElementAdded(index, element);
+		});
+	}
+	/**
+	 * Call the add handlers for the elements from {@code fromIndex} (inclusive) to {@code toIndex} (exclusive). The
+	 * {@link BulkAddHandler} are called once for the whole range, the others once per element, in ascending order.
+	 * @param fromIndex The index of the first added element.
+	 * @param toIndex The index after the last added element.
+	 */
+	@SuppressWarnings("unchecked")
+	protected void triggerAddHandlers(int fromIndex, int toIndex) {
+		if (batch != null) {
+			batch.added(fromIndex, toIndex - fromIndex, size());
+			return;
 		}
+		
+		if (addHandlers.isEmpty())
+			return;
+		
+		// The elements are copied, as the handlers may run after the array changed
+		Object[] handlers = addHandlers.snapshot();
+		List<T> elements = Collections.unmodifiableList(Arrays.asList((T[]) Arrays.copyOfRange(array, fromIndex, toIndex, Object[].class)));
+		dispatch(() -> {
+			for (Object handler : handlers) {
+				if (handler instanceof BulkAddHandler)
+					((BulkAddHandler<T>) handler).onElementsAdded(fromIndex, toIndex, elements);
+				else
+					for (int k = fromIndex; k < toIndex; k++)
+						((AddHandler<T>) handler).onElementAdded(k, elements.get(k - fromIndex));
+			}
+		});
 	}
 	
 	@NotNull
 	@SuppressWarnings("WeakerAccess")
 	public ArrayList<GetHandler<T>> getGetHandlers() {
 		if (getHandlers == null)
-			getHandlers = new ArrayList<>();
+			getHandlers = new HandlerList<>();
 		
 		return getHandlers;
 	}
 	
-	@SuppressWarnings("WeakerAccess")
+	/**
+	 * Set the list of get handlers. If {@code getHandlers} does not come from {@link #getGetHandlers()}, it is copied.
+	 * @param getHandlers The new list of handlers.
+	 */
+	@SuppressWarnings({"WeakerAccess", "unchecked"})
 	public void setGetHandlers(@NotNull ArrayList<GetHandler<T>> getHandlers) {
 		if (getHandlers == null)
 			throw new NullPointerException();
 		
-		this.getHandlers = getHandlers;
+		if (getHandlers instanceof HandlerList)
+			this.getHandlers = (HandlerList<GetHandler<T>>) getHandlers;
+		else
+			this.getHandlers = new HandlerList<>(getHandlers);
 	}
 	
 	@SuppressWarnings({"unused", "UnusedReturnValue"})
@@ -1471,33 +2663,41 @@ public class Lexicon<T> extends EnhancedObservable implements Collection<T>, Ite
 		return getGetHandlers().add(getHandler);
 	}
 	
-	@SuppressWarnings("WeakerAccess")
+	@SuppressWarnings({"WeakerAccess", "unchecked"})
 	protected void triggerGetHandlers(int index, T element) {
-		for (int i = 0; i < getGetHandlers().size(); i++) {
-			if (getGetHandlers().get(i) == null) {
-				getGetHandlers().remove(i);
-				i--;
-			}
-			else
-				getGetHandlers().get(i).onElementGotten(index, element);
-		}
+		// Fast path: most lexicons have no handler at all
+		if (getHandlers.isEmpty())
+			return;
+		
+		Object[] handlers = getHandlers.snapshot();
+		dispatch(() -> {
+			for (Object handler : handlers)
+				((GetHandler<T>) handler).onElementGotten(index, element);
+		});
 	}
 	
 	@NotNull
 	@SuppressWarnings("WeakerAccess")
 	public ArrayList<SetHandler<T>> getSetHandlers() {
 		if (setHandlers == null)
-			setHandlers = new ArrayList<>();
+			setHandlers = new HandlerList<>();
 		
 		return setHandlers;
 	}
 	
-	@SuppressWarnings("WeakerAccess")
+	/**
+	 * Set the list of set handlers. If {@code setHandlers} does not come from {@link #getSetHandlers()}, it is copied.
+	 * @param setHandlers The new list of handlers.
+	 */
+	@SuppressWarnings({"WeakerAccess", "unchecked"})
 	public void setSetHandlers(@NotNull ArrayList<SetHandler<T>> setHandlers) {
 		if (setHandlers == null)
 			throw new NullPointerException();
 		
-		this.setHandlers = setHandlers;
+		if (setHandlers instanceof HandlerList)
+			this.setHandlers = (HandlerList<SetHandler<T>>) setHandlers;
+		else
+			this.setHandlers = new HandlerList<>(setHandlers);
 	}
 	
 	@SuppressWarnings({"unused", "UnusedReturnValue"})
@@ -1508,33 +2708,46 @@ public class Lexicon<T> extends EnhancedObservable implements Collection<T>, Ite
 		return getSetHandlers().add(setHandler);
 	}
 	
-	@SuppressWarnings("WeakerAccess")
+	@SuppressWarnings({"WeakerAccess", "unchecked"})
 	protected void triggerSetHandlers(int index, T element) {
-		for (int i = 0; i < getSetHandlers().size(); i++) {
-			if (getSetHandlers().get(i) == null) {
-				getSetHandlers().remove(i);
-				i--;
-			}
-			else
-				getSetHandlers().get(i).onElementSet(index, element);
+		if (batch != null) {
+			batch.set(index, size());
+			return;
 		}
+		
+		// Fast path: most lexicons have no handler at all
+		if (setHandlers.isEmpty())
+			return;
+		
+		Object[] handlers = setHandlers.snapshot();
+		dispatch(() -> {
+			for (Object handler : handlers)
+				((SetHandler<T>) handler).onElementSet(index, element);
+		});
 	}
 	
 	@NotNull
 	@SuppressWarnings("WeakerAccess")
 	public ArrayList<RemoveHandler<T>> getRemoveHandlers() {
 		if (removeHandlers == null)
-			removeHandlers = new ArrayList<>();
+			removeHandlers = new HandlerList<>();
 		
 		return removeHandlers;
 	}
 	
-	@SuppressWarnings("WeakerAccess")
+	/**
+	 * Set the list of remove handlers. If {@code removeHandlers} does not come from {@link #getRemoveHandlers()}, it is copied.
+	 * @param removeHandlers The new list of handlers.
+	 */
+	@SuppressWarnings({"WeakerAccess", "unchecked"})
 	public void setRemoveHandlers(@NotNull ArrayList<RemoveHandler<T>> removeHandlers) {
 		if (removeHandlers == null)
 			throw new NullPointerException();
 		
-		this.removeHandlers = removeHandlers;
+		if (removeHandlers instanceof HandlerList)
+			this.removeHandlers = (HandlerList<RemoveHandler<T>>) removeHandlers;
+		else
+			this.removeHandlers = new HandlerList<>(removeHandlers);
 	}
 	
 	@SuppressWarnings({"unused", "UnusedReturnValue"})
@@ -1545,16 +2758,141 @@ public class Lexicon<T> extends EnhancedObservable implements Collection<T>, Ite
 		return getRemoveHandlers().add(removeHandler);
 	}
 	
-	@SuppressWarnings("WeakerAccess")
+	@SuppressWarnings({"WeakerAccess", "unchecked"})
 	protected void triggerRemoveHandlers(int index, T element) {
-		for (int i = 0; i < getRemoveHandlers().size(); i++) {
-			if (getRemoveHandlers().get(i) == null) {
-				getRemoveHandlers().remove(i);
-				i--;
-			}
-			else
-				getRemoveHandlers().get(i).onElementRemoved(index, element);
+		if (batch != null) {
+			batch.removed(index, Collections.singletonList(element), size());
+			return;
 		}
+		
+		// Fast path: most lexicons have no handler at all
+		if (removeHandlers.isEmpty())
+			return;
+		
+		Object[] handlers = removeHandlers.snapshot();
+		dispatch(() -> {
+			for (Object handler : handlers)
+				((RemoveHandler<T>) handler).onElementRemoved(index, element);
+		});
+	}
+	@SuppressWarnings("unchecked")
+	protected void triggerBulkRemoveHandlers(@NotNull int[] indexes, @NotNull List<T> elements) {
+		if (batch != null) {
+			batch.removed(indexes, elements, size());
+			return;
+		}
+		
+		if (removeHandlers.isEmpty())
+			return;
+		
+		Object[] handlers = removeHandlers.snapshot();
+		dispatch(() -> {
+			for (Object handler : handlers) {
+				if (handler instanceof BulkRemoveHandler)
+					((BulkRemoveHandler<T>) handler).onElementsRemoved(indexes, elements);
+				else
+					for (int k = 0; k < indexes.length; k++)
+						((RemoveHandler<T>) handler).onElementRemoved(indexes[k] - k, elements.get(k));
+			}
+		});
+	}
+	
+	@NotNull
+	@SuppressWarnings("WeakerAccess")
+	public ArrayList<ChangeHandler<T>> getChangeHandlers() {
+		if (changeHandlers == null)
+			changeHandlers = new HandlerList<>();
+		
+		return changeHandlers;
+	}
+	
+	/**
+	 * Set the list of change handlers. If {@code changeHandlers} does not come from {@link #getChangeHandlers()}, it is
+	 * copied.
+	 * @param changeHandlers The new list of handlers.
+	 */
+	@SuppressWarnings({"WeakerAccess", "unchecked"})
+	public void setChangeHandlers(@NotNull ArrayList<ChangeHandler<T>> changeHandlers) {
+		if (changeHandlers == null)
+			throw new NullPointerException();
+		
+		if (changeHandlers instanceof HandlerList)
+			this.changeHandlers = (HandlerList<ChangeHandler<T>>) changeHandlers;
+		else
+			this.changeHandlers = new HandlerList<>(changeHandlers);
+	}
+	
+	/**
+	 * Add a handler notified at the end of each batch.
+	 * @param changeHandler The handler to add.
+	 * @return {@code true}
+	 * @see #beginBatch()
+	 */
+	@SuppressWarnings({"unused", "UnusedReturnValue"})
+	public boolean addChangeHandler(@NotNull ChangeHandler<T> changeHandler) {
+		if (changeHandler == null)
+			throw new NullPointerException();
+		
+		return getChangeHandlers().add(changeHandler);
+	}
+	
+	@SuppressWarnings({"WeakerAccess", "unchecked"})
+	protected void triggerChangeHandlers(@NotNull LexiconChange<T> change) {
+		if (changeHandlers.isEmpty())
+			return;
+		
+		Object[] handlers = changeHandlers.snapshot();
+		dispatch(() -> {
+			for (Object handler : handlers)
+				((ChangeHandler<T>) handler).onChange(change);
+		});
+	}
+	
+	/**
+	 * Run {@code handlers} immediately, or hand them to the event dispatcher if there is one.
+	 * @param handlers The handlers to call.
+	 */
+	private void dispatch(@NotNull Runnable handlers) {
+		EventDispatcher dispatcher = eventDispatcher;
+		
+		if (dispatcher == null)
+			handlers.run();
+		else
+			dispatcher.dispatch(handlers);
+	}
+	
+	/**
+	 * Get the dispatcher which runs the handlers of this lexicon.
+	 * @return The dispatcher, or {@code null} if the handlers are run by the thread which modified the lexicon.
+	 */
+	@Nullable
+	public EventDispatcher getEventDispatcher() {
+		return eventDispatcher;
+	}
+	
+	/**
+	 * Run the handlers on {@code eventDispatcher} instead of the thread which modified the lexicon. The observers are
+	 * still notified synchronously. The dispatcher is not serialized.
+	 * @param eventDispatcher The dispatcher to use, or {@code null} to run the handlers synchronously.
+	 * @see EventDispatcher
+	 */
+	public void setEventDispatcher(@Nullable EventDispatcher eventDispatcher) {
+		this.eventDispatcher = eventDispatcher;
+	}
+	
+	public boolean isAsyncDispatch() {
+		return eventDispatcher != null;
+	}
+	
+	/**
+	 * Wait until all the events of this lexicon have been handled. It returns immediately if the handlers are run
+	 * synchronously.
+	 */
+	public void flushEvents() {
+		EventDispatcher dispatcher = eventDispatcher;
+		
+		if (dispatcher != null)
+			dispatcher.flush();
 	}
 	
 	@Nullable
@@ -1577,6 +2915,7 @@ public class Lexicon<T> extends EnhancedObservable implements Collection<T>, Ite
 	
 	public void setAcceptDuplicates(boolean acceptDuplicates) {
 		this.acceptDuplicates = acceptDuplicates;
+		this.hashIndex = null;
 		
 		if (!this.acceptDuplicates)
 			deleteDuplications();
@@ -1594,14 +2933,140 @@ public class Lexicon<T> extends EnhancedObservable implements Collection<T>, Ite
 			deleteNullElement();
 	}
 	
+	@NotNull
+	public GrowthPolicy getGrowthPolicy() {
+		if (growthPolicy == null)
+			growthPolicy = GrowthPolicy.doubling();
+		
+		return growthPolicy;
+	}
+	
+	/**
+	 * Set the policy used to grow the backing array when it is full.
+	 * @param growthPolicy The new growth policy.
+	 * @see GrowthPolicy#doubling()
+	 * @see GrowthPolicy#factor(double)
+	 * @see GrowthPolicy#step(int)
+	 */
+	@SuppressWarnings("ConstantConditions")
+	public void setGrowthPolicy(@NotNull GrowthPolicy growthPolicy) {
+		if (growthPolicy == null)
+			throw new NullPointerException();
+		
+		this.growthPolicy = growthPolicy;
+	}
+	
+	public boolean isHashIndexed() {
+		return hashIndexed;
+	}
+	
+	/**
+	 * Enable or disable the hash index. When it is enabled and the lexicon refuses duplicates, {@link #contains(Object)},
+	 * {@link #search(Object)}, {@link #remove(Object)} and the duplicates-rule of {@link #add(Object)} and
+	 * {@link #set(int, Object)} are O(1) expected instead of O(n), at the cost of the memory reported by
+	 * {@link #getHashIndexMemoryFootprint()}. The lookups do not trigger the get handlers anymore.
+	 * <p>
+	 * Warning: the elements must not change their {@code hashCode()} while they are in the lexicon.
+	 * </p>
+	 * @param hashIndexed {@code true} to enable the index.
+	 */
+	public void setHashIndexed(boolean hashIndexed) {
+		this.hashIndexed = hashIndexed;
+		this.hashIndex = null;
+	}
+	
+	public boolean isBatchRemoveEvents() {
+		return batchRemoveEvents;
+	}
+	
+	/**
+	 * Choose how the bulk removals ({@link #removeIf(Predicate)}, {@link #removeAll(Collection)},
+	 * {@link #retainAll(Collection)}, {@link #deleteNullElement()} and {@link #deleteDuplications()}) are notified. By
+	 * default, the observers and the remove handlers are notified once per removed element, in ascending order. When
+	 * {@code batchRemoveEvents} is {@code true}, the observers receive a single notification with the list of the
+	 * removed elements, and the {@link BulkRemoveHandler} are called once.
+	 * @param batchRemoveEvents {@code true} to notify the bulk removals at once.
+	 */
+	public void setBatchRemoveEvents(boolean batchRemoveEvents) {
+		this.batchRemoveEvents = batchRemoveEvents;
+	}
+	
+	/**
+	 * @return {@code true} if the lexicon is in {@link ConcurrencyMode#MONITOR} mode.
+	 */
 	@SuppressWarnings("WeakerAccess")
 	public boolean isSynchronizedAccess() {
-		return synchronizedAccess;
+		return concurrencyMode == ConcurrencyMode.MONITOR;
 	}
 	
+	/**
+	 * Switch between the {@link ConcurrencyMode#MONITOR} and {@link ConcurrencyMode#NONE} modes.
+	 * @param synchronizedAccess {@code true} for the {@code MONITOR} mode, {@code false} for the {@code NONE} mode.
+	 * @see #setConcurrencyMode(ConcurrencyMode)
+	 */
 	@SuppressWarnings("WeakerAccess")
 	public void setSynchronizedAccess(boolean synchronizedAccess) {
-		this.synchronizedAccess = synchronizedAccess;
+		setConcurrencyMode(synchronizedAccess ? ConcurrencyMode.MONITOR : ConcurrencyMode.NONE);
+	}
+	
+	@NotNull
+	public ConcurrencyMode getConcurrencyMode() {
+		if (concurrencyMode == null)
+			concurrencyMode = ConcurrencyMode.NONE;
+		
+		return concurrencyMode;
+	}
+	
+	/**
+	 * Change the way the lexicon protects itself against concurrent accesses. The mode must be chosen before the
+	 * lexicon is shared between threads.
+	 * @param concurrencyMode The new mode.
+	 * @throws IllegalStateException If the storage mode is {@link StorageMode#GAP_BUFFER} and {@code concurrencyMode}
+	 * is neither {@link ConcurrencyMode#NONE} nor {@link ConcurrencyMode#MONITOR}.
+	 * @see ConcurrencyMode
+	 */
+	@SuppressWarnings("ConstantConditions")
+	public void setConcurrencyMode(@NotNull ConcurrencyMode concurrencyMode) {
+		if (concurrencyMode == null)
+			throw new NullPointerException();
+		
+		checkModes(concurrencyMode, getStorageMode());
+		
+		this.concurrencyMode = concurrencyMode;
+		this.lock = LexiconLock.of(concurrencyMode);
+	}
+	
+	@NotNull
+	public StorageMode getStorageMode() {
+		if (storageMode == null)
+			storageMode = StorageMode.FLAT;
+		
+		return storageMode;
+	}
+	
+	/**
+	 * Change the way the elements are laid out in the backing array. Switching back to {@link StorageMode#FLAT} closes
+	 * the gap.
+	 * @param storageMode The new mode.
+	 * @throws IllegalStateException If {@code storageMode} is {@link StorageMode#GAP_BUFFER} and the concurrency mode is
+	 * neither {@link ConcurrencyMode#NONE} nor {@link ConcurrencyMode#MONITOR}.
+	 * @see StorageMode
+	 */
+	@SuppressWarnings("ConstantConditions")
+	public void setStorageMode(@NotNull StorageMode storageMode) {
+		if (storageMode == null)
+			throw new NullPointerException();
+		
+		checkModes(getConcurrencyMode(), storageMode);
+		
+		this.storageMode = storageMode;
+		if (storageMode == StorageMode.FLAT)
+			closeGap();
+	}
+	
+	private static void checkModes(@NotNull ConcurrencyMode concurrencyMode, @NotNull StorageMode storageMode) {
+		if (storageMode == StorageMode.GAP_BUFFER && concurrencyMode != ConcurrencyMode.NONE && concurrencyMode != ConcurrencyMode.MONITOR)
+			throw new IllegalStateException("The " + storageMode + " storage mode cannot be used in " + concurrencyMode + " mode.");
 	}
 	
 	/* OVERRIDES */
@@ -1623,8 +3088,19 @@ public class Lexicon<T> extends EnhancedObservable implements Collection<T>, Ite
 		return identical;
 	}
 	
+	/**
+	 * Hash the elements of the lexicon in the same way as {@link Arrays#hashCode(Object[])}. The spare capacity of the
+	 * array and the gap are not part of the lexicon, so they are skipped.
+	 * @return The hash code of the lexicon.
+	 */
 	@Override
 	public int hashCode() {
-		return Arrays.hashCode(array);
+		int hash = 1;
+		for (int i = 0, size = size(); i < size; i++) {
+			Object element = array[physical(i)];
+			hash = 31 * hash + (element == null ? 0 : element.hashCode());
+		}
+		
+		return hash;
 	}
 }
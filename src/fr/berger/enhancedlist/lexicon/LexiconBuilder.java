@@ -1,6 +1,7 @@
 package fr.berger.enhancedlist.lexicon;
 
 import fr.berger.enhancedlist.lexicon.eventhandlers.AddHandler;
+import fr.berger.enhancedlist.lexicon.eventhandlers.ChangeHandler;
 import fr.berger.enhancedlist.lexicon.eventhandlers.GetHandler;
 import fr.berger.enhancedlist.lexicon.eventhandlers.RemoveHandler;
 import fr.berger.enhancedlist.lexicon.eventhandlers.SetHandler;
@@ -21,6 +22,7 @@ public class LexiconBuilder<T> implements Serializable, Cloneable {
 	private static final long serialVersionUID = 8735223388520088192L;
 	@NotNull
 	private Lexicon<T> lexicon;
+	private int capacity;
 	
 	/* CONSTRUCTORS */
 	
@@ -44,11 +46,13 @@ public class LexiconBuilder<T> implements Serializable, Cloneable {
 	
 	private void writeObject(@NotNull ObjectOutputStream stream) throws IOException {
 		stream.writeObject(lexicon);
+		stream.writeInt(capacity);
 	}
 	
 	@SuppressWarnings("unchecked")
 	private void readObject(@NotNull ObjectInputStream stream) throws IOException, ClassNotFoundException {
 		this.lexicon = (Lexicon<T>) stream.readObject();
+		this.capacity = stream.readInt();
 	}
 	
 	/* LEXICONBUILDER METHODS */
@@ -164,6 +168,12 @@ public class LexiconBuilder<T> implements Serializable, Cloneable {
 		return this;
 	}
 	
+	@NotNull
+	public LexiconBuilder<T> addChangeHandlers(@NotNull ChangeHandler<T> changeHandler) {
+		lexicon.addChangeHandler(changeHandler);
+		return this;
+	}
+	
 	@NotNull
 	public LexiconBuilder<T> setAcceptDuplicates(boolean acceptDuplicates) {
 		lexicon.setAcceptDuplicates(acceptDuplicates);
@@ -182,6 +192,87 @@ public class LexiconBuilder<T> implements Serializable, Cloneable {
 		return this;
 	}
 	
+	/**
+	 * Choose how the created lexicon protects itself against concurrent accesses.
+	 * @param concurrencyMode The concurrency mode.
+	 * @return The builder.
+	 * @see Lexicon#setConcurrencyMode(ConcurrencyMode)
+	 */
+	@NotNull
+	public LexiconBuilder<T> setConcurrencyMode(@NotNull ConcurrencyMode concurrencyMode) {
+		lexicon.setConcurrencyMode(concurrencyMode);
+		return this;
+	}
+	
+	/**
+	 * Choose how the created lexicon lays out its elements in its backing array.
+	 * @param storageMode The storage mode.
+	 * @return The builder.
+	 * @see Lexicon#setStorageMode(StorageMode)
+	 */
+	@NotNull
+	public LexiconBuilder<T> setStorageMode(@NotNull StorageMode storageMode) {
+		lexicon.setStorageMode(storageMode);
+		return this;
+	}
+	
+	@NotNull
+	public LexiconBuilder<T> setGrowthPolicy(@NotNull GrowthPolicy growthPolicy) {
+		lexicon.setGrowthPolicy(growthPolicy);
+		return this;
+	}
+	
+	/**
+	 * Enable the hash index of the created lexicon.
+	 * @param hashIndexed {@code true} to enable the index.
+	 * @return The builder.
+	 * @see Lexicon#setHashIndexed(boolean)
+	 */
+	@NotNull
+	public LexiconBuilder<T> setHashIndexed(boolean hashIndexed) {
+		lexicon.setHashIndexed(hashIndexed);
+		return this;
+	}
+	
+	/**
+	 * Notify the bulk removals of the created lexicon at once.
+	 * @param batchRemoveEvents {@code true} to notify the bulk removals at once.
+	 * @return The builder.
+	 * @see Lexicon#setBatchRemoveEvents(boolean)
+	 */
+	@NotNull
+	public LexiconBuilder<T> setBatchRemoveEvents(boolean batchRemoveEvents) {
+		lexicon.setBatchRemoveEvents(batchRemoveEvents);
+		return this;
+	}
+	
+	/**
+	 * Run the handlers of the created lexicon on {@code eventDispatcher}.
+	 * @param eventDispatcher The dispatcher, or {@code null} to run the handlers synchronously.
+	 * @return The builder.
+	 * @see Lexicon#setEventDispatcher(EventDispatcher)
+	 */
+	@NotNull
+	public LexiconBuilder<T> setEventDispatcher(@Nullable EventDispatcher eventDispatcher) {
+		lexicon.setEventDispatcher(eventDispatcher);
+		return this;
+	}
+	
+	/**
+	 * Make sure that the created lexicon can contain at least {@code capacity} elements before its backing array has
+	 * to grow.
+	 * @param capacity The minimum capacity of the created lexicon.
+	 * @return The builder.
+	 */
+	@NotNull
+	public LexiconBuilder<T> ensureCapacity(int capacity) {
+		if (capacity < 0)
+			throw new IllegalArgumentException("capacity must be positive.");
+		
+		this.capacity = Math.max(this.capacity, capacity);
+		return this;
+	}
+	
 	@NotNull
 	public LexiconBuilder<T> addObserver(@NotNull Observer observer) {
 		lexicon.addObserver(observer);
@@ -197,6 +288,9 @@ public class LexiconBuilder<T> implements Serializable, Cloneable {
 		if (lexicon == null)
 			lexicon = new Lexicon<>();
 		
-		return new Lexicon<>(lexicon);
+		Lexicon<T> created = new Lexicon<>(lexicon);
+		created.ensureCapacity(capacity);
+		
+		return created;
 	}
 }
@@ -0,0 +1,245 @@
+package fr.berger.enhancedlist.lexicon;
+
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Summary of all the modifications made to a Lexicon during a batch (see {@link Lexicon#beginBatch()} and
+ * {@link Lexicon#mutate(java.util.function.Consumer)}).
+ * <p>
+ * The change is expressed as a single splice: in the lexicon as it was before the batch, the
+ * {@link #getRemovedCount()} elements starting at {@link #getFromIndex()} have been replaced by the elements of
+ * {@link #getAdded()}. The elements before {@code fromIndex} and the elements after the replaced range are the same, in
+ * the same order. The range can be wider than what strictly changed, but never narrower.
+ * </p>
+ * <p>
+ * If the batch only sorted the lexicon, {@link #getPermutation()} tells where each element comes from.
+ * </p>
+ * @param <T> The type of the elements.
+ * @author Valentin Berger
+ */
+public class LexiconChange<T> {
+	
+	private final int fromIndex;
+	private final int removedCount;
+	private final int sizeBefore;
+	@NotNull
+	private final List<T> added;
+	@NotNull
+	private final List<T> removed;
+	@Nullable
+	private final int[] permutation;
+	
+	/* CONSTRUCTOR */
+	
+	LexiconChange(int fromIndex, int removedCount, int sizeBefore, @NotNull List<T> added, @NotNull List<T> removed, @Nullable int[] permutation) {
+		this.fromIndex = fromIndex;
+		this.removedCount = removedCount;
+		this.sizeBefore = sizeBefore;
+		this.added = Collections.unmodifiableList(added);
+		this.removed = Collections.unmodifiableList(removed);
+		this.permutation = permutation;
+	}
+	
+	/* GETTERS */
+	
+	/**
+	 * @return The index of the first element which may have changed.
+	 */
+	public int getFromIndex() {
+		return fromIndex;
+	}
+	
+	/**
+	 * @return The number of elements replaced in the lexicon as it was before the batch, starting at
+	 * {@link #getFromIndex()}.
+	 */
+	public int getRemovedCount() {
+		return removedCount;
+	}
+	
+	/**
+	 * @return The number of elements which replaced them, starting at {@link #getFromIndex()}.
+	 */
+	public int getAddedCount() {
+		return added.size();
+	}
+	
+	/**
+	 * @return The elements now in the range {@code [fromIndex, fromIndex + addedCount)}, in order.
+	 */
+	@NotNull
+	public List<T> getAdded() {
+		return added;
+	}
+	
+	/**
+	 * The elements removed from the lexicon during the batch, in the order of their removal. The elements overwritten
+	 * by {@code set} are not part of this list.
+	 * @return The removed elements.
+	 */
+	@NotNull
+	public List<T> getRemoved() {
+		return removed;
+	}
+	
+	public int getSizeBefore() {
+		return sizeBefore;
+	}
+	
+	public int getSizeAfter() {
+		return sizeBefore - removedCount + added.size();
+	}
+	
+	/**
+	 * @return {@code true} if the batch only changed the order of the elements.
+	 */
+	public boolean isPermutation() {
+		return permutation != null;
+	}
+	
+	/**
+	 * If the batch only sorted the lexicon, get the permutation it applied: the element at index {@code i} was at index
+	 * {@code permutation[i]} before the batch.
+	 * @return A copy of the permutation, or {@code null} if the batch did more than reordering the elements.
+	 */
+	@Nullable
+	public int[] getPermutation() {
+		return permutation != null ? permutation.clone() : null;
+	}
+	
+	/* OVERRIDES */
+	
+	@Override
+	public String toString() {
+		return "LexiconChange{" +
+				"fromIndex=" + fromIndex +
+				", removedCount=" + removedCount +
+				", added=" + added +
+				", removed=" + removed +
+				", permutation=" + Arrays.toString(permutation) +
+				'}';
+	}
+	
+	/* BUILDER */
+	
+	/**
+	 * Accumulate the modifications of a batch. Each method is called after the modification has been applied, with the
+	 * new size of the lexicon.
+	 * @param <T> The type of the elements.
+	 */
+	static class Builder<T> {
+		
+		private final int sizeBefore;
+		private int fromIndex = Integer.MAX_VALUE;
+		/**
+		 * Number of elements at the end of the lexicon which have not changed since the beginning of the batch.
+		 */
+		private int unchangedTail = Integer.MAX_VALUE;
+		@NotNull
+		private final ArrayList<T> removed = new ArrayList<>();
+		@Nullable
+		private int[] permutation;
+		private boolean onlyPermutations = true;
+		
+		Builder(int sizeBefore) {
+			this.sizeBefore = sizeBefore;
+		}
+		
+		void added(int index, int count, int size) {
+			touch(index, size - index - count);
+			onlyPermutations = false;
+		}
+		
+		void set(int index, int size) {
+			touch(index, size - index - 1);
+			onlyPermutations = false;
+		}
+		
+		/**
+		 * Record the removal of consecutive elements.
+		 * @param index The index of the first removed element.
+		 * @param elements The removed elements.
+		 * @param size The size of the lexicon after the removal.
+		 */
+		void removed(int index, @NotNull List<T> elements, int size) {
+			touch(index, size - index);
+			removed.addAll(elements);
+			onlyPermutations = false;
+		}
+		
+		/**
+		 * Record the removal of scattered elements.
+		 * @param indexes The indexes of the removed elements before the removal, in ascending order.
+		 * @param elements The removed elements.
+		 * @param size The size of the lexicon after the removal.
+		 */
+		void removed(@NotNull int[] indexes, @NotNull List<T> elements, int size) {
+			if (indexes.length == 0)
+				return;
+			
+			int last = indexes[indexes.length - 1];
+			touch(indexes[0], size - (last - indexes.length + 1));
+			removed.addAll(elements);
+			onlyPermutations = false;
+		}
+		
+		/**
+		 * Record a reordering of the elements.
+		 * @param permutation The element at index {@code i} was at index {@code permutation[i]} before the reordering.
+		 * @param size The size of the lexicon.
+		 */
+		void permuted(@NotNull int[] permutation, int size) {
+			int first = -1;
+			int last = -1;
+			for (int i = 0; i < permutation.length; i++) {
+				if (permutation[i] != i) {
+					if (first < 0)
+						first = i;
+					last = i;
+				}
+			}
+			
+			if (first >= 0)
+				touch(first, size - last - 1);
+			
+			if (onlyPermutations) {
+				if (this.permutation == null)
+					this.permutation = permutation;
+				else {
+					int[] composed = new int[permutation.length];
+					for (int i = 0; i < permutation.length; i++)
+						composed[i] = this.permutation[permutation[i]];
+					this.permutation = composed;
+				}
+			}
+		}
+		
+		private void touch(int index, int unchangedTail) {
+			fromIndex = Math.min(fromIndex, index);
+			this.unchangedTail = Math.min(this.unchangedTail, Math.max(0, unchangedTail));
+		}
+		
+		boolean isEmpty() {
+			return fromIndex == Integer.MAX_VALUE;
+		}
+		
+		@NotNull
+		@SuppressWarnings("unchecked")
+		LexiconChange<T> build(@Nullable Object[] array, int size) {
+			int from = Math.min(fromIndex, Math.min(size, sizeBefore));
+			int tail = Math.min(unchangedTail, Math.min(size, sizeBefore) - from);
+			
+			List<T> added = new ArrayList<>(size - tail - from);
+			for (int i = from; array != null && i < size - tail; i++)
+				added.add((T) array[i]);
+			
+			return new LexiconChange<>(from, sizeBefore - tail - from, sizeBefore, added, removed, onlyPermutations ? permutation : null);
+		}
+	}
+}
@@ -0,0 +1,785 @@
+package fr.berger.enhancedlist.lexicon;
+
+import fr.berger.beyondcode.util.EnhancedObservable;
+import fr.berger.enhancedlist.ListUtil;
+import fr.berger.enhancedlist.lexicon.eventhandlers.AddHandler;
+import fr.berger.enhancedlist.lexicon.eventhandlers.GetHandler;
+import fr.berger.enhancedlist.lexicon.eventhandlers.RemoveHandler;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.io.Serializable;
+import java.lang.reflect.Array;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.ConcurrentModificationException;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.Objects;
+import java.util.Observer;
+
+/**
+ * LexiconDeque is a double-ended queue backed by a circular array. Adding or removing an element at either end
+ * ({@link #offerFirst(Object)}, {@link #offerLast(Object)}, {@link #pollFirst()}, {@link #pollLast()}) is O(1), as no
+ * element is ever moved, whereas {@code lexicon.remove(0)} shifts the whole array. It is meant to be used as a queue or
+ * a stack, for instance by the graph traversals.
+ * <p>
+ * As a Lexicon, LexiconDeque notifies its observers and its add, get and remove handlers. The index given to the
+ * handlers is the position of the element from the head of the deque at the time of the operation: 0 for the first
+ * element and {@code size() - 1} for the last one.
+ * </p>
+ * <p>
+ * Following the contract of {@link Deque}, the null values are refused (with a {@link NullPointerException}), as
+ * {@code null} is the value returned by {@link #pollFirst()} when the deque is empty. LexiconDeque is not thread-safe.
+ * </p>
+ * @param <T> The type of the elements.
+ * @author Valentin Berger
+ */
+@SuppressWarnings({"ConstantConditions", "NullableProblems", "WeakerAccess"})
+public class LexiconDeque<T> extends EnhancedObservable implements Deque<T>, Serializable {
+	
+	private static final long serialVersionUID = 6640329745180270413L;
+	
+	/**
+	 * The capacity of the circular array when none is given. The capacity is always a power of two, so that the index
+	 * of an element is computed with a mask.
+	 */
+	private static final int DEFAULT_CAPACITY = 16;
+	
+	@NotNull
+	private transient Object[] elements;
+	private transient int head;
+	private transient int size;
+	private transient int modCount;
+	
+	@NotNull
+	private HandlerList<AddHandler<T>> addHandlers;
+	@NotNull
+	private HandlerList<GetHandler<T>> getHandlers;
+	@NotNull
+	private HandlerList<RemoveHandler<T>> removeHandlers;
+	
+	private transient volatile int observerCount;
+	@Nullable
+	private transient volatile EventDispatcher eventDispatcher;
+	
+	/* CONSTRUCTORS */
+	
+	public LexiconDeque() {
+		this(DEFAULT_CAPACITY);
+	}
+	/**
+	 * Constructs an empty deque able to contain {@code initialCapacity} elements without growing.
+	 * @param initialCapacity The initial capacity. It is rounded up to a power of two.
+	 * @throws IllegalArgumentException If {@code initialCapacity} is negative.
+	 */
+	public LexiconDeque(int initialCapacity) {
+		if (initialCapacity < 0)
+			throw new IllegalArgumentException("initialCapacity must be positive.");
+		
+		this.elements = new Object[roundCapacity(initialCapacity)];
+		this.addHandlers = new HandlerList<>();
+		this.getHandlers = new HandlerList<>();
+		this.removeHandlers = new HandlerList<>();
+	}
+	public LexiconDeque(@NotNull Collection<? extends T> elements) {
+		this(elements.size());
+		addAll(elements);
+	}
+	
+	/* CAPACITY METHODS */
+	
+	private static int roundCapacity(int minCapacity) {
+		if (minCapacity <= DEFAULT_CAPACITY)
+			return DEFAULT_CAPACITY;
+		
+		if (minCapacity > (1 << 30))
+			throw new OutOfMemoryError("Required array size too large");
+		
+		return Integer.highestOneBit(minCapacity - 1) << 1;
+	}
+	
+	/**
+	 * Double the capacity of the array, and move the elements so that the head is at index 0.
+	 */
+	private void grow() {
+		Object[] newElements = new Object[roundCapacity(elements.length + 1)];
+		
+		int firstPart = Math.min(size, elements.length - head);
+		System.arraycopy(elements, head, newElements, 0, firstPart);
+		System.arraycopy(elements, 0, newElements, firstPart, size - firstPart);
+		
+		elements = newElements;
+		head = 0;
+	}
+	
+	/**
+	 * The length of the circular array.
+	 * @return The capacity of the deque.
+	 */
+	public int capacity() {
+		return elements.length;
+	}
+	
+	/**
+	 * Convert a position from the head into an index of the array.
+	 * @param index The position from the head.
+	 * @return The index in the array.
+	 */
+	private int physical(int index) {
+		return (head + index) & (elements.length - 1);
+	}
+	
+	/* DEQUE METHODS */
+	
+	@Override
+	public boolean offerFirst(@NotNull T element) {
+		if (element == null)
+			throw new NullPointerException();
+		
+		if (size == elements.length)
+			grow();
+		
+		head = (head - 1) & (elements.length - 1);
+		elements[head] = element;
+		size++;
+		modCount++;
+		
+		snap(element);
+		triggerAddHandlers(0, element);
+		
+		return true;
+	}
+	
+	@Override
+	public boolean offerLast(@NotNull T element) {
+		if (element == null)
+			throw new NullPointerException();
+		
+		if (size == elements.length)
+			grow();
+		
+		elements[physical(size)] = element;
+		size++;
+		modCount++;
+		
+		snap(element);
+		triggerAddHandlers(size - 1, element);
+		
+		return true;
+	}
+	
+	@Override
+	public void addFirst(@NotNull T element) {
+		offerFirst(element);
+	}
+	
+	@Override
+	public void addLast(@NotNull T element) {
+		offerLast(element);
+	}
+	
+	@Nullable
+	@Override
+	@SuppressWarnings("unchecked")
+	public T pollFirst() {
+		if (size == 0)
+			return null;
+		
+		T element = (T) elements[head];
+		elements[head] = null;
+		head = (head + 1) & (elements.length - 1);
+		size--;
+		modCount++;
+		
+		snap(element);
+		triggerRemoveHandlers(0, element);
+		
+		return element;
+	}
+	
+	@Nullable
+	@Override
+	@SuppressWarnings("unchecked")
+	public T pollLast() {
+		if (size == 0)
+			return null;
+		
+		int index = physical(size - 1);
+		T element = (T) elements[index];
+		elements[index] = null;
+		size--;
+		modCount++;
+		
+		snap(element);
+		triggerRemoveHandlers(size, element);
+		
+		return element;
+	}
+	
+	@NotNull
+	@Override
+	public T removeFirst() {
+		T element = pollFirst();
+		
+		if (element == null)
+			throw new NoSuchElementException();
+		
+		return element;
+	}
+	
+	@NotNull
+	@Override
+	public T removeLast() {
+		T element = pollLast();
+		
+		if (element == null)
+			throw new NoSuchElementException();
+		
+		return element;
+	}
+	
+	@Nullable
+	@Override
+	public T peekFirst() {
+		return size == 0 ? null : get(0);
+	}
+	
+	@Nullable
+	@Override
+	public T peekLast() {
+		return size == 0 ? null : get(size - 1);
+	}
+	
+	@NotNull
+	@Override
+	public T getFirst() {
+		if (size == 0)
+			throw new NoSuchElementException();
+		
+		return get(0);
+	}
+	
+	@NotNull
+	@Override
+	public T getLast() {
+		if (size == 0)
+			throw new NoSuchElementException();
+		
+		return get(size - 1);
+	}
+	
+	/**
+	 * Get the element at the position {@code index} from the head of the deque, in O(1).
+	 * @param index The position of the element: 0 is the first element, {@code size() - 1} the last one.
+	 * @return The element.
+	 * @throws IndexOutOfBoundsException If {@code index} is not between 0 and {@code size() - 1}.
+	 */
+	@NotNull
+	@SuppressWarnings("unchecked")
+	public T get(int index) {
+		ListUtil.checkIndexException(index, size);
+		
+		T element = (T) elements[physical(index)];
+		triggerGetHandlers(index, element);
+		
+		return element;
+	}
+	
+	@Override
+	public boolean removeFirstOccurrence(@Nullable Object o) {
+		if (o == null)
+			return false;
+		
+		for (int i = 0; i < size; i++) {
+			if (o.equals(elements[physical(i)])) {
+				delete(i);
+				return true;
+			}
+		}
+		
+		return false;
+	}
+	
+	@Override
+	public boolean removeLastOccurrence(@Nullable Object o) {
+		if (o == null)
+			return false;
+		
+		for (int i = size - 1; i >= 0; i--) {
+			if (o.equals(elements[physical(i)])) {
+				delete(i);
+				return true;
+			}
+		}
+		
+		return false;
+	}
+	
+	/**
+	 * Remove the element at the position {@code index} from the head. The elements on the shortest side of
+	 * {@code index} are moved to fill the gap.
+	 * @param index The position of the element to remove.
+	 * @return The removed element.
+	 */
+	@NotNull
+	@SuppressWarnings("unchecked")
+	private T delete(int index) {
+		int mask = elements.length - 1;
+		T element = (T) elements[physical(index)];
+		
+		if (index < size / 2) {
+			// Move the elements before 'index' one cell to the right
+			for (int i = index; i > 0; i--)
+				elements[(head + i) & mask] = elements[(head + i - 1) & mask];
+			
+			elements[head] = null;
+			head = (head + 1) & mask;
+		}
+		else {
+			// Move the elements after 'index' one cell to the left
+			for (int i = index; i < size - 1; i++)
+				elements[(head + i) & mask] = elements[(head + i + 1) & mask];
+			
+			elements[(head + size - 1) & mask] = null;
+		}
+		
+		size--;
+		modCount++;
+		
+		snap(element);
+		triggerRemoveHandlers(index, element);
+		
+		return element;
+	}
+	
+	/* QUEUE & STACK METHODS */
+	
+	@Override
+	public boolean add(@NotNull T element) {
+		return offerLast(element);
+	}
+	
+	@Override
+	public boolean offer(@NotNull T element) {
+		return offerLast(element);
+	}
+	
+	@NotNull
+	@Override
+	public T remove() {
+		return removeFirst();
+	}
+	
+	@Nullable
+	@Override
+	public T poll() {
+		return pollFirst();
+	}
+	
+	@NotNull
+	@Override
+	public T element() {
+		return getFirst();
+	}
+	
+	@Nullable
+	@Override
+	public T peek() {
+		return peekFirst();
+	}
+	
+	@Override
+	public void push(@NotNull T element) {
+		addFirst(element);
+	}
+	
+	@NotNull
+	@Override
+	public T pop() {
+		return removeFirst();
+	}
+	
+	/* COLLECTION METHODS */
+	
+	@Override
+	public boolean remove(@Nullable Object o) {
+		return removeFirstOccurrence(o);
+	}
+	
+	@Override
+	public boolean contains(@Nullable Object o) {
+		if (o == null)
+			return false;
+		
+		for (int i = 0; i < size; i++)
+			if (o.equals(elements[physical(i)]))
+				return true;
+		
+		return false;
+	}
+	
+	@Override
+	public int size() {
+		return size;
+	}
+	
+	@Override
+	public boolean isEmpty() {
+		return size == 0;
+	}
+	
+	@Override
+	public boolean containsAll(@NotNull Collection<?> c) {
+		for (Object o : c)
+			if (!contains(o))
+				return false;
+		
+		return true;
+	}
+	
+	@Override
+	public boolean addAll(@NotNull Collection<? extends T> c) {
+		for (T element : c)
+			offerLast(element);
+		
+		return !c.isEmpty();
+	}
+	
+	@Override
+	public boolean removeAll(@NotNull Collection<?> c) {
+		Objects.requireNonNull(c);
+		return removeIf(c::contains);
+	}
+	
+	@Override
+	public boolean retainAll(@NotNull Collection<?> c) {
+		Objects.requireNonNull(c);
+		return removeIf(element -> !c.contains(element));
+	}
+	
+	/**
+	 * Remove all the elements. If the deque has observers or remove handlers, the elements are removed one by one from
+	 * the last, so that each removal is notified.
+	 */
+	@Override
+	public void clear() {
+		if (observerCount > 0 || !removeHandlers.isEmpty()) {
+			while (size > 0)
+				pollLast();
+			
+			return;
+		}
+		
+		if (head + size <= elements.length)
+			Arrays.fill(elements, head, head + size, null);
+		else {
+			Arrays.fill(elements, head, elements.length, null);
+			Arrays.fill(elements, 0, (head + size) & (elements.length - 1), null);
+		}
+		
+		head = 0;
+		size = 0;
+		modCount++;
+	}
+	
+	@NotNull
+	@Override
+	public Object[] toArray() {
+		return toArray(new Object[size]);
+	}
+	
+	@NotNull
+	@Override
+	@SuppressWarnings("unchecked")
+	public <U> U[] toArray(@NotNull U[] a) {
+		if (a.length < size)
+			a = (U[]) Array.newInstance(a.getClass().getComponentType(), size);
+		
+		int firstPart = Math.min(size, elements.length - head);
+		System.arraycopy(elements, head, a, 0, firstPart);
+		System.arraycopy(elements, 0, a, firstPart, size - firstPart);
+		
+		if (a.length > size)
+			a[size] = null;
+		
+		return a;
+	}
+	
+	/**
+	 * Copy the elements of the deque, from the first to the last, in a new Lexicon.
+	 * @return The lexicon.
+	 */
+	@NotNull
+	@SuppressWarnings("unchecked")
+	public Lexicon<T> toLexicon() {
+		Lexicon<T> lexicon = new Lexicon<>();
+		lexicon.ensureCapacity(size);
+		
+		for (int i = 0; i < size; i++)
+			lexicon.add((T) elements[physical(i)]);
+		
+		return lexicon;
+	}
+	
+	/* ITERATORS */
+	
+	/**
+	 * Iterate over the elements from the first to the last. The iterator does not call the get handlers, and supports
+	 * {@link Iterator#remove()}.
+	 * @return The iterator.
+	 * @throws ConcurrentModificationException If the deque is modified by another way than the iterator during the
+	 * iteration.
+	 */
+	@NotNull
+	@Override
+	public Iterator<T> iterator() {
+		return new DequeIterator(false);
+	}
+	
+	/**
+	 * Iterate over the elements from the last to the first.
+	 * @return The iterator.
+	 * @see #iterator()
+	 */
+	@NotNull
+	@Override
+	public Iterator<T> descendingIterator() {
+		return new DequeIterator(true);
+	}
+	
+	private class DequeIterator implements Iterator<T> {
+		
+		private final boolean descending;
+		private int next;
+		private int remaining;
+		private int lastReturned = -1;
+		private int expectedModCount = modCount;
+		
+		DequeIterator(boolean descending) {
+			this.descending = descending;
+			this.next = descending ? size - 1 : 0;
+			this.remaining = size;
+		}
+		
+		@Override
+		public boolean hasNext() {
+			return remaining > 0;
+		}
+		
+		@Override
+		@SuppressWarnings("unchecked")
+		public T next() {
+			if (modCount != expectedModCount)
+				throw new ConcurrentModificationException();
+			if (remaining <= 0)
+				throw new NoSuchElementException();
+			
+			lastReturned = next;
+			next += descending ? -1 : 1;
+			remaining--;
+			
+			return (T) elements[physical(lastReturned)];
+		}
+		
+		@Override
+		public void remove() {
+			if (lastReturned < 0)
+				throw new IllegalStateException();
+			if (modCount != expectedModCount)
+				throw new ConcurrentModificationException();
+			
+			delete(lastReturned);
+			
+			// In ascending order, the next element moved to the removed position
+			if (!descending)
+				next = lastReturned;
+			
+			lastReturned = -1;
+			expectedModCount = modCount;
+		}
+	}
+	
+	/* SERIALIZATION */
+	
+	private void writeObject(@NotNull ObjectOutputStream stream) throws IOException {
+		stream.defaultWriteObject();
+		stream.writeInt(size);
+		
+		for (int i = 0; i < size; i++)
+			stream.writeObject(elements[physical(i)]);
+	}
+	
+	private void readObject(@NotNull ObjectInputStream stream) throws IOException, ClassNotFoundException {
+		stream.defaultReadObject();
+		
+		int length = stream.readInt();
+		elements = new Object[roundCapacity(length + 1)];
+		head = 0;
+		size = length;
+		
+		for (int i = 0; i < length; i++)
+			elements[i] = stream.readObject();
+	}
+	
+	/* OBSERVERS */
+	
+	@Override
+	public synchronized void addObserver(Observer o) {
+		super.addObserver(o);
+		observerCount = countObservers();
+	}
+	
+	@Override
+	public synchronized void deleteObserver(Observer o) {
+		super.deleteObserver(o);
+		observerCount = countObservers();
+	}
+	
+	@Override
+	public synchronized void deleteObservers() {
+		super.deleteObservers();
+		observerCount = 0;
+	}
+	
+	/**
+	 * Notify the observers, only if there is at least one.
+	 * @param o The object to send to the observers.
+	 */
+	@Override
+	protected void snap(Object o) {
+		if (observerCount > 0)
+			super.snap(o);
+	}
+	
+	/* HANDLERS */
+	
+	@NotNull
+	public ArrayList<AddHandler<T>> getAddHandlers() {
+		return addHandlers;
+	}
+	
+	@SuppressWarnings({"unused", "UnusedReturnValue"})
+	public boolean addAddHandler(@NotNull AddHandler<T> addHandler) {
+		if (addHandler == null)
+			throw new NullPointerException();
+		
+		return addHandlers.add(addHandler);
+	}
+	
+	@SuppressWarnings("unchecked")
+	protected void triggerAddHandlers(int index, T element) {
+		// Fast path: most deques have no handler at all
+		if (addHandlers.isEmpty())
+			return;
+		
+		Object[] handlers = addHandlers.snapshot();
+		dispatch(() -> {
+			for (Object handler : handlers)
+				((AddHandler<T>) handler).onElementAdded(index, element);
+		});
+	}
+	
+	@NotNull
+	public ArrayList<GetHandler<T>> getGetHandlers() {
+		return getHandlers;
+	}
+	
+	@SuppressWarnings({"unused", "UnusedReturnValue"})
+	public boolean addGetHandler(@NotNull GetHandler<T> getHandler) {
+		if (getHandler == null)
+			throw new NullPointerException();
+		
+		return getHandlers.add(getHandler);
+	}
+	
+	@SuppressWarnings("unchecked")
+	protected void triggerGetHandlers(int index, T element) {
+		if (getHandlers.isEmpty())
+			return;
+		
+		Object[] handlers = getHandlers.snapshot();
+		dispatch(() -> {
+			for (Object handler : handlers)
+				((GetHandler<T>) handler).onElementGotten(index, element);
+		});
+	}
+	
+	@NotNull
+	public ArrayList<RemoveHandler<T>> getRemoveHandlers() {
+		return removeHandlers;
+	}
+	
+	@SuppressWarnings({"unused", "UnusedReturnValue"})
+	public boolean addRemoveHandler(@NotNull RemoveHandler<T> removeHandler) {
+		if (removeHandler == null)
+			throw new NullPointerException();
+		
+		return removeHandlers.add(removeHandler);
+	}
+	
+	@SuppressWarnings("unchecked")
+	protected void triggerRemoveHandlers(int index, T element) {
+		if (removeHandlers.isEmpty())
+			return;
+		
+		Object[] handlers = removeHandlers.snapshot();
+		dispatch(() -> {
+			for (Object handler : handlers)
+				((RemoveHandler<T>) handler).onElementRemoved(index, element);
+		});
+	}
+	
+	private void dispatch(@NotNull Runnable handlers) {
+		EventDispatcher dispatcher = eventDispatcher;
+		
+		if (dispatcher == null)
+			handlers.run();
+		else
+			dispatcher.dispatch(handlers);
+	}
+	
+	/**
+	 * Get the dispatcher which runs the handlers of this deque.
+	 * @return The dispatcher, or {@code null} if the handlers are run by the thread which modified the deque.
+	 */
+	@Nullable
+	public EventDispatcher getEventDispatcher() {
+		return eventDispatcher;
+	}
+	
+	/**
+	 * Run the handlers on {@code eventDispatcher} instead of the thread which modified the deque. The observers are
+	 * still notified synchronously. The dispatcher is not serialized.
+	 * @param eventDispatcher The dispatcher to use, or {@code null} to run the handlers synchronously.
+	 * @see EventDispatcher
+	 */
+	public void setEventDispatcher(@Nullable EventDispatcher eventDispatcher) {
+		this.eventDispatcher = eventDispatcher;
+	}
+	
+	/* OVERRIDES */
+	
+	@Override
+	public boolean equals(Object o) {
+		if (this == o) return true;
+		if (!(o instanceof LexiconDeque)) return false;
+		LexiconDeque<?> that = (LexiconDeque<?>) o;
+		return Arrays.equals(toArray(), that.toArray());
+	}
+	
+	@Override
+	public int hashCode() {
+		return Arrays.hashCode(toArray());
+	}
+	
+	@Override
+	public String toString() {
+		return Arrays.toString(toArray());
+	}
+}
@@ -0,0 +1,152 @@
+package fr.berger.enhancedlist.lexicon;
+
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.concurrent.locks.StampedLock;
+import java.util.function.Supplier;
+
+/**
+ * The lock of a Lexicon in {@link ConcurrencyMode#READ_WRITE} or {@link ConcurrencyMode#OPTIMISTIC} mode. Both
+ * implementations are reentrant, as the methods of Lexicon call each other, but a thread holding the read lock cannot
+ * take the write lock: it gets an {@link IllegalStateException} instead of a deadlock.
+ * @author Valentin Berger
+ */
+abstract class LexiconLock {
+	
+	/**
+	 * Create the lock matching {@code mode}.
+	 * @param mode The concurrency mode of the lexicon.
+	 * @return The lock, or {@code null} if the mode does not use one.
+	 */
+	@Nullable
+	static LexiconLock of(@NotNull ConcurrencyMode mode) {
+		switch (mode) {
+			case READ_WRITE:
+				return new ReadWrite();
+			case OPTIMISTIC:
+				return new Optimistic();
+			default:
+				return null;
+		}
+	}
+	
+	abstract <R> R read(@NotNull Supplier<R> action);
+	
+	abstract <R> R write(@NotNull Supplier<R> action);
+	
+	void write(@NotNull Runnable action) {
+		write(() -> {
+			action.run();
+			return null;
+		});
+	}
+	
+	/**
+	 * Start an optimistic read.
+	 * @return A stamp to give to {@link #validate(long)}, or 0 if the optimistic reads are not supported or if a writer
+	 * holds the lock.
+	 */
+	long tryOptimisticRead() {
+		return 0L;
+	}
+	
+	/**
+	 * @param stamp The stamp returned by {@link #tryOptimisticRead()}.
+	 * @return {@code true} if no writer took the lock since the stamp has been issued.
+	 */
+	boolean validate(long stamp) {
+		return false;
+	}
+	
+	private static IllegalStateException upgrade() {
+		return new IllegalStateException("The lexicon cannot be modified by a thread which is reading it.");
+	}
+	
+	/* IMPLEMENTATIONS */
+	
+	private static class ReadWrite extends LexiconLock {
+		
+		@NotNull
+		private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+		
+		@Override
+		<R> R read(@NotNull Supplier<R> action) {
+			lock.readLock().lock();
+			try {
+				return action.get();
+			} finally {
+				lock.readLock().unlock();
+			}
+		}
+		
+		@Override
+		<R> R write(@NotNull Supplier<R> action) {
+			if (!lock.isWriteLockedByCurrentThread() && lock.getReadHoldCount() > 0)
+				throw upgrade();
+			
+			lock.writeLock().lock();
+			try {
+				return action.get();
+			} finally {
+				lock.writeLock().unlock();
+			}
+		}
+	}
+	
+	private static class Optimistic extends LexiconLock {
+		
+		@NotNull
+		private final StampedLock lock = new StampedLock();
+		/**
+		 * The number of read and write locks held by each thread, as a StampedLock is not reentrant.
+		 */
+		@NotNull
+		private final ThreadLocal<int[]> holds = ThreadLocal.withInitial(() -> new int[2]);
+		
+		@Override
+		<R> R read(@NotNull Supplier<R> action) {
+			int[] held = holds.get();
+			if (held[0] > 0 || held[1] > 0)
+				return action.get();
+			
+			long stamp = lock.readLock();
+			held[0]++;
+			try {
+				return action.get();
+			} finally {
+				held[0]--;
+				lock.unlockRead(stamp);
+			}
+		}
+		
+		@Override
+		<R> R write(@NotNull Supplier<R> action) {
+			int[] held = holds.get();
+			if (held[1] > 0)
+				return action.get();
+			if (held[0] > 0)
+				throw upgrade();
+			
+			long stamp = lock.writeLock();
+			held[1]++;
+			try {
+				return action.get();
+			} finally {
+				held[1]--;
+				lock.unlockWrite(stamp);
+			}
+		}
+		
+		@Override
+		long tryOptimisticRead() {
+			return lock.tryOptimisticRead();
+		}
+		
+		@Override
+		boolean validate(long stamp) {
+			return stamp != 0L && lock.validate(stamp);
+		}
+	}
+}
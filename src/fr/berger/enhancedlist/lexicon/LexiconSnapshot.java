@@ -0,0 +1,85 @@
+package fr.berger.enhancedlist.lexicon;
+
+import org.jetbrains.annotations.NotNull;
+
+import java.util.AbstractList;
+import java.util.Arrays;
+import java.util.RandomAccess;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.function.Consumer;
+
+/**
+ * Immutable view of a Lexicon at the time {@link Lexicon#snapshot()} was called. The view shares the backing array of
+ * the lexicon: the lexicon copies its array before modifying it again (copy-on-write), so the snapshot can be read and
+ * iterated by any number of threads without any lock, and never sees a later modification.
+ * <p>
+ * Reading a snapshot does not call the get handlers of the lexicon. All the modification methods throw an
+ * {@link UnsupportedOperationException}.
+ * </p>
+ * @param <T> The type of the elements.
+ * @author Valentin Berger
+ */
+public final class LexiconSnapshot<T> extends AbstractList<T> implements RandomAccess {
+	
+	@NotNull
+	final Object[] array;
+	final int offset;
+	final int size;
+	
+	LexiconSnapshot(@NotNull Object[] array, int size) {
+		this(array, 0, size);
+	}
+	LexiconSnapshot(@NotNull Object[] array, int offset, int size) {
+		this.array = array;
+		this.offset = offset;
+		this.size = size;
+	}
+	
+	@Override
+	@SuppressWarnings("unchecked")
+	public T get(int index) {
+		if (index < 0 || index >= size)
+			throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + size);
+		
+		return (T) array[offset + index];
+	}
+	
+	@Override
+	public int size() {
+		return size;
+	}
+	
+	@NotNull
+	@Override
+	public Object[] toArray() {
+		return Arrays.copyOfRange(array, offset, offset + size, Object[].class);
+	}
+	
+	@Override
+	@SuppressWarnings("unchecked")
+	public void forEach(@NotNull Consumer<? super T> action) {
+		for (int i = offset; i < offset + size; i++)
+			action.accept((T) array[i]);
+	}
+	
+	@Override
+	public Spliterator<T> spliterator() {
+		return Spliterators.spliterator(array, offset, offset + size, Spliterator.ORDERED | Spliterator.IMMUTABLE);
+	}
+	
+	/**
+	 * {@inheritDoc}
+	 * <p>
+	 * The range is a snapshot sharing the same array: it is created without copying any element.
+	 * </p>
+	 */
+	@NotNull
+	@Override
+	public LexiconSnapshot<T> subList(int fromIndex, int toIndex) {
+		if (fromIndex < 0 || toIndex > size || fromIndex > toIndex)
+			throw new IndexOutOfBoundsException("fromIndex: " + fromIndex + ", toIndex: " + toIndex + ", Size: " + size);
+		
+		return new LexiconSnapshot<>(array, offset + fromIndex, toIndex - fromIndex);
+	}
+}
@@ -0,0 +1,414 @@
+package fr.berger.enhancedlist.lexicon;
+
+import fr.berger.enhancedlist.ListUtil;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.Objects;
+import java.util.function.ToIntFunction;
+
+/**
+ * SortedLexicon is a Lexicon which keeps its elements sorted according to a comparator (or to their natural ordering).
+ * {@link #add(Object)} inserts the element at its position, found by binary search, after the elements which are equal
+ * to it, so the insertion order of equal elements is kept. {@link #contains(Object)}, {@link #indexOf(Object)} and
+ * {@link #search(Object)} are O(log n), and {@link #headLexicon(Object)}, {@link #tailLexicon(Object)} and
+ * {@link #subRange(Object, Object)} return a range of the lexicon without copying it.
+ * <p>
+ * The methods which place an element at a given index ({@code insert}, {@code insertAll}, {@code shift}, {@code swap},
+ * {@code disarray} and the sorts) throw an {@link UnsupportedOperationException}. {@link #set(int, Object)} is only
+ * accepted if the element keeps the lexicon sorted.
+ * </p>
+ * <p>
+ * Contrary to Lexicon, a SortedLexicon refuses null values by default, as the natural ordering cannot compare them. To
+ * accept them, use a comparator handling null, such as {@link Comparator#nullsFirst(Comparator)}. The comparator is
+ * serialized with the lexicon, so it must be serializable to serialize the lexicon.
+ * </p>
+ * @param <T> The type of the object to save in the SortedLexicon instance
+ * @author Valentin Berger
+ */
+@SuppressWarnings({"ConstantConditions", "NullableProblems", "WeakerAccess"})
+public class SortedLexicon<T> extends Lexicon<T> {
+	
+	private static final long serialVersionUID = 5381956627028174531L;
+	
+	@NotNull
+	private Comparator<? super T> comparator;
+	
+	/* CONSTRUCTORS */
+	
+	/**
+	 * Constructs an empty lexicon sorted according to the natural ordering of its elements.
+	 */
+	@SuppressWarnings("unused")
+	public SortedLexicon() {
+		this((Comparator<? super T>) null);
+	}
+	@SuppressWarnings("unused")
+	public SortedLexicon(@NotNull Class<T> clazz) {
+		this(clazz, null);
+	}
+	/**
+	 * Constructs an empty lexicon sorted according to {@code comparator}.
+	 * @param comparator The comparator to use. If {@code null}, the natural ordering of the elements is used.
+	 */
+	@SuppressWarnings("unchecked")
+	public SortedLexicon(@Nullable Comparator<? super T> comparator) {
+		super();
+		this.comparator = comparator != null ? comparator : (Comparator<? super T>) Comparator.naturalOrder();
+		setAcceptNullValues(false);
+	}
+	@SuppressWarnings("unchecked")
+	public SortedLexicon(@NotNull Class<T> clazz, @Nullable Comparator<? super T> comparator) {
+		super(clazz);
+		this.comparator = comparator != null ? comparator : (Comparator<? super T>) Comparator.naturalOrder();
+		setAcceptNullValues(false);
+	}
+	@SuppressWarnings("unused")
+	public SortedLexicon(@Nullable Collection<? extends T> elements, @Nullable Comparator<? super T> comparator) {
+		this(comparator);
+		addAll(elements);
+	}
+	
+	/* BINARY SEARCH */
+	
+	/**
+	 * @param element The element to place.
+	 * @return The index of the first element which is greater or equal to {@code element}.
+	 */
+	private int lowerBound(@Nullable T element) {
+		int low = 0;
+		int high = size();
+		
+		while (low < high) {
+			int middle = (low + high) >>> 1;
+			
+			if (comparator.compare(get(middle), element) < 0)
+				low = middle + 1;
+			else
+				high = middle;
+		}
+		
+		return low;
+	}
+	
+	/**
+	 * @param element The element to place.
+	 * @return The index of the first element which is strictly greater than {@code element}.
+	 */
+	private int upperBound(@Nullable T element) {
+		int low = 0;
+		int high = size();
+		
+		while (low < high) {
+			int middle = (low + high) >>> 1;
+			
+			if (comparator.compare(get(middle), element) <= 0)
+				low = middle + 1;
+			else
+				high = middle;
+		}
+		
+		return low;
+	}
+	
+	/* BASIC LIST METHODS */
+	
+	/**
+	 * Add {@code element} at its position in the lexicon, after the elements equal to it.
+	 * @param element The new element to add to the list
+	 * @return {@code true} if the element has been added, {@code false} if it is refused by the rules of the lexicon.
+	 */
+	@SuppressWarnings("unchecked")
+	@Override
+	public boolean add(@Nullable T element) {
+		if (element == null && !isAcceptNullValues())
+			return false;
+		
+		return write(() -> {
+			int position = upperBound(element);
+			
+			if (position == size())
+				return super.add(element);
+			
+			int size = size();
+			super.insertAll(position, element);
+			return size() > size;
+		});
+	}
+	
+	/**
+	 * Add all the elements of {@code c} at their position. The elements are sorted beforehand, so if they are all greater
+	 * than the elements of the lexicon (in particular when the lexicon is empty), they are only appended.
+	 * @param c The elements to add.
+	 * @return {@code true} if all the elements have been added.
+	 */
+	@Override
+	public boolean addAll(@Nullable Collection<? extends T> c) {
+		if (c == null)
+			return false;
+		
+		return addSorted(c.toArray());
+	}
+	@SafeVarargs
+	@Override
+	public final boolean addAll(@Nullable T... list) {
+		if (list == null)
+			return false;
+		
+		// The array of the caller is copied before being sorted. It is only read, never handed to another method, so it
+		// cannot pollute the heap
+		Object[] elements = new Object[list.length];
+		for (int i = 0; i < list.length; i++)
+			elements[i] = list[i];
+		
+		return addSorted(elements);
+	}
+	
+	/**
+	 * Sort {@code elements}, which must only contain instances of {@code T}, and add them with
+	 * {@link Lexicon#addAll(Collection)}.
+	 * @param elements The elements to add. The array is sorted in place.
+	 * @return {@code true} if all the elements have been added.
+	 */
+	@SuppressWarnings("unchecked")
+	private boolean addSorted(@NotNull Object[] elements) {
+		return write(() -> {
+			try {
+				Arrays.sort(elements, (Comparator<Object>) comparator);
+			} catch (ClassCastException | NullPointerException ignored) {
+				// The elements refused by the comparator are sorted out one by one by add()
+			}
+			
+			return super.addAll((Collection<? extends T>) Arrays.asList(elements));
+		});
+	}
+	
+	/**
+	 * Replace the element at {@code index} by {@code element}, only if {@code element} is still between its neighbours
+	 * according to the comparator.
+	 * @param index The index where to put {@code element}.
+	 * @param element The element to set in the list.
+	 * @return The element at {@code index} before {@code element} is set.
+	 * @throws IllegalArgumentException If {@code element} would break the order of the lexicon.
+	 */
+	@Override
+	public T set(int index, @Nullable T element) {
+		return write(() -> {
+			ListUtil.checkIndexException(index, this);
+			
+			if (element != null || isAcceptNullValues()) {
+				if ((index > 0 && comparator.compare(get(index - 1), element) > 0) ||
+						(index < size() - 1 && comparator.compare(element, get(index + 1)) > 0))
+					throw new IllegalArgumentException("The element " + element + " cannot be set at index " + index + " without breaking the order of the lexicon.");
+			}
+			
+			return super.set(index, element);
+		});
+	}
+	
+	@Override
+	public boolean remove(Object o) {
+		return write(() -> {
+			int index = indexOf(o);
+			
+			if (index == -1)
+				return false;
+			
+			remove(index);
+			return true;
+		});
+	}
+	
+	/**
+	 * Search the first occurrence of {@code o} in the lexicon by binary search.
+	 * @param o The element to search.
+	 * @return The index of the first occurrence of {@code o}, or -1 if it is not in the lexicon.
+	 */
+	@SuppressWarnings("unchecked")
+	public int indexOf(@Nullable Object o) {
+		if (o == null && !isAcceptNullValues())
+			return -1;
+		
+		return read(() -> {
+			try {
+				T element = (T) o;
+				
+				for (int i = lowerBound(element); i < size() && comparator.compare(get(i), element) == 0; i++)
+					if (Objects.equals(get(i), o))
+						return i;
+			} catch (ClassCastException ignored) {
+				// o cannot be compared with the elements, so it is not in the lexicon
+			}
+			
+			return -1;
+		});
+	}
+	
+	@Override
+	public boolean contains(@Nullable Object o) {
+		return indexOf(o) != -1;
+	}
+	
+	/**
+	 * Search the element in the list by binary search, and return the list of indexes where the element has been found
+	 * in the list.
+	 * @param element The element to search
+	 * @return The array of indexes where element has been found in the list. If the list is empty, the element is not
+	 * in the list.
+	 */
+	@NotNull
+	@Override
+	public ArrayList<Integer> search(@Nullable T element) {
+		ArrayList<Integer> indexes = new ArrayList<>();
+		
+		if (element == null && !isAcceptNullValues())
+			return indexes;
+		
+		return read(() -> {
+			for (int i = lowerBound(element); i < size() && comparator.compare(get(i), element) == 0; i++)
+				if (Objects.equals(get(i), element))
+					indexes.add(i);
+			
+			return indexes;
+		});
+	}
+	
+	/* RANGES */
+	
+	/**
+	 * Get the elements strictly less than {@code toElement}. The range is an immutable view sharing the array of the
+	 * lexicon (see {@link #snapshot()}): it is created in O(log n) without copying any element.
+	 * @param toElement The upper bound (exclusive) of the range.
+	 * @return The range.
+	 */
+	@NotNull
+	public LexiconSnapshot<T> headLexicon(@Nullable T toElement) {
+		return read(() -> snapshot().subList(0, lowerBound(toElement)));
+	}
+	
+	/**
+	 * Get the elements greater or equal to {@code fromElement}. The range is an immutable view sharing the array of the
+	 * lexicon (see {@link #snapshot()}): it is created in O(log n) without copying any element.
+	 * @param fromElement The lower bound (inclusive) of the range.
+	 * @return The range.
+	 */
+	@NotNull
+	public LexiconSnapshot<T> tailLexicon(@Nullable T fromElement) {
+		return read(() -> {
+			LexiconSnapshot<T> snapshot = snapshot();
+			return snapshot.subList(lowerBound(fromElement), snapshot.size());
+		});
+	}
+	
+	/**
+	 * Get the elements greater or equal to {@code fromElement} and strictly less than {@code toElement}. The range is an
+	 * immutable view sharing the array of the lexicon (see {@link #snapshot()}): it is created in O(log n) without
+	 * copying any element.
+	 * @param fromElement The lower bound (inclusive) of the range.
+	 * @param toElement The upper bound (exclusive) of the range.
+	 * @return The range.
+	 * @throws IllegalArgumentException If {@code fromElement} is greater than {@code toElement}.
+	 */
+	@NotNull
+	public LexiconSnapshot<T> subRange(@Nullable T fromElement, @Nullable T toElement) {
+		if (comparator.compare(fromElement, toElement) > 0)
+			throw new IllegalArgumentException("fromElement must be less or equal to toElement.");
+		
+		return read(() -> snapshot().subList(lowerBound(fromElement), lowerBound(toElement)));
+	}
+	
+	/* UNSUPPORTED OPERATIONS */
+	
+	/**
+	 * Not supported: the position of an element is decided by the comparator.
+	 * @throws UnsupportedOperationException Always.
+	 */
+	@Override
+	public void insertAll(int i, @NotNull Lexicon<T> elements) {
+		throw new UnsupportedOperationException("A SortedLexicon decides where its elements are inserted.");
+	}
+	/**
+	 * Not supported: the position of an element is decided by the comparator.
+	 * @throws UnsupportedOperationException Always.
+	 */
+	@Override
+	public void insertAll(int i, @NotNull Collection<T> elements) {
+		throw new UnsupportedOperationException("A SortedLexicon decides where its elements are inserted.");
+	}
+	/**
+	 * Not supported: the position of an element is decided by the comparator.
+	 * @throws UnsupportedOperationException Always.
+	 */
+	@SafeVarargs
+	@Override
+	public final void insertAll(int i, @Nullable T... elements) {
+		throw new UnsupportedOperationException("A SortedLexicon decides where its elements are inserted.");
+	}
+	/**
+	 * Not supported: the position of an element is decided by the comparator.
+	 * @throws UnsupportedOperationException Always.
+	 */
+	@Override
+	public void insert(int i, @Nullable T element) {
+		throw new UnsupportedOperationException("A SortedLexicon decides where its elements are inserted.");
+	}
+	/**
+	 * Not supported: the position of an element is decided by the comparator.
+	 * @throws UnsupportedOperationException Always.
+	 */
+	@Override
+	public void shift(int startIndex, int shift, @Nullable T elementToPlaceInGap) {
+		throw new UnsupportedOperationException("A SortedLexicon decides where its elements are inserted.");
+	}
+	/**
+	 * Not supported: it would break the order of the lexicon.
+	 * @throws UnsupportedOperationException Always.
+	 */
+	@Override
+	public void swap(int index1, int index2) {
+		throw new UnsupportedOperationException("A SortedLexicon cannot be reordered.");
+	}
+	/**
+	 * Not supported: it would break the order of the lexicon.
+	 * @throws UnsupportedOperationException Always.
+	 */
+	@Override
+	public void disarray() {
+		throw new UnsupportedOperationException("A SortedLexicon cannot be reordered.");
+	}
+	/**
+	 * Not supported: a SortedLexicon is always sorted with its own comparator.
+	 * @throws UnsupportedOperationException Always.
+	 */
+	@Override
+	public void sort(@NotNull Comparator<? super T> comparator) {
+		throw new UnsupportedOperationException("A SortedLexicon cannot be reordered.");
+	}
+	/**
+	 * Not supported: a SortedLexicon is always sorted with its own comparator.
+	 * @throws UnsupportedOperationException Always.
+	 */
+	@Override
+	public void parallelSort(@NotNull Comparator<? super T> comparator) {
+		throw new UnsupportedOperationException("A SortedLexicon cannot be reordered.");
+	}
+	/**
+	 * Not supported: a SortedLexicon is always sorted with its own comparator.
+	 * @throws UnsupportedOperationException Always.
+	 */
+	@Override
+	public void sortByInt(@NotNull ToIntFunction<? super T> key) {
+		throw new UnsupportedOperationException("A SortedLexicon cannot be reordered.");
+	}
+	
+	/* GETTERS */
+	
+	@NotNull
+	public Comparator<? super T> getComparator() {
+		return comparator;
+	}
+}
@@ -0,0 +1,28 @@
+package fr.berger.enhancedlist.lexicon;
+
+/**
+ * How a Lexicon lays out its elements in its backing array.
+ * @see Lexicon#setStorageMode(StorageMode)
+ * @author Valentin Berger
+ */
+public enum StorageMode {
+	
+	/**
+	 * The elements are contiguous at the beginning of the array. Inserting or removing an element shifts the whole
+	 * tail of the lexicon. This is the default mode.
+	 */
+	FLAT,
+	
+	/**
+	 * The free cells of the array form a gap which follows the insertions and the removals (a gap buffer). An insertion
+	 * or a removal only moves the elements between the previous edit and the new one, so a sequence of localized edits
+	 * is O(distance) instead of O(n), and {@code get(i)} costs a single extra comparison. The other operations which
+	 * read the whole array (sort, iteration, snapshot, ...) close the gap first. Edits scattered at random do not benefit
+	 * from the gap, and are slower than in {@link #FLAT} mode.
+	 * <p>
+	 * As moving the gap modifies the array, this mode can only be combined with {@link ConcurrencyMode#NONE} and
+	 * {@link ConcurrencyMode#MONITOR}.
+	 * </p>
+	 */
+	GAP_BUFFER
+}
@@ -0,0 +1,22 @@
+package fr.berger.enhancedlist.lexicon.eventhandlers;
+
+import org.jetbrains.annotations.NotNull;
+
+import java.util.List;
+
+/**
+ * AddHandler which is notified once for a range of elements inserted by a bulk operation (such as
+ * {@code insertAll} or {@code shift}), instead of once per element.
+ * @param <T> The type of the elements.
+ * @author Valentin Berger
+ */
+public interface BulkAddHandler<T> extends AddHandler<T> {
+	
+	/**
+	 * Called once the bulk operation is over.
+	 * @param fromIndex The index of the first inserted element (inclusive).
+	 * @param toIndex The index after the last inserted element (exclusive).
+	 * @param elements The inserted elements, in order.
+	 */
+	void onElementsAdded(int fromIndex, int toIndex, @NotNull List<T> elements);
+}
@@ -0,0 +1,23 @@
+package fr.berger.enhancedlist.lexicon.eventhandlers;
+
+import org.jetbrains.annotations.NotNull;
+
+import java.util.List;
+
+/**
+ * RemoveHandler which can be notified once for all the elements removed by a bulk operation (such as
+ * {@code removeIf}, {@code removeAll} or {@code retainAll}), instead of once per element. The bulk notification is
+ * only used when the lexicon has been configured with {@code setBatchRemoveEvents(true)}, otherwise
+ * {@link #onElementRemoved(int, Object)} is called for each element.
+ * @param <T> The type of the elements.
+ * @author Valentin Berger
+ */
+public interface BulkRemoveHandler<T> extends RemoveHandler<T> {
+	
+	/**
+	 * Called once the bulk operation is over.
+	 * @param indexes The indexes of the removed elements before the operation, in ascending order.
+	 * @param elements The removed elements, in the same order as {@code indexes}.
+	 */
+	void onElementsRemoved(@NotNull int[] indexes, @NotNull List<T> elements);
+}
@@ -0,0 +1,16 @@
+package fr.berger.enhancedlist.lexicon.eventhandlers;
+
+import fr.berger.enhancedlist.lexicon.LexiconChange;
+import org.jetbrains.annotations.NotNull;
+
+/**
+ * Handler notified once at the end of each batch of modifications (see
+ * {@link fr.berger.enhancedlist.lexicon.Lexicon#beginBatch()}), with a summary of all the changes made during the
+ * batch. A sort or a clear made outside a batch is notified as a batch of its own.
+ * @param <T> The type of the elements.
+ * @author Valentin Berger
+ */
+public interface ChangeHandler<T> extends EventHandler<T> {
+	
+	void onChange(@NotNull LexiconChange<T> change);
+}
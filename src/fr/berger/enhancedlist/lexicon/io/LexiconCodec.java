@@ -0,0 +1,220 @@
+package fr.berger.enhancedlist.lexicon.io;
+
+import org.jetbrains.annotations.NotNull;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.io.Serializable;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * LexiconCodec converts an element to bytes and back, so that it can be stored outside the heap (see
+ * {@link MappedLexicon}). A codec whose elements all have the same size ({@link #fixedWidth()} is positive) lets the
+ * storage compute the position of an element from its index.
+ * @param <T> The type of the elements.
+ * @author Valentin Berger
+ */
+public interface LexiconCodec<T> {
+	
+	/**
+	 * The size of the encoded elements, if it does not depend on the element.
+	 * @return The number of bytes of every encoded element, or -1 if the size depends on the element.
+	 */
+	int fixedWidth();
+	
+	/**
+	 * Compute the size of {@code element} once encoded.
+	 * @param element The element to encode.
+	 * @return The number of bytes {@link #encode(Object, ByteBuffer)} will write.
+	 */
+	int encodedSize(@NotNull T element);
+	
+	/**
+	 * Write {@code element} in {@code buffer}, at its current position.
+	 * @param element The element to encode.
+	 * @param buffer The destination. It has at least {@link #encodedSize(Object)} remaining bytes.
+	 */
+	void encode(@NotNull T element, @NotNull ByteBuffer buffer);
+	
+	/**
+	 * Read an element.
+	 * @param buffer The source. Its remaining bytes are exactly the bytes written by {@link #encode(Object, ByteBuffer)}.
+	 * @return The decoded element.
+	 */
+	@NotNull
+	T decode(@NotNull ByteBuffer buffer);
+	
+	/* FACTORIES */
+	
+	/**
+	 * @return A codec storing each {@code Integer} in 4 bytes.
+	 */
+	@NotNull
+	static LexiconCodec<Integer> integers() {
+		return new FixedWidth<Integer>(Integer.BYTES) {
+			@Override
+			public void encode(@NotNull Integer element, @NotNull ByteBuffer buffer) {
+				buffer.putInt(element);
+			}
+			
+			@NotNull
+			@Override
+			public Integer decode(@NotNull ByteBuffer buffer) {
+				return buffer.getInt();
+			}
+		};
+	}
+	
+	/**
+	 * @return A codec storing each {@code Long} in 8 bytes.
+	 */
+	@NotNull
+	static LexiconCodec<Long> longs() {
+		return new FixedWidth<Long>(Long.BYTES) {
+			@Override
+			public void encode(@NotNull Long element, @NotNull ByteBuffer buffer) {
+				buffer.putLong(element);
+			}
+			
+			@NotNull
+			@Override
+			public Long decode(@NotNull ByteBuffer buffer) {
+				return buffer.getLong();
+			}
+		};
+	}
+	
+	/**
+	 * @return A codec storing each {@code Double} in 8 bytes.
+	 */
+	@NotNull
+	static LexiconCodec<Double> doubles() {
+		return new FixedWidth<Double>(Double.BYTES) {
+			@Override
+			public void encode(@NotNull Double element, @NotNull ByteBuffer buffer) {
+				buffer.putDouble(element);
+			}
+			
+			@NotNull
+			@Override
+			public Double decode(@NotNull ByteBuffer buffer) {
+				return buffer.getDouble();
+			}
+		};
+	}
+	
+	/**
+	 * @return A codec storing each {@code String} in UTF-8.
+	 */
+	@NotNull
+	static LexiconCodec<String> strings() {
+		return new LexiconCodec<String>() {
+			@Override
+			public int fixedWidth() {
+				return -1;
+			}
+			
+			@Override
+			public int encodedSize(@NotNull String element) {
+				return element.getBytes(StandardCharsets.UTF_8).length;
+			}
+			
+			@Override
+			public void encode(@NotNull String element, @NotNull ByteBuffer buffer) {
+				buffer.put(element.getBytes(StandardCharsets.UTF_8));
+			}
+			
+			@NotNull
+			@Override
+			public String decode(@NotNull ByteBuffer buffer) {
+				byte[] bytes = new byte[buffer.remaining()];
+				buffer.get(bytes);
+				return new String(bytes, StandardCharsets.UTF_8);
+			}
+		};
+	}
+	
+	/**
+	 * Store each element with the Java serialization. Each element is serialized on its own, so this codec is much
+	 * slower and bigger than a dedicated one, but it accepts any serializable class.
+	 * @param <T> The type of the elements.
+	 * @return A codec serializing each element.
+	 */
+	@NotNull
+	static <T extends Serializable> LexiconCodec<T> serializable() {
+		return new LexiconCodec<T>() {
+			@Override
+			public int fixedWidth() {
+				return -1;
+			}
+			
+			@Override
+			public int encodedSize(@NotNull T element) {
+				return serialize(element).length;
+			}
+			
+			@Override
+			public void encode(@NotNull T element, @NotNull ByteBuffer buffer) {
+				buffer.put(serialize(element));
+			}
+			
+			@NotNull
+			@Override
+			@SuppressWarnings("unchecked")
+			public T decode(@NotNull ByteBuffer buffer) {
+				byte[] bytes = new byte[buffer.remaining()];
+				buffer.get(bytes);
+				
+				try (ObjectInputStream input = new ObjectInputStream(new ByteArrayInputStream(bytes))) {
+					return (T) input.readObject();
+				} catch (IOException ex) {
+					throw new UncheckedIOException(ex);
+				} catch (ClassNotFoundException ex) {
+					throw new IllegalStateException(ex);
+				}
+			}
+			
+			@NotNull
+			private byte[] serialize(@NotNull T element) {
+				ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+				
+				try (ObjectOutputStream output = new ObjectOutputStream(bytes)) {
+					output.writeObject(element);
+				} catch (IOException ex) {
+					throw new UncheckedIOException(ex);
+				}
+				
+				return bytes.toByteArray();
+			}
+		};
+	}
+	
+	/* IMPLEMENTATIONS */
+	
+	abstract class FixedWidth<T> implements LexiconCodec<T> {
+		
+		private final int width;
+		
+		protected FixedWidth(int width) {
+			if (width < 1)
+				throw new IllegalArgumentException("width must be greater or equal to 1.");
+			
+			this.width = width;
+		}
+		
+		@Override
+		public int fixedWidth() {
+			return width;
+		}
+		
+		@Override
+		public int encodedSize(@NotNull T element) {
+			return width;
+		}
+	}
+}
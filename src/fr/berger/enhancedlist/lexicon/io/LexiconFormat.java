@@ -0,0 +1,225 @@
+package fr.berger.enhancedlist.lexicon.io;
+
+import fr.berger.enhancedlist.lexicon.Lexicon;
+import fr.berger.enhancedlist.lexicon.LexiconSnapshot;
+import org.jetbrains.annotations.NotNull;
+
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.ObjectOutputStream;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.util.Objects;
+
+/**
+ * LexiconFormat writes a {@link Lexicon} in a compact binary format, as an alternative to the Java serialization: only
+ * the elements are written (not the capacity of the array), each one through a {@link LexiconCodec}, with the lengths
+ * and the counts encoded as varints. The rules and the modes of the lexicon are written as a few bytes; the handlers are
+ * only written if {@link #withHandlers(boolean)} is enabled, with the Java serialization.
+ * <p>
+ * The format is: the magic bytes {@code "LXF"}, the version, a byte of flags, the concurrency mode and the storage mode,
+ * the name of the class of the elements (if any), the handlers (if any), the number of elements and the elements. If the
+ * lexicon contains {@code null}, each element is preceded by its length plus one ({@code 0} for {@code null}); otherwise,
+ * only the elements of a variable-width codec are preceded by their length.
+ * </p>
+ * <p>
+ * {@link #reader(InputStream)} decodes the elements one by one, as soon as their bytes are received.
+ * </p>
+ * @param <T> The type of the elements.
+ * @author Valentin Berger
+ */
+public final class LexiconFormat<T> {
+	
+	static final byte[] MAGIC = {'L', 'X', 'F'};
+	static final byte VERSION = 1;
+	
+	/* FLAGS */
+	static final int ACCEPT_DUPLICATES = 1;
+	static final int ACCEPT_NULL_VALUES = 1 << 1;
+	static final int HAS_NULLS = 1 << 2;
+	static final int HAS_CLASS = 1 << 3;
+	static final int HAS_HANDLERS = 1 << 4;
+	static final int HASH_INDEXED = 1 << 5;
+	static final int BATCH_REMOVE_EVENTS = 1 << 6;
+	
+	@NotNull
+	private final LexiconCodec<T> codec;
+	private final boolean handlers;
+	
+	/* CONSTRUCTORS */
+	
+	private LexiconFormat(@NotNull LexiconCodec<T> codec, boolean handlers) {
+		this.codec = Objects.requireNonNull(codec);
+		this.handlers = handlers;
+	}
+	
+	/**
+	 * @param codec The codec of the elements.
+	 * @param <T> The type of the elements.
+	 * @return A format which does not write the handlers.
+	 */
+	@NotNull
+	public static <T> LexiconFormat<T> of(@NotNull LexiconCodec<T> codec) {
+		return new LexiconFormat<>(codec, false);
+	}
+	
+	/**
+	 * @param handlers If {@code true}, the add, get, set, remove and change handlers are written too. They must be
+	 * serializable.
+	 * @return A format with the same codec.
+	 */
+	@NotNull
+	public LexiconFormat<T> withHandlers(boolean handlers) {
+		return new LexiconFormat<>(codec, handlers);
+	}
+	
+	/* WRITE */
+	
+	/**
+	 * Write {@code lexicon} in {@code output}. The elements written are the ones of a {@link Lexicon#snapshot()}, so the
+	 * lexicon can be modified by other threads in the meantime. {@code output} is flushed, not closed.
+	 * @param lexicon The lexicon to write.
+	 * @param output The destination.
+	 * @throws IOException If {@code output} cannot be written.
+	 */
+	public void write(@NotNull Lexicon<T> lexicon, @NotNull OutputStream output) throws IOException {
+		LexiconSnapshot<T> elements = lexicon.snapshot();
+		boolean nulls = elements.contains(null);
+		Class<T> clazz = lexicon.getClazz();
+		
+		int flags = 0;
+		if (lexicon.isAcceptDuplicates())
+			flags |= ACCEPT_DUPLICATES;
+		if (lexicon.isAcceptNullValues())
+			flags |= ACCEPT_NULL_VALUES;
+		if (nulls)
+			flags |= HAS_NULLS;
+		if (clazz != null)
+			flags |= HAS_CLASS;
+		if (handlers)
+			flags |= HAS_HANDLERS;
+		if (lexicon.isHashIndexed())
+			flags |= HASH_INDEXED;
+		if (lexicon.isBatchRemoveEvents())
+			flags |= BATCH_REMOVE_EVENTS;
+		
+		DataOutputStream data = new DataOutputStream(new BufferedOutputStream(output, 1 << 16));
+		data.write(MAGIC);
+		data.writeByte(VERSION);
+		data.writeByte(flags);
+		Varint.write(data, lexicon.getConcurrencyMode().ordinal());
+		Varint.write(data, lexicon.getStorageMode().ordinal());
+		
+		if (clazz != null)
+			data.writeUTF(clazz.getName());
+		
+		if (handlers) {
+			ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+			try (ObjectOutputStream stream = new ObjectOutputStream(bytes)) {
+				stream.writeObject(lexicon.getAddHandlers());
+				stream.writeObject(lexicon.getGetHandlers());
+				stream.writeObject(lexicon.getSetHandlers());
+				stream.writeObject(lexicon.getRemoveHandlers());
+				stream.writeObject(lexicon.getChangeHandlers());
+			}
+			
+			Varint.write(data, bytes.size());
+			bytes.writeTo(data);
+		}
+		
+		Varint.write(data, elements.size());
+		
+		int width = codec.fixedWidth();
+		ByteBuffer buffer = ByteBuffer.allocate(Math.max(width, 256));
+		for (T element : elements) {
+			if (element == null) {
+				Varint.write(data, 0);
+				continue;
+			}
+			
+			int length = codec.encodedSize(element);
+			if (buffer.capacity() < length)
+				buffer = ByteBuffer.allocate(Math.max(length, buffer.capacity() * 2));
+			
+			buffer.clear();
+			codec.encode(element, buffer);
+			
+			if (nulls)
+				Varint.write(data, length + 1);
+			else if (width < 0)
+				Varint.write(data, length);
+			
+			data.write(buffer.array(), 0, length);
+		}
+		
+		data.flush();
+	}
+	
+	/**
+	 * @param lexicon The lexicon to write.
+	 * @return The bytes written by {@link #write(Lexicon, OutputStream)}.
+	 */
+	@NotNull
+	public byte[] toBytes(@NotNull Lexicon<T> lexicon) {
+		ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+		try {
+			write(lexicon, bytes);
+		} catch (IOException ex) {
+			// A ByteArrayOutputStream does not throw IOException, only the serialization of the handlers can
+			throw new IllegalArgumentException(ex);
+		}
+		
+		return bytes.toByteArray();
+	}
+	
+	/* READ */
+	
+	/**
+	 * Read the header written by {@link #write(Lexicon, OutputStream)}, and return a reader which decodes the elements
+	 * on demand.
+	 * @param input The source. It is read as the elements are requested, and never past the last element: it is not
+	 * buffered by the reader.
+	 * @return The reader.
+	 * @throws IOException If the header cannot be read, or is not the one of a LexiconFormat.
+	 */
+	@NotNull
+	public LexiconReader<T> reader(@NotNull InputStream input) throws IOException {
+		return new LexiconReader<>(codec, input);
+	}
+	
+	/**
+	 * Read a whole lexicon.
+	 * @param input The source.
+	 * @return A new lexicon, with the elements, the rules and the modes which have been written.
+	 * @throws IOException If the lexicon cannot be read.
+	 */
+	@NotNull
+	public Lexicon<T> read(@NotNull InputStream input) throws IOException {
+		return reader(input).toLexicon();
+	}
+	
+	/**
+	 * @param bytes The bytes written by {@link #write(Lexicon, OutputStream)}.
+	 * @return The lexicon.
+	 * @throws IOException If the bytes are not a valid lexicon.
+	 */
+	@NotNull
+	public Lexicon<T> fromBytes(@NotNull byte[] bytes) throws IOException {
+		return read(new ByteArrayInputStream(bytes));
+	}
+	
+	/* GETTERS */
+	
+	@NotNull
+	public LexiconCodec<T> getCodec() {
+		return codec;
+	}
+	
+	public boolean isWithHandlers() {
+		return handlers;
+	}
+}
@@ -0,0 +1,799 @@
+package fr.berger.enhancedlist.lexicon.io;
+
+import fr.berger.enhancedlist.lexicon.ConcurrencyMode;
+import fr.berger.enhancedlist.lexicon.Lexicon;
+import fr.berger.enhancedlist.lexicon.LexiconChange;
+import fr.berger.enhancedlist.lexicon.LexiconSnapshot;
+import fr.berger.enhancedlist.lexicon.eventhandlers.BulkAddHandler;
+import fr.berger.enhancedlist.lexicon.eventhandlers.BulkRemoveHandler;
+import fr.berger.enhancedlist.lexicon.eventhandlers.ChangeHandler;
+import fr.berger.enhancedlist.lexicon.eventhandlers.SetHandler;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.Buffer;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+import java.util.Objects;
+import java.util.TreeMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.zip.CRC32;
+import java.util.zip.CheckedInputStream;
+import java.util.zip.CheckedOutputStream;
+
+/**
+ * LexiconJournal makes a {@link Lexicon} durable by recording each of its modifications in an append-only log, through
+ * its add, set, remove and change handlers. A modification costs a few bytes in the log instead of a copy of the whole
+ * lexicon; {@link #recover(Path, LexiconCodec)} reads the last checkpoint and replays the log.
+ * <p>
+ * The journal lives in a directory, with one log per generation ({@code journal-<generation>.log}) and the checkpoint
+ * it starts from ({@code snapshot-<generation>.dat}). {@link #checkpoint()} writes the content of the lexicon in a new
+ * snapshot, starts a new generation and deletes the previous files, so the log never holds more than the modifications
+ * since the last checkpoint.
+ * </p>
+ * <p>
+ * The header of each log names the state its records apply to: the snapshot of its own generation when it has been
+ * started by {@link #attach(Lexicon, Path, LexiconCodec)}, or the previous log when it has been started by
+ * {@link #checkpoint()}. The recovery stops at the first log which does not follow the state it has rebuilt, so a crash
+ * before the snapshot of a new journal is complete gives back the previous journal.
+ * </p>
+ * <p>
+ * The records are buffered in memory, and written to the disk by {@link #sync()}. By default, each modification is
+ * synchronized before it returns. With {@link #setSyncInterval(long)}, a background thread synchronizes the journal
+ * periodically instead, so that all the modifications made during the interval share a single {@code fsync} (a group
+ * commit): a crash of the system loses at most the last interval. Each record has a checksum, so a record torn by a
+ * crash is ignored by the recovery.
+ * </p>
+ * <p>
+ * The handlers must be called in the order of the modifications, so the lexicon cannot have an
+ * {@link fr.berger.enhancedlist.lexicon.EventDispatcher}. A copy of the lexicon shares its handlers: copy it before
+ * attaching the journal.
+ * </p>
+ * @param <T> The type of the elements.
+ * @see Lexicon#recover(Path)
+ * @author Valentin Berger
+ */
+public class LexiconJournal<T> implements Closeable {
+	
+	private static final long MAGIC = 0x4C45584A524E4CL;
+	
+	/* OPERATIONS */
+	private static final byte ADD = 1;
+	private static final byte SET = 2;
+	private static final byte REMOVE = 3;
+	private static final byte SPLICE = 4;
+	
+	private static final int INITIAL_BUFFER_SIZE = 1 << 12;
+	private static final int MAX_BUFFER_SIZE = 1 << 16;
+	public static final long DEFAULT_CHECKPOINT_THRESHOLD = 1L << 26;
+	
+	@NotNull
+	private final Lexicon<T> lexicon;
+	@NotNull
+	private final Path directory;
+	@NotNull
+	private final LexiconCodec<T> codec;
+	@NotNull
+	private final Recorder recorder;
+	@NotNull
+	private final CRC32 crc = new CRC32();
+	/**
+	 * Held during the whole {@link #checkpoint()}, including the writing of the snapshot.
+	 */
+	@NotNull
+	private final Object checkpointLock = new Object();
+	@NotNull
+	private ByteBuffer pending;
+	@NotNull
+	private FileChannel log;
+	private long generation;
+	private long syncInterval;
+	private long checkpointThreshold;
+	@Nullable
+	private ScheduledExecutorService flusher;
+	@Nullable
+	private IOException failure;
+	private boolean closed;
+	
+	/* CONSTRUCTOR */
+	
+	private LexiconJournal(@NotNull Lexicon<T> lexicon, @NotNull Path directory, @NotNull LexiconCodec<T> codec) {
+		this.lexicon = lexicon;
+		this.directory = directory;
+		this.codec = codec;
+		this.recorder = new Recorder();
+		this.pending = ByteBuffer.allocate(INITIAL_BUFFER_SIZE);
+		this.checkpointThreshold = DEFAULT_CHECKPOINT_THRESHOLD;
+	}
+	
+	/**
+	 * Record all the modifications of {@code lexicon} in {@code directory}. The content of {@code lexicon} is written
+	 * as the first checkpoint, replacing the journal which may already be in the directory: to continue an existing
+	 * journal, recover the lexicon with {@link #recover(Path, LexiconCodec)} first.
+	 * @param lexicon The lexicon to record.
+	 * @param directory The directory of the journal. It is created if it does not exist.
+	 * @param codec The codec of the elements.
+	 * @param <T> The type of the elements.
+	 * @return The journal. Close it to stop the recording.
+	 * @throws IOException If the journal cannot be written.
+	 * @throws IllegalArgumentException If {@code lexicon} has an event dispatcher.
+	 */
+	@NotNull
+	public static <T> LexiconJournal<T> attach(@NotNull Lexicon<T> lexicon, @NotNull Path directory, @NotNull LexiconCodec<T> codec) throws IOException {
+		if (lexicon.getEventDispatcher() != null)
+			throw new IllegalArgumentException("A journal cannot record a lexicon whose handlers are called asynchronously.");
+		
+		Files.createDirectories(directory);
+		
+		LexiconJournal<T> journal = new LexiconJournal<>(lexicon, Objects.requireNonNull(directory), Objects.requireNonNull(codec));
+		journal.generation = lastGeneration(directory);
+		// The log starts from the snapshot of its generation: it is ignored by the recovery until the snapshot is written
+		journal.log = journal.openLog(++journal.generation, journal.generation);
+		
+		// The handlers are added in the same critical section as the first snapshot, so that no modification is missed
+		AtomicReference<LexiconSnapshot<T>> snapshot = new AtomicReference<>();
+		lexicon.mutate(l -> {
+			snapshot.set(l.snapshot());
+			l.addAddHandler(journal.recorder);
+			l.addSetHandler(journal.recorder);
+			l.addRemoveHandler(journal.recorder);
+			l.addChangeHandler(journal.recorder);
+		});
+		
+		try {
+			journal.writeSnapshot(snapshot.get(), journal.generation);
+		} catch (IOException | RuntimeException ex) {
+			journal.close();
+			throw ex;
+		}
+		
+		return journal;
+	}
+	
+	/**
+	 * Attach a journal with a codec which serializes each element (see {@link LexiconCodec#serializable()}).
+	 * @see #attach(Lexicon, Path, LexiconCodec)
+	 */
+	@NotNull
+	public static <T> LexiconJournal<T> attach(@NotNull Lexicon<T> lexicon, @NotNull Path directory) throws IOException {
+		return attach(lexicon, directory, serializableCodec());
+	}
+	
+	/* RECOVERY */
+	
+	/**
+	 * Rebuild the lexicon recorded in {@code directory}: the last complete checkpoint is read, then the logs written
+	 * since are replayed. The records after a torn or corrupted one are ignored, and so are the logs which do not follow
+	 * the checkpoint, such as the log of a journal attached again whose first snapshot has not been completely written.
+	 * @param directory The directory of the journal.
+	 * @param codec The codec used to record the lexicon.
+	 * @param <T> The type of the elements.
+	 * @return A new lexicon, with the default settings. It is empty if the directory does not contain any journal.
+	 * @throws IOException If the journal cannot be read.
+	 */
+	@NotNull
+	public static <T> Lexicon<T> recover(@NotNull Path directory, @NotNull LexiconCodec<T> codec) throws IOException {
+		Lexicon<T> lexicon = new Lexicon<>();
+		
+		if (!Files.isDirectory(directory))
+			return lexicon;
+		
+		TreeMap<Long, Path> snapshots = list(directory, "snapshot-", ".dat");
+		TreeMap<Long, Path> logs = list(directory, "journal-", ".log");
+		
+		// Take the last snapshot which has been completely written
+		long start = 0;
+		for (Long generation : snapshots.descendingKeySet()) {
+			Lexicon<T> candidate = readSnapshot(snapshots.get(generation), generation, codec);
+			if (candidate != null) {
+				lexicon = candidate;
+				start = generation;
+				break;
+			}
+		}
+		
+		long last = start;
+		for (Long generation : logs.tailMap(start).keySet()) {
+			// The log of the checkpoint applies to it, whichever state it follows; the others must follow the last log
+			if (!replay(logs.get(generation), generation == start ? -1 : last, lexicon, codec))
+				break;
+			last = generation;
+		}
+		
+		return lexicon;
+	}
+	
+	/**
+	 * Recover a lexicon recorded with a codec which serializes each element.
+	 * @see #recover(Path, LexiconCodec)
+	 */
+	@NotNull
+	public static <T> Lexicon<T> recover(@NotNull Path directory) throws IOException {
+		return recover(directory, serializableCodec());
+	}
+	
+	/* JOURNAL METHODS */
+	
+	/**
+	 * Write the pending records to the disk, and wait until the disk holds them.
+	 * @throws IOException If the log cannot be written, or if a previous write in the background failed.
+	 */
+	public synchronized void sync() throws IOException {
+		checkOpen();
+		flush();
+		log.force(false);
+	}
+	
+	/**
+	 * Write the content of the lexicon in a new snapshot, and delete the logs and the snapshots it replaces. The lexicon
+	 * is only blocked while the journal starts its new generation; the snapshot itself is written afterwards, from a
+	 * {@link LexiconSnapshot}. The checkpoints are written one at a time, in the order of their generations.
+	 * <p>
+	 * If the concurrency mode of the lexicon is {@link ConcurrencyMode#NONE}, this method must not be called while
+	 * another thread modifies the lexicon.
+	 * </p>
+	 * @throws IOException If the snapshot cannot be written.
+	 */
+	public void checkpoint() throws IOException {
+		synchronized (checkpointLock) {
+			// The lexicon is locked before the journal, like in the handlers
+			AtomicReference<LexiconSnapshot<T>> snapshot = new AtomicReference<>();
+			long[] next = new long[1];
+			
+			try {
+				lexicon.mutate(l -> {
+					synchronized (this) {
+						try {
+							checkOpen();
+							sync();
+							log.close();
+							// The new log continues the previous one, so it does not need its snapshot to be recovered
+							log = openLog(++generation, generation - 1);
+						} catch (IOException ex) {
+							throw new UncheckedIOException(ex);
+						}
+						
+						next[0] = generation;
+						snapshot.set(l.snapshot());
+					}
+				});
+			} catch (UncheckedIOException ex) {
+				throw ex.getCause();
+			}
+			
+			writeSnapshot(snapshot.get(), next[0]);
+		}
+	}
+	
+	/**
+	 * Call {@link #checkpoint()} if the log is bigger than the threshold.
+	 * @return {@code true} if a checkpoint has been written.
+	 * @throws IOException If the snapshot cannot be written.
+	 * @see #setCheckpointThreshold(long)
+	 */
+	public boolean checkpointIfDue() throws IOException {
+		synchronized (this) {
+			if (closed || log.size() + pending.position() < checkpointThreshold)
+				return false;
+		}
+		
+		checkpoint();
+		return true;
+	}
+	
+	/**
+	 * Stop recording the lexicon, and write the pending records.
+	 * @throws IOException If the pending records cannot be written.
+	 */
+	@Override
+	public void close() throws IOException {
+		lexicon.mutate(l -> {
+			l.getAddHandlers().remove(recorder);
+			l.getSetHandlers().remove(recorder);
+			l.getRemoveHandlers().remove(recorder);
+			l.getChangeHandlers().remove(recorder);
+		});
+		
+		ScheduledExecutorService flusher;
+		synchronized (this) {
+			if (closed)
+				return;
+			
+			closed = true;
+			flusher = this.flusher;
+			this.flusher = null;
+		}
+		
+		if (flusher != null) {
+			flusher.shutdown();
+			try {
+				flusher.awaitTermination(1, TimeUnit.MINUTES);
+			} catch (InterruptedException ex) {
+				Thread.currentThread().interrupt();
+			}
+		}
+		
+		synchronized (this) {
+			try {
+				flush();
+				log.force(false);
+			} finally {
+				log.close();
+			}
+		}
+	}
+	
+	/* RECORDS */
+	
+	/**
+	 * Records the events of the lexicon. All the methods are called in the thread which modifies the lexicon.
+	 */
+	private class Recorder implements BulkAddHandler<T>, SetHandler<T>, BulkRemoveHandler<T>, ChangeHandler<T> {
+		
+		@Override
+		public void onElementAdded(int index, T element) {
+			synchronized (LexiconJournal.this) {
+				int start = begin(ADD);
+				pending.putInt(index);
+				putElement(element);
+				end(start);
+			}
+		}
+		
+		@Override
+		public void onElementsAdded(int fromIndex, int toIndex, @NotNull List<T> elements) {
+			onSplice(fromIndex, 0, elements);
+		}
+		
+		@Override
+		public void onElementSet(int index, T element) {
+			synchronized (LexiconJournal.this) {
+				int start = begin(SET);
+				pending.putInt(index);
+				putElement(element);
+				end(start);
+			}
+		}
+		
+		@Override
+		public void onElementRemoved(int index, T element) {
+			synchronized (LexiconJournal.this) {
+				int start = begin(REMOVE);
+				pending.putInt(index);
+				end(start);
+			}
+		}
+		
+		@Override
+		public void onElementsRemoved(@NotNull int[] indexes, @NotNull List<T> elements) {
+			synchronized (LexiconJournal.this) {
+				for (int k = 0; k < indexes.length; k++)
+					onElementRemoved(indexes[k] - k, null);
+			}
+		}
+		
+		@Override
+		public void onChange(@NotNull LexiconChange<T> change) {
+			onSplice(change.getFromIndex(), change.getRemovedCount(), change.getAdded());
+		}
+		
+		private void onSplice(int fromIndex, int removedCount, @NotNull List<T> added) {
+			synchronized (LexiconJournal.this) {
+				int start = begin(SPLICE);
+				pending.putInt(fromIndex);
+				pending.putInt(removedCount);
+				pending.putInt(added.size());
+				for (T element : added)
+					putElement(element);
+				end(start);
+			}
+		}
+	}
+	
+	/**
+	 * Start a record: [int length][byte operation][arguments][int checksum].
+	 * @return The position of the record in the buffer.
+	 */
+	private int begin(byte operation) {
+		if (closed)
+			throw new IllegalStateException("The journal is closed.");
+		if (failure != null)
+			throw new UncheckedIOException(failure);
+		
+		reserve(Integer.BYTES + 1 + 3 * Integer.BYTES);
+		int start = pending.position();
+		pending.putInt(0);
+		pending.put(operation);
+		return start;
+	}
+	
+	private void end(int start) {
+		reserve(Integer.BYTES);
+		int length = pending.position() - start - Integer.BYTES;
+		pending.putInt(start, length);
+		
+		ByteBuffer content = pending.duplicate();
+		((Buffer) content).position(start + Integer.BYTES).limit(pending.position());
+		crc.reset();
+		crc.update(content);
+		pending.putInt((int) crc.getValue());
+		
+		try {
+			if (syncInterval == 0)
+				sync();
+			else if (pending.position() >= MAX_BUFFER_SIZE)
+				flush();
+		} catch (IOException ex) {
+			throw new UncheckedIOException(ex);
+		}
+	}
+	
+	private void putElement(@Nullable T element) {
+		if (element == null) {
+			reserve(Integer.BYTES);
+			pending.putInt(-1);
+			return;
+		}
+		
+		int length = codec.encodedSize(element);
+		reserve(Integer.BYTES + length);
+		pending.putInt(length);
+		codec.encode(element, pending);
+	}
+	
+	private void reserve(int length) {
+		if (pending.remaining() >= length)
+			return;
+		
+		ByteBuffer bigger = ByteBuffer.allocate(Math.max(pending.capacity() * 2, pending.position() + length));
+		((Buffer) pending).flip();
+		bigger.put(pending);
+		pending = bigger;
+	}
+	
+	/**
+	 * Write the pending records in the log, without waiting for the disk.
+	 */
+	private void flush() throws IOException {
+		if (failure != null)
+			throw failure;
+		
+		((Buffer) pending).flip();
+		try {
+			while (pending.hasRemaining())
+				log.write(pending);
+		} catch (IOException ex) {
+			failure = ex;
+			throw ex;
+		} finally {
+			pending.clear();
+		}
+	}
+	
+	/* FILES */
+	
+	/**
+	 * Create the log of {@code generation}: [long magic][long generation][long base][records].
+	 * @param base The generation the records apply to: {@code generation} itself if the log starts from its snapshot,
+	 * or the generation of the log it continues.
+	 */
+	@NotNull
+	private FileChannel openLog(long generation, long base) throws IOException {
+		FileChannel channel = FileChannel.open(directory.resolve("journal-" + generation + ".log"), StandardOpenOption.CREATE_NEW, StandardOpenOption.WRITE);
+		ByteBuffer header = ByteBuffer.allocate(3 * Long.BYTES);
+		header.putLong(MAGIC).putLong(generation).putLong(base);
+		((Buffer) header).flip();
+		while (header.hasRemaining())
+			channel.write(header);
+		
+		return channel;
+	}
+	
+	/**
+	 * Write {@code snapshot} as the checkpoint of {@code generation}, then delete the files of the previous
+	 * generations. The snapshot is written in a temporary file, renamed once it is complete.
+	 */
+	private void writeSnapshot(@NotNull List<T> snapshot, long generation) throws IOException {
+		Path temporary = directory.resolve("snapshot-" + generation + ".tmp");
+		CRC32 checksum = new CRC32();
+		
+		try (FileChannel channel = FileChannel.open(temporary, StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)) {
+			DataOutputStream output = new DataOutputStream(new CheckedOutputStream(new BufferedOutputStream(Channels.newOutputStream(channel)), checksum));
+			output.writeLong(MAGIC);
+			output.writeLong(generation);
+			output.writeInt(snapshot.size());
+			
+			ByteBuffer buffer = ByteBuffer.allocate(INITIAL_BUFFER_SIZE);
+			for (T element : snapshot) {
+				if (element == null) {
+					output.writeInt(-1);
+					continue;
+				}
+				
+				int length = codec.encodedSize(element);
+				if (buffer.capacity() < length)
+					buffer = ByteBuffer.allocate(length);
+				
+				buffer.clear();
+				codec.encode(element, buffer);
+				output.writeInt(length);
+				output.write(buffer.array(), 0, length);
+			}
+			
+			output.writeInt((int) checksum.getValue());
+			output.flush();
+			channel.force(true);
+		}
+		
+		Files.move(temporary, directory.resolve("snapshot-" + generation + ".dat"), StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+		
+		for (Path path : list(directory, "snapshot-", ".dat").headMap(generation).values())
+			Files.deleteIfExists(path);
+		for (Path path : list(directory, "journal-", ".log").headMap(generation).values())
+			Files.deleteIfExists(path);
+	}
+	
+	/**
+	 * @return The lexicon of the snapshot, or {@code null} if the snapshot is incomplete or corrupted.
+	 */
+	@Nullable
+	private static <T> Lexicon<T> readSnapshot(@NotNull Path path, long generation, @NotNull LexiconCodec<T> codec) throws IOException {
+		CRC32 checksum = new CRC32();
+		
+		try (DataInputStream input = new DataInputStream(new CheckedInputStream(new BufferedInputStream(Files.newInputStream(path)), checksum))) {
+			if (input.readLong() != MAGIC || input.readLong() != generation)
+				return null;
+			
+			int size = input.readInt();
+			Lexicon<T> lexicon = new Lexicon<>();
+			for (int i = 0; i < size; i++)
+				lexicon.add(readElement(input, codec));
+			
+			int expected = (int) checksum.getValue();
+			return input.readInt() == expected ? lexicon : null;
+		} catch (EOFException ex) {
+			return null;
+		}
+	}
+	
+	/**
+	 * Apply the records of the log {@code path} to {@code lexicon}, until the end of the log or the first invalid
+	 * record.
+	 * @param previous The generation of the last log applied to {@code lexicon}, or -1 to accept any base.
+	 * @return {@code false} if the log does not apply to {@code lexicon}, which has not been modified.
+	 */
+	private static <T> boolean replay(@NotNull Path path, long previous, @NotNull Lexicon<T> lexicon, @NotNull LexiconCodec<T> codec) throws IOException {
+		try (DataInputStream input = new DataInputStream(new BufferedInputStream(Files.newInputStream(path)))) {
+			if (input.readLong() != MAGIC)
+				return false;
+			input.readLong();
+			long base = input.readLong();
+			if (previous != -1 && base != previous)
+				return false;
+			
+			CRC32 checksum = new CRC32();
+			while (true) {
+				int length = input.readInt();
+				if (length < 1)
+					return true;
+				
+				byte[] record = new byte[length];
+				input.readFully(record);
+				checksum.reset();
+				checksum.update(record);
+				if (input.readInt() != (int) checksum.getValue())
+					return true;
+				
+				apply(ByteBuffer.wrap(record), lexicon, codec);
+			}
+		} catch (EOFException ex) {
+			// The last record has not been completely written, or the header if nothing has been applied
+			return true;
+		}
+	}
+	
+	private static <T> void apply(@NotNull ByteBuffer record, @NotNull Lexicon<T> lexicon, @NotNull LexiconCodec<T> codec) {
+		switch (record.get()) {
+			case ADD:
+				int index = record.getInt();
+				insert(lexicon, index, readElement(record, codec));
+				break;
+			case SET:
+				index = record.getInt();
+				lexicon.set(index, readElement(record, codec));
+				break;
+			case REMOVE:
+				lexicon.remove(record.getInt());
+				break;
+			case SPLICE:
+				int fromIndex = record.getInt();
+				int removedCount = record.getInt();
+				Object[] added = new Object[record.getInt()];
+				for (int k = 0; k < added.length; k++)
+					added[k] = readElement(record, codec);
+				
+				for (int k = fromIndex + removedCount - 1; k >= fromIndex; k--)
+					lexicon.remove(k);
+				insert(lexicon, fromIndex, added);
+				break;
+			default:
+				throw new IllegalStateException("Unknown journal record.");
+		}
+	}
+	
+	@SuppressWarnings("unchecked")
+	private static <T> void insert(@NotNull Lexicon<T> lexicon, int index, @NotNull Object... elements) {
+		if (index < lexicon.size())
+			lexicon.insertAll(index, (T[]) elements);
+		else
+			for (Object element : elements)
+				lexicon.add((T) element);
+	}
+	
+	@Nullable
+	private static <T> T readElement(@NotNull ByteBuffer buffer, @NotNull LexiconCodec<T> codec) {
+		int length = buffer.getInt();
+		if (length < 0)
+			return null;
+		
+		ByteBuffer element = buffer.slice();
+		((Buffer) element).limit(length);
+		((Buffer) buffer).position(buffer.position() + length);
+		return codec.decode(element);
+	}
+	
+	@Nullable
+	private static <T> T readElement(@NotNull DataInputStream input, @NotNull LexiconCodec<T> codec) throws IOException {
+		int length = input.readInt();
+		if (length < 0)
+			return null;
+		
+		byte[] bytes = new byte[length];
+		input.readFully(bytes);
+		return codec.decode(ByteBuffer.wrap(bytes));
+	}
+	
+	/**
+	 * List the files of {@code directory} named {@code prefix + generation + suffix}.
+	 * @return The files, by generation.
+	 */
+	@NotNull
+	private static TreeMap<Long, Path> list(@NotNull Path directory, @NotNull String prefix, @NotNull String suffix) throws IOException {
+		TreeMap<Long, Path> files = new TreeMap<>();
+		
+		try (DirectoryStream<Path> stream = Files.newDirectoryStream(directory, prefix + "*" + suffix)) {
+			for (Path path : stream) {
+				String name = path.getFileName().toString();
+				try {
+					files.put(Long.parseLong(name.substring(prefix.length(), name.length() - suffix.length())), path);
+				} catch (NumberFormatException ignored) {
+					// Not a file of the journal
+				}
+			}
+		}
+		
+		return files;
+	}
+	
+	private static long lastGeneration(@NotNull Path directory) throws IOException {
+		long generation = 0;
+		for (Long g : list(directory, "snapshot-", ".dat").keySet())
+			generation = Math.max(generation, g);
+		for (Long g : list(directory, "journal-", ".log").keySet())
+			generation = Math.max(generation, g);
+		
+		return generation;
+	}
+	
+	@NotNull
+	@SuppressWarnings("unchecked")
+	private static <T> LexiconCodec<T> serializableCodec() {
+		return (LexiconCodec<T>) (LexiconCodec<?>) LexiconCodec.serializable();
+	}
+	
+	private void checkOpen() throws IOException {
+		if (closed)
+			throw new IllegalStateException("The journal is closed.");
+		if (failure != null)
+			throw failure;
+	}
+	
+	/* GETTERS & SETTERS */
+	
+	@NotNull
+	public Lexicon<T> getLexicon() {
+		return lexicon;
+	}
+	
+	@NotNull
+	public Path getDirectory() {
+		return directory;
+	}
+	
+	public synchronized long getGeneration() {
+		return generation;
+	}
+	
+	public synchronized long getSyncInterval() {
+		return syncInterval;
+	}
+	
+	/**
+	 * Set how the records are written to the disk.
+	 * @param syncInterval If 0 (the default), each modification is synchronized before it returns. Otherwise, the
+	 * journal is synchronized every {@code syncInterval} milliseconds by a background thread, which also calls
+	 * {@link #checkpointIfDue()} if the lexicon is not in the {@link ConcurrencyMode#NONE} mode.
+	 */
+	public synchronized void setSyncInterval(long syncInterval) {
+		if (syncInterval < 0)
+			throw new IllegalArgumentException("syncInterval must be positive.");
+		
+		this.syncInterval = syncInterval;
+		
+		if (flusher != null) {
+			flusher.shutdown();
+			flusher = null;
+		}
+		
+		if (syncInterval > 0 && !closed) {
+			flusher = Executors.newSingleThreadScheduledExecutor(runnable -> {
+				Thread thread = new Thread(runnable, "LexiconJournal-" + directory.getFileName());
+				thread.setDaemon(true);
+				return thread;
+			});
+			flusher.scheduleWithFixedDelay(this::syncInBackground, syncInterval, syncInterval, TimeUnit.MILLISECONDS);
+		}
+	}
+	
+	private void syncInBackground() {
+		try {
+			synchronized (this) {
+				if (closed)
+					return;
+				
+				sync();
+			}
+			
+			if (lexicon.getConcurrencyMode() != ConcurrencyMode.NONE)
+				checkpointIfDue();
+		} catch (IOException ex) {
+			synchronized (this) {
+				if (failure == null)
+					failure = ex;
+			}
+		}
+	}
+	
+	public synchronized long getCheckpointThreshold() {
+		return checkpointThreshold;
+	}
+	
+	/**
+	 * @param checkpointThreshold The size of the log, in bytes, above which {@link #checkpointIfDue()} writes a
+	 * checkpoint.
+	 */
+	public synchronized void setCheckpointThreshold(long checkpointThreshold) {
+		if (checkpointThreshold < 1)
+			throw new IllegalArgumentException("checkpointThreshold must be greater or equal to 1.");
+		
+		this.checkpointThreshold = checkpointThreshold;
+	}
+}
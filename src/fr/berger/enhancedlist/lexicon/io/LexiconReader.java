@@ -0,0 +1,269 @@
+package fr.berger.enhancedlist.lexicon.io;
+
+import fr.berger.enhancedlist.lexicon.ConcurrencyMode;
+import fr.berger.enhancedlist.lexicon.Lexicon;
+import fr.berger.enhancedlist.lexicon.StorageMode;
+import fr.berger.enhancedlist.lexicon.eventhandlers.AddHandler;
+import fr.berger.enhancedlist.lexicon.eventhandlers.ChangeHandler;
+import fr.berger.enhancedlist.lexicon.eventhandlers.GetHandler;
+import fr.berger.enhancedlist.lexicon.eventhandlers.RemoveHandler;
+import fr.berger.enhancedlist.lexicon.eventhandlers.SetHandler;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.io.ByteArrayInputStream;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InvalidClassException;
+import java.io.ObjectInputStream;
+import java.io.StreamCorruptedException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+/**
+ * LexiconReader reads a lexicon written by {@link LexiconFormat#write(Lexicon, java.io.OutputStream)} element by
+ * element: the header is read when the reader is created, then each call to {@link #next()} reads and decodes one more
+ * element. The elements can thus be processed while the rest of the payload is still being received, without holding
+ * all of them in memory.
+ * <p>
+ * The reader reads the stream it is given directly, without buffering it: it never reads past the last element, so the
+ * stream can hold other data after the lexicon. Wrap a file or a socket in a {@link java.io.BufferedInputStream} if the
+ * rest of the stream is not needed. {@link #close()} closes the stream.
+ * </p>
+ * @param <T> The type of the elements.
+ * @author Valentin Berger
+ */
+public class LexiconReader<T> implements Iterator<T>, Closeable {
+	
+	/**
+	 * Number of elements {@link #toLexicon()} allocates in advance, whatever the size written in the stream is
+	 */
+	private static final int MAX_PREALLOCATED = 1 << 16;
+	
+	@NotNull
+	private final LexiconCodec<T> codec;
+	@NotNull
+	private final DataInputStream input;
+	private final int flags;
+	@NotNull
+	private final ConcurrencyMode concurrencyMode;
+	@NotNull
+	private final StorageMode storageMode;
+	@Nullable
+	private final Class<T> clazz;
+	@Nullable
+	private final Object[] handlers;
+	private final int size;
+	private int index;
+	@NotNull
+	private byte[] buffer;
+	
+	/* CONSTRUCTOR */
+	
+	@SuppressWarnings("unchecked")
+	LexiconReader(@NotNull LexiconCodec<T> codec, @NotNull InputStream input) throws IOException {
+		this.codec = codec;
+		this.input = new DataInputStream(input);
+		
+		byte[] magic = new byte[LexiconFormat.MAGIC.length];
+		this.input.readFully(magic);
+		for (int i = 0; i < magic.length; i++)
+			if (magic[i] != LexiconFormat.MAGIC[i])
+				throw new StreamCorruptedException("The stream does not contain a LexiconFormat.");
+		
+		if (this.input.readByte() != LexiconFormat.VERSION)
+			throw new StreamCorruptedException("Unknown LexiconFormat version.");
+		
+		this.flags = this.input.readUnsignedByte();
+		this.concurrencyMode = readEnum(ConcurrencyMode.values());
+		this.storageMode = readEnum(StorageMode.values());
+		
+		if (has(LexiconFormat.HAS_CLASS)) {
+			String name = this.input.readUTF();
+			try {
+				this.clazz = (Class<T>) Class.forName(name, false, Thread.currentThread().getContextClassLoader());
+			} catch (ClassNotFoundException ex) {
+				throw new InvalidClassException(name, "Class not found.");
+			}
+		}
+		else
+			this.clazz = null;
+		
+		if (has(LexiconFormat.HAS_HANDLERS)) {
+			byte[] bytes = new byte[Varint.read(this.input)];
+			this.input.readFully(bytes);
+			
+			this.handlers = new Object[5];
+			try (ObjectInputStream stream = new ObjectInputStream(new ByteArrayInputStream(bytes))) {
+				for (int i = 0; i < handlers.length; i++)
+					handlers[i] = stream.readObject();
+			} catch (ClassNotFoundException ex) {
+				throw new InvalidClassException(ex.getMessage(), "Class not found.");
+			}
+		}
+		else
+			this.handlers = null;
+		
+		this.size = Varint.read(this.input);
+		this.index = 0;
+		this.buffer = new byte[Math.max(codec.fixedWidth(), 256)];
+	}
+	
+	/* ITERATOR METHODS */
+	
+	@Override
+	public boolean hasNext() {
+		return index < size;
+	}
+	
+	/**
+	 * Read and decode the next element.
+	 * @return The element.
+	 * @throws UncheckedIOException If the element cannot be read.
+	 */
+	@Override
+	public T next() {
+		if (!hasNext())
+			throw new NoSuchElementException();
+		
+		try {
+			return read();
+		} catch (IOException ex) {
+			throw new UncheckedIOException(ex);
+		}
+	}
+	
+	@Nullable
+	private T read() throws IOException {
+		int length;
+		if (has(LexiconFormat.HAS_NULLS)) {
+			length = Varint.read(input) - 1;
+			if (length < 0) {
+				index++;
+				return null;
+			}
+		}
+		else if (codec.fixedWidth() > 0)
+			length = codec.fixedWidth();
+		else
+			length = Varint.read(input);
+		
+		if (buffer.length < length)
+			buffer = new byte[Math.max(length, buffer.length * 2)];
+		
+		input.readFully(buffer, 0, length);
+		index++;
+		return codec.decode(ByteBuffer.wrap(buffer, 0, length));
+	}
+	
+	/**
+	 * @return The remaining elements, read as the stream is consumed.
+	 */
+	@NotNull
+	public Stream<T> stream() {
+		return StreamSupport.stream(Spliterators.spliterator(this, size - index, Spliterator.ORDERED | Spliterator.SIZED), false);
+	}
+	
+	/**
+	 * Read all the remaining elements in a new lexicon, with the rules, the modes and the handlers which have been
+	 * written. The rules and the handlers are applied once the elements have been added.
+	 * @return The lexicon.
+	 * @throws IOException If an element cannot be read.
+	 */
+	@NotNull
+	@SuppressWarnings("unchecked")
+	public Lexicon<T> toLexicon() throws IOException {
+		Lexicon<T> lexicon = clazz != null ? new Lexicon<>(clazz) : new Lexicon<>();
+		// The size comes from the stream: beyond MAX_PREALLOCATED, it is only trusted as far as the bytes already
+		// available, as each element takes at least one byte
+		lexicon.ensureCapacity(Math.min(size - index, Math.max(MAX_PREALLOCATED, input.available())));
+		
+		while (hasNext())
+			lexicon.add(read());
+		
+		lexicon.setAcceptDuplicates(has(LexiconFormat.ACCEPT_DUPLICATES));
+		lexicon.setAcceptNullValues(has(LexiconFormat.ACCEPT_NULL_VALUES));
+		lexicon.setBatchRemoveEvents(has(LexiconFormat.BATCH_REMOVE_EVENTS));
+		lexicon.setHashIndexed(has(LexiconFormat.HASH_INDEXED));
+		lexicon.setConcurrencyMode(concurrencyMode);
+		lexicon.setStorageMode(storageMode);
+		
+		if (handlers != null) {
+			lexicon.setAddHandlers((ArrayList<AddHandler<T>>) handlers[0]);
+			lexicon.setGetHandlers((ArrayList<GetHandler<T>>) handlers[1]);
+			lexicon.setSetHandlers((ArrayList<SetHandler<T>>) handlers[2]);
+			lexicon.setRemoveHandlers((ArrayList<RemoveHandler<T>>) handlers[3]);
+			lexicon.setChangeHandlers((ArrayList<ChangeHandler<T>>) handlers[4]);
+		}
+		
+		return lexicon;
+	}
+	
+	@Override
+	public void close() throws IOException {
+		input.close();
+	}
+	
+	/* PRIVATE METHODS */
+	
+	private boolean has(int flag) {
+		return (flags & flag) != 0;
+	}
+	
+	@NotNull
+	private <E extends Enum<E>> E readEnum(@NotNull E[] values) throws IOException {
+		int ordinal = Varint.read(input);
+		if (ordinal >= values.length)
+			throw new StreamCorruptedException("Unknown " + values.getClass().getComponentType().getSimpleName() + ".");
+		
+		return values[ordinal];
+	}
+	
+	/* GETTERS */
+	
+	/**
+	 * @return The total number of elements of the lexicon, including the ones already read.
+	 */
+	public int size() {
+		return size;
+	}
+	
+	/**
+	 * @return The number of elements already read.
+	 */
+	public int getIndex() {
+		return index;
+	}
+	
+	@Nullable
+	public Class<T> getClazz() {
+		return clazz;
+	}
+	
+	public boolean isAcceptDuplicates() {
+		return has(LexiconFormat.ACCEPT_DUPLICATES);
+	}
+	
+	public boolean isAcceptNullValues() {
+		return has(LexiconFormat.ACCEPT_NULL_VALUES);
+	}
+	
+	@NotNull
+	public ConcurrencyMode getConcurrencyMode() {
+		return concurrencyMode;
+	}
+	
+	@NotNull
+	public StorageMode getStorageMode() {
+		return storageMode;
+	}
+}
@@ -0,0 +1,393 @@
+package fr.berger.enhancedlist.lexicon.io;
+
+import fr.berger.enhancedlist.lexicon.Lexicon;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.AbstractList;
+import java.util.Collection;
+import java.util.Objects;
+import java.util.RandomAccess;
+
+/**
+ * MappedLexicon is a list stored in a file, mapped in memory. The elements are encoded by a {@link LexiconCodec}, so
+ * that {@link #get(int)} only decodes the requested element, and the list can be much bigger than the heap. Opening an
+ * existing file only reads its header.
+ * <p>
+ * If the codec has a fixed width, the elements are stored one after the other, and the position of an element is
+ * computed from its index. Otherwise, each element is stored as its length followed by its bytes, and the positions of
+ * the elements are stored in a second file, named after the first one with the suffix {@code .idx}.
+ * </p>
+ * <p>
+ * The number of elements is written in the header after the elements themselves, so an interrupted append is simply
+ * ignored when the file is opened again. The written bytes survive a crash of the program as soon as the method
+ * returns; to survive a crash of the system, call {@link #force()} or enable {@link #setSyncOnAppend(boolean)}.
+ * </p>
+ * <p>
+ * Elements can be added and changed, but only the last element can be removed. Changing an element whose codec does
+ * not have a fixed width appends a new record, and the old one stays in the file.
+ * </p>
+ * @param <T> The type of the elements.
+ * @author Valentin Berger
+ */
+public class MappedLexicon<T> extends AbstractList<T> implements RandomAccess, Closeable {
+	
+	private static final long MAGIC = 0x4C455849L;
+	private static final long VERSION = 1L;
+	
+	/* HEADER */
+	private static final long HEADER_SIGNATURE = 0;
+	private static final long HEADER_WIDTH = 8;
+	private static final long HEADER_COUNT = 16;
+	private static final long HEADER_END = 24;
+	private static final long DATA_START = 64;
+	
+	@NotNull
+	private final LexiconCodec<T> codec;
+	private final int width;
+	@NotNull
+	private final MappedRegion data;
+	@Nullable
+	private final MappedRegion index;
+	private int count;
+	private long end;
+	private boolean syncOnAppend;
+	private boolean closed;
+	
+	/* CONSTRUCTORS */
+	
+	/**
+	 * Open the list stored in {@code path}, or create it if the file does not exist.
+	 * @param path The file of the list.
+	 * @param codec The codec of the elements. It must be the one used to create the file.
+	 * @throws IOException If the file cannot be opened.
+	 * @throws IllegalArgumentException If the file is not a MappedLexicon, or if it was created with a codec of another
+	 * width.
+	 */
+	public MappedLexicon(@NotNull Path path, @NotNull LexiconCodec<T> codec) throws IOException {
+		this(path, codec, MappedRegion.DEFAULT_SEGMENT_SIZE);
+	}
+	MappedLexicon(@NotNull Path path, @NotNull LexiconCodec<T> codec, int segmentSize) throws IOException {
+		this.codec = Objects.requireNonNull(codec);
+		this.width = codec.fixedWidth();
+		this.data = new MappedRegion(path, segmentSize);
+		
+		try {
+			if (data.capacity() == 0) {
+				data.ensureCapacity(DATA_START);
+				data.putLong(HEADER_SIGNATURE, MAGIC << 32 | VERSION);
+				data.putLong(HEADER_WIDTH, width);
+				data.putLong(HEADER_COUNT, 0);
+				data.putLong(HEADER_END, DATA_START);
+				data.force();
+			}
+			else {
+				if (data.capacity() < DATA_START || data.getLong(HEADER_SIGNATURE) != (MAGIC << 32 | VERSION))
+					throw new IllegalArgumentException("The file \"" + path + "\" is not a MappedLexicon.");
+				if (data.getLong(HEADER_WIDTH) != width)
+					throw new IllegalArgumentException("The file \"" + path + "\" was created with a codec of width " + data.getLong(HEADER_WIDTH) + ".");
+			}
+			
+			this.count = (int) data.getLong(HEADER_COUNT);
+			this.end = data.getLong(HEADER_END);
+			this.index = width > 0 ? null : new MappedRegion(Paths.get(path + ".idx"), segmentSize);
+		} catch (IOException | RuntimeException ex) {
+			data.close();
+			throw ex;
+		}
+	}
+	
+	/* LIST METHODS */
+	
+	@NotNull
+	@Override
+	public synchronized T get(int index) {
+		checkIndex(index);
+		
+		try {
+			if (width > 0)
+				return codec.decode(data.read(DATA_START + (long) index * width, width));
+			
+			long position = this.index.getLong((long) index * 8);
+			int length = data.read(position, Integer.BYTES).getInt();
+			return codec.decode(data.read(position + Integer.BYTES, length));
+		} catch (IOException ex) {
+			throw new UncheckedIOException(ex);
+		}
+	}
+	
+	@Override
+	public synchronized int size() {
+		return count;
+	}
+	
+	@Override
+	public synchronized boolean add(@NotNull T element) {
+		checkOpen();
+		
+		try {
+			append(element);
+			commit();
+		} catch (IOException ex) {
+			throw new UncheckedIOException(ex);
+		}
+		
+		return true;
+	}
+	
+	@Override
+	public synchronized void add(int index, @NotNull T element) {
+		if (index != count)
+			throw new UnsupportedOperationException("A MappedLexicon can only add elements at its end.");
+		
+		add(element);
+	}
+	
+	/**
+	 * Append all the elements of {@code elements}. They are committed together: if the program stops before the
+	 * method returns, none of them is kept.
+	 * @param elements The elements to add.
+	 * @return {@code true} if the list changed.
+	 */
+	@Override
+	public synchronized boolean addAll(@NotNull Collection<? extends T> elements) {
+		checkOpen();
+		
+		if (elements.isEmpty())
+			return false;
+		
+		try {
+			for (T element : elements)
+				append(element);
+			commit();
+		} catch (IOException ex) {
+			throw new UncheckedIOException(ex);
+		}
+		
+		return true;
+	}
+	
+	@NotNull
+	@Override
+	public synchronized T set(int index, @NotNull T element) {
+		checkIndex(index);
+		Objects.requireNonNull(element);
+		
+		T previous = get(index);
+		
+		try {
+			if (width > 0) {
+				data.write(DATA_START + (long) index * width, encode(element, width));
+				if (syncOnAppend)
+					data.force();
+			}
+			else {
+				// The new record is published before the index points to it
+				long position = writeRecord(element);
+				data.putLong(HEADER_END, end);
+				if (syncOnAppend)
+					data.force();
+				
+				this.index.putLong((long) index * 8, position);
+				if (syncOnAppend)
+					this.index.force();
+			}
+		} catch (IOException ex) {
+			throw new UncheckedIOException(ex);
+		}
+		
+		return previous;
+	}
+	
+	/**
+	 * Remove the element at {@code index}, which must be the last one.
+	 * @throws UnsupportedOperationException If {@code index} is not the index of the last element.
+	 */
+	@NotNull
+	@Override
+	public synchronized T remove(int index) {
+		checkIndex(index);
+		
+		if (index != count - 1)
+			throw new UnsupportedOperationException("A MappedLexicon can only remove its last element.");
+		
+		T element = get(index);
+		count--;
+		modCount++;
+		// The record of a variable-width element may be followed by the records of changed elements, so it is kept
+		if (width > 0)
+			end = DATA_START + (long) count * width;
+		
+		publish();
+		return element;
+	}
+	
+	@Override
+	public synchronized void clear() {
+		checkOpen();
+		
+		count = 0;
+		end = DATA_START;
+		modCount++;
+		publish();
+	}
+	
+	/* MAPPEDLEXICON METHODS */
+	
+	/**
+	 * Copy all the elements in a new Lexicon.
+	 * @return A Lexicon containing the decoded elements.
+	 */
+	@NotNull
+	public synchronized Lexicon<T> toLexicon() {
+		Lexicon<T> lexicon = new Lexicon<>();
+		for (int i = 0; i < count; i++)
+			lexicon.add(get(i));
+		
+		return lexicon;
+	}
+	
+	/**
+	 * Write all the modifications to the disk.
+	 */
+	public synchronized void force() {
+		checkOpen();
+		
+		data.force();
+		if (index != null)
+			index.force();
+	}
+	
+	@Override
+	public synchronized void close() throws IOException {
+		if (closed)
+			return;
+		
+		closed = true;
+		try {
+			if (index != null)
+				index.close();
+		} finally {
+			data.close();
+		}
+	}
+	
+	/* PRIVATE METHODS */
+	
+	/**
+	 * Write {@code element} after the last element, without publishing it.
+	 */
+	private void append(@NotNull T element) throws IOException {
+		Objects.requireNonNull(element);
+		
+		if (count == Integer.MAX_VALUE)
+			throw new OutOfMemoryError("A MappedLexicon cannot contain more than " + Integer.MAX_VALUE + " elements.");
+		
+		if (width > 0) {
+			data.ensureCapacity(end + width);
+			data.write(end, encode(element, width));
+			end += width;
+		}
+		else {
+			long position = writeRecord(element);
+			index.ensureCapacity(((long) count + 1) * 8);
+			index.putLong((long) count * 8, position);
+		}
+		
+		count++;
+		modCount++;
+	}
+	
+	/**
+	 * Write {@code element} as a record [length][bytes] at the end of the data.
+	 * @return The position of the record.
+	 */
+	private long writeRecord(@NotNull T element) throws IOException {
+		int length = codec.encodedSize(element);
+		ByteBuffer buffer = ByteBuffer.allocate(Integer.BYTES + length);
+		buffer.putInt(length);
+		codec.encode(element, buffer);
+		buffer.flip();
+		
+		long position = end;
+		data.ensureCapacity(position + buffer.remaining());
+		data.write(position, buffer);
+		end = position + Integer.BYTES + length;
+		return position;
+	}
+	
+	@NotNull
+	private ByteBuffer encode(@NotNull T element, int length) {
+		ByteBuffer buffer = ByteBuffer.allocate(length);
+		codec.encode(element, buffer);
+		if (buffer.hasRemaining())
+			throw new IllegalStateException("The codec wrote " + buffer.position() + " bytes instead of " + length + ".");
+		
+		buffer.flip();
+		return buffer;
+	}
+	
+	/**
+	 * Publish the appended elements: the data is written before the header, so that the header never refers to bytes
+	 * which are not written yet.
+	 */
+	private void commit() {
+		if (syncOnAppend) {
+			data.force();
+			if (index != null)
+				index.force();
+		}
+		
+		publish();
+	}
+	
+	/**
+	 * Write the end and the number of elements in the header. The number of elements is written last, as it is the one
+	 * read to open the list.
+	 */
+	private void publish() {
+		data.putLong(HEADER_END, end);
+		data.putLong(HEADER_COUNT, count);
+		
+		if (syncOnAppend)
+			data.force();
+	}
+	
+	private void checkIndex(int index) {
+		checkOpen();
+		
+		if (index < 0 || index >= count)
+			throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + count);
+	}
+	
+	private void checkOpen() {
+		if (closed)
+			throw new IllegalStateException("The MappedLexicon is closed.");
+	}
+	
+	/* GETTERS & SETTERS */
+	
+	@NotNull
+	public LexiconCodec<T> getCodec() {
+		return codec;
+	}
+	
+	public synchronized boolean isSyncOnAppend() {
+		return syncOnAppend;
+	}
+	
+	/**
+	 * If {@code true}, every modification is written to the disk before the method returns, so that it survives a crash
+	 * of the system. It is much slower. Default is {@code false}.
+	 * @param syncOnAppend Force the modifications to the disk.
+	 */
+	public synchronized void setSyncOnAppend(boolean syncOnAppend) {
+		this.syncOnAppend = syncOnAppend;
+	}
+}
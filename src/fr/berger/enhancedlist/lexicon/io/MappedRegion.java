@@ -0,0 +1,160 @@
+package fr.berger.enhancedlist.lexicon.io;
+
+import org.jetbrains.annotations.NotNull;
+
+import java.io.Closeable;
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+
+/**
+ * A file mapped in memory by segments, as a single {@link MappedByteBuffer} cannot exceed 2 GB. The file grows on
+ * demand; the bytes which span two segments are read and written in several parts.
+ * @author Valentin Berger
+ */
+class MappedRegion implements Closeable {
+	
+	static final int DEFAULT_SEGMENT_SIZE = 1 << 30;
+	
+	private static final int MIN_CAPACITY = 4096;
+	
+	@NotNull
+	private final FileChannel channel;
+	private final int segmentSize;
+	@NotNull
+	private MappedByteBuffer[] segments;
+	private long capacity;
+	
+	/**
+	 * Open (or create) {@code path} and map all its content.
+	 * @param path The file.
+	 * @param segmentSize The maximum size of a mapping. It must be a multiple of 8, so that a {@code long} aligned on 8
+	 * bytes never spans two segments.
+	 * @throws IOException If the file cannot be opened or mapped.
+	 */
+	MappedRegion(@NotNull Path path, int segmentSize) throws IOException {
+		if (segmentSize < 8 || segmentSize % 8 != 0)
+			throw new IllegalArgumentException("segmentSize must be a positive multiple of 8.");
+		
+		this.channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+		this.segmentSize = segmentSize;
+		this.segments = new MappedByteBuffer[0];
+		this.capacity = 0;
+		
+		map(channel.size());
+	}
+	
+	/**
+	 * Make sure that the bytes before {@code minCapacity} are mapped, growing the file if necessary. The file grows
+	 * geometrically, then by one segment at a time.
+	 * @param minCapacity The minimum size of the file.
+	 * @throws IOException If the file cannot be grown or mapped.
+	 */
+	void ensureCapacity(long minCapacity) throws IOException {
+		if (minCapacity <= capacity)
+			return;
+		
+		long newCapacity = capacity < segmentSize ? Math.max(MIN_CAPACITY, capacity * 2) : capacity + segmentSize;
+		map(Math.max(minCapacity, newCapacity));
+	}
+	
+	private void map(long newCapacity) throws IOException {
+		if (newCapacity <= capacity)
+			return;
+		
+		int count = (int) ((newCapacity + segmentSize - 1) / segmentSize);
+		MappedByteBuffer[] newSegments = Arrays.copyOf(segments, count);
+		
+		// The last segment may be partial, so it is mapped again
+		for (int k = Math.max(0, segments.length - 1); k < count; k++) {
+			long start = (long) k * segmentSize;
+			newSegments[k] = channel.map(FileChannel.MapMode.READ_WRITE, start, Math.min(segmentSize, newCapacity - start));
+		}
+		
+		segments = newSegments;
+		capacity = newCapacity;
+	}
+	
+	long capacity() {
+		return capacity;
+	}
+	
+	/**
+	 * Get the {@code length} bytes from {@code position}.
+	 * @return A buffer whose remaining bytes are the requested ones. It is a view of the mapping, unless the bytes span
+	 * two segments.
+	 */
+	@NotNull
+	ByteBuffer read(long position, int length) throws IOException {
+		int k = (int) (position / segmentSize);
+		int offset = (int) (position % segmentSize);
+		
+		if (offset + length <= segments[k].capacity()) {
+			ByteBuffer view = segments[k].duplicate();
+			view.limit(offset + length);
+			view.position(offset);
+			return view;
+		}
+		
+		ByteBuffer copy = ByteBuffer.allocate(length);
+		while (copy.hasRemaining())
+			if (channel.read(copy, position + copy.position()) < 0)
+				throw new EOFException();
+		
+		copy.flip();
+		return copy;
+	}
+	
+	/**
+	 * Write the remaining bytes of {@code source} from {@code position}. The region must be large enough.
+	 */
+	void write(long position, @NotNull ByteBuffer source) {
+		while (source.hasRemaining()) {
+			ByteBuffer segment = segments[(int) (position / segmentSize)].duplicate();
+			segment.position((int) (position % segmentSize));
+			
+			int length = Math.min(source.remaining(), segment.remaining());
+			ByteBuffer part = source.duplicate();
+			part.limit(part.position() + length);
+			segment.put(part);
+			
+			source.position(source.position() + length);
+			position += length;
+		}
+	}
+	
+	/**
+	 * @param position The position of the {@code long}. It must be a multiple of 8.
+	 */
+	long getLong(long position) {
+		return segments[(int) (position / segmentSize)].getLong((int) (position % segmentSize));
+	}
+	
+	/**
+	 * @param position The position of the {@code long}. It must be a multiple of 8.
+	 */
+	void putLong(long position, long value) {
+		segments[(int) (position / segmentSize)].putLong((int) (position % segmentSize), value);
+	}
+	
+	/**
+	 * Write the modified pages of the mapping to the disk.
+	 */
+	void force() {
+		for (MappedByteBuffer segment : segments)
+			segment.force();
+	}
+	
+	@Override
+	public void close() throws IOException {
+		force();
+		segments = new MappedByteBuffer[0];
+		capacity = 0;
+		channel.close();
+	}
+}
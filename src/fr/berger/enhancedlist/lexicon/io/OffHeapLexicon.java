@@ -0,0 +1,490 @@
+package fr.berger.enhancedlist.lexicon.io;
+
+import fr.berger.enhancedlist.lexicon.Lexicon;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.io.Closeable;
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+import java.nio.ByteBuffer;
+import java.util.AbstractList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.Objects;
+import java.util.RandomAccess;
+
+/**
+ * OffHeapLexicon stores its elements outside the heap, in direct buffers, through a fixed-width {@link LexiconCodec}.
+ * Whatever the number of elements, the garbage collector only sees a few objects (one per segment of memory), so very
+ * large lists of numbers or of fixed-layout records do not make the collections longer.
+ * <p>
+ * The memory is divided in segments of the same size, so growing the list never copies the existing elements (except
+ * while the first segment is not full). {@link #close()} releases the memory immediately; otherwise, it is released
+ * when the list is garbage collected, by the cleaners of the direct buffers.
+ * </p>
+ * <p>
+ * Each call to {@link #get(int)} decodes a new object. OffHeapLexicon is not thread-safe, and does not accept
+ * {@code null}.
+ * </p>
+ * @param <T> The type of the elements.
+ * @see MappedLexicon
+ * @author Valentin Berger
+ */
+public class OffHeapLexicon<T> extends AbstractList<T> implements RandomAccess, Closeable {
+	
+	static final int DEFAULT_SEGMENT_SIZE = 1 << 26;
+	
+	private static final int MIN_CAPACITY = 16;
+	private static final ByteBuffer[] EMPTY = new ByteBuffer[0];
+	
+	@Nullable
+	private static final Object UNSAFE;
+	@Nullable
+	private static final Method INVOKE_CLEANER;
+	
+	static {
+		// Unsafe.invokeCleaner() only exists since Java 9; on Java 8, free() calls the cleaner of the buffer itself
+		Object unsafe = null;
+		Method invokeCleaner = null;
+		try {
+			Class<?> unsafeClass = Class.forName("sun.misc.Unsafe");
+			Field field = unsafeClass.getDeclaredField("theUnsafe");
+			field.setAccessible(true);
+			unsafe = field.get(null);
+			invokeCleaner = unsafeClass.getMethod("invokeCleaner", ByteBuffer.class);
+		} catch (ReflectiveOperationException | RuntimeException ignored) {
+		}
+		
+		UNSAFE = unsafe;
+		INVOKE_CLEANER = invokeCleaner;
+	}
+	
+	@NotNull
+	private final LexiconCodec<T> codec;
+	private final int width;
+	/**
+	 * Each segment holds {@code 1 << shift} elements, except the first one while it grows.
+	 */
+	private final int shift;
+	@NotNull
+	private ByteBuffer[] segments;
+	private int size;
+	private boolean closed;
+	
+	/* CONSTRUCTORS */
+	
+	/**
+	 * @param codec The codec of the elements. It must have a fixed width.
+	 * @throws IllegalArgumentException If the codec does not have a fixed width.
+	 */
+	public OffHeapLexicon(@NotNull LexiconCodec<T> codec) {
+		this(codec, 0, DEFAULT_SEGMENT_SIZE);
+	}
+	/**
+	 * @param codec The codec of the elements. It must have a fixed width.
+	 * @param initialCapacity The number of elements to allocate immediately.
+	 * @throws IllegalArgumentException If the codec does not have a fixed width.
+	 */
+	public OffHeapLexicon(@NotNull LexiconCodec<T> codec, int initialCapacity) {
+		this(codec, initialCapacity, DEFAULT_SEGMENT_SIZE);
+	}
+	public OffHeapLexicon(@NotNull LexiconCodec<T> codec, @NotNull Collection<? extends T> elements) {
+		this(codec, elements.size(), DEFAULT_SEGMENT_SIZE);
+		addAll(elements);
+	}
+	OffHeapLexicon(@NotNull LexiconCodec<T> codec, int initialCapacity, int segmentSize) {
+		this.codec = Objects.requireNonNull(codec);
+		this.width = codec.fixedWidth();
+		
+		if (width < 1)
+			throw new IllegalArgumentException("An OffHeapLexicon needs a codec with a fixed width.");
+		if (width > segmentSize)
+			throw new IllegalArgumentException("The elements are bigger than a segment.");
+		if (initialCapacity < 0)
+			throw new IllegalArgumentException("initialCapacity must be positive.");
+		
+		this.shift = 31 - Integer.numberOfLeadingZeros(segmentSize / width);
+		this.segments = EMPTY;
+		ensureCapacity(initialCapacity);
+	}
+	
+	/* LIST METHODS */
+	
+	@NotNull
+	@Override
+	public T get(int index) {
+		checkIndex(index);
+		return codec.decode(view(segments, index));
+	}
+	
+	@NotNull
+	@Override
+	public T set(int index, @NotNull T element) {
+		checkIndex(index);
+		Objects.requireNonNull(element);
+		
+		T previous = get(index);
+		encode(element, index);
+		return previous;
+	}
+	
+	@Override
+	public boolean add(@NotNull T element) {
+		Objects.requireNonNull(element);
+		checkOpen();
+		
+		ensureCapacity(size + 1);
+		encode(element, size);
+		size++;
+		modCount++;
+		return true;
+	}
+	
+	/**
+	 * Insert {@code element} at {@code index}. The following elements are moved, so it is O(n).
+	 */
+	@Override
+	public void add(int index, @NotNull T element) {
+		Objects.requireNonNull(element);
+		checkOpen();
+		
+		if (index < 0 || index > size)
+			throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + size);
+		
+		ensureCapacity(size + 1);
+		for (int k = size; k > index; k--)
+			move(segments, k - 1, segments, k);
+		
+		encode(element, index);
+		size++;
+		modCount++;
+	}
+	
+	@Override
+	public boolean addAll(@NotNull Collection<? extends T> elements) {
+		checkOpen();
+		
+		if (elements.isEmpty())
+			return false;
+		
+		ensureCapacity(size + elements.size());
+		for (T element : elements)
+			add(element);
+		
+		return true;
+	}
+	
+	/**
+	 * Remove the element at {@code index}. The following elements are moved, so it is O(n).
+	 */
+	@NotNull
+	@Override
+	public T remove(int index) {
+		T element = get(index);
+		
+		for (int k = index + 1; k < size; k++)
+			move(segments, k, segments, k - 1);
+		
+		size--;
+		modCount++;
+		return element;
+	}
+	
+	@Override
+	public int size() {
+		return size;
+	}
+	
+	/**
+	 * Remove all the elements. The memory is kept for the next elements; see {@link #close()} to release it.
+	 */
+	@Override
+	public void clear() {
+		checkOpen();
+		
+		size = 0;
+		modCount++;
+	}
+	
+	/**
+	 * Sort the elements with a merge sort, which is stable. The elements are merged in a second off-heap area, so the
+	 * sort does not need any memory on the heap, except the elements being compared.
+	 * @param comparator The comparator to use, or {@code null} for the natural order.
+	 */
+	@Override
+	@SuppressWarnings("unchecked")
+	public void sort(@Nullable Comparator<? super T> comparator) {
+		checkOpen();
+		
+		Comparator<? super T> order = comparator != null ? comparator : (Comparator<? super T>) Comparator.naturalOrder();
+		if (size < 2)
+			return;
+		
+		ByteBuffer[] source = segments;
+		ByteBuffer[] target = allocateLike();
+		
+		// The bounds are computed with longs, as the runs can exceed Integer.MAX_VALUE / 2
+		for (long run = 1; run < size; run *= 2) {
+			for (long low = 0; low < size; low += 2 * run) {
+				int middle = (int) Math.min(low + run, size);
+				int high = (int) Math.min(low + 2 * run, size);
+				merge(source, target, (int) low, middle, high, order);
+			}
+			
+			ByteBuffer[] temp = source;
+			source = target;
+			target = temp;
+		}
+		
+		// The sorted elements are in "source": the other area is released
+		if (target != segments)
+			free(target);
+		else {
+			free(segments);
+			segments = source;
+		}
+		
+		modCount++;
+	}
+	
+	private void merge(@NotNull ByteBuffer[] source, @NotNull ByteBuffer[] target, int low, int middle, int high, @NotNull Comparator<? super T> order) {
+		int i = low, j = middle, k = low;
+		T left = i < middle ? codec.decode(view(source, i)) : null;
+		T right = j < high ? codec.decode(view(source, j)) : null;
+		
+		while (i < middle && j < high) {
+			if (order.compare(left, right) <= 0) {
+				move(source, i++, target, k++);
+				left = i < middle ? codec.decode(view(source, i)) : null;
+			}
+			else {
+				move(source, j++, target, k++);
+				right = j < high ? codec.decode(view(source, j)) : null;
+			}
+		}
+		
+		while (i < middle)
+			move(source, i++, target, k++);
+		while (j < high)
+			move(source, j++, target, k++);
+	}
+	
+	/**
+	 * Search {@code key} in the list, which must be sorted according to {@code comparator}.
+	 * @param key The element to search.
+	 * @param comparator The order of the list, or {@code null} for the natural order.
+	 * @return The index of {@code key}, or {@code -(insertion point) - 1} if it is not in the list, like
+	 * {@link java.util.Collections#binarySearch(java.util.List, Object, Comparator)}.
+	 */
+	@SuppressWarnings("unchecked")
+	public int search(@NotNull T key, @Nullable Comparator<? super T> comparator) {
+		checkOpen();
+		
+		Comparator<? super T> order = comparator != null ? comparator : (Comparator<? super T>) Comparator.naturalOrder();
+		int low = 0, high = size - 1;
+		
+		while (low <= high) {
+			int middle = (low + high) >>> 1;
+			int comparison = order.compare(codec.decode(view(segments, middle)), key);
+			
+			if (comparison < 0)
+				low = middle + 1;
+			else if (comparison > 0)
+				high = middle - 1;
+			else
+				return middle;
+		}
+		
+		return -(low + 1);
+	}
+	
+	/* OFFHEAPLEXICON METHODS */
+	
+	/**
+	 * Increase the capacity, if necessary, so that it can hold at least {@code minCapacity} elements.
+	 * @param minCapacity The desired minimum capacity.
+	 */
+	public void ensureCapacity(int minCapacity) {
+		checkOpen();
+		
+		int segmentLength = 1 << shift;
+		
+		// The first segment grows by doubling, to avoid allocating a whole segment for a small list. Once it is full, it
+		// is kept as it is and the next segments are added after it
+		if (segments.length <= 1 && capacity() < segmentLength && capacity() < minCapacity) {
+			int newCapacity = Math.min(segmentLength, Math.max(minCapacity, Math.max(MIN_CAPACITY, capacity() * 2)));
+			ByteBuffer first = ByteBuffer.allocateDirect(newCapacity * width);
+			
+			if (segments.length == 1) {
+				ByteBuffer old = segments[0].duplicate();
+				old.position(0);
+				old.limit(size * width);
+				first.put(old);
+				first.clear();
+				free(segments);
+			}
+			
+			segments = new ByteBuffer[] {first};
+		}
+		
+		if (capacity() < minCapacity) {
+			int count = (int) (((long) minCapacity + segmentLength - 1) >>> shift);
+			int previous = segments.length;
+			segments = Arrays.copyOf(segments, count);
+			for (int k = previous; k < count; k++)
+				segments[k] = ByteBuffer.allocateDirect(segmentLength * width);
+		}
+	}
+	
+	/**
+	 * @return The number of elements the allocated memory can hold.
+	 */
+	public int capacity() {
+		if (segments.length == 0)
+			return 0;
+		if (segments.length == 1)
+			return segments[0].capacity() / width;
+		
+		return (int) Math.min(Integer.MAX_VALUE, (long) segments.length << shift);
+	}
+	
+	/**
+	 * @return The number of bytes allocated outside the heap.
+	 */
+	public long getOffHeapSize() {
+		long bytes = 0;
+		for (ByteBuffer segment : segments)
+			bytes += segment.capacity();
+		
+		return bytes;
+	}
+	
+	/**
+	 * Copy all the elements in a new Lexicon, on the heap.
+	 * @return A Lexicon containing the decoded elements.
+	 */
+	@NotNull
+	public Lexicon<T> toLexicon() {
+		checkOpen();
+		
+		Lexicon<T> lexicon = new Lexicon<>();
+		lexicon.ensureCapacity(size);
+		for (int i = 0; i < size; i++)
+			lexicon.add(get(i));
+		
+		return lexicon;
+	}
+	
+	/**
+	 * Release the memory. The list cannot be used anymore.
+	 */
+	@Override
+	public void close() {
+		if (closed)
+			return;
+		
+		closed = true;
+		free(segments);
+		segments = EMPTY;
+		size = 0;
+	}
+	
+	public boolean isClosed() {
+		return closed;
+	}
+	
+	@NotNull
+	public LexiconCodec<T> getCodec() {
+		return codec;
+	}
+	
+	/* PRIVATE METHODS */
+	
+	/**
+	 * @return A view of the bytes of the element at {@code index} in {@code area}.
+	 */
+	@NotNull
+	private ByteBuffer view(@NotNull ByteBuffer[] area, int index) {
+		int offset = (index & ((1 << shift) - 1)) * width;
+		ByteBuffer view = area[index >>> shift].duplicate();
+		view.limit(offset + width);
+		view.position(offset);
+		return view;
+	}
+	
+	private void encode(@NotNull T element, int index) {
+		ByteBuffer view = view(segments, index);
+		codec.encode(element, view);
+		
+		if (view.hasRemaining())
+			throw new IllegalStateException("The codec wrote " + (width - view.remaining()) + " bytes instead of " + width + ".");
+	}
+	
+	/**
+	 * Copy the bytes of the element at {@code from} in {@code source} to the element at {@code to} in {@code target},
+	 * without decoding it.
+	 */
+	private void move(@NotNull ByteBuffer[] source, int from, @NotNull ByteBuffer[] target, int to) {
+		int mask = (1 << shift) - 1;
+		ByteBuffer in = source[from >>> shift];
+		ByteBuffer out = target[to >>> shift];
+		int inOffset = (from & mask) * width;
+		int outOffset = (to & mask) * width;
+		
+		int k = 0;
+		for (; k + Long.BYTES <= width; k += Long.BYTES)
+			out.putLong(outOffset + k, in.getLong(inOffset + k));
+		for (; k < width; k++)
+			out.put(outOffset + k, in.get(inOffset + k));
+	}
+	
+	/**
+	 * Allocate an area with the same layout as {@link #segments}.
+	 */
+	@NotNull
+	private ByteBuffer[] allocateLike() {
+		ByteBuffer[] area = new ByteBuffer[segments.length];
+		for (int k = 0; k < area.length; k++)
+			area[k] = ByteBuffer.allocateDirect(segments[k].capacity());
+		
+		return area;
+	}
+	
+	private void checkIndex(int index) {
+		checkOpen();
+		
+		if (index < 0 || index >= size)
+			throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + size);
+	}
+	
+	private void checkOpen() {
+		if (closed)
+			throw new IllegalStateException("The OffHeapLexicon is closed.");
+	}
+	
+	/* MEMORY RELEASE */
+	
+	/**
+	 * Release the memory of {@code area} immediately, if the JVM allows it. Otherwise, the memory is released when the
+	 * buffers are garbage collected.
+	 */
+	private static void free(@NotNull ByteBuffer[] area) {
+		for (ByteBuffer buffer : area) {
+			try {
+				if (INVOKE_CLEANER != null)
+					INVOKE_CLEANER.invoke(UNSAFE, buffer);
+				else {
+					Method cleanerMethod = buffer.getClass().getMethod("cleaner");
+					cleanerMethod.setAccessible(true);
+					Object cleaner = cleanerMethod.invoke(buffer);
+					if (cleaner != null)
+						cleaner.getClass().getMethod("clean").invoke(cleaner);
+				}
+			} catch (ReflectiveOperationException | RuntimeException ignored) {
+				// Left to the garbage collector
+			}
+		}
+	}
+}
@@ -0,0 +1,49 @@
+package fr.berger.enhancedlist.lexicon.io;
+
+import org.jetbrains.annotations.NotNull;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.io.StreamCorruptedException;
+
+/**
+ * Write and read non-negative integers with 7 bits per byte, the high bit telling if another byte follows. Small
+ * values, like most lengths, take a single byte.
+ * @author Valentin Berger
+ */
+final class Varint {
+	
+	private Varint() {
+	}
+	
+	static void write(@NotNull DataOutput output, int value) throws IOException {
+		if (value < 0)
+			throw new IllegalArgumentException("value must be positive.");
+		
+		while ((value & ~0x7F) != 0) {
+			output.writeByte((value & 0x7F) | 0x80);
+			value >>>= 7;
+		}
+		
+		output.writeByte(value);
+	}
+	
+	static int read(@NotNull DataInput input) throws IOException {
+		int value = 0;
+		
+		for (int shift = 0; shift < 35; shift += 7) {
+			byte b = input.readByte();
+			value |= (b & 0x7F) << shift;
+			
+			if ((b & 0x80) == 0) {
+				if (value < 0)
+					throw new StreamCorruptedException("Invalid varint.");
+				
+				return value;
+			}
+		}
+		
+		throw new StreamCorruptedException("Invalid varint.");
+	}
+}
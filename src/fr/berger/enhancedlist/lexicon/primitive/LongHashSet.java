@@ -0,0 +1,96 @@
+package fr.berger.enhancedlist.lexicon.primitive;
+
+/**
+ * Minimal open-addressing hash set of {@code long}, used by the primitive lexicons to detect the duplicates in linear
+ * time without boxing. The {@code int} are widened and the {@code double} are stored through
+ * {@link Double#doubleToLongBits(double)}.
+ * @author Valentin Berger
+ */
+class LongHashSet {
+	
+	private static final long EMPTY = 0L;
+	
+	private long[] keys;
+	private boolean containsEmpty;
+	private int size;
+	private int mask;
+	
+	LongHashSet(int expectedSize) {
+		int capacity = 16;
+		while (capacity < expectedSize * 2 && capacity < (1 << 30))
+			capacity <<= 1;
+		
+		keys = new long[capacity];
+		mask = capacity - 1;
+		containsEmpty = false;
+		size = 0;
+	}
+	
+	/**
+	 * Add {@code key} to the set.
+	 * @param key The key to add.
+	 * @return {@code true} if the key was not in the set.
+	 */
+	boolean add(long key) {
+		if (key == EMPTY) {
+			if (containsEmpty)
+				return false;
+			
+			containsEmpty = true;
+			return true;
+		}
+		
+		int slot = slot(key);
+		while (keys[slot] != EMPTY) {
+			if (keys[slot] == key)
+				return false;
+			
+			slot = (slot + 1) & mask;
+		}
+		
+		keys[slot] = key;
+		if (++size * 2 > keys.length)
+			rehash();
+		
+		return true;
+	}
+	
+	boolean contains(long key) {
+		if (key == EMPTY)
+			return containsEmpty;
+		
+		int slot = slot(key);
+		while (keys[slot] != EMPTY) {
+			if (keys[slot] == key)
+				return true;
+			
+			slot = (slot + 1) & mask;
+		}
+		
+		return false;
+	}
+	
+	private int slot(long key) {
+		// Mix the bits (from MurmurHash3's finalizer) so that sequential keys do not cluster
+		key ^= key >>> 33;
+		key *= 0xff51afd7ed558ccdL;
+		key ^= key >>> 33;
+		return (int) key & mask;
+	}
+	
+	private void rehash() {
+		long[] old = keys;
+		keys = new long[old.length << 1];
+		mask = keys.length - 1;
+		
+		for (long key : old) {
+			if (key != EMPTY) {
+				int slot = slot(key);
+				while (keys[slot] != EMPTY)
+					slot = (slot + 1) & mask;
+				
+				keys[slot] = key;
+			}
+		}
+	}
+}
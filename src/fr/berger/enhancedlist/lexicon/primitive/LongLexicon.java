@@ -0,0 +1,829 @@
+package fr.berger.enhancedlist.lexicon.primitive;
+
+import fr.berger.enhancedlist.ListUtil;
+import fr.berger.enhancedlist.exceptions.EmptyListException;
+import fr.berger.enhancedlist.lexicon.HandlerList;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.NoSuchElementException;
+import java.util.PrimitiveIterator;
+import java.util.function.LongConsumer;
+import java.util.function.LongPredicate;
+import java.util.stream.LongStream;
+
+/**
+ * Lexicon of {@code long} backed by a {@code long[]}. The elements are never boxed, so a lexicon of 10 million
+ * elements uses about 80 MB instead of 280 MB for a {@code Lexicon<Long>} (one object per element plus one
+ * reference in the array).
+ * <p>
+ * It follows the same rules as {@link fr.berger.enhancedlist.lexicon.Lexicon}: the duplicates can be refused, and the
+ * null-equivalent value (by default {@link #DEFAULT_NULL_EQUIVALENT}) plays the role of {@code null}. The handlers
+ * are primitive functional interfaces, and the observers are only notified (with a boxed element) if there is at least
+ * one observer.
+ * </p>
+ * @author Valentin Berger
+ */
+@SuppressWarnings({"WeakerAccess", "unused"})
+public class LongLexicon extends PrimitiveLexicon {
+	
+	private static final long serialVersionUID = 5530791287473816404L;
+	
+	public static final long DEFAULT_NULL_EQUIVALENT = Long.MIN_VALUE;
+	
+	@NotNull
+	private transient long[] array;
+	
+	@NotNull
+	private HandlerList<AddHandler> addHandlers;
+	@NotNull
+	private HandlerList<GetHandler> getHandlers;
+	@NotNull
+	private HandlerList<SetHandler> setHandlers;
+	@NotNull
+	private HandlerList<RemoveHandler> removeHandlers;
+	
+	private long nullEquivalent;
+	
+	/* CONSTRUCTORS */
+	
+	public LongLexicon() {
+		this(0);
+	}
+	public LongLexicon(int initialCapacity) {
+		if (initialCapacity < 0)
+			throw new IllegalArgumentException("initialCapacity must be positive.");
+		
+		initialize();
+		array = new long[initialCapacity];
+	}
+	public LongLexicon(@Nullable long... elements) {
+		this(elements != null ? elements.length : 0);
+		addAll(elements);
+	}
+	public LongLexicon(@NotNull LongLexicon lexicon) {
+		this(lexicon.size());
+		setAddHandlers(lexicon.getAddHandlers());
+		setGetHandlers(lexicon.getGetHandlers());
+		setSetHandlers(lexicon.getSetHandlers());
+		setRemoveHandlers(lexicon.getRemoveHandlers());
+		setAcceptDuplicates(lexicon.isAcceptDuplicates());
+		setAcceptNullValues(lexicon.isAcceptNullValues());
+		setSynchronizedAccess(lexicon.isSynchronizedAccess());
+		setGrowthPolicy(lexicon.getGrowthPolicy());
+		setNullEquivalent(lexicon.getNullEquivalent());
+		addAll(lexicon);
+	}
+	
+	protected void initialize() {
+		this.actualSize = 0;
+		setAddHandlers(new HandlerList<>());
+		setGetHandlers(new HandlerList<>());
+		setSetHandlers(new HandlerList<>());
+		setRemoveHandlers(new HandlerList<>());
+		this.nullEquivalent = DEFAULT_NULL_EQUIVALENT;
+	}
+	
+	/* METHODS */
+	
+	private void writeObject(@NotNull ObjectOutputStream stream) throws IOException {
+		stream.defaultWriteObject();
+		
+		// Only the useful part of the array is written
+		stream.writeInt(size());
+		for (int i = 0; i < size(); i++)
+			stream.writeLong(array[i]);
+	}
+	
+	private void readObject(@NotNull ObjectInputStream stream) throws IOException, ClassNotFoundException {
+		stream.defaultReadObject();
+		
+		int size = stream.readInt();
+		array = new long[size];
+		for (int i = 0; i < size; i++)
+			array[i] = stream.readLong();
+		
+		actualSize = size;
+	}
+	
+	private static boolean equal(long a, long b) {
+		return a == b;
+	}
+	
+	private static long key(long element) {
+		return element;
+	}
+	
+	@Override
+	protected long keyAt(int index) {
+		return key(array[index]);
+	}
+	
+	/**
+	 * Check if {@code element} is the null-equivalent value of this lexicon.
+	 * @param element The element to check.
+	 * @return {@code true} if {@code element} plays the role of {@code null}.
+	 * @see #getNullEquivalent()
+	 */
+	public boolean isNull(long element) {
+		return equal(element, getNullEquivalent());
+	}
+	
+	private boolean isAccepted(long element) {
+		if (!isAcceptNullValues() && isNull(element))
+			return false;
+		
+		return isAcceptDuplicates() || !contains(element);
+	}
+	
+	/* CAPACITY METHODS */
+	
+	@Override
+	public int capacity() {
+		return array.length;
+	}
+	
+	@Override
+	protected void resize(int newCapacity) {
+		array = Arrays.copyOf(array, newCapacity);
+	}
+	
+	/* BASIC LIST METHODS */
+	
+	public long get(int index) {
+		if (isSynchronizedAccess()) {
+			synchronized (this) {
+				return get_content(index);
+			}
+		}
+		else
+			return get_content(index);
+	}
+	private long get_content(int index) {
+		checkIndex(index);
+		
+		long element = array[index];
+		triggerGetHandlers(index, element);
+		
+		return element;
+	}
+	public long get(int index, long defaultValue) {
+		if (!ListUtil.checkIndex(index, size()))
+			return defaultValue;
+		
+		return get(index);
+	}
+	
+	public long first() {
+		if (isEmpty())
+			throw new EmptyListException();
+		
+		return get(0);
+	}
+	public long first(long defaultValue) {
+		return get(0, defaultValue);
+	}
+	
+	public long last() {
+		if (isEmpty())
+			throw new EmptyListException();
+		
+		return get(size() - 1);
+	}
+	public long last(long defaultValue) {
+		return get(size() - 1, defaultValue);
+	}
+	
+	/**
+	 * Set the element {@code element} at {@code index}.
+	 * @param index The index where to put {@code element}.
+	 * @param element The element to set in the list.
+	 * @return The element at {@code index} before {@code element} is set, or the null-equivalent value if
+	 * {@code element} has been refused.
+	 */
+	@SuppressWarnings("UnusedReturnValue")
+	public long set(int index, long element) {
+		if (isSynchronizedAccess()) {
+			synchronized (this) {
+				return set_content(index, element);
+			}
+		}
+		else
+			return set_content(index, element);
+	}
+	private long set_content(int index, long element) {
+		checkIndex(index);
+		
+		if (!isAccepted(element))
+			return getNullEquivalent();
+		
+		long oldValue = array[index];
+		array[index] = element;
+		
+		if (isObserved())
+			snap(element);
+		triggerSetHandlers(index, element);
+		
+		return oldValue;
+	}
+	
+	public boolean add(long element) {
+		if (isSynchronizedAccess()) {
+			synchronized (this) {
+				return add_content(element);
+			}
+		}
+		else
+			return add_content(element);
+	}
+	private boolean add_content(long element) {
+		if (!isAccepted(element))
+			return false;
+		
+		checkCapacity(size() + 1);
+		array[actualSize++] = element;
+		
+		if (isObserved())
+			snap(element);
+		triggerAddHandlers(size() - 1, element);
+		
+		return true;
+	}
+	
+	/**
+	 * Add all the elements at the end of the list.
+	 * @param elements The elements to add.
+	 * @return {@code true} if all the elements have been added, {@code false} if at least one of them has been refused.
+	 */
+	@SuppressWarnings("UnusedReturnValue")
+	public boolean addAll(@Nullable long... elements) {
+		if (elements == null)
+			return false;
+		
+		return insert(size(), elements, elements.length) == elements.length;
+	}
+	@SuppressWarnings("UnusedReturnValue")
+	public boolean addAll(@Nullable LongLexicon elements) {
+		if (elements == null)
+			return false;
+		
+		int length = elements.size();
+		return insert(size(), elements == this ? toArray() : elements.array, length) == length;
+	}
+	
+	/**
+	 * Insert {@code elements} in the array at index {@code i}. The array grows at most once and the tail is moved with
+	 * a single copy.
+	 * @param i The index where the insertion will be.
+	 * @param elements The elements to insert.
+	 */
+	public void insertAll(int i, @Nullable long... elements) {
+		checkIndex(i);
+		
+		if (elements != null)
+			insert(i, elements, elements.length);
+	}
+	public void insert(int i, long element) {
+		insertAll(i, element);
+	}
+	
+	private int insert(int index, @NotNull long[] source, int length) {
+		if (isSynchronizedAccess()) {
+			synchronized (this) {
+				return insert_content(index, source, length);
+			}
+		}
+		else
+			return insert_content(index, source, length);
+	}
+	private int insert_content(int index, @NotNull long[] source, int length) {
+		long[] accepted = source;
+		int count = length;
+		
+		// Apply the rules of the lexicon
+		if (!isAcceptNullValues() || !isAcceptDuplicates()) {
+			LongHashSet seen = null;
+			if (!isAcceptDuplicates())
+				seen = keys(size() + length);
+			
+			accepted = new long[length];
+			count = 0;
+			for (int k = 0; k < length; k++) {
+				long element = source[k];
+				
+				if (!isAcceptNullValues() && isNull(element))
+					continue;
+				
+				if (seen != null && !seen.add(key(element)))
+					continue;
+				
+				accepted[count++] = element;
+			}
+		}
+		
+		if (count == 0)
+			return 0;
+		
+		checkCapacity(size() + count);
+		System.arraycopy(array, index, array, index + count, size() - index);
+		System.arraycopy(accepted, 0, array, index, count);
+		actualSize += count;
+		
+		boolean observed = isObserved();
+		for (int k = index; k < index + count; k++) {
+			if (observed)
+				snap(array[k]);
+			triggerAddHandlers(k, array[k]);
+		}
+		
+		return count;
+	}
+	
+	@SuppressWarnings("UnusedReturnValue")
+	public long remove(int index) {
+		if (isSynchronizedAccess()) {
+			synchronized (this) {
+				return remove_content(index);
+			}
+		}
+		else
+			return remove_content(index);
+	}
+	private long remove_content(int index) {
+		checkIndex(index);
+		
+		long oldValue = array[index];
+		System.arraycopy(array, index + 1, array, index, size() - 1 - index);
+		actualSize--;
+		
+		if (isObserved())
+			snap(oldValue);
+		triggerRemoveHandlers(index, oldValue);
+		
+		return oldValue;
+	}
+	
+	/**
+	 * Remove the first occurrence of {@code element}.
+	 * @param element The element to remove.
+	 * @return {@code true} if the element has been found and removed.
+	 */
+	public boolean removeElement(long element) {
+		int index = indexOf(element);
+		
+		if (index == -1)
+			return false;
+		
+		remove(index);
+		return true;
+	}
+	
+	/**
+	 * Remove all the elements which satisfy {@code filter}, with a single compaction of the array. The remove handlers
+	 * are called in ascending order, with the index the element would have had if the elements were removed one by
+	 * one.
+	 * @param filter The predicate returning {@code true} for the elements to remove. It is evaluated in ascending order.
+	 * @return {@code true} if at least one element has been removed.
+	 */
+	public boolean removeIf(@NotNull LongPredicate filter) {
+		if (filter == null)
+			throw new NullPointerException();
+		
+		if (isSynchronizedAccess()) {
+			synchronized (this) {
+				return removeIf_content(filter);
+			}
+		}
+		else
+			return removeIf_content(filter);
+	}
+	private boolean removeIf_content(@NotNull LongPredicate filter) {
+		int size = size();
+		int write = 0;
+		
+		// The removed elements are only kept if someone has to be notified
+		boolean notify = !getRemoveHandlers().isEmpty() || isObserved();
+		long[] removed = notify ? new long[16] : null;
+		int[] indexes = notify ? new int[16] : null;
+		int count = 0;
+		
+		for (int read = 0; read < size; read++) {
+			long element = array[read];
+			
+			if (filter.test(element)) {
+				if (notify) {
+					if (count == removed.length) {
+						removed = Arrays.copyOf(removed, count << 1);
+						indexes = Arrays.copyOf(indexes, count << 1);
+					}
+					
+					removed[count] = element;
+					indexes[count] = read - count;
+				}
+				count++;
+			}
+			else
+				array[write++] = element;
+		}
+		
+		actualSize = write;
+		
+		boolean observed = isObserved();
+		for (int k = 0; notify && k < count; k++) {
+			if (observed)
+				snap(removed[k]);
+			triggerRemoveHandlers(indexes[k], removed[k]);
+		}
+		
+		return count > 0;
+	}
+	
+	@SuppressWarnings("UnusedReturnValue")
+	public boolean removeAll(@NotNull long... elements) {
+		LongHashSet set = toSet(elements);
+		return removeIf(e -> set.contains(key(e)));
+	}
+	
+	@SuppressWarnings("UnusedReturnValue")
+	public boolean retainAll(@NotNull long... elements) {
+		LongHashSet set = toSet(elements);
+		return removeIf(e -> !set.contains(key(e)));
+	}
+	
+	@NotNull
+	private static LongHashSet toSet(@NotNull long[] elements) {
+		if (elements == null)
+			throw new NullPointerException();
+		
+		LongHashSet set = new LongHashSet(elements.length);
+		for (long element : elements)
+			set.add(key(element));
+		
+		return set;
+	}
+	
+	@Override
+	public void deleteDuplications() {
+		LongHashSet seen = new LongHashSet(size());
+		removeIf(e -> !seen.add(key(e)));
+	}
+	
+	@Override
+	public void deleteNullElement() {
+		removeIf(this::isNull);
+	}
+	
+	public int indexOf(long element) {
+		for (int i = 0; i < size(); i++)
+			if (equal(array[i], element))
+				return i;
+		
+		return -1;
+	}
+	
+	public int lastIndexOf(long element) {
+		for (int i = size() - 1; i >= 0; i--)
+			if (equal(array[i], element))
+				return i;
+		
+		return -1;
+	}
+	
+	public boolean contains(long element) {
+		return indexOf(element) != -1;
+	}
+	
+	public boolean containsAll(@NotNull long... elements) {
+		if (elements == null)
+			throw new NullPointerException();
+		
+		// A hash set is only worth it if the linear scans would be many
+		if (elements.length <= 8) {
+			for (long element : elements)
+				if (!contains(element))
+					return false;
+			
+			return true;
+		}
+		
+		LongHashSet present = keys(size());
+		
+		for (long element : elements)
+			if (!present.contains(key(element)))
+				return false;
+		
+		return true;
+	}
+	
+	/**
+	 * Search the element in the list, and return the indexes where the element has been found.
+	 * @param element The element to search.
+	 * @return The indexes where {@code element} has been found. If it is empty, the element is not in the list.
+	 */
+	@NotNull
+	public IntLexicon search(long element) {
+		IntLexicon indexes = new IntLexicon();
+		
+		for (int i = 0; i < size(); i++)
+			if (equal(array[i], element))
+				indexes.add(i);
+		
+		return indexes;
+	}
+	
+	/**
+	 * Sort the elements in ascending order.
+	 */
+	public void sort() {
+		if (isSynchronizedAccess()) {
+			synchronized (this) {
+				Arrays.sort(array, 0, size());
+			}
+		}
+		else
+			Arrays.sort(array, 0, size());
+	}
+	
+	/**
+	 * Search {@code element} with a binary search. The lexicon must be sorted.
+	 * @param element The element to search.
+	 * @return The index of the element, or {@code -(insertion point) - 1} if it is not in the list.
+	 * @see #sort()
+	 * @see Arrays#binarySearch(long[], int, int, long)
+	 */
+	public int binarySearch(long element) {
+		return Arrays.binarySearch(array, 0, size(), element);
+	}
+	
+	@NotNull
+	public long[] toArray() {
+		return Arrays.copyOf(array, size());
+	}
+	
+	@NotNull
+	public LongStream stream() {
+		return Arrays.stream(array, 0, size());
+	}
+	
+	/**
+	 * Perform {@code action} on each element, in order. This method reads the array directly: the get handlers are
+	 * not triggered.
+	 * @param action The action to perform.
+	 */
+	public void forEach(@NotNull LongConsumer action) {
+		if (action == null)
+			throw new NullPointerException();
+		
+		for (int i = 0; i < size(); i++)
+			action.accept(array[i]);
+	}
+	
+	@NotNull
+	public PrimitiveIterator.OfLong iterator() {
+		return new PrimitiveIterator.OfLong() {
+			
+			private int index = 0;
+			
+			@Override
+			public boolean hasNext() {
+				return index < size();
+			}
+			
+			@Override
+			public long nextLong() {
+				if (!hasNext())
+					throw new NoSuchElementException();
+				
+				return get(index++);
+			}
+		};
+	}
+	
+	/* HANDLERS */
+	
+	@FunctionalInterface
+	public interface AddHandler {
+		void onElementAdded(int index, long element);
+	}
+	
+	@FunctionalInterface
+	public interface GetHandler {
+		void onElementGotten(int index, long element);
+	}
+	
+	@FunctionalInterface
+	public interface SetHandler {
+		void onElementSet(int index, long element);
+	}
+	
+	@FunctionalInterface
+	public interface RemoveHandler {
+		void onElementRemoved(int index, long element);
+	}
+	
+	/* GETTERS & SETTERS */
+	
+	@NotNull
+	public ArrayList<AddHandler> getAddHandlers() {
+		if (addHandlers == null)
+			addHandlers = new HandlerList<>();
+		
+		return addHandlers;
+	}
+	
+	/**
+	 * Set the list of add handlers. If {@code addHandlers} does not come from {@link #getAddHandlers()}, it is copied.
+	 * @param addHandlers The new list of handlers.
+	 */
+	public void setAddHandlers(@NotNull ArrayList<AddHandler> addHandlers) {
+		if (addHandlers == null)
+			throw new NullPointerException();
+		
+		this.addHandlers = HandlerList.of(addHandlers);
+	}
+	
+	public boolean addAddHandler(@NotNull AddHandler addHandler) {
+		if (addHandler == null)
+			throw new NullPointerException();
+		
+		return getAddHandlers().add(addHandler);
+	}
+	
+	protected void triggerAddHandlers(int index, long element) {
+		// Fast path: most lexicons have no handler at all
+		if (addHandlers.isEmpty())
+			return;
+		
+		for (Object handler : addHandlers.snapshot())
+			((AddHandler) handler).onElementAdded(index, element);
+	}
+	
+	@NotNull
+	public ArrayList<GetHandler> getGetHandlers() {
+		if (getHandlers == null)
+			getHandlers = new HandlerList<>();
+		
+		return getHandlers;
+	}
+	
+	/**
+	 * Set the list of get handlers. If {@code getHandlers} does not come from {@link #getGetHandlers()}, it is copied.
+	 * @param getHandlers The new list of handlers.
+	 */
+	public void setGetHandlers(@NotNull ArrayList<GetHandler> getHandlers) {
+		if (getHandlers == null)
+			throw new NullPointerException();
+		
+		this.getHandlers = HandlerList.of(getHandlers);
+	}
+	
+	public boolean addGetHandler(@NotNull GetHandler getHandler) {
+		if (getHandler == null)
+			throw new NullPointerException();
+		
+		return getGetHandlers().add(getHandler);
+	}
+	
+	protected void triggerGetHandlers(int index, long element) {
+		// Fast path: most lexicons have no handler at all
+		if (getHandlers.isEmpty())
+			return;
+		
+		for (Object handler : getHandlers.snapshot())
+			((GetHandler) handler).onElementGotten(index, element);
+	}
+	
+	@NotNull
+	public ArrayList<SetHandler> getSetHandlers() {
+		if (setHandlers == null)
+			setHandlers = new HandlerList<>();
+		
+		return setHandlers;
+	}
+	
+	/**
+	 * Set the list of set handlers. If {@code setHandlers} does not come from {@link #getSetHandlers()}, it is copied.
+	 * @param setHandlers The new list of handlers.
+	 */
+	public void setSetHandlers(@NotNull ArrayList<SetHandler> setHandlers) {
+		if (setHandlers == null)
+			throw new NullPointerException();
+		
+		this.setHandlers = HandlerList.of(setHandlers);
+	}
+	
+	public boolean addSetHandler(@NotNull SetHandler setHandler) {
+		if (setHandler == null)
+			throw new NullPointerException();
+		
+		return getSetHandlers().add(setHandler);
+	}
+	
+	protected void triggerSetHandlers(int index, long element) {
+		// Fast path: most lexicons have no handler at all
+		if (setHandlers.isEmpty())
+			return;
+		
+		for (Object handler : setHandlers.snapshot())
+			((SetHandler) handler).onElementSet(index, element);
+	}
+	
+	@NotNull
+	public ArrayList<RemoveHandler> getRemoveHandlers() {
+		if (removeHandlers == null)
+			removeHandlers = new HandlerList<>();
+		
+		return removeHandlers;
+	}
+	
+	/**
+	 * Set the list of remove handlers. If {@code removeHandlers} does not come from {@link #getRemoveHandlers()}, it is copied.
+	 * @param removeHandlers The new list of handlers.
+	 */
+	public void setRemoveHandlers(@NotNull ArrayList<RemoveHandler> removeHandlers) {
+		if (removeHandlers == null)
+			throw new NullPointerException();
+		
+		this.removeHandlers = HandlerList.of(removeHandlers);
+	}
+	
+	public boolean addRemoveHandler(@NotNull RemoveHandler removeHandler) {
+		if (removeHandler == null)
+			throw new NullPointerException();
+		
+		return getRemoveHandlers().add(removeHandler);
+	}
+	
+	protected void triggerRemoveHandlers(int index, long element) {
+		// Fast path: most lexicons have no handler at all
+		if (removeHandlers.isEmpty())
+			return;
+		
+		for (Object handler : removeHandlers.snapshot())
+			((RemoveHandler) handler).onElementRemoved(index, element);
+	}
+	
+	/**
+	 * The value which plays the role of {@code null} in this lexicon.
+	 * @return The null-equivalent value.
+	 * @see #setAcceptNullValues(boolean)
+	 */
+	public long getNullEquivalent() {
+		return nullEquivalent;
+	}
+	
+	public void setNullEquivalent(long nullEquivalent) {
+		this.nullEquivalent = nullEquivalent;
+		
+		if (!isAcceptNullValues())
+			deleteNullElement();
+	}
+	
+	/* OVERRIDES */
+	
+	@Override
+	public boolean equals(Object o) {
+		if (this == o) return true;
+		if (!(o instanceof LongLexicon)) return false;
+		LongLexicon that = (LongLexicon) o;
+		
+		if (this.size() != that.size())
+			return false;
+		
+		for (int i = 0, size = this.size(); i < size; i++)
+			if (!equal(this.array[i], that.array[i]))
+				return false;
+		
+		return true;
+	}
+	
+	@Override
+	public int hashCode() {
+		int result = 1;
+		for (int i = 0; i < size(); i++)
+			result = 31 * result + Long.hashCode(array[i]);
+		
+		return result;
+	}
+	
+	@Override
+	public String toString() {
+		StringBuilder builder = new StringBuilder();
+		builder.append('[');
+		
+		for (int i = 0; i < size(); i++) {
+			builder.append(array[i]);
+			
+			if (i != size() - 1)
+				builder.append(", ");
+		}
+		builder.append(']');
+		
+		return builder.toString();
+	}
+}
@@ -0,0 +1,232 @@
+package fr.berger.enhancedlist.lexicon.primitive;
+
+import fr.berger.beyondcode.util.EnhancedObservable;
+import fr.berger.enhancedlist.ListUtil;
+import fr.berger.enhancedlist.lexicon.GrowthPolicy;
+import org.jetbrains.annotations.NotNull;
+
+import java.io.Serializable;
+import java.util.Observer;
+
+/**
+ * Base class of the Lexicon variants backed by a primitive array ({@link IntLexicon}, {@link LongLexicon} and
+ * {@link DoubleLexicon}). It holds everything which does not depend on the type of the elements: the size, the growth
+ * of the array and the rules of the lexicon. The subclasses never box their elements, except to notify the observers
+ * (and only if there is at least one observer).
+ * <p>
+ * As a primitive cannot be {@code null}, each subclass has a "null-equivalent" value which is refused when
+ * {@code acceptNullValues} is {@code false}.
+ * </p>
+ * @author Valentin Berger
+ */
+@SuppressWarnings("WeakerAccess")
+public abstract class PrimitiveLexicon extends EnhancedObservable implements Serializable, Cloneable {
+	
+	private static final long serialVersionUID = 3086512794163308723L;
+	
+	private boolean acceptDuplicates;
+	private boolean acceptNullValues;
+	private boolean synchronizedAccess;
+	@NotNull
+	private GrowthPolicy growthPolicy;
+	
+	protected int actualSize;
+	
+	/**
+	 * Number of observers, kept up to date by {@link #addObserver(Observer)} and {@link #deleteObserver(Observer)}, so
+	 * that the subclasses can check it without taking the monitor of {@link #countObservers()}.
+	 */
+	private transient volatile int observerCount;
+	
+	/* CONSTRUCTORS */
+	
+	protected PrimitiveLexicon() {
+		this.actualSize = 0;
+		this.acceptDuplicates = true;
+		this.acceptNullValues = true;
+		this.synchronizedAccess = false;
+		this.growthPolicy = GrowthPolicy.doubling();
+	}
+	
+	/* CAPACITY METHODS */
+	
+	/**
+	 * The length of the backing array.
+	 * @return The capacity of the lexicon.
+	 */
+	public abstract int capacity();
+	
+	/**
+	 * Reallocate the backing array with exactly {@code newCapacity} cells.
+	 * @param newCapacity The new length of the array. It is always greater or equal to {@link #size()}.
+	 */
+	protected abstract void resize(int newCapacity);
+	
+	/**
+	 * Make sure that the backing array can contain at least {@code minCapacity} elements, growing it according to the
+	 * growth policy if it cannot.
+	 * @param minCapacity The minimum capacity required.
+	 */
+	protected void checkCapacity(int minCapacity) {
+		int capacity = capacity();
+		
+		if (minCapacity > capacity)
+			resize(GrowthPolicy.computeCapacity(getGrowthPolicy(), capacity, minCapacity));
+	}
+	
+	/**
+	 * Increase the capacity of the lexicon, if necessary, to ensure that it can hold at least {@code minCapacity}
+	 * elements without growing again.
+	 * @param minCapacity The desired minimum capacity.
+	 * @return The capacity after the operation.
+	 */
+	@SuppressWarnings("UnusedReturnValue")
+	public int ensureCapacity(int minCapacity) {
+		if (minCapacity < 0)
+			throw new IllegalArgumentException("minCapacity must be positive.");
+		
+		if (minCapacity > capacity())
+			resize(minCapacity);
+		
+		return capacity();
+	}
+	
+	@SuppressWarnings("UnusedReturnValue")
+	public int trimToSize() {
+		if (size() < capacity())
+			resize(size());
+		
+		return capacity();
+	}
+	
+	/* BASIC LIST METHODS */
+	
+	public void checkIndex(int index) {
+		ListUtil.checkIndexException(index, size());
+	}
+	
+	public int size() {
+		return actualSize;
+	}
+	
+	public boolean isEmpty() {
+		return size() == 0;
+	}
+	
+	public void clear() {
+		actualSize = 0;
+		
+		if (isObserved())
+			snap();
+	}
+	
+	/**
+	 * The key of the element at {@code index} in a {@link LongHashSet}. Two elements are equal if and only if their
+	 * keys are equal.
+	 * @param index The index of the element. It is not checked.
+	 * @return The key of the element.
+	 */
+	protected abstract long keyAt(int index);
+	
+	/**
+	 * Put the keys of all the elements in a new set, to look for the elements in constant time.
+	 * @param expectedSize The number of keys the set must be able to hold without growing.
+	 * @return The keys of the elements.
+	 * @see #keyAt(int)
+	 */
+	@NotNull
+	protected LongHashSet keys(int expectedSize) {
+		LongHashSet keys = new LongHashSet(expectedSize);
+		for (int i = 0; i < size(); i++)
+			keys.add(keyAt(i));
+		
+		return keys;
+	}
+	
+	/**
+	 * Delete all the duplicated elements, keeping only the first occurrence of each one.
+	 */
+	public abstract void deleteDuplications();
+	
+	/**
+	 * Delete all the elements equal to the null-equivalent value.
+	 */
+	public abstract void deleteNullElement();
+	
+	/* GETTERS & SETTERS */
+	
+	public boolean isAcceptDuplicates() {
+		return acceptDuplicates;
+	}
+	
+	public void setAcceptDuplicates(boolean acceptDuplicates) {
+		this.acceptDuplicates = acceptDuplicates;
+		
+		if (!this.acceptDuplicates)
+			deleteDuplications();
+	}
+	
+	public boolean isAcceptNullValues() {
+		return acceptNullValues;
+	}
+	
+	public void setAcceptNullValues(boolean acceptNullValues) {
+		this.acceptNullValues = acceptNullValues;
+		
+		if (!this.acceptNullValues)
+			deleteNullElement();
+	}
+	
+	public boolean isSynchronizedAccess() {
+		return synchronizedAccess;
+	}
+	
+	public void setSynchronizedAccess(boolean synchronizedAccess) {
+		this.synchronizedAccess = synchronizedAccess;
+	}
+	
+	@NotNull
+	public GrowthPolicy getGrowthPolicy() {
+		if (growthPolicy == null)
+			growthPolicy = GrowthPolicy.doubling();
+		
+		return growthPolicy;
+	}
+	
+	@SuppressWarnings("ConstantConditions")
+	public void setGrowthPolicy(@NotNull GrowthPolicy growthPolicy) {
+		if (growthPolicy == null)
+			throw new NullPointerException();
+		
+		this.growthPolicy = growthPolicy;
+	}
+	
+	/* OBSERVERS */
+	
+	@Override
+	public synchronized void addObserver(Observer o) {
+		super.addObserver(o);
+		observerCount = countObservers();
+	}
+	
+	@Override
+	public synchronized void deleteObserver(Observer o) {
+		super.deleteObserver(o);
+		observerCount = countObservers();
+	}
+	
+	@Override
+	public synchronized void deleteObservers() {
+		super.deleteObservers();
+		observerCount = 0;
+	}
+	
+	/**
+	 * Tell if at least one observer has to be notified. The subclasses test it before calling {@code snap(...)}, so
+	 * the elements are only boxed when someone listens to them.
+	 * @return {@code true} if the lexicon has at least one observer.
+	 */
+	protected boolean isObserved() {
+		return observerCount > 0;
+	}
+}
@@ -0,0 +1,192 @@
+package fr.berger.enhancedlist.graph;
+
+import fr.berger.enhancedlist.Couple;
+import fr.berger.enhancedlist.algorithm.ColorInterface;
+import fr.berger.enhancedlist.algorithm.DSATUR;
+import fr.berger.enhancedlist.algorithm.Dijkstra;
+import fr.berger.enhancedlist.algorithm.Greedy;
+import fr.berger.enhancedlist.algorithm.WelshPowell;
+import fr.berger.enhancedlist.graph.builder.VertexBuilder;
+import fr.berger.enhancedlist.lexicon.Lexicon;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class FrozenGraphTest {
+	
+	Vertex<String> a, b, c, d, outside;
+	Edge<Integer> ab, ac, bc, ca, dd, aOutside;
+	Graph<String, Integer> graph;
+	
+	@BeforeEach
+	void setup() {
+		a = new VertexBuilder<String>().setLabel("a").createVertex();
+		b = new VertexBuilder<String>().setLabel("b").createVertex();
+		c = new VertexBuilder<String>().setLabel("c").createVertex();
+		d = new VertexBuilder<String>().setLabel("d").createVertex();
+		outside = new VertexBuilder<String>().setLabel("outside").createVertex();
+		
+		ab = new Edge<>(1, a, b);
+		ac = new Edge<>(2, a, c);
+		bc = new Edge<>(3, b, c);
+		ca = new Edge<>(4, c, a);
+		dd = new Edge<>(5, d, d);
+		aOutside = new Edge<>(6, a, outside);
+		
+		graph = new Graph<>(true, new Lexicon<>(a, b, c, d), new Lexicon<>(ab, ac, bc, ca, dd, aOutside));
+	}
+	
+	@Test
+	void test_freeze() {
+		FrozenGraph<String, Integer> frozen = graph.freeze();
+		
+		// The edge to a vertex that is not in the graph is ignored
+		assertEquals(4, frozen.getN());
+		assertEquals(5, frozen.getM());
+		assertTrue(frozen.isOriented());
+		
+		assertEquals(0, frozen.indexOf(a));
+		assertEquals(3, frozen.indexOf(d.getId()));
+		assertEquals(-1, frozen.indexOf(outside));
+		assertSame(c, frozen.getVertex(2));
+		
+		assertArrayEquals(new int[] {1, 2}, frozen.getSuccessors(0));
+		assertArrayEquals(new int[] {2}, frozen.getPredecessors(0));
+		assertArrayEquals(new int[] {1, 2, 2}, frozen.getNeighbors(0));
+		assertArrayEquals(new int[] {0, 1}, frozen.getPredecessors(2));
+		assertArrayEquals(new int[] {3}, frozen.getSuccessors(3));
+		
+		// The graph also counts the edge (a, outside) in the degree of a
+		for (int v = 1; v < frozen.getN(); v++) {
+			assertEquals(graph.getSuccessors(frozen.getVertex(v)).size(), frozen.getOutDegree(v));
+			assertEquals(graph.getInDegree(frozen.getVertex(v)), frozen.getInDegree(v));
+			assertEquals(graph.getDegree(frozen.getVertex(v)), frozen.getDegree(v));
+		}
+		
+		// The slots of a vertex are contiguous
+		assertEquals(0, frozen.getOffset(0));
+		assertEquals(2, frozen.getOffset(1));
+		assertEquals(5, frozen.getOffset(4));
+		assertEquals(2, frozen.getTarget(2));
+		
+		assertArrayEquals(new int[] {0, 2, 1, 3}, frozen.sortVerticesByDegree(true));
+		assertArrayEquals(new int[] {1, 3, 0, 2}, frozen.sortVerticesByDegree(false));
+		
+		int[] shuffled = frozen.shuffleVertices();
+		Arrays.sort(shuffled);
+		assertArrayEquals(new int[] {0, 1, 2, 3}, shuffled);
+	}
+	
+	@Test
+	void test_freezeDataAndColors() {
+		a.setColor(new Color(2));
+		bc.setColor(new Color(1));
+		
+		FrozenGraph<String, Integer> frozen = graph.freeze(true, true);
+		assertTrue(frozen.hasEdgeData());
+		assertTrue(frozen.hasColors());
+		
+		// Slot 2 is the edge (b, c)
+		assertEquals(3, (int) frozen.getEdgeData(2));
+		assertEquals(1, frozen.getEdgeColor(2));
+		assertEquals(FrozenGraph.NO_COLOR, frozen.getEdgeColor(0));
+		assertEquals(2, frozen.getVertexColor(0));
+		assertEquals(FrozenGraph.NO_COLOR, frozen.getVertexColor(1));
+		
+		FrozenGraph<String, Integer> bare = graph.freeze();
+		assertFalse(bare.hasEdgeData());
+		assertThrows(IllegalStateException.class, () -> bare.getEdgeData(0));
+		assertThrows(IllegalStateException.class, () -> bare.getVertexColor(0));
+	}
+	
+	@Test
+	void test_snapshot() {
+		FrozenGraph<String, Integer> frozen = graph.freeze();
+		
+		graph.getEdges().remove(ab);
+		graph.getVertices().add(outside);
+		
+		assertEquals(4, frozen.getN());
+		assertArrayEquals(new int[] {1, 2}, frozen.getSuccessors(0));
+		assertEquals(5, graph.freeze().getM());
+	}
+	
+	@Test
+	void test_traversals() {
+		Graph<Object, Object> queen = GraphIO.read("res/queen5_5.txt");
+		FrozenGraph<Object, Object> frozen = queen.freeze();
+		Vertex<Object> first = queen.getVertices().first();
+		
+		LinkedHashMap<Vertex<Object>, Integer> expected = queen.breadthFirstSearch(first);
+		int[] route = frozen.breadthFirstSearch(frozen.indexOf(first));
+		for (int v = 0; v < frozen.getN(); v++)
+			assertEquals(expected.get(frozen.getVertex(v)).intValue(), route[v]);
+		
+		FrozenGraph<String, Integer> small = graph.freeze();
+		assertArrayEquals(new int[] {1, 2, 3, 0}, small.breadthFirstSearch(0));
+		// b, then c are finished before a, which is the beginning
+		assertArrayEquals(new int[] {3, 2, 1, 0}, small.depthFirstSearch(0));
+		assertArrayEquals(new int[] {0, 0, 0, 1}, small.depthFirstSearch(3));
+	}
+	
+	@Test
+	void test_Dijkstra() {
+		// Dijkstra.map(Graph) needs all the edges to be between vertices of the graph
+		graph.getEdges().remove(aOutside);
+		FrozenGraph<String, Integer> frozen = graph.freeze();
+		
+		for (boolean regardingOrientation : new boolean[] {true, false}) {
+			Couple<LinkedHashMap<Vertex<String>, Long>, LinkedHashMap<Vertex<String>, Vertex<String>>> expected = Dijkstra.map(graph, b, regardingOrientation);
+			Couple<long[], int[]> map = Dijkstra.map(frozen, frozen.indexOf(b), regardingOrientation);
+			
+			for (int v = 0; v < frozen.getN(); v++)
+				assertEquals(expected.getX().get(frozen.getVertex(v)).longValue(), map.getX()[v]);
+		}
+		
+		assertArrayEquals(new long[] {2, 0, 1, Long.MAX_VALUE}, frozen.mapDistanceFrom(1));
+		assertArrayEquals(new int[] {1, 2, 0}, Dijkstra.getPath(frozen, 1, 0));
+		assertArrayEquals(new int[] {1, 0}, Dijkstra.getPath(frozen, 1, 0, false));
+		assertArrayEquals(new int[] {3}, Dijkstra.getPath(frozen, 3, 3));
+		assertNull(Dijkstra.getPath(frozen, 0, 3));
+	}
+	
+	@Test
+	void test_coloring() {
+		Graph<Object, Object> queen = GraphIO.read("res/queen7_7.txt");
+		FrozenGraph<Object, Object> frozen = queen.freeze();
+		
+		ColorInterface[] algorithms = new ColorInterface[] {
+				new WelshPowell.WelshPowellAscending(),
+				new WelshPowell.WelshPowellDescending(),
+				new WelshPowell.WelshPowellRandom(),
+				new Greedy.GreedyAscending(),
+				new Greedy.GreedyDescending(),
+				new Greedy.GreedyRandom(),
+				new DSATUR(),
+		};
+		
+		for (ColorInterface algorithm : algorithms) {
+			long[] colors = algorithm.mapVertices(frozen);
+			
+			// All the vertices are colored, and two adjacent vertices do not have the same color
+			for (int v = 0; v < frozen.getN(); v++) {
+				assertTrue(colors[v] >= 1, algorithm.toString());
+				for (int successor : frozen.getSuccessors(v))
+					assertTrue(successor == v || colors[successor] != colors[v], algorithm.toString());
+			}
+		}
+		
+		// Without randomness, the colors are the same as on the graph
+		for (ColorInterface algorithm : new ColorInterface[] {new Greedy.GreedyDescending(), new DSATUR()}) {
+			LinkedHashMap<Vertex<Object>, Color> expected = algorithm.mapVertices(queen);
+			long[] colors = algorithm.mapVertices(frozen);
+			
+			for (int v = 0; v < frozen.getN(); v++)
+				assertEquals(expected.get(frozen.getVertex(v)).getColorNumber(), colors[v], algorithm.toString());
+		}
+	}
+}
@@ -15,6 +15,7 @@ import sun.reflect.generics.reflectiveObjects.NotImplementedException;
 
 import java.util.LinkedHashMap;
 import java.util.Map;
+import java.util.UUID;
 import java.util.Vector;
 import java.util.function.Function;
 
@@ -536,6 +537,86 @@ class GraphTest {
 		assertEquals(4, g1.getDegree(v14));
 	}
 	
+	@Test
+	void test_adjacencyIndex() {
+		Vertex<Object> a = new VertexBuilder<>().setLabel("a").createVertex();
+		Vertex<Object> b = new VertexBuilder<>().setLabel("b").createVertex();
+		Vertex<Object> c = new VertexBuilder<>().setLabel("c").createVertex();
+		Graph<Object, Object> graph = new Graph<>(true);
+		graph.getVertices().addAll(a, b);
+		Edge<Object> ab = new Edge<>(a, b);
+		graph.getEdges().add(ab);
+		assertEquals(new Lexicon<>(b), graph.getSuccessors(a));
+		assertFalse(graph.containsVertex(c));
+		assertThrows(IllegalArgumentException.class, () -> graph.getSuccessors(c));
+		
+		// The index follows the modifications of the lexicons once it is built
+		graph.getVertices().add(c);
+		Edge<Object> ac = new Edge<>(a, c);
+		graph.getEdges().add(ac);
+		assertEquals(new Lexicon<>(b, c), graph.getSuccessors(a));
+		assertEquals(new Lexicon<>(a), graph.getPredecessors(c));
+		
+		graph.getEdges().remove(ab);
+		assertEquals(new Lexicon<>(c), graph.getSuccessors(a));
+		assertEquals(0, graph.getInDegree(b));
+		
+		graph.getEdges().set(0, new Edge<>(b, c));
+		assertEquals(new Lexicon<>(), graph.getSuccessors(a));
+		assertEquals(1, graph.getOutDegree(b));
+		
+		// ... and of the vertices and edges it contains
+		graph.getEdges().get(0).setY(a);
+		assertEquals(new Lexicon<>(b), graph.getPredecessors(a));
+		
+		graph.resetVerticesID();
+		assertTrue(graph.containsVertex(b));
+		assertEquals(new Lexicon<>(a), graph.getSuccessors(b));
+		
+		graph.getVertices().remove(c);
+		assertFalse(graph.containsVertex(c));
+		
+		// A replaced lexicon is not observed anymore
+		Lexicon<Edge<Object>> edges = graph.getEdges();
+		int lexiconObservers = edges.countObservers();
+		graph.setEdges(new Lexicon<>());
+		assertEquals(lexiconObservers - 1, edges.countObservers());
+		assertEquals(0, graph.getOutDegree(b));
+	}
+	
+	@Test
+	void test_indexObservers() {
+		Graph<Object, Object> path = new Graph<>(false);
+		for (int i = 0; i < 30; i++)
+			path.getVertices().add(new VertexBuilder<>().setLabel("v" + i).createVertex());
+		for (int i = 0; i + 1 < 30; i++)
+			path.getEdges().add(new Edge<>(path.getVertices().get(i), path.getVertices().get(i + 1)));
+		
+		Vertex<Object> first = path.getVertices().get(0);
+		Edge<Object> edge = path.getEdges().get(0);
+		int vertexObservers = first.countObservers();
+		int edgeObservers = edge.countObservers();
+		int verticesObservers = path.getVertices().countObservers();
+		int edgesObservers = path.getEdges().countObservers();
+		
+		// The temporary graphs share the vertices and the edges of the path, but must not stay registered on them
+		assertEquals(28, path.getArticulationPoints().size());
+		path.getBridges();
+		path.getSymmetry().getDegree(first);
+		assertEquals(vertexObservers, first.countObservers());
+		assertEquals(edgeObservers, edge.countObservers());
+		assertEquals(verticesObservers, path.getVertices().countObservers());
+		assertEquals(edgesObservers, path.getEdges().countObservers());
+		
+		// Without observers, a graph sharing an edge still sees its new endpoints
+		Graph<Object, Object> other = new Graph<>(false, new Lexicon<>(path.getVertices()), new Lexicon<>(edge));
+		assertEquals(1, other.getDegree(first));
+		edge.setX(path.getVertices().get(2));
+		assertEquals(0, other.getDegree(first));
+		assertEquals(0, path.getDegree(first));
+		assertEquals(3, path.getDegree(path.getVertices().get(2)));
+	}
+	
 	@SuppressWarnings("Duplicates")
 	@Test
 	void test_searchVertexFromId() {
@@ -546,6 +627,19 @@ class GraphTest {
 		assertEquals(v2a, g2.searchVertexFromId(v2a.getId()));
 		assertEquals(v2b, g2.searchVertexFromId(v2b.getId()));
 		assertNull(g1.searchVertexFromId(v2c.getId()));
+		
+		assertEquals(v11, g1.searchVertexFromId(v11.getId().toString()));
+		assertNull(g1.searchVertexFromId(v11.getId().toString().toUpperCase()));
+		assertNull(g1.searchVertexFromId("v11"));
+		
+		Vertex<Object> v = new VertexBuilder<>().setLabel("v").createVertex();
+		Graph<Object, Object> graph = new Graph<>();
+		graph.getVertices().add(v);
+		assertEquals(v, graph.searchVertexFromId(v.getId()));
+		UUID old = v.getId();
+		v.setId(UUID.randomUUID());
+		assertNull(graph.searchVertexFromId(old));
+		assertEquals(v, graph.searchVertexFromId(v.getId()));
 	}
 	
 	@SuppressWarnings("Duplicates")
@@ -558,6 +652,22 @@ class GraphTest {
 		assertEquals(e21, g2.searchEdgeFromId(e21.getId()));
 		assertEquals(e22, g2.searchEdgeFromId(e22.getId()));
 		assertNull(g1.searchEdgeFromId(e23.getId()));
+		
+		assertEquals(e11, g1.searchEdgeFromId(e11.getId().toString()));
+		assertNull(g1.searchEdgeFromId("e11"));
+		
+		Vertex<Object> v = new VertexBuilder<>().setLabel("v").createVertex();
+		Graph<Object, Object> graph = new Graph<>();
+		graph.getVertices().add(v);
+		Edge<Object> e = new Edge<>(v, v);
+		graph.getEdges().add(e);
+		assertEquals(e, graph.searchEdgeFromId(e.getId()));
+		UUID old = e.getId();
+		e.setId(UUID.randomUUID());
+		assertNull(graph.searchEdgeFromId(old));
+		assertEquals(e, graph.searchEdgeFromId(e.getId()));
+		graph.getEdges().remove(e);
+		assertNull(graph.searchEdgeFromId(e.getId()));
 	}
 	
 	@Test
@@ -586,6 +696,39 @@ class GraphTest {
 		assertNull(g1.searchEdge(v14, v11));
 	}
 	
+	@Test
+	void test_searchAllEdges() {
+		Vertex<Object> a = new VertexBuilder<>().setLabel("a").createVertex();
+		Vertex<Object> b = new VertexBuilder<>().setLabel("b").createVertex();
+		Graph<Object, Object> graph = new Graph<>(true);
+		graph.getVertices().addAll(a, b);
+		Edge<Object> ab1 = new Edge<>(a, b);
+		Edge<Object> ba = new Edge<>(b, a);
+		Edge<Object> ab2 = new Edge<>(a, b);
+		graph.getEdges().addAll(ab1, ba, ab2);
+		
+		// The orientation is respected, and the edges are in the order of the graph
+		assertEquals(new Lexicon<>(ab1, ab2), graph.searchAllEdges(a, b));
+		assertEquals(new Lexicon<>(ba), graph.searchAllEdges(b, a));
+		assertEquals(new Lexicon<>(), graph.searchAllEdges(a, a));
+		assertEquals(ba, graph.searchEdge(b, a));
+		
+		graph.setOriented(false);
+		assertEquals(new Lexicon<>(ab1, ba, ab2), graph.searchAllEdges(b, a));
+		assertEquals(ab1, graph.searchEdge(b, a));
+		
+		// The index follows the modifications of the edges
+		graph.getEdges().remove(ab1);
+		assertEquals(ba, graph.searchEdge(a, b));
+		ba.setX(a);
+		assertFalse(graph.searchAllEdges(b, a).contains(ba));
+		assertEquals(ba, graph.searchEdge(a, a));
+		assertTrue(graph.areAdjacent(a, b));
+		graph.getEdges().remove(ab2);
+		assertFalse(graph.areAdjacent(a, b));
+		assertTrue(graph.areAdjacent(a, a));
+	}
+	
 	@Test
 	void areAdjacent() {
 		/* VERTICES */
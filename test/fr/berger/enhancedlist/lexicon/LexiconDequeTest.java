@@ -0,0 +1,113 @@
+package fr.berger.enhancedlist.lexicon;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.Random;
+
+class LexiconDequeTest {
+	
+	@Test
+	void test_queueAndStack() {
+		LexiconDeque<Integer> deque = new LexiconDeque<>();
+		
+		Assertions.assertNull(deque.pollFirst());
+		Assertions.assertNull(deque.peekLast());
+		Assertions.assertThrows(NoSuchElementException.class, deque::removeFirst);
+		Assertions.assertThrows(NullPointerException.class, () -> deque.offerLast(null));
+		
+		for (int i = 0; i < 100; i++)
+			deque.offerLast(i);
+		for (int i = 1; i <= 100; i++)
+			deque.offerFirst(-i);
+		
+		Assertions.assertEquals(200, deque.size());
+		Assertions.assertEquals(-100, (int) deque.getFirst());
+		Assertions.assertEquals(99, (int) deque.getLast());
+		Assertions.assertEquals(0, (int) deque.get(100));
+		
+		for (int i = -100; i < 0; i++)
+			Assertions.assertEquals(i, (int) deque.pollFirst());
+		for (int i = 99; i >= 50; i--)
+			Assertions.assertEquals(i, (int) deque.pollLast());
+		
+		deque.push(-1);
+		Assertions.assertEquals(-1, (int) deque.pop());
+		Assertions.assertEquals(Arrays.asList(0, 1, 2), deque.toLexicon().toList().subList(0, 3));
+	}
+	
+	@Test
+	void test_againstArrayDeque() {
+		LexiconDeque<Integer> deque = new LexiconDeque<>(4);
+		ArrayDeque<Integer> expected = new ArrayDeque<>();
+		Random random = new Random(7);
+		
+		for (int i = 0; i < 10_000; i++) {
+			switch (random.nextInt(6)) {
+				case 0: deque.offerFirst(i); expected.offerFirst(i); break;
+				case 1: deque.offerLast(i); expected.offerLast(i); break;
+				case 2: Assertions.assertEquals(expected.pollFirst(), deque.pollFirst()); break;
+				case 3: Assertions.assertEquals(expected.pollLast(), deque.pollLast()); break;
+				case 4: Assertions.assertEquals(expected.remove(i / 2), deque.remove(i / 2)); break;
+				default:
+					Iterator<Integer> it = deque.iterator();
+					Iterator<Integer> expectedIt = expected.iterator();
+					while (it.hasNext()) {
+						int value = it.next();
+						Assertions.assertEquals(expectedIt.next(), (Integer) value);
+						if (value % 7 == 0) {
+							it.remove();
+							expectedIt.remove();
+						}
+					}
+			}
+		}
+		
+		Assertions.assertArrayEquals(expected.toArray(), deque.toArray());
+		Assertions.assertEquals(new ArrayList<>(expected), deque.toLexicon().toList());
+	}
+	
+	@Test
+	void test_handlers() throws IOException, ClassNotFoundException {
+		LexiconDeque<String> deque = new LexiconDeque<>();
+		ArrayList<String> events = new ArrayList<>();
+		deque.addAddHandler((index, element) -> events.add("add " + index + " " + element));
+		deque.addRemoveHandler((index, element) -> events.add("remove " + index + " " + element));
+		deque.addGetHandler((index, element) -> events.add("get " + index + " " + element));
+		ArrayList<Object> observed = new ArrayList<>();
+		deque.addObserver((o, arg) -> observed.add(arg));
+		
+		deque.offerLast("b");
+		deque.offerFirst("a");
+		deque.offerLast("c");
+		deque.peekLast();
+		deque.pollFirst();
+		deque.pollLast();
+		deque.clear();
+		
+		Assertions.assertEquals(Arrays.asList("add 0 b", "add 0 a", "add 2 c", "get 2 c", "remove 0 a", "remove 1 c", "remove 0 b"), events);
+		Assertions.assertEquals(Arrays.asList("b", "a", "c", "a", "c", "b"), observed);
+		
+		// Serialization keeps the order of the elements, whatever the position of the head
+		deque.offerFirst("y");
+		deque.offerFirst("x");
+		deque.offerLast("z");
+		ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+		try (ObjectOutputStream output = new ObjectOutputStream(bytes)) {
+			output.writeObject(new LexiconDeque<>(deque));
+		}
+		try (ObjectInputStream input = new ObjectInputStream(new ByteArrayInputStream(bytes.toByteArray()))) {
+			Assertions.assertEquals(deque, input.readObject());
+		}
+	}
+}
@@ -4,9 +4,12 @@ import fr.berger.enhancedlist.Couple;
 import fr.berger.enhancedlist.ListUtil;
 import fr.berger.enhancedlist.exceptions.EmptyListException;
 import fr.berger.enhancedlist.lexicon.eventhandlers.AddHandler;
+import fr.berger.enhancedlist.lexicon.eventhandlers.BulkAddHandler;
+import fr.berger.enhancedlist.lexicon.eventhandlers.BulkRemoveHandler;
 import fr.berger.enhancedlist.lexicon.eventhandlers.GetHandler;
 import fr.berger.enhancedlist.lexicon.eventhandlers.RemoveHandler;
 import fr.berger.enhancedlist.lexicon.eventhandlers.SetHandler;
+import org.jetbrains.annotations.NotNull;
 import org.junit.jupiter.api.*;
 import org.junit.jupiter.api.function.Executable;
 import org.opentest4j.AssertionFailedError;
@@ -16,7 +19,11 @@ import java.io.*;
 import java.math.BigInteger;
 import java.time.Duration;
 import java.util.*;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.logging.Logger;
+import java.util.stream.Collectors;
 
 import static org.junit.jupiter.api.Assertions.*;
 
@@ -79,6 +86,14 @@ class LexiconTest implements Observer {
 		), new Lexicon<String>(
 				"Hello world!", "This is a test...", "Hello again!"
 		));
+		
+		// The spare capacity and the removed elements are not part of the hash code
+		Lexicon<Integer> large = new Lexicon<>(Integer.class, 100);
+		large.addAll(0, 1, 2, 3, 4, 5, 6, 7, 8, 9, 10, 11);
+		large.remove(11);
+		Assertions.assertEquals(ints, large);
+		Assertions.assertEquals(ints.hashCode(), large.hashCode());
+		Assertions.assertEquals(Arrays.asList(0, 1, 2, 3, 4, 5, 6, 7, 8, 9, 10).hashCode(), large.hashCode());
 	}
 	
 	@Test
@@ -380,6 +395,9 @@ class LexiconTest implements Observer {
 		System.out.println("test_duplicatedElement> ints.findDuplications() : " + ints.findDuplications().toString());
 		Assertions.assertEquals(new Couple<Integer, Integer>(0, 3), ints.findDuplications().get(0));
 		Assertions.assertEquals(new Couple<Integer, Integer>(1, 4), ints.findDuplications().get(1));
+		ArrayList<ArrayList<Integer>> groups = new ArrayList<>();
+		ints.streamDuplications().forEach(groups::add);
+		Assertions.assertEquals(Arrays.asList(Arrays.asList(0, 3), Arrays.asList(1, 4)), groups);
 		ints.deleteDuplications();
 		System.out.println("test_duplicatedElement> ints.deleteDuplications() : " + ints.toString());
 		
@@ -387,6 +405,118 @@ class LexiconTest implements Observer {
 		Assertions.assertEquals(4, ints.size());
 	}
 	
+	@Test
+	void test_duplicatedElementGroups() {
+		Lexicon<Integer> ints = new Lexicon<>(Integer.class);
+		ArrayList<Integer> removedIndexes = new ArrayList<>();
+		ints.addRemoveHandler((index, element) -> removedIndexes.add(index));
+		
+		// Three groups: 7 at (0, 2, 5), 8 at (1, 4), 9 at (3)
+		ints.addAll(7, 8, 7, 9, 8, 7);
+		
+		ArrayList<Couple<Integer, Integer>> pairs = ints.findDuplications();
+		Assertions.assertEquals(Arrays.asList(
+				new Couple<>(0, 2), new Couple<>(0, 5), new Couple<>(1, 4), new Couple<>(2, 5)
+		), pairs);
+		
+		ArrayList<ArrayList<Integer>> groups = new ArrayList<>();
+		ints.streamDuplications().forEach(groups::add);
+		Assertions.assertEquals(Arrays.asList(Arrays.asList(0, 2, 5), Arrays.asList(1, 4)), groups);
+		
+		// The remove handlers receive the indexes as if the elements were removed one by one
+		ints.setAcceptDuplicates(false);
+		Assertions.assertEquals(new Lexicon<>(7, 8, 9), ints);
+		Assertions.assertEquals(Arrays.asList(2, 3, 3), removedIndexes);
+		Assertions.assertFalse(ints.isThereDuplicates());
+		Assertions.assertEquals(0, ints.streamDuplications().count());
+		
+		// The duplicates are found and removed under the lock of the lexicon, which is reentrant
+		for (ConcurrencyMode mode : ConcurrencyMode.values()) {
+			Lexicon<Integer> locked = new LexiconBuilder<Integer>()
+					.setConcurrencyMode(mode)
+					.addAll(7, 8, 7, 9, 8, 7)
+					.createLexicon();
+			locked.deleteDuplications();
+			Assertions.assertEquals(new Lexicon<>(7, 8, 9), locked, mode.name());
+		}
+		
+		// A large list must be handled in linear time
+		Lexicon<Integer> large = new Lexicon<>(Integer.class, 200_000);
+		for (int i = 0; i < 200_000; i++)
+			large.add(i % 1000);
+		
+		Assertions.assertTimeout(Duration.ofSeconds(5), () -> large.setAcceptDuplicates(false));
+		Assertions.assertEquals(1000, large.size());
+		for (int i = 0; i < large.size(); i++)
+			Assertions.assertEquals(i, large.get(i).intValue());
+	}
+	
+	@Test
+	void test_hashIndex() {
+		Lexicon<String> indexed = new LexiconBuilder<>(String.class)
+				.setAcceptDuplicates(false)
+				.setHashIndexed(true)
+				.createLexicon();
+		Lexicon<String> scanned = new LexiconBuilder<>(String.class)
+				.setAcceptDuplicates(false)
+				.createLexicon();
+		
+		Assertions.assertTrue(indexed.isHashIndexed());
+		Assertions.assertFalse(scanned.isHashIndexed());
+		
+		for (int i = 0; i < 1000; i++) {
+			Assertions.assertTrue(indexed.add("e" + i));
+			Assertions.assertTrue(scanned.add("e" + i));
+		}
+		
+		// Duplicates are still refused
+		Assertions.assertFalse(indexed.add("e42"));
+		Assertions.assertNull(indexed.set(3, "e42"));
+		Assertions.assertEquals(1000, indexed.size());
+		System.out.println("LexiconTest.test_hashIndex> memory footprint: " + indexed.getHashIndexMemoryFootprint() + " bytes");
+		Assertions.assertTrue(indexed.getHashIndexMemoryFootprint() > 0);
+		Assertions.assertEquals(0, scanned.getHashIndexMemoryFootprint());
+		
+		// Mutate both lists the same way, the index must stay in sync with the array
+		indexed.remove(0);
+		scanned.remove(0);
+		indexed.remove("e500");
+		scanned.remove("e500");
+		indexed.set(10, "x");
+		scanned.set(10, "x");
+		indexed.swap(1, 900);
+		scanned.swap(1, 900);
+		indexed.insertAll(5, "y", "z");
+		scanned.insertAll(5, "y", "z");
+		indexed.shift(20, 1, "w");
+		scanned.shift(20, 1, "w");
+		Assertions.assertEquals(scanned, indexed);
+		
+		for (int i = 0; i < scanned.size(); i++) {
+			Assertions.assertTrue(indexed.contains(scanned.get(i)));
+			Assertions.assertEquals(scanned.search(scanned.get(i)), indexed.search(scanned.get(i)));
+		}
+		Assertions.assertFalse(indexed.contains("e0"));
+		Assertions.assertFalse(indexed.contains("e500"));
+		Assertions.assertTrue(indexed.search("e500").isEmpty());
+		
+		indexed.sort(Comparator.naturalOrder());
+		scanned.sort(Comparator.naturalOrder());
+		Assertions.assertEquals(scanned.search("x"), indexed.search("x"));
+		
+		// Relaxing the duplicates-rule disables the index
+		indexed.setAcceptDuplicates(true);
+		Assertions.assertTrue(indexed.add("x"));
+		Assertions.assertEquals(2, indexed.search("x").size());
+		indexed.setAcceptDuplicates(false);
+		Assertions.assertEquals(1, indexed.search("x").size());
+		
+		indexed.clear();
+		Assertions.assertFalse(indexed.contains("x"));
+		Assertions.assertTrue(indexed.add("x"));
+		Assertions.assertTrue(indexed.contains("x"));
+	}
+	
 	@Test
 	void test_remove() {
 		System.out.println("LexiconTest.test_remove> Delete by index");
@@ -428,6 +558,75 @@ class LexiconTest implements Observer {
 			Assertions.assertEquals(i, ints.get(i).intValue());
 	}
 	
+	@Test
+	void test_bulkRemove() {
+		ArrayList<Integer> indexes = new ArrayList<>();
+		ArrayList<Integer> elements = new ArrayList<>();
+		ints.addRemoveHandler((index, element) -> {
+			indexes.add(index);
+			elements.add(element);
+		});
+		ints.addObserver(this);
+		
+		// Per-element notifications, in ascending order, as if the elements were removed one by one
+		Assertions.assertTrue(ints.removeIf(i -> i % 2 == 0));
+		System.out.println("LexiconTest.test_bulkRemove> ints: " + ints.toString());
+		Assertions.assertEquals(new Lexicon<>(1, 3, 5, 7, 9), ints);
+		Assertions.assertEquals(Arrays.asList(0, 1, 2, 3, 4, 5), indexes);
+		Assertions.assertEquals(Arrays.asList(0, 2, 4, 6, 8, 10), elements);
+		Assertions.assertEquals(6, update);
+		Assertions.assertFalse(ints.removeIf(i -> i > 100));
+		
+		// removeAll removes every occurrence, with a hashed lookup for large collections
+		ints.addAll(1, 3, 1);
+		ArrayList<Integer> toRemove = new ArrayList<>();
+		for (int i = 0; i < 20; i += 2)
+			toRemove.add(i + 1);
+		Assertions.assertTrue(ints.removeAll(toRemove));
+		Assertions.assertTrue(ints.isEmpty());
+		
+		// Batch notifications
+		BulkRemoveCounter counter = new BulkRemoveCounter();
+		Lexicon<Integer> batch = new LexiconBuilder<>(Integer.class)
+				.setBatchRemoveEvents(true)
+				.addRemoveHandlers(counter)
+				.addAll(0, null, 2, null, 4, 5)
+				.createLexicon();
+		
+		update = 0;
+		batch.addObserver(this);
+		batch.deleteNullElement();
+		Assertions.assertEquals(new Lexicon<>(0, 2, 4, 5), batch);
+		Assertions.assertEquals(1, counter.calls);
+		Assertions.assertArrayEquals(new int[] { 1, 3 }, counter.indexes);
+		Assertions.assertEquals(Arrays.asList(null, null), counter.elements);
+		Assertions.assertEquals(1, update);
+		
+		batch.retainAll(Arrays.asList(4, 5));
+		Assertions.assertEquals(new Lexicon<>(4, 5), batch);
+		Assertions.assertEquals(2, counter.calls);
+		Assertions.assertArrayEquals(new int[] { 0, 1 }, counter.indexes);
+		Assertions.assertEquals(Arrays.asList(0, 2), counter.elements);
+		
+		// Removing nothing does not change the lexicon, retaining nothing clears it
+		Assertions.assertFalse(batch.removeAll(Collections.emptyList()));
+		Assertions.assertEquals(new Lexicon<>(4, 5), batch);
+		Assertions.assertTrue(batch.retainAll(Collections.emptyList()));
+		Assertions.assertTrue(batch.isEmpty());
+		Assertions.assertEquals(Arrays.asList(4, 5), counter.elements);
+		Assertions.assertFalse(batch.retainAll(Collections.emptyList()));
+		
+		// A large filter must be handled in linear time
+		Lexicon<Integer> large = new Lexicon<>(Integer.class, 200_000);
+		for (int i = 0; i < 200_000; i++)
+			large.add(i);
+		
+		Assertions.assertTimeout(Duration.ofSeconds(5), () -> large.removeIf(i -> i % 3 != 0));
+		Assertions.assertEquals(66_667, large.size());
+		for (int i = 0; i < large.size(); i++)
+			Assertions.assertEquals(3 * i, large.get(i).intValue());
+	}
+	
 	@Test
 	void test_addRecursiveType() {
 		Lexicon<LexiconTest> rec1 = new Lexicon<>();
@@ -482,6 +681,58 @@ class LexiconTest implements Observer {
 		Assertions.assertEquals(newCap, s);
 	}
 	
+	@Test
+	void test_growthPolicy() {
+		// Doubling (default): the number of reallocations must be logarithmic
+		Lexicon<Integer> doubling = new Lexicon<>(Integer.class);
+		Assertions.assertEquals(GrowthPolicy.doubling(), doubling.getGrowthPolicy());
+		
+		int reallocations = 0;
+		int previousCapacity = doubling.capacity();
+		for (int i = 0; i < 100_000; i++) {
+			doubling.add(i);
+			
+			if (doubling.capacity() != previousCapacity) {
+				reallocations++;
+				previousCapacity = doubling.capacity();
+			}
+		}
+		
+		System.out.println("LexiconTest.test_growthPolicy> reallocations with doubling: " + reallocations);
+		Assertions.assertEquals(100_000, doubling.size());
+		Assertions.assertTrue(reallocations <= 20);
+		for (int i = 0; i < doubling.size(); i++)
+			Assertions.assertEquals(i, doubling.get(i).intValue());
+		
+		// Factor
+		Lexicon<Integer> factor = new LexiconBuilder<>(Integer.class)
+				.setGrowthPolicy(GrowthPolicy.factor(1.5))
+				.addAll(0, 1, 2, 3, 4, 5, 6, 7, 8, 9)
+				.createLexicon();
+		Assertions.assertEquals(10, factor.capacity());
+		factor.add(10);
+		Assertions.assertEquals(15, factor.capacity());
+		
+		// Step
+		Lexicon<Integer> step = new Lexicon<>(Integer.class, 4);
+		step.setGrowthPolicy(GrowthPolicy.step(3));
+		step.addAll(0, 1, 2, 3);
+		Assertions.assertEquals(4, step.capacity());
+		step.add(4);
+		Assertions.assertEquals(7, step.capacity());
+		
+		// ensureCapacity must allocate exactly what is asked
+		Lexicon<Integer> ensured = new LexiconBuilder<>(Integer.class)
+				.ensureCapacity(1000)
+				.createLexicon();
+		Assertions.assertEquals(1000, ensured.capacity());
+		Assertions.assertEquals(1000, ensured.ensureCapacity(10));
+		Assertions.assertEquals(2000, ensured.ensureCapacity(2000));
+		Assertions.assertThrows(IllegalArgumentException.class, () -> ensured.ensureCapacity(-1));
+		Assertions.assertThrows(IllegalArgumentException.class, () -> GrowthPolicy.factor(1.0));
+		Assertions.assertThrows(IllegalArgumentException.class, () -> GrowthPolicy.step(0));
+	}
+	
 	@Test
 	void test_toArray() {
 		Integer[] arr1 = ints.toArray();
@@ -668,6 +919,418 @@ class LexiconTest implements Observer {
 		}
 	}
 	
+	@Test
+	void test_bulkInsert() {
+		ArrayList<Integer> addedIndexes = new ArrayList<>();
+		ArrayList<Integer> ranges = new ArrayList<>();
+		ints.addAddHandler((index, element) -> addedIndexes.add(index));
+		ints.addAddHandler(new BulkAddHandler<Integer>() {
+			@Override
+			public void onElementsAdded(int fromIndex, int toIndex, @NotNull List<Integer> elements) {
+				ranges.add(fromIndex);
+				ranges.add(toIndex);
+				Assertions.assertEquals(Arrays.asList(-1, -2, -3), elements);
+			}
+			
+			@Override
+			public void onElementAdded(int index, Integer element) {
+				Assertions.fail("LexiconTest.test_bulkInsert> The bulk notification should have been used.");
+			}
+		});
+		
+		ints.insertAll(4, -1, -2, -3);
+		Assertions.assertEquals(new Lexicon<>(0, 1, 2, 3, -1, -2, -3, 4, 5, 6, 7, 8, 9, 10), ints);
+		Assertions.assertEquals(Arrays.asList(4, 5, 6), addedIndexes);
+		Assertions.assertEquals(Arrays.asList(4, 7), ranges);
+		
+		// Insert a lexicon in itself
+		Lexicon<Integer> self = new Lexicon<>(1, 2, 3);
+		self.insertAll(1, self);
+		Assertions.assertEquals(new Lexicon<>(1, 1, 2, 3, 2, 3), self);
+		
+		// The rules are applied to the inserted elements
+		Lexicon<Integer> unique = new LexiconBuilder<>(Integer.class)
+				.setAcceptDuplicates(false)
+				.setAcceptNullValues(false)
+				.addAll(0, 1, 2, 3)
+				.createLexicon();
+		unique.insertAll(2, Arrays.asList(5, null, 1, 5, 6));
+		Assertions.assertEquals(new Lexicon<>(0, 1, 5, 6, 2, 3), unique);
+		unique.shift(0, 3, 7);
+		Assertions.assertEquals(new Lexicon<>(7, 0, 1, 5, 6, 2, 3), unique);
+		
+		// The type of the array is widened if needed
+		Lexicon<Number> numbers = new Lexicon<>();
+		numbers.addAll(1, 2, 3);
+		numbers.insertAll(1, 1.5, 2.5);
+		Assertions.assertEquals(new Lexicon<Number>(1, 1.5, 2.5, 2, 3), numbers);
+		
+		// A large insertion must be handled in linear time
+		Lexicon<Integer> large = new Lexicon<>(Integer.class);
+		large.addAll(-1, -2);
+		Assertions.assertTimeout(Duration.ofSeconds(5), () -> {
+			for (int i = 0; i < 1000; i++) {
+				Integer[] block = new Integer[200];
+				Arrays.fill(block, i);
+				large.insertAll(1, block);
+			}
+		});
+		Assertions.assertEquals(200_002, large.size());
+		Assertions.assertEquals(999, large.get(1).intValue());
+		Assertions.assertEquals(0, large.get(200_000).intValue());
+		Assertions.assertEquals(-2, large.last().intValue());
+	}
+	
+	@Test
+	void test_batch() {
+		ArrayList<LexiconChange<Integer>> changes = new ArrayList<>();
+		ArrayList<Object> observed = new ArrayList<>();
+		int[] added = new int[1];
+		ints.addChangeHandler(changes::add);
+		ints.addAddHandler((index, element) -> added[0]++);
+		ints.addObserver((o, arg) -> observed.add(arg));
+		
+		// Only one change is emitted, at the end of the outermost batch
+		ints.beginBatch();
+		ints.addAll(11, 12, 13);
+		ints.mutate(lexicon -> lexicon.remove(1));
+		Assertions.assertTrue(ints.isBatching());
+		Assertions.assertTrue(changes.isEmpty());
+		ints.endBatch();
+		Assertions.assertFalse(ints.isBatching());
+		Assertions.assertEquals(0, added[0]);
+		Assertions.assertEquals(1, changes.size());
+		Assertions.assertEquals(changes, observed);
+		
+		// [0, 1, 2, ..., 10] -> [0, 2, ..., 10, 11, 12, 13]: the range [1, 11) has been replaced by [2, ..., 13]
+		LexiconChange<Integer> change = changes.get(0);
+		Assertions.assertEquals(1, change.getFromIndex());
+		Assertions.assertEquals(10, change.getRemovedCount());
+		Assertions.assertEquals(Arrays.asList(2, 3, 4, 5, 6, 7, 8, 9, 10, 11, 12, 13), change.getAdded());
+		Assertions.assertEquals(Collections.singletonList(1), change.getRemoved());
+		Assertions.assertEquals(11, change.getSizeBefore());
+		Assertions.assertEquals(13, change.getSizeAfter());
+		Assertions.assertFalse(change.isPermutation());
+		
+		// A sort emits a permutation, restricted to the elements which moved
+		changes.clear();
+		ints.mutate(lexicon -> lexicon.sort(Comparator.comparingInt(i -> i == 13 ? -1 : i)));
+		Assertions.assertEquals(new Lexicon<>(13, 0, 2, 3, 4, 5, 6, 7, 8, 9, 10, 11, 12), ints);
+		change = changes.get(0);
+		Assertions.assertTrue(change.isPermutation());
+		Assertions.assertArrayEquals(new int[] {12, 0, 1, 2, 3, 4, 5, 6, 7, 8, 9, 10, 11}, change.getPermutation());
+		Assertions.assertEquals(0, change.getFromIndex());
+		Assertions.assertEquals(13, change.getRemovedCount());
+		
+		// A clear emits a single removal
+		changes.clear();
+		ints.mutate(Lexicon::clear);
+		Assertions.assertTrue(ints.isEmpty());
+		Assertions.assertEquals(13, changes.get(0).getRemoved().size());
+		Assertions.assertEquals(0, changes.get(0).getAddedCount());
+		
+		// An empty batch emits nothing, and a batch cannot be ended twice
+		changes.clear();
+		ints.mutate(lexicon -> {});
+		Assertions.assertTrue(changes.isEmpty());
+		Assertions.assertThrows(IllegalStateException.class, () -> ints.endBatch());
+		Assertions.assertEquals(0, added[0]);
+		Assertions.assertEquals(3, observed.size());
+		
+		// Outside a batch, the usual notifications are back
+		ints.add(1);
+		Assertions.assertEquals(1, added[0]);
+		Assertions.assertEquals(1, observed.get(3));
+		Assertions.assertTrue(changes.isEmpty());
+	}
+	
+	@Test
+	void test_asyncDispatch() throws InterruptedException {
+		Thread writer = Thread.currentThread();
+		List<Integer> indexes = Collections.synchronizedList(new ArrayList<>());
+		ArrayList<Thread> threads = new ArrayList<>();
+		ints.setEventDispatcher(new EventDispatcher());
+		ints.addAddHandler((index, element) -> {
+			threads.add(Thread.currentThread());
+			indexes.add(index);
+		});
+		
+		for (int i = 0; i < 100; i++)
+			ints.add(i);
+		ints.flushEvents();
+		
+		// The handlers run on another thread, in the order of the events
+		Assertions.assertEquals(100, indexes.size());
+		for (int i = 0; i < 100; i++)
+			Assertions.assertEquals(11 + i, indexes.get(i).intValue());
+		Assertions.assertFalse(threads.contains(writer));
+		
+		// The settings of the builder are kept
+		Lexicon<Integer> built = new LexiconBuilder<>(Integer.class)
+				.setEventDispatcher(ints.getEventDispatcher())
+				.createLexicon();
+		Assertions.assertTrue(built.isAsyncDispatch());
+		
+		// A slow handler does not stall the writer, until the queue is full
+		CountDownLatch release = new CountDownLatch(1);
+		EventDispatcher discard = new EventDispatcher(EventDispatcher.defaultExecutor(), 2, EventDispatcher.Backpressure.DISCARD);
+		Lexicon<Integer> slow = new Lexicon<>(Integer.class);
+		slow.setEventDispatcher(discard);
+		slow.addSetHandler((index, element) -> {
+			try {
+				release.await();
+			} catch (InterruptedException ex) {
+				Thread.currentThread().interrupt();
+			}
+		});
+		slow.addAll(0, 0, 0, 0, 0);
+		Assertions.assertTimeout(Duration.ofSeconds(5), () -> {
+			for (int i = 0; i < 5; i++)
+				slow.set(i, i);
+		});
+		Assertions.assertTrue(discard.getDiscardedCount() >= 2);
+		release.countDown();
+		slow.flushEvents();
+		Assertions.assertEquals(0, discard.getPendingCount());
+		
+		// The THROW policy reports the saturation to the writer
+		CountDownLatch block = new CountDownLatch(1);
+		Lexicon<Integer> saturated = new LexiconBuilder<>(Integer.class)
+				.setEventDispatcher(new EventDispatcher(EventDispatcher.defaultExecutor(), 1, EventDispatcher.Backpressure.THROW))
+				.addAddHandlers((index, element) -> {
+					try {
+						block.await();
+					} catch (InterruptedException ex) {
+						Thread.currentThread().interrupt();
+					}
+				})
+				.createLexicon();
+		Assertions.assertThrows(RejectedExecutionException.class, () -> {
+			for (int i = 0; i < 10; i++)
+				saturated.add(i);
+		});
+		block.countDown();
+		saturated.flushEvents();
+	}
+	
+	@Test
+	void test_concurrencyModes() throws InterruptedException {
+		for (ConcurrencyMode mode : ConcurrencyMode.values()) {
+			Lexicon<Integer> lexicon = new LexiconBuilder<>(Integer.class)
+					.setConcurrencyMode(mode)
+					.setAcceptDuplicates(false)
+					.createLexicon();
+			Assertions.assertEquals(mode, lexicon.getConcurrencyMode());
+			Assertions.assertEquals(mode == ConcurrencyMode.MONITOR, lexicon.isSynchronizedAccess());
+			
+			// The methods call each other while holding the lock
+			lexicon.addAll(0, 1, 2, 3);
+			lexicon.set(0, 4);
+			lexicon.sort(Comparator.naturalOrder());
+			Assertions.assertEquals(new Lexicon<>(1, 2, 3, 4), lexicon);
+			lexicon.clear();
+			
+			if (mode == ConcurrencyMode.NONE)
+				continue;
+			
+			// Concurrent writers and readers
+			Thread[] threads = new Thread[4];
+			AtomicBoolean failed = new AtomicBoolean(false);
+			for (int t = 0; t < threads.length; t++) {
+				int offset = t * 1000;
+				boolean writer = t % 2 == 0;
+				threads[t] = new Thread(() -> {
+					try {
+						for (int i = 0; i < 1000; i++) {
+							if (writer)
+								lexicon.add(offset + i);
+							else if (lexicon.size() > 0)
+								Assertions.assertNotNull(lexicon.get(lexicon.size() - 1));
+						}
+					} catch (Throwable throwable) {
+						throwable.printStackTrace();
+						failed.set(true);
+					}
+				});
+				threads[t].start();
+			}
+			for (Thread thread : threads)
+				thread.join();
+			
+			Assertions.assertFalse(failed.get(), "LexiconTest.test_concurrencyModes> Concurrent access failed in " + mode + " mode.");
+			Assertions.assertEquals(2000, lexicon.size());
+			Assertions.assertTrue(lexicon.contains(2999));
+			Assertions.assertFalse(lexicon.contains(1999));
+		}
+		
+		// A reader cannot become a writer
+		Lexicon<Integer> readWrite = new LexiconBuilder<>(Integer.class)
+				.setConcurrencyMode(ConcurrencyMode.READ_WRITE)
+				.addAll(0, 1, 2)
+				.createLexicon();
+		readWrite.addGetHandler((index, element) -> readWrite.add(element));
+		Assertions.assertThrows(IllegalStateException.class, () -> readWrite.get(0));
+		
+		// The mode survives the serialization
+		readWrite.getGetHandlers().clear();
+		readWrite.setConcurrencyMode(ConcurrencyMode.OPTIMISTIC);
+		ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+		try (ObjectOutputStream out = new ObjectOutputStream(bytes)) {
+			out.writeObject(readWrite);
+		} catch (IOException ex) {
+			Assertions.fail(ex);
+		}
+		try (ObjectInputStream in = new ObjectInputStream(new ByteArrayInputStream(bytes.toByteArray()))) {
+			Lexicon<?> copy = (Lexicon<?>) in.readObject();
+			Assertions.assertEquals(ConcurrencyMode.OPTIMISTIC, copy.getConcurrencyMode());
+			Assertions.assertEquals(readWrite, copy);
+		} catch (IOException | ClassNotFoundException ex) {
+			Assertions.fail(ex);
+		}
+	}
+	
+	@Test
+	void test_snapshot() throws InterruptedException {
+		LexiconSnapshot<Integer> snapshot = ints.snapshot();
+		Assertions.assertEquals(ints, new Lexicon<>(snapshot));
+		Assertions.assertSame(snapshot, ints.snapshot());
+		Assertions.assertThrows(UnsupportedOperationException.class, () -> snapshot.set(0, 1));
+		Assertions.assertThrows(IndexOutOfBoundsException.class, () -> snapshot.get(11));
+		
+		// The modifications of the lexicon are not visible through the snapshot
+		ints.set(0, -1);
+		ints.remove(1);
+		ints.add(11);
+		ints.insert(0, -2);
+		ints.sort(Comparator.reverseOrder());
+		ints.removeIf(i -> i % 2 == 0);
+		Assertions.assertEquals(Arrays.asList(0, 1, 2, 3, 4, 5, 6, 7, 8, 9, 10), snapshot);
+		Assertions.assertNotSame(snapshot, ints.snapshot());
+		Assertions.assertEquals(new Lexicon<>(11, 9, 7, 5, 3, -1), new Lexicon<>(ints.snapshot()));
+		
+		// Appending does not copy the array, but a new snapshot is needed to see the new element
+		LexiconSnapshot<Integer> before = ints.snapshot();
+		ints.add(13);
+		Assertions.assertEquals(6, before.size());
+		Assertions.assertEquals(7, ints.snapshot().size());
+		
+		// Lock-free iteration while a writer modifies the lexicon
+		Lexicon<Integer> shared = new LexiconBuilder<>(Integer.class)
+				.setConcurrencyMode(ConcurrencyMode.READ_WRITE)
+				.createLexicon();
+		for (int i = 0; i < 1000; i++)
+			shared.add(i);
+		AtomicBoolean failed = new AtomicBoolean(false);
+		Thread writer = new Thread(() -> {
+			for (int i = 0; i < 1000; i++) {
+				int element = i;
+				shared.mutate(lexicon -> {
+					lexicon.remove(0);
+					lexicon.add(element);
+				});
+			}
+		});
+		writer.start();
+		for (int round = 0; round < 100; round++) {
+			long count = shared.snapshot().stream().filter(Objects::nonNull).count();
+			if (count != 1000)
+				failed.set(true);
+		}
+		writer.join();
+		Assertions.assertFalse(failed.get());
+	}
+	
+	@Test
+	void test_spliterator() {
+		Spliterator<Integer> spliterator = ints.spliterator();
+		Assertions.assertTrue(spliterator.hasCharacteristics(Spliterator.SIZED | Spliterator.SUBSIZED | Spliterator.ORDERED));
+		Assertions.assertEquals(11, spliterator.getExactSizeIfKnown());
+		
+		// The array is split in halves
+		Spliterator<Integer> prefix = spliterator.trySplit();
+		Assertions.assertNotNull(prefix);
+		Assertions.assertEquals(5, prefix.getExactSizeIfKnown());
+		Assertions.assertEquals(6, spliterator.getExactSizeIfKnown());
+		
+		// Parallel streams over a large lexicon
+		Lexicon<Integer> large = new Lexicon<>(Integer.class, 1_000_000);
+		for (int i = 0; i < 1_000_000; i++)
+			large.add(i);
+		Assertions.assertEquals(499_999_500_000L, large.parallelStream().mapToLong(Integer::longValue).sum());
+		Assertions.assertEquals(500_000, large.parallelStream().filter(i -> i % 2 == 0).count());
+		Assertions.assertEquals(large.stream().map(i -> i * 2).collect(Collectors.toList()), large.parallelStream().map(i -> i * 2).collect(Collectors.toList()));
+		
+		// forEach and forEachRemaining
+		ArrayList<Integer> visited = new ArrayList<>();
+		ints.forEach(visited::add);
+		Assertions.assertEquals(Arrays.asList(0, 1, 2, 3, 4, 5, 6, 7, 8, 9, 10), visited);
+		visited.clear();
+		Iterator<Integer> iterator = ints.iterator();
+		iterator.next();
+		iterator.forEachRemaining(visited::add);
+		Assertions.assertEquals(10, visited.size());
+		Assertions.assertEquals(1, visited.get(0).intValue());
+		
+		// When there are get handlers, they are still called
+		int[] gotten = new int[1];
+		ints.addGetHandler((index, element) -> gotten[0]++);
+		Assertions.assertEquals(55, ints.stream().mapToInt(Integer::intValue).sum());
+		ints.forEach(i -> {});
+		Assertions.assertEquals(22, gotten[0]);
+		
+		// A shared lexicon is streamed from a snapshot
+		ints.getGetHandlers().clear();
+		ints.setConcurrencyMode(ConcurrencyMode.READ_WRITE);
+		Assertions.assertTrue(ints.spliterator().hasCharacteristics(Spliterator.IMMUTABLE));
+		Assertions.assertEquals(55, ints.parallelStream().mapToInt(Integer::intValue).sum());
+	}
+	
+	@Test
+	void test_sorts() {
+		ArrayList<LexiconChange<Integer>> changes = new ArrayList<>();
+		ints.addChangeHandler(changes::add);
+		
+		// A sort outside a batch emits a single permutation
+		ints.sort(Comparator.reverseOrder());
+		Assertions.assertEquals(new Lexicon<>(10, 9, 8, 7, 6, 5, 4, 3, 2, 1, 0), ints);
+		Assertions.assertEquals(1, changes.size());
+		Assertions.assertArrayEquals(new int[] {10, 9, 8, 7, 6, 5, 4, 3, 2, 1, 0}, changes.get(0).getPermutation());
+		
+		// The primitive-key sort is stable
+		changes.clear();
+		ints.sortByInt(i -> i % 3);
+		Assertions.assertEquals(new Lexicon<>(9, 6, 3, 0, 10, 7, 4, 1, 8, 5, 2), ints);
+		Assertions.assertArrayEquals(new int[] {1, 4, 7, 10, 0, 3, 6, 9, 2, 5, 8}, changes.get(0).getPermutation());
+		ints.sortByInt(i -> i);
+		Assertions.assertEquals(new Lexicon<>(0, 1, 2, 3, 4, 5, 6, 7, 8, 9, 10), ints);
+		ints.sortByInt(i -> -i);
+		Assertions.assertEquals(10, ints.first().intValue());
+		Assertions.assertEquals(3, changes.size());
+		
+		// The parallel sorts give the same result as the sequential one
+		Random random = new Random(42);
+		Lexicon<Integer> sequential = new Lexicon<>(Integer.class, 100_000);
+		for (int i = 0; i < 100_000; i++)
+			sequential.add(random.nextInt(1000));
+		Lexicon<Integer> parallel = new Lexicon<>(sequential);
+		Lexicon<Integer> byInt = new Lexicon<>(sequential);
+		Comparator<Integer> byTens = Comparator.comparingInt(i -> i / 10);
+		sequential.sort(byTens);
+		parallel.parallelSort(byTens);
+		byInt.sortByInt(i -> i / 10);
+		Assertions.assertEquals(sequential, parallel);
+		Assertions.assertEquals(sequential, byInt);
+		
+		// The permutation is also computed by the parallel sort when someone listens
+		changes.clear();
+		parallel.addChangeHandler(changes::add);
+		parallel.parallelSort(Comparator.naturalOrder());
+		int[] permutation = changes.get(0).getPermutation();
+		Assertions.assertNotNull(permutation);
+		for (int i = 0; i < permutation.length; i++)
+			Assertions.assertEquals(sequential.get(permutation[i]), parallel.get(i));
+	}
+	
 	@Test
 	void test_handlers() {
 		ints.addAddHandler(new AddHandler<Integer>() {
@@ -719,6 +1382,30 @@ class LexiconTest implements Observer {
 		Assertions.assertTrue(update > 0);
 	}
 	
+	@Test
+	void test_listenersStillNotified() {
+		Lexicon<Integer> lexicon = new Lexicon<>(1, 2, 3);
+		int[] counts = new int[2];
+		
+		Observer observer = (o, arg) -> counts[0]++;
+		lexicon.addObserver(observer);
+		lexicon.addGetHandler((index, element) -> counts[1]++);
+		lexicon.add(4);
+		lexicon.get(0);
+		Assertions.assertArrayEquals(new int[] {1, 1}, counts);
+		
+		// A null handler must be ignored, and the listeners must not be called anymore once removed
+		lexicon.getGetHandlers().add(null);
+		lexicon.get(1);
+		Assertions.assertArrayEquals(new int[] {1, 2}, counts);
+		
+		lexicon.deleteObserver(observer);
+		lexicon.getGetHandlers().clear();
+		lexicon.add(5);
+		lexicon.get(2);
+		Assertions.assertArrayEquals(new int[] {1, 2}, counts);
+	}
+	
 	@Test
 	void test_serialization() {
 		
@@ -887,6 +1574,113 @@ class LexiconTest implements Observer {
 		list.sort(Integer::compareTo);
 	}
 	
+	@Test
+	void test_gapBuffer() {
+		Lexicon<Integer> lexicon = new LexiconBuilder<>(Integer.class)
+				.setStorageMode(StorageMode.GAP_BUFFER)
+				.createLexicon();
+		ArrayList<Integer> expected = new ArrayList<>();
+		ArrayList<String> events = new ArrayList<>();
+		lexicon.addAddHandler((index, element) -> events.add("+" + index));
+		lexicon.addRemoveHandler((index, element) -> events.add("-" + index));
+		ArrayList<String> expectedEvents = new ArrayList<>();
+		
+		// Random edits around a moving cursor, compared to an ArrayList
+		Random random = new Random(16);
+		int cursor = 0;
+		for (int i = 0; i < 5000; i++) {
+			cursor = Math.max(0, Math.min(expected.size(), cursor + random.nextInt(21) - 10));
+			switch (random.nextInt(5)) {
+				case 0:
+				case 1:
+					if (cursor < expected.size()) {
+						lexicon.insert(cursor, i);
+						expected.add(cursor, i);
+						expectedEvents.add("+" + cursor);
+						break;
+					}
+				case 2:
+					lexicon.add(i);
+					expected.add(i);
+					expectedEvents.add("+" + (expected.size() - 1));
+					break;
+				case 3:
+					if (cursor < expected.size()) {
+						Assertions.assertEquals(expected.remove(cursor), lexicon.remove(cursor));
+						expectedEvents.add("-" + cursor);
+					}
+					break;
+				default:
+					if (cursor < expected.size()) {
+						lexicon.set(cursor, -i);
+						expected.set(cursor, -i);
+					}
+			}
+			
+			if (i % 500 == 0)
+				Assertions.assertEquals(expected, lexicon.toList());
+		}
+		
+		Assertions.assertEquals(expected.size(), lexicon.size());
+		for (int i = 0; i < expected.size(); i++)
+			Assertions.assertEquals(expected.get(i), lexicon.get(i));
+		Assertions.assertEquals(expectedEvents, events);
+		
+		// Iteration, snapshots, sorts and serialization see the elements in order
+		ArrayList<Integer> visited = new ArrayList<>();
+		lexicon.insert(1, 1_000_000);
+		expected.add(1, 1_000_000);
+		lexicon.forEach(visited::add);
+		Assertions.assertEquals(expected, visited);
+		lexicon.insert(2, 2_000_000);
+		expected.add(2, 2_000_000);
+		Assertions.assertEquals(expected, lexicon.snapshot());
+		Assertions.assertEquals(expected, lexicon.stream().collect(Collectors.toList()));
+		lexicon.remove(3);
+		expected.remove(3);
+		lexicon.sort(Comparator.naturalOrder());
+		expected.sort(Comparator.naturalOrder());
+		Assertions.assertEquals(expected, lexicon.toList());
+		
+		lexicon.insert(5, -5);
+		expected.add(5, -5);
+		lexicon.getAddHandlers().clear();
+		lexicon.getRemoveHandlers().clear();
+		try {
+			ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+			new ObjectOutputStream(bytes).writeObject(new Lexicon<>(lexicon));
+			Lexicon<?> copy = (Lexicon<?>) new ObjectInputStream(new ByteArrayInputStream(bytes.toByteArray())).readObject();
+			Assertions.assertEquals(expected, copy.toList());
+			Assertions.assertEquals(StorageMode.GAP_BUFFER, copy.getStorageMode());
+		} catch (IOException | ClassNotFoundException ex) {
+			Assertions.fail(ex);
+		}
+		
+		// The gap buffer cannot be shared between concurrent readers
+		Assertions.assertThrows(IllegalStateException.class, () -> lexicon.setConcurrencyMode(ConcurrencyMode.READ_WRITE));
+		lexicon.setStorageMode(StorageMode.FLAT);
+		Assertions.assertEquals(expected, lexicon.toList());
+		
+		// Insertions at the front and at a moving cursor give the same elements with both storage modes
+		Lexicon<Integer> flat = new Lexicon<>(Integer.class);
+		Lexicon<Integer> gap = new LexiconBuilder<>(Integer.class)
+				.setStorageMode(StorageMode.GAP_BUFFER)
+				.createLexicon();
+		for (Lexicon<Integer> l : Arrays.asList(flat, gap)) {
+			l.addAll(0, 1, 2, 3);
+			for (int i = 1; i <= 100; i++)
+				l.insert(0, -i);
+			
+			int position = l.size() / 2;
+			for (int i = 0; i < 100; i++)
+				l.insert(position++, 100 + i);
+		}
+		Assertions.assertEquals(204, gap.size());
+		Assertions.assertEquals(flat, gap);
+		Assertions.assertEquals(flat.hashCode(), gap.hashCode());
+		Assertions.assertEquals(StorageMode.GAP_BUFFER, gap.getStorageMode());
+	}
+	
 	/* OVERRIDE */
 	
 	@Override
@@ -894,4 +1688,23 @@ class LexiconTest implements Observer {
 		System.out.println("LexiconTest.test_handlers> observable \"" + observable.getClass().getSimpleName() + "\" sent the object \"" + Objects.toString(o) + "\".");
 		update++;
 	}
-}
\ No newline at end of file
+	
+	private static class BulkRemoveCounter implements BulkRemoveHandler<Integer> {
+		
+		private int calls = 0;
+		private int[] indexes;
+		private List<Integer> elements;
+		
+		@Override
+		public void onElementsRemoved(@NotNull int[] indexes, @NotNull List<Integer> elements) {
+			calls++;
+			this.indexes = indexes;
+			this.elements = elements;
+		}
+		
+		@Override
+		public void onElementRemoved(int index, Integer element) {
+			Assertions.fail("LexiconTest.BulkRemoveCounter> The bulk notification should have been used.");
+		}
+	}
+}
@@ -0,0 +1,107 @@
+package fr.berger.enhancedlist.lexicon;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.Random;
+
+class SortedLexiconTest {
+	
+	@Test
+	void test_add() {
+		SortedLexicon<Integer> lexicon = new SortedLexicon<>(Integer.class);
+		
+		Random random = new Random(42);
+		int[] expected = new int[1000];
+		for (int i = 0; i < expected.length; i++) {
+			expected[i] = random.nextInt(200);
+			lexicon.add(expected[i]);
+		}
+		Arrays.sort(expected);
+		
+		Assertions.assertEquals(expected.length, lexicon.size());
+		for (int i = 0; i < expected.length; i++)
+			Assertions.assertEquals(expected[i], (int) lexicon.get(i));
+		
+		Assertions.assertFalse(lexicon.add(null));
+		
+		lexicon.addAll(500, -1, 300);
+		Assertions.assertEquals(-1, (int) lexicon.first());
+		Assertions.assertEquals(500, (int) lexicon.last());
+		Assertions.assertEquals(300, (int) lexicon.get(lexicon.size() - 2));
+		
+		// Without duplicates
+		SortedLexicon<Integer> unique = new SortedLexicon<>(Integer.class);
+		unique.setAcceptDuplicates(false);
+		unique.addAll(3, 1, 2, 3, 1);
+		Assertions.assertEquals(Arrays.asList(1, 2, 3), unique.toList());
+		
+		// With a comparator
+		SortedLexicon<String> strings = new SortedLexicon<>(Arrays.asList("ccc", "a", "bb", "dd"), Comparator.comparingInt(String::length));
+		Assertions.assertEquals(Arrays.asList("a", "bb", "dd", "ccc"), strings.toList());
+	}
+	
+	@Test
+	void test_search() {
+		SortedLexicon<Integer> lexicon = new SortedLexicon<>(Arrays.asList(8, 2, 4, 4, 6, 0), null);
+		
+		Assertions.assertTrue(lexicon.contains(4));
+		Assertions.assertFalse(lexicon.contains(5));
+		Assertions.assertFalse(lexicon.contains(null));
+		Assertions.assertFalse(lexicon.contains("4"));
+		Assertions.assertEquals(0, lexicon.indexOf(0));
+		Assertions.assertEquals(2, lexicon.indexOf(4));
+		Assertions.assertEquals(-1, lexicon.indexOf(9));
+		Assertions.assertEquals(Arrays.asList(2, 3), lexicon.search(4));
+		
+		Assertions.assertTrue(lexicon.remove((Object) 4));
+		Assertions.assertEquals(Arrays.asList(0, 2, 4, 6, 8), lexicon.toList());
+		Assertions.assertFalse(lexicon.remove((Object) 5));
+		
+		// Elements equal for the comparator but not for equals()
+		SortedLexicon<String> strings = new SortedLexicon<>(Arrays.asList("ab", "cd", "ef"), Comparator.comparingInt(String::length));
+		Assertions.assertEquals(2, strings.indexOf("ef"));
+		Assertions.assertFalse(strings.contains("gh"));
+	}
+	
+	@Test
+	void test_ranges() {
+		SortedLexicon<Integer> lexicon = new SortedLexicon<>(Arrays.asList(0, 1, 2, 3, 4, 5, 6, 7, 8, 9), null);
+		
+		Assertions.assertEquals(Arrays.asList(0, 1, 2), lexicon.headLexicon(3));
+		Assertions.assertEquals(Arrays.asList(7, 8, 9), lexicon.tailLexicon(7));
+		Assertions.assertEquals(Arrays.asList(4, 5), lexicon.subRange(4, 6));
+		Assertions.assertTrue(lexicon.subRange(20, 30).isEmpty());
+		Assertions.assertThrows(IllegalArgumentException.class, () -> lexicon.subRange(6, 4));
+		
+		// The ranges share the array of the lexicon, but do not see its later modifications
+		LexiconSnapshot<Integer> range = lexicon.subRange(2, 8);
+		Assertions.assertSame(lexicon.snapshot().array, range.array);
+		Assertions.assertEquals(Arrays.asList(4, 5), range.subList(2, 4));
+		lexicon.add(3);
+		lexicon.remove(0);
+		Assertions.assertEquals(Arrays.asList(2, 3, 4, 5, 6, 7), range);
+		Assertions.assertThrows(UnsupportedOperationException.class, () -> range.add(1));
+	}
+	
+	@Test
+	void test_order() {
+		SortedLexicon<Integer> lexicon = new SortedLexicon<>(Arrays.asList(1, 3, 5), null);
+		
+		Assertions.assertEquals(3, (int) lexicon.set(1, 2));
+		Assertions.assertThrows(IllegalArgumentException.class, () -> lexicon.set(1, 6));
+		Assertions.assertEquals(Arrays.asList(1, 2, 5), lexicon.toList());
+		
+		Assertions.assertThrows(UnsupportedOperationException.class, () -> lexicon.insert(0, 9));
+		Assertions.assertThrows(UnsupportedOperationException.class, () -> lexicon.insertAll(0, 8, 9));
+		Assertions.assertThrows(UnsupportedOperationException.class, () -> lexicon.swap(0, 1));
+		Assertions.assertThrows(UnsupportedOperationException.class, () -> lexicon.sort(Comparator.reverseOrder()));
+		
+		// The concurrency modes protect the whole insertion
+		lexicon.setConcurrencyMode(ConcurrencyMode.READ_WRITE);
+		lexicon.add(4);
+		Assertions.assertEquals(Arrays.asList(1, 2, 4, 5), lexicon.toList());
+	}
+}
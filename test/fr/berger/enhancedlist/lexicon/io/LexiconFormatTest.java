@@ -0,0 +1,139 @@
+package fr.berger.enhancedlist.lexicon.io;
+
+import fr.berger.enhancedlist.lexicon.ConcurrencyMode;
+import fr.berger.enhancedlist.lexicon.Lexicon;
+import fr.berger.enhancedlist.lexicon.eventhandlers.AddHandler;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.ObjectOutputStream;
+import java.io.Serializable;
+import java.io.UncheckedIOException;
+import java.util.Arrays;
+import java.util.stream.Collectors;
+
+class LexiconFormatTest {
+	
+	@Test
+	void test_roundTrip() throws IOException {
+		Lexicon<Integer> ints = new Lexicon<>(Integer.class, 1000);
+		ints.addAll(3, 1, 4, 1, 5);
+		ints.setHashIndexed(true);
+		ints.setConcurrencyMode(ConcurrencyMode.READ_WRITE);
+		
+		LexiconFormat<Integer> format = LexiconFormat.of(LexiconCodec.integers());
+		byte[] bytes = format.toBytes(ints);
+		// Header, class name and 5 elements of 4 bytes: the free cells of the array are not written
+		Assertions.assertTrue(bytes.length < 60);
+		
+		Lexicon<Integer> read = format.fromBytes(bytes);
+		Assertions.assertEquals(ints, read);
+		Assertions.assertEquals(Integer.class, read.getClazz());
+		Assertions.assertTrue(read.isHashIndexed());
+		Assertions.assertEquals(ConcurrencyMode.READ_WRITE, read.getConcurrencyMode());
+		
+		// Null values and variable-width elements
+		Lexicon<String> strings = new Lexicon<>();
+		strings.addAll("a", null, "", "élément");
+		strings.setAcceptDuplicates(false);
+		Lexicon<String> readStrings = LexiconFormat.of(LexiconCodec.strings()).fromBytes(LexiconFormat.of(LexiconCodec.strings()).toBytes(strings));
+		Assertions.assertEquals(strings, readStrings);
+		Assertions.assertFalse(readStrings.isAcceptDuplicates());
+		Assertions.assertEquals(strings.getClazz(), readStrings.getClazz());
+		
+		Assertions.assertThrows(IOException.class, () -> format.fromBytes(new byte[] {'L', 'X', 'O', 1}));
+	}
+	
+	@Test
+	void test_handlers() throws IOException {
+		Lexicon<String> strings = new Lexicon<>(String.class);
+		strings.addAddHandler(new CountingHandler());
+		
+		byte[] withoutHandlers = LexiconFormat.of(LexiconCodec.strings()).toBytes(strings);
+		byte[] withHandlers = LexiconFormat.of(LexiconCodec.strings()).withHandlers(true).toBytes(strings);
+		Assertions.assertTrue(withoutHandlers.length < withHandlers.length);
+		
+		Assertions.assertTrue(LexiconFormat.of(LexiconCodec.strings()).fromBytes(withoutHandlers).getAddHandlers().isEmpty());
+		Lexicon<String> read = LexiconFormat.of(LexiconCodec.strings()).fromBytes(withHandlers);
+		Assertions.assertEquals(1, read.getAddHandlers().size());
+		Assertions.assertTrue(read.getAddHandlers().get(0) instanceof CountingHandler);
+	}
+	
+	@Test
+	void test_streaming() throws IOException {
+		Lexicon<Long> longs = new Lexicon<>(Long.class);
+		for (long i = 0; i < 1000; i++)
+			longs.add(i);
+		
+		byte[] bytes = LexiconFormat.of(LexiconCodec.longs()).toBytes(longs);
+		
+		// Only the beginning of the payload has arrived: the first elements can already be read
+		LexiconReader<Long> reader = LexiconFormat.of(LexiconCodec.longs()).reader(new ByteArrayInputStream(Arrays.copyOf(bytes, bytes.length / 2)));
+		Assertions.assertEquals(1000, reader.size());
+		Assertions.assertEquals(Arrays.asList(0L, 1L, 2L), reader.stream().limit(3).collect(Collectors.toList()));
+		Assertions.assertEquals(3, reader.getIndex());
+		Assertions.assertThrows(UncheckedIOException.class, () -> reader.forEachRemaining(l -> {}));
+		
+		LexiconReader<Long> complete = LexiconFormat.of(LexiconCodec.longs()).reader(new ByteArrayInputStream(bytes));
+		Assertions.assertEquals(499_500L, complete.stream().mapToLong(Long::longValue).sum());
+		Assertions.assertFalse(complete.hasNext());
+	}
+	
+	@Test
+	void test_stream() throws IOException {
+		LexiconFormat<Integer> format = LexiconFormat.of(LexiconCodec.integers());
+		
+		// The reader does not read past the lexicon, so two lexicons can follow each other in a stream
+		ByteArrayOutputStream output = new ByteArrayOutputStream();
+		format.write(new Lexicon<>(1, 2, 3), output);
+		format.write(new Lexicon<>(4, 5), output);
+		output.write(42);
+		
+		InputStream input = new DataInputStream(new ByteArrayInputStream(output.toByteArray()));
+		Assertions.assertEquals(new Lexicon<>(1, 2, 3), format.read(input));
+		Assertions.assertEquals(new Lexicon<>(4, 5), format.read(input));
+		Assertions.assertEquals(42, input.read());
+		
+		// A size which is not followed by as many elements is not allocated in advance
+		byte[] empty = format.toBytes(new Lexicon<>(Integer.class));
+		byte[] truncated = Arrays.copyOf(empty, empty.length + 4);
+		System.arraycopy(new byte[] {(byte) 0xFF, (byte) 0xFF, (byte) 0xFF, (byte) 0xFF, 0x07}, 0, truncated, empty.length - 1, 5);
+		LexiconReader<Integer> reader = format.reader(new ByteArrayInputStream(truncated));
+		Assertions.assertEquals(Integer.MAX_VALUE, reader.size());
+		Assertions.assertThrows(EOFException.class, reader::toLexicon);
+	}
+	
+	@Test
+	void test_size() throws IOException {
+		Lexicon<Integer> lexicon = new Lexicon<>(Integer.class);
+		for (int i = 0; i < 100_000; i++)
+			lexicon.add(i);
+		
+		ByteArrayOutputStream java = new ByteArrayOutputStream();
+		try (ObjectOutputStream output = new ObjectOutputStream(java)) {
+			output.writeObject(lexicon);
+		}
+		
+		byte[] compact = LexiconFormat.of(LexiconCodec.integers()).toBytes(lexicon);
+		Assertions.assertTrue(compact.length < java.size(), "The compact format is not smaller than the Java serialization");
+		Assertions.assertEquals(lexicon, LexiconFormat.of(LexiconCodec.integers()).fromBytes(compact));
+	}
+	
+	private static class CountingHandler implements AddHandler<String>, Serializable {
+		
+		private static final long serialVersionUID = 377534015780530059L;
+		
+		private int count;
+		
+		@Override
+		public void onElementAdded(int index, String element) {
+			count++;
+		}
+	}
+}
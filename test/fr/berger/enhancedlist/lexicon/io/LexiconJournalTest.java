@@ -0,0 +1,170 @@
+package fr.berger.enhancedlist.lexicon.io;
+
+import fr.berger.enhancedlist.lexicon.Lexicon;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Comparator;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+class LexiconJournalTest {
+	
+	private Path directory;
+	
+	@BeforeEach
+	void setUp() throws IOException {
+		directory = Files.createTempDirectory("lexicon-journal");
+	}
+	
+	@AfterEach
+	void tearDown() throws IOException {
+		try (Stream<Path> paths = Files.walk(directory)) {
+			paths.sorted(Comparator.reverseOrder())
+					.forEach(path -> path.toFile().delete());
+		}
+	}
+	
+	@Test
+	void test_recover() throws IOException {
+		Lexicon<Integer> lexicon = new Lexicon<>(Integer.class);
+		lexicon.addAll(1, 2, 3);
+		
+		try (LexiconJournal<Integer> journal = LexiconJournal.attach(lexicon, directory, LexiconCodec.integers())) {
+			lexicon.add(4);
+			lexicon.insertAll(0, -2, -1);
+			lexicon.set(2, 10);
+			lexicon.remove(1);
+			lexicon.swap(0, 1);
+			lexicon.sort(Comparator.reverseOrder());
+			lexicon.removeIf(i -> i % 2 == 0);
+			lexicon.mutate(l -> {
+				l.add(7);
+				l.remove(0);
+				l.add(null);
+			});
+			Assertions.assertEquals(lexicon, Lexicon.recover(directory, LexiconCodec.integers()));
+			
+			lexicon.clear();
+			lexicon.addAll(5, 6);
+			Assertions.assertEquals(1, journal.getGeneration());
+		}
+		
+		Lexicon<Integer> recovered = Lexicon.recover(directory, LexiconCodec.integers());
+		Assertions.assertEquals(lexicon, recovered);
+		Assertions.assertEquals(new Lexicon<>(5, 6), recovered);
+		
+		// The journal is not notified anymore
+		lexicon.add(8);
+		Assertions.assertEquals(recovered, Lexicon.recover(directory, LexiconCodec.integers()));
+	}
+	
+	@Test
+	void test_tornRecord() throws IOException {
+		Lexicon<String> lexicon = new Lexicon<>(String.class);
+		
+		try (LexiconJournal<String> journal = LexiconJournal.attach(lexicon, directory)) {
+			lexicon.addAll("a", "b");
+		}
+		
+		// A record whose end has not been written is ignored
+		try (FileChannel log = FileChannel.open(directory.resolve("journal-1.log"), StandardOpenOption.WRITE, StandardOpenOption.APPEND)) {
+			log.write(ByteBuffer.wrap(new byte[] {0, 0, 0, 42, 1, 0}));
+		}
+		
+		Assertions.assertEquals(new Lexicon<>("a", "b"), Lexicon.recover(directory));
+		Assertions.assertTrue(Lexicon.recover(directory.resolve("missing")).isEmpty());
+	}
+	
+	@Test
+	void test_checkpoint() throws IOException {
+		Lexicon<String> lexicon = new Lexicon<>(String.class);
+		
+		try (LexiconJournal<String> journal = LexiconJournal.attach(lexicon, directory, LexiconCodec.strings())) {
+			journal.setSyncInterval(5);
+			journal.setCheckpointThreshold(1024);
+			
+			for (int i = 0; i < 1000; i++)
+				lexicon.add("element " + i);
+			Assertions.assertTrue(journal.checkpointIfDue());
+			Assertions.assertFalse(journal.checkpointIfDue());
+			
+			// The previous generations have been deleted
+			try (Stream<Path> files = Files.list(directory)) {
+				Assertions.assertEquals(
+						Stream.of("journal-2.log", "snapshot-2.dat").collect(Collectors.toSet()),
+						files.map(path -> path.getFileName().toString()).collect(Collectors.toSet())
+				);
+			}
+			
+			lexicon.remove(0);
+			journal.sync();
+			Assertions.assertEquals(lexicon, Lexicon.recover(directory, LexiconCodec.strings()));
+		}
+		
+		// Attaching a journal again starts from the content of the lexicon
+		Lexicon<String> recovered = Lexicon.recover(directory, LexiconCodec.strings());
+		try (LexiconJournal<String> journal = LexiconJournal.attach(recovered, directory, LexiconCodec.strings())) {
+			Assertions.assertEquals(3, journal.getGeneration());
+			recovered.add("last");
+		}
+		
+		Assertions.assertEquals(recovered, Lexicon.recover(directory, LexiconCodec.strings()));
+		Assertions.assertEquals(1000, recovered.size());
+	}
+	
+	@Test
+	void test_crashBeforeSnapshot() throws IOException {
+		Lexicon<String> lexicon = new Lexicon<>(String.class);
+		try (LexiconJournal<String> journal = LexiconJournal.attach(lexicon, directory, LexiconCodec.strings())) {
+			lexicon.addAll("a", "b");
+		}
+		byte[] snapshot = Files.readAllBytes(directory.resolve("snapshot-1.dat"));
+		byte[] log = Files.readAllBytes(directory.resolve("journal-1.log"));
+		
+		// Another lexicon replaces the journal, and the system crashes before its first snapshot is renamed
+		Lexicon<String> other = new Lexicon<>("x");
+		try (LexiconJournal<String> journal = LexiconJournal.attach(other, directory, LexiconCodec.strings())) {
+			other.add("y");
+		}
+		Files.delete(directory.resolve("snapshot-2.dat"));
+		Files.write(directory.resolve("snapshot-1.dat"), snapshot);
+		Files.write(directory.resolve("journal-1.log"), log);
+		
+		// The log of the new journal does not apply to the previous one
+		Assertions.assertEquals(new Lexicon<>("a", "b"), Lexicon.recover(directory, LexiconCodec.strings()));
+		
+		// Without any snapshot, nothing is recovered
+		Files.delete(directory.resolve("snapshot-1.dat"));
+		Assertions.assertTrue(Lexicon.recover(directory, LexiconCodec.strings()).isEmpty());
+	}
+	
+	@Test
+	void test_crashDuringCheckpoint() throws IOException {
+		Lexicon<String> lexicon = new Lexicon<>(String.class);
+		try (LexiconJournal<String> journal = LexiconJournal.attach(lexicon, directory, LexiconCodec.strings())) {
+			lexicon.addAll("a", "b");
+			journal.sync();
+			byte[] snapshot = Files.readAllBytes(directory.resolve("snapshot-1.dat"));
+			byte[] log = Files.readAllBytes(directory.resolve("journal-1.log"));
+			
+			journal.checkpoint();
+			lexicon.add("c");
+			journal.sync();
+			
+			// The snapshot of the checkpoint is lost: the new log continues the previous one
+			Files.delete(directory.resolve("snapshot-2.dat"));
+			Files.write(directory.resolve("snapshot-1.dat"), snapshot);
+			Files.write(directory.resolve("journal-1.log"), log);
+			Assertions.assertEquals(new Lexicon<>("a", "b", "c"), Lexicon.recover(directory, LexiconCodec.strings()));
+		}
+	}
+}
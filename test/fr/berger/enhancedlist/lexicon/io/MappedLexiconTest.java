@@ -0,0 +1,117 @@
+package fr.berger.enhancedlist.lexicon.io;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.stream.Stream;
+
+class MappedLexiconTest {
+	
+	private Path directory;
+	
+	@BeforeEach
+	void setUp() throws IOException {
+		directory = Files.createTempDirectory("mapped-lexicon");
+	}
+	
+	@AfterEach
+	void tearDown() throws IOException {
+		try (Stream<Path> paths = Files.walk(directory)) {
+			paths.sorted(Comparator.reverseOrder())
+					.forEach(path -> path.toFile().delete());
+		}
+	}
+	
+	@Test
+	void test_fixedWidth() throws IOException {
+		Path path = directory.resolve("longs.lex");
+		
+		try (MappedLexicon<Long> lexicon = new MappedLexicon<>(path, LexiconCodec.longs())) {
+			for (long i = 0; i < 10_000; i++)
+				lexicon.add(i * i);
+			
+			Assertions.assertEquals(49L, (long) lexicon.set(7, -7L));
+			Assertions.assertEquals(99_980_001L, (long) lexicon.remove(9_999));
+			Assertions.assertThrows(UnsupportedOperationException.class, () -> lexicon.remove(0));
+			Assertions.assertThrows(IndexOutOfBoundsException.class, () -> lexicon.get(9_999));
+		}
+		
+		try (MappedLexicon<Long> lexicon = new MappedLexicon<>(path, LexiconCodec.longs())) {
+			Assertions.assertEquals(9_999, lexicon.size());
+			Assertions.assertEquals(-7L, (long) lexicon.get(7));
+			Assertions.assertEquals(9_998L * 9_998L, (long) lexicon.get(9_998));
+			Assertions.assertEquals(lexicon, lexicon.toLexicon().toList());
+		}
+		
+		Assertions.assertThrows(IllegalArgumentException.class, () -> new MappedLexicon<>(path, LexiconCodec.integers()));
+	}
+	
+	@Test
+	void test_variableWidth() throws IOException {
+		Path path = directory.resolve("strings.lex");
+		ArrayList<String> expected = new ArrayList<>();
+		
+		// Small segments, so that some records span two of them
+		try (MappedLexicon<String> lexicon = new MappedLexicon<>(path, LexiconCodec.strings(), 64)) {
+			for (int i = 0; i < 500; i++) {
+				String element = "élément " + i + (i % 3 == 0 ? " avec un texte un peu plus long" : "");
+				lexicon.add(element);
+				expected.add(element);
+			}
+			
+			lexicon.set(42, "changed");
+			expected.set(42, "changed");
+			lexicon.addAll(Arrays.asList("x", "y"));
+			expected.addAll(Arrays.asList("x", "y"));
+			
+			Assertions.assertEquals(expected, lexicon);
+		}
+		
+		try (MappedLexicon<String> lexicon = new MappedLexicon<>(path, LexiconCodec.strings(), 64)) {
+			Assertions.assertEquals(expected, lexicon);
+			
+			lexicon.remove(lexicon.size() - 1);
+			lexicon.add("z");
+			expected.set(expected.size() - 1, "z");
+			Assertions.assertEquals(expected, lexicon);
+		}
+	}
+	
+	@Test
+	void test_crashConsistency() throws IOException {
+		Path path = directory.resolve("integers.lex");
+		
+		try (MappedLexicon<Integer> lexicon = new MappedLexicon<>(path, LexiconCodec.integers())) {
+			lexicon.setSyncOnAppend(true);
+			lexicon.addAll(Arrays.asList(1, 2, 3));
+			
+			// Another instance sees the committed elements
+			try (MappedLexicon<Integer> reader = new MappedLexicon<>(path, LexiconCodec.integers())) {
+				Assertions.assertEquals(Arrays.asList(1, 2, 3), reader);
+			}
+		}
+		
+		// Simulate an append interrupted before its commit: the bytes after the end are ignored
+		try (FileChannel channel = FileChannel.open(path, StandardOpenOption.WRITE)) {
+			channel.write(ByteBuffer.wrap(new byte[] {0, 0, 0, 4, 0, 0, 0, 5}), 64 + 3 * Integer.BYTES);
+		}
+		
+		try (MappedLexicon<Integer> lexicon = new MappedLexicon<>(path, LexiconCodec.integers())) {
+			Assertions.assertEquals(Arrays.asList(1, 2, 3), lexicon);
+			
+			lexicon.add(6);
+			Assertions.assertEquals(Arrays.asList(1, 2, 3, 6), lexicon);
+		}
+	}
+}
@@ -0,0 +1,99 @@
+package fr.berger.enhancedlist.lexicon.io;
+
+import org.jetbrains.annotations.NotNull;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Random;
+
+class OffHeapLexiconTest {
+	
+	@Test
+	void test_listMethods() {
+		// Segments of 64 bytes, so the elements span several of them
+		try (OffHeapLexicon<Long> longs = new OffHeapLexicon<>(LexiconCodec.longs(), 0, 64)) {
+			ArrayList<Long> expected = new ArrayList<>();
+			for (long i = 0; i < 100; i++) {
+				longs.add(i * 3);
+				expected.add(i * 3);
+			}
+			
+			longs.add(5, -1L);
+			expected.add(5, -1L);
+			Assertions.assertEquals(expected.remove(50), longs.remove(50));
+			Assertions.assertEquals(expected.set(99, 42L), longs.set(99, 42L));
+			Assertions.assertEquals(expected, longs);
+			Assertions.assertEquals(expected, longs.toLexicon().toList());
+			Assertions.assertEquals(13 * 64, longs.getOffHeapSize());
+			
+			Assertions.assertThrows(NullPointerException.class, () -> longs.add(null));
+			Assertions.assertThrows(IndexOutOfBoundsException.class, () -> longs.get(100));
+			
+			longs.close();
+			Assertions.assertTrue(longs.isClosed());
+			Assertions.assertThrows(IllegalStateException.class, () -> longs.get(0));
+		}
+		
+		Assertions.assertThrows(IllegalArgumentException.class, () -> new OffHeapLexicon<>(LexiconCodec.strings()));
+	}
+	
+	@Test
+	void test_sortAndSearch() {
+		Random random = new Random(3);
+		ArrayList<int[]> expected = new ArrayList<>();
+		
+		try (OffHeapLexicon<int[]> pairs = new OffHeapLexicon<>(new PairCodec(), 0, 256)) {
+			for (int i = 0; i < 1000; i++) {
+				int[] pair = {random.nextInt(50), i};
+				pairs.add(pair);
+				expected.add(pair);
+			}
+			
+			// The sort is stable: the pairs with the same key keep their order
+			Comparator<int[]> byKey = Comparator.comparingInt(pair -> pair[0]);
+			pairs.sort(byKey);
+			expected.sort(byKey);
+			for (int i = 0; i < expected.size(); i++)
+				Assertions.assertArrayEquals(expected.get(i), pairs.get(i));
+			
+			int index = pairs.search(new int[] {25, 0}, byKey);
+			Assertions.assertEquals(25, pairs.get(index)[0]);
+			Assertions.assertEquals(-1, pairs.search(new int[] {-1, 0}, byKey));
+			Assertions.assertEquals(-1001, pairs.search(new int[] {50, 0}, byKey));
+			
+			// The list can grow after a sort
+			pairs.add(new int[] {100, 1000});
+			Assertions.assertEquals(1001, pairs.size());
+		}
+		
+		try (OffHeapLexicon<Integer> ints = new OffHeapLexicon<>(LexiconCodec.integers())) {
+			for (int i = 0; i < 10_000; i++)
+				ints.add(random.nextInt());
+			
+			ints.sort(null);
+			for (int i = 1; i < ints.size(); i++)
+				Assertions.assertTrue(ints.get(i - 1) <= ints.get(i));
+		}
+	}
+	
+	private static class PairCodec extends LexiconCodec.FixedWidth<int[]> {
+		
+		PairCodec() {
+			super(2 * Integer.BYTES);
+		}
+		
+		@Override
+		public void encode(@NotNull int[] element, @NotNull ByteBuffer buffer) {
+			buffer.putInt(element[0]).putInt(element[1]);
+		}
+		
+		@NotNull
+		@Override
+		public int[] decode(@NotNull ByteBuffer buffer) {
+			return new int[] {buffer.getInt(), buffer.getInt()};
+		}
+	}
+}
@@ -0,0 +1,160 @@
+package fr.berger.enhancedlist.lexicon.primitive;
+
+import fr.berger.enhancedlist.exceptions.EmptyListException;
+import fr.berger.enhancedlist.lexicon.GrowthPolicy;
+import org.junit.jupiter.api.*;
+
+import java.io.*;
+import java.util.ArrayList;
+import java.util.Arrays;
+
+class PrimitiveLexiconTest {
+	
+	private IntLexicon ints;
+	
+	@BeforeEach
+	void setup() {
+		ints = new IntLexicon(10);
+		for (int i = 0; i <= 10; i++)
+			ints.add(i);
+	}
+	
+	@AfterEach
+	void tearDown() {
+		System.out.println();
+	}
+	
+	@Test
+	void test_basics() {
+		Assertions.assertEquals(11, ints.size());
+		for (int i = 0; i < ints.size(); i++)
+			Assertions.assertEquals(i, ints.get(i));
+		
+		Assertions.assertEquals(0, ints.first());
+		Assertions.assertEquals(10, ints.last());
+		Assertions.assertEquals(-1, ints.get(11, -1));
+		Assertions.assertThrows(IndexOutOfBoundsException.class, () -> ints.get(11));
+		Assertions.assertThrows(EmptyListException.class, () -> new IntLexicon().first());
+		
+		Assertions.assertEquals(5, ints.set(5, 50));
+		Assertions.assertTrue(ints.contains(50));
+		Assertions.assertFalse(ints.contains(5));
+		Assertions.assertEquals(5, ints.indexOf(50));
+		
+		ints.insertAll(2, -1, -2);
+		Assertions.assertEquals(new IntLexicon(0, 1, -1, -2, 2, 3, 4, 50, 6, 7, 8, 9, 10), ints);
+		Assertions.assertEquals(-1, ints.remove(2));
+		Assertions.assertTrue(ints.removeElement(-2));
+		Assertions.assertFalse(ints.removeElement(-2));
+		
+		ints.sort();
+		Assertions.assertEquals(new IntLexicon(0, 1, 2, 3, 4, 6, 7, 8, 9, 10, 50), ints);
+		Assertions.assertEquals(5, ints.binarySearch(6));
+		Assertions.assertTrue(ints.binarySearch(5) < 0);
+		Assertions.assertEquals(100, ints.stream().sum());
+		Assertions.assertEquals("[0, 1, 2, 3, 4, 6, 7, 8, 9, 10, 50]", ints.toString());
+		
+		ints.clear();
+		Assertions.assertTrue(ints.isEmpty());
+	}
+	
+	@Test
+	void test_rules() {
+		// Duplicates
+		ints.addAll(1, 2, 3);
+		Assertions.assertEquals(new IntLexicon(1, 11), ints.search(1));
+		ints.setAcceptDuplicates(false);
+		Assertions.assertEquals(11, ints.size());
+		Assertions.assertFalse(ints.add(4));
+		Assertions.assertTrue(ints.add(11));
+		Assertions.assertEquals(IntLexicon.DEFAULT_NULL_EQUIVALENT, ints.set(0, 11));
+		ints.insertAll(0, 12, 12, 13, 0);
+		Assertions.assertEquals(new IntLexicon(12, 13, 0, 1, 2, 3, 4, 5, 6, 7, 8, 9, 10, 11), ints);
+		
+		// Null-equivalent
+		ints.setNullEquivalent(-1);
+		ints.add(-1);
+		Assertions.assertTrue(ints.contains(-1));
+		ints.setAcceptNullValues(false);
+		Assertions.assertFalse(ints.contains(-1));
+		Assertions.assertFalse(ints.add(-1));
+		
+		DoubleLexicon doubles = new DoubleLexicon(1.0, Double.NaN, 2.0, Double.NaN);
+		Assertions.assertTrue(doubles.isNull(Double.NaN));
+		Assertions.assertEquals(2, doubles.search(Double.NaN).size());
+		doubles.setAcceptNullValues(false);
+		Assertions.assertEquals(new DoubleLexicon(1.0, 2.0), doubles);
+		
+		LongLexicon longs = new LongLexicon(Long.MAX_VALUE, 0L, Long.MAX_VALUE, 0L, 1L);
+		longs.setAcceptDuplicates(false);
+		Assertions.assertEquals(new LongLexicon(Long.MAX_VALUE, 0L, 1L), longs);
+	}
+	
+	@Test
+	void test_handlers() {
+		ArrayList<String> events = new ArrayList<>();
+		ints.addAddHandler((index, element) -> events.add("add " + index + ":" + element));
+		ints.addSetHandler((index, element) -> events.add("set " + index + ":" + element));
+		ints.addRemoveHandler((index, element) -> events.add("remove " + index + ":" + element));
+		
+		ints.add(11);
+		ints.set(0, -1);
+		ints.removeIf(e -> e % 5 == 0);
+		
+		Assertions.assertEquals(Arrays.asList("add 11:11", "set 0:-1", "remove 5:5", "remove 9:10"), events);
+		Assertions.assertEquals(new IntLexicon(-1, 1, 2, 3, 4, 6, 7, 8, 9, 11), ints);
+		
+		ints.retainAll(1, 2, 3);
+		Assertions.assertEquals(new IntLexicon(1, 2, 3), ints);
+		
+		// The null handlers are ignored, and a handler added after a trigger is called by the next one
+		events.clear();
+		ints.getAddHandlers().add(null);
+		ints.add(4);
+		ints.addAddHandler((index, element) -> events.add("again " + index + ":" + element));
+		ints.add(5);
+		Assertions.assertEquals(Arrays.asList("add 3:4", "add 4:5", "again 4:5"), events);
+		Assertions.assertEquals(2, ints.getAddHandlers().size());
+	}
+	
+	@Test
+	void test_capacity() {
+		IntLexicon list = new IntLexicon();
+		list.setGrowthPolicy(GrowthPolicy.step(4));
+		list.addAll(1, 2, 3, 4, 5);
+		Assertions.assertEquals(5, list.capacity());
+		list.add(6);
+		Assertions.assertEquals(9, list.capacity());
+		Assertions.assertEquals(6, list.trimToSize());
+		Assertions.assertEquals(100, list.ensureCapacity(100));
+		
+		// The cost of the additions is measured by PrimitiveLexiconBenchmark
+		LongLexicon large = new LongLexicon();
+		for (long i = 0; i < 1_000_000L; i++)
+			large.add(i);
+		Assertions.assertEquals(1_000_000, large.size());
+		Assertions.assertTrue(large.capacity() >= large.size());
+		Assertions.assertEquals(499_999_500_000L, large.stream().sum());
+	}
+	
+	@Test
+	void test_serialization() throws IOException, ClassNotFoundException {
+		ints.setAcceptDuplicates(false);
+		ints.setNullEquivalent(-1);
+		
+		ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+		try (ObjectOutputStream out = new ObjectOutputStream(bytes)) {
+			out.writeObject(ints);
+		}
+		
+		IntLexicon read;
+		try (ObjectInputStream in = new ObjectInputStream(new ByteArrayInputStream(bytes.toByteArray()))) {
+			read = (IntLexicon) in.readObject();
+		}
+		
+		Assertions.assertEquals(ints, read);
+		Assertions.assertFalse(read.isAcceptDuplicates());
+		Assertions.assertEquals(-1, read.getNullEquivalent());
+		Assertions.assertTrue(read.add(11));
+	}
+}